@@ -4,9 +4,15 @@
  */
 package cli;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Scanner;
 
 import core.config.AppConfig;
+import core.managers.GameBatch;
+import core.managers.GameManager;
+import core.managers.StorageCollector;
 import core.objects.Game;
 import core.utils.Logger;
 
@@ -81,6 +87,14 @@ public class CLIManager {
                         trashHandler.handleCommand(command, args, this);
                         break;
 
+                    case "gc":
+                        collectStorage(new CLIArgs(args));
+                        break;
+
+                    case "batch":
+                        runBatch(args);
+                        break;
+
                     default:
                         if (currentGame == null) {
                             gameHandler.handleCommand(command, args, this);
@@ -114,6 +128,14 @@ public class CLIManager {
         System.out.printf("%-3s, %-10s | %s\n", "-h", "help", "Show this help");
         System.out.printf("%-3s, %-10s | %s\n", "-t", "trash", "trash cleaning tool");
         System.out.printf("%15s | %s\n", "--h", "Specific help");
+        System.out.printf("%-15s | %s\n", "gc", "Reclaim storage no Mod or Game uses anymore");
+        System.out.printf("%15s | %s\n", "[--dry]", "only report what would be reclaimed");
+        System.out.printf("%15s | %s\n", "[--age <hours>]", "only reclaim data older than (default 1)");
+        System.out.printf("%15s | %s\n", "[--max <MB>]", "stop after reclaiming this much");
+        System.out.printf("%-15s | %s\n", "batch <op>", "Run on many games at once: deploy, rebuild, verify, disable");
+        System.out.printf("%15s | %s\n", "[--ids <a,b>]", "target game ids (default all)");
+        System.out.printf("%15s | %s\n", "--state <file>", "GameState to deploy, {id} is each game id");
+        System.out.printf("%15s | %s\n", "[--per-device]", "<n> games at once per drive (default 1)");
         System.out.printf("%-15s | %s\n", "exit / quit", "Exit the program");
 
         if (currentGame == null) {
@@ -152,7 +174,7 @@ public class CLIManager {
             System.out.printf("%15s | %s\n", "--n <number>", "new load order");
 
             System.out.printf("%-3s, %-10s | %s\n", "-c", "compile", "Compile a new mod");
-            System.out.printf("%15s | %s\n", "--dir <name>", "name-only of the directory within temp");
+            System.out.printf("%15s | %s\n", "--dir <name>", "name-only of the directory (or .zip/.jar) within temp");
 
             System.out.printf("%-15s | %s\n", "delete", "Delete a mod from storage, cannot be installed");
             System.out.printf("%15s | %s\n", "--id <target>", "target mod id");
@@ -162,6 +184,42 @@ public class CLIManager {
         }
     }
 
+    /**
+     * Runs the storage collector in the foreground.
+     */
+    private void collectStorage(CLIArgs cli) {
+        StorageCollector collector = new StorageCollector()
+                .setDryRun(cli.hasFlag("dry"))
+                .setMinAge(Duration.ofHours(Long.parseLong(cli.getString("age", "1"))));
+        if (cli.hasFlag("max"))
+            collector.setMaxBytes(Long.parseLong(cli.getString("max", "0")) * 1024 * 1024);
+        System.out.println(collector.collect());
+    } // collectStorage()
+
+    /**
+     * Runs a Mod operation across games, each drive in parallel.
+     */
+    private void runBatch(String[] args) throws Exception {
+        if (args.length < 2 || args[1].startsWith("--"))
+            throw new IllegalArgumentException("Missing batch operation: deploy, rebuild, verify or disable");
+        CLIArgs cli = new CLIArgs(args);
+
+        List<Game> games;
+        if (cli.hasFlag("ids")) {
+            games = new ArrayList<>();
+            for (String id : cli.getRequired("ids").split(","))
+                games.add(GameManager.getGameById(id.trim()));
+        } else {
+            games = GameManager.getAllGames();
+        }
+
+        GameBatch batch = new GameBatch(GameBatch.Operation.fromKey(args[1]))
+                .setPerDevice(Integer.parseInt(cli.getString("per-device", "1")));
+        if (cli.hasFlag("state"))
+            batch.setStateFile(cli.getRequired("state"));
+        System.out.println(batch.run(games == null ? List.of() : games));
+    } // runBatch()
+
     /// /// /// Getters and setters /// /// ///
     public Game getCurrentGame() {
         return currentGame;
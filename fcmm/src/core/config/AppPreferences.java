@@ -25,6 +25,7 @@ public class AppPreferences implements MapSerializable {
         FS_LOCKS("FS_LOCK", "File-System locks", false),
 
         NORMALISE_BY_GROUP("NORMALISE_BY_GROUP", "Normalise mods by groups", true),
+        LIVE_APPLY("LIVE_APPLY", "Apply changes live", false),
 
         TRASH_SIZE_WARNING("TRASH_SIZE_WARNING", "Trash size limit warning", 0),
         TRASH_SIZE_LIMIT("TRASH_SIZE_LIMIT", "Trash size limit", 100),
@@ -0,0 +1,64 @@
+/**
+ * Author Stephanos B
+ * Date 19/10/2026
+ */
+package core.interfaces;
+
+import java.io.IOException;
+
+import core.io.JsonReader;
+import core.io.JsonWriter;
+
+/**
+ * Typed codec for the objects JsonIO reads and writes in bulk. Goes straight
+ * between the file and the fields instead of through
+ * {@link MapSerializable#toMap()} / {@link MapSerializable#setFromMap}, which
+ * remain for patching instances from user Maps.
+ *
+ * @author Stephanos B
+ */
+public interface JsonStreamable {
+
+    /**
+     * Reads a single field into the instance.
+     *
+     * @param name   Key of the field, the reader is positioned at its value.
+     * @param reader Reader to pull the value from.
+     * @return False if the key is not known, the caller will skip the value.
+     */
+    public boolean readJsonField(String name, JsonReader reader) throws IOException;
+
+    /**
+     * Writes only the fields, for when the caller has already opened the Object.
+     */
+    public void writeJsonFields(JsonWriter writer) throws IOException;
+
+    /// /// ///
+
+    /**
+     * Sets fields from the next Object in the reader. Like setFromMap, missing
+     * keys are left as they were and unknown keys are skipped.
+     *
+     * @param reader Reader positioned at the start of this Object.
+     * @return returns itself after being set.
+     */
+    public default JsonStreamable readJson(JsonReader reader) throws IOException {
+        reader.beginObject();
+        while (reader.hasNext()) {
+            if (!readJsonField(reader.nextName(), reader))
+                reader.skipValue();
+        }
+        reader.endObject();
+        return this;
+    } // readJson()
+
+    /**
+     * Writes all fields as a complete Object.
+     */
+    public default void writeJson(JsonWriter writer) throws IOException {
+        writer.beginObject();
+        writeJsonFields(writer);
+        writer.endObject();
+    } // writeJson()
+
+} // Class
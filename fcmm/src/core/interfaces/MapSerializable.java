@@ -51,6 +51,8 @@ public interface MapSerializable {
     public abstract class ObjectTypes {
         public static final String MOD = "Mod";
         public static final String MOD_MANIFEST = "ModManifest";
+        public static final String MOD_CONTENTS = "ModContents";
+        public static final String MOD_CATALOG = "ModCatalog";
         public static final String GAME = "Game";
         public static final String GAME_STATE = "GameState";
         public static final String FILE_LINEAGE = "FileLineage";
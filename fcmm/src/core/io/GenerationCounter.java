@@ -0,0 +1,114 @@
+/**
+ * Author Stephanos B
+ * Date 19/10/2026
+ */
+package core.io;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import core.utils.Logger;
+
+/**
+ * A number shared by every process of the app, kept in an 8 byte file mapped
+ * into memory. Writers {@link #bump()} it after changing what it stands for,
+ * readers compare {@link #get()} with the value they cached at, so checking a
+ * cache is a memory read instead of a file read or stat. Both are atomic across
+ * processes.<br>
+ * <br>
+ * If the file cannot be mapped (eg: a file system without shared mappings)
+ * {@link #get()} returns -1 and callers check their files instead.
+ *
+ * @author Stephanos B
+ * @since v4.0.5
+ */
+public final class GenerationCounter {
+    private static final Logger log = Logger.getInstance();
+    private static final Map<Path, GenerationCounter> counters = new ConcurrentHashMap<>();
+    private static final VarHandle LONG = MethodHandles.byteBufferViewVarHandle(long[].class,
+            ByteOrder.BIG_ENDIAN);
+
+    private final Path file;
+    private MappedByteBuffer buffer; // guarded by this until mapped
+    private volatile boolean mapped = false;
+    private boolean failed = false;
+
+    private GenerationCounter(Path file) {
+        this.file = file;
+    }
+
+    /**
+     * @return The counter kept in a file, mapped on first use.
+     */
+    public static GenerationCounter of(Path file) {
+        return counters.computeIfAbsent(file.toAbsolutePath().normalize(), GenerationCounter::new);
+    }
+
+    /**
+     * @return The current value, or -1 if the counter is unavailable.
+     */
+    public long get() {
+        MappedByteBuffer buf = map();
+        return buf == null ? -1 : (long) LONG.getVolatile(buf, 0);
+    }
+
+    /**
+     * Moves the counter on, telling every process that cached at an older value
+     * to read again.
+     *
+     * @return The new value, or -1 if the counter is unavailable.
+     */
+    public long bump() {
+        MappedByteBuffer buf = map();
+        return buf == null ? -1 : (long) LONG.getAndAdd(buf, 0, 1L) + 1;
+    }
+
+    /**
+     * @return True if the counter is shared, false if callers must check their
+     *         files.
+     */
+    public boolean isAvailable() {
+        return map() != null;
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    /// /// /// Helpers /// /// ///
+
+    /**
+     * @return The mapped file, null if it cannot be.
+     */
+    private MappedByteBuffer map() {
+        if (mapped)
+            return buffer;
+        synchronized (this) {
+            if (mapped || failed)
+                return buffer;
+            try {
+                Files.createDirectories(file.getParent());
+                // The mapping stays valid once the channel closes.
+                try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                        StandardOpenOption.WRITE)) {
+                    buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, Long.BYTES);
+                }
+                mapped = true;
+            } catch (IOException | UnsupportedOperationException e) {
+                failed = true;
+                log.warning("Could not map generation counter, checking files instead: " + file, e);
+            }
+            return buffer;
+        }
+    } // map()
+
+} // Class
@@ -7,8 +7,13 @@ package core.io;
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.FileReader;
-import java.io.FileWriter;
+import java.io.IOException;
 import java.io.InvalidObjectException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -16,15 +21,20 @@ import com.github.cliftonlabs.json_simple.JsonObject;
 import com.github.cliftonlabs.json_simple.Jsoner;
 import com.github.cliftonlabs.json_simple.JsonException;
 
+import core.interfaces.JsonStreamable;
 import core.interfaces.MapSerializable;
 import core.objects.FileLineage;
 import core.objects.Game;
 import core.objects.GameState;
 import core.objects.Mod;
+import core.objects.ModCatalog;
+import core.objects.ModContents;
 import core.objects.ModManifest;
 
 /**
- * Updated version
+ * Updated version. Known object types are read and written through their typed
+ * codecs ({@link JsonStreamable}), the generic Map path is kept for config
+ * files.
  */
 public class JsonIO {
 
@@ -65,36 +75,23 @@ public class JsonIO {
     public static MapSerializable read(File file, String type_string, String cast_type) throws Exception {
         checkReadFile(file);
 
-        JsonObject json;
-        try (FileReader fileReader = new FileReader(file)) {
-            json = (JsonObject) Jsoner.deserialize(fileReader);
-        } catch (JsonException e) {
-            throw new Exception("Failed to parse JSON: " + e.getMessage(), e);
-        }
-
-        String fileType = (String) json.get(MapSerializable.ObjectTypeKey);
-        if (type_string != null && !fileType.equals(type_string))
-            throw new InvalidObjectException("The file does not store the desired Object!");
-        if (cast_type == null)
-            cast_type = fileType;
+        JsonReader reader = JsonReader.of(file.toPath());
+        try {
+            String fileType = reader.findTopLevelString(MapSerializable.ObjectTypeKey);
+            if (type_string != null && !type_string.equals(fileType))
+                throw new InvalidObjectException("The file does not store the desired Object!");
+            if (cast_type == null)
+                cast_type = fileType;
 
-        // Queries the actual file type to allow auto-detection
-        switch (cast_type) {
-            case MapSerializable.ObjectTypes.MOD:
-                return new Mod().setFromMap(json);
-            case MapSerializable.ObjectTypes.MOD_MANIFEST:
-                return new ModManifest().setFromMap(json);
-
-            case MapSerializable.ObjectTypes.GAME:
-                return new Game().setFromMap(json);
-            case MapSerializable.ObjectTypes.GAME_STATE:
-                return new GameState().setFromMap(json);
-
-            case MapSerializable.ObjectTypes.FILE_LINEAGE:
-                return new FileLineage().setFromMap(json);
+            // Queries the actual file type to allow auto-detection
+            MapSerializable object = newInstance(cast_type);
+            ((JsonStreamable) object).readJson(reader);
+            if (object instanceof ModManifest manifest)
+                manifest.bindContents(file.toPath());
+            return object;
 
-            default:
-                throw new IllegalArgumentException("Unknown object type: " + type_string);
+        } catch (IOException e) {
+            throw new Exception("Failed to parse JSON: " + e.getMessage(), e);
         }
     } // read()
 
@@ -120,19 +117,30 @@ public class JsonIO {
         }
         // end of checks...
 
-        Map<String, Object> map = object.toMap();
-        map.put(MapSerializable.ObjectTypeKey, object.getObjectType());
-        JsonObject json = new JsonObject(map);
-
         // Create parent directories if they don't exist
         File parentDir = file.getParentFile();
         if (parentDir != null && !parentDir.exists()) {
             parentDir.mkdirs();
         }
 
-        try (FileWriter writer = new FileWriter(file)) {
-            Jsoner.serialize(json, writer);
+        if (object instanceof ModManifest manifest)
+            writeContents(manifest, file); // before the header that points to it
+
+        if (object instanceof JsonStreamable streamable) {
+            writeAtomic(file, out -> {
+                JsonWriter writer = new JsonWriter(out);
+                writer.beginObject().field(MapSerializable.ObjectTypeKey, object.getObjectType());
+                streamable.writeJsonFields(writer);
+                writer.endObject();
+            });
+            return;
         }
+
+        Map<String, Object> map = object.toMap();
+        map.put(MapSerializable.ObjectTypeKey, object.getObjectType());
+        JsonObject json = new JsonObject(map);
+
+        writeAtomic(file, out -> Jsoner.serialize(json, out));
     } // write()
 
     /// /// /// Helper /// /// ///
@@ -202,13 +210,94 @@ public class JsonIO {
             parentDir.mkdirs();
         }
 
-        try (FileWriter writer = new FileWriter(file)) {
-            Jsoner.serialize(json, writer);
-        }
+        writeAtomic(file, out -> Jsoner.serialize(json, out));
     } // writeHasMap()
 
     /// /// /// Helpers
 
+    @FunctionalInterface
+    private interface WriteBody {
+        void write(Writer out) throws IOException;
+    }
+
+    /**
+     * Writes the file list of a manifest beside its header. Contents that were
+     * never loaded are copied as-is, or skipped if already in place, so
+     * metadata edits don't re-serialize every file entry.
+     *
+     * @param manifest Manifest being written.
+     * @param header   Header file it is being written to.
+     */
+    private static void writeContents(ModManifest manifest, File header) throws Exception {
+        Path target = ModManifest.contentsPathFor(header.toPath()).toAbsolutePath().normalize();
+        Path source = manifest.getContentsSource();
+
+        if (source == null) {
+            write(manifest.getContents(), target.toFile());
+        } else if (!source.toAbsolutePath().normalize().equals(target)) {
+            Path tmp = WriteBatch.tempFileFor(target);
+            try {
+                Files.copy(source, tmp, StandardCopyOption.REPLACE_EXISTING);
+                WriteBatch.commitFile(tmp, target);
+            } finally {
+                Files.deleteIfExists(tmp);
+            }
+        }
+    } // writeContents()
+
+    /**
+     * Writes buffered UTF-8 into a temp file beside the target, then atomically
+     * swaps it in through {@link WriteBatch}. A crash mid-write leaves the old
+     * file intact instead of a torn one.
+     *
+     * @param file Final file to (re)place.
+     * @param body Writes the contents.
+     */
+    private static void writeAtomic(File file, WriteBody body) throws IOException {
+        Path target = file.toPath().toAbsolutePath();
+        Path tmp = WriteBatch.tempFileFor(target);
+        try {
+            try (Writer out = Files.newBufferedWriter(tmp, StandardCharsets.UTF_8)) {
+                body.write(out);
+            }
+            WriteBatch.commitFile(tmp, target);
+        } finally {
+            Files.deleteIfExists(tmp); // only still here on failure
+        }
+    } // writeAtomic()
+
+    /**
+     * @param type_string One of {@link MapSerializable.ObjectTypes}.
+     * @return An empty instance to read into.
+     * @throws IllegalArgumentException When the type_string is unkown
+     */
+    private static MapSerializable newInstance(String type_string) {
+        if (type_string == null)
+            throw new IllegalArgumentException("Unknown object type: " + type_string);
+
+        switch (type_string) {
+            case MapSerializable.ObjectTypes.MOD:
+                return new Mod();
+            case MapSerializable.ObjectTypes.MOD_MANIFEST:
+                return new ModManifest();
+            case MapSerializable.ObjectTypes.MOD_CONTENTS:
+                return new ModContents();
+            case MapSerializable.ObjectTypes.MOD_CATALOG:
+                return new ModCatalog();
+
+            case MapSerializable.ObjectTypes.GAME:
+                return new Game();
+            case MapSerializable.ObjectTypes.GAME_STATE:
+                return new GameState();
+
+            case MapSerializable.ObjectTypes.FILE_LINEAGE:
+                return new FileLineage();
+
+            default:
+                throw new IllegalArgumentException("Unknown object type: " + type_string);
+        }
+    } // newInstance()
+
     private static void checkReadFile(File file) throws Exception {
         if (!file.exists()) {
             throw new InvalidObjectException("File path is not a valid .json path: " + file.toPath().toString());
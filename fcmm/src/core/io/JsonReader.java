@@ -0,0 +1,468 @@
+/**
+ * Author Stephanos B
+ * Date 19/10/2026
+ */
+package core.io;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/**
+ * A minimal pull-parser used by the typed codecs ({@link core.interfaces.JsonStreamable}).
+ * Reads a whole file's bytes once and walks them, handing each value straight
+ * to the caller instead of building a json-simple tree and nested Maps first.
+ * <br>
+ * <br>
+ * Unknown keys should be passed to {@link #skipValue()} so older/newer files
+ * remain readable.<br>
+ * <br>
+ * Separators are strict: exactly one comma between the members of an Object
+ * or the elements of an Array, so a missing, doubled, leading or trailing
+ * comma is an error rather than read past.
+ *
+ * @author Stephanos B
+ */
+public class JsonReader {
+
+    /**
+     * The kinds of value that can be next in the stream.
+     */
+    public enum Token {
+        BEGIN_OBJECT, END_OBJECT, BEGIN_ARRAY, END_ARRAY, STRING, NUMBER, BOOLEAN, NULL, END_DOCUMENT
+    }
+
+    // What is being read, innermost last.
+    private static final int DOCUMENT = 0;
+    private static final int EMPTY_ARRAY = 1;
+    private static final int NONEMPTY_ARRAY = 2; // a comma comes before the next element
+    private static final int EMPTY_OBJECT = 3;
+    private static final int DANGLING_NAME = 4; // a name was read, its value is next
+    private static final int NONEMPTY_OBJECT = 5; // a comma comes before the next member
+
+    private final char[] buf;
+    private final int limit;
+    private int pos = 0;
+    private int[] scopes = new int[16];
+    private int depth = 1; // scopes[0] is the document
+    private boolean commaRead = false; // between a comma and the element after it
+
+    public JsonReader(String json) {
+        this.buf = json.toCharArray();
+        this.limit = buf.length;
+    }
+
+    /**
+     * Reads the whole file as UTF-8.
+     *
+     * @param file File to read.
+     * @return A reader positioned at the start of the document.
+     * @throws IOException
+     */
+    public static JsonReader of(Path file) throws IOException {
+        return new JsonReader(new String(Files.readAllBytes(file), StandardCharsets.UTF_8));
+    }
+
+    /// /// /// Structure /// /// ///
+
+    public void beginObject() throws IOException {
+        begin('{', EMPTY_OBJECT);
+    }
+
+    public void endObject() throws IOException {
+        end('}', EMPTY_OBJECT, NONEMPTY_OBJECT);
+    }
+
+    public void beginArray() throws IOException {
+        begin('[', EMPTY_ARRAY);
+    }
+
+    public void endArray() throws IOException {
+        end(']', EMPTY_ARRAY, NONEMPTY_ARRAY);
+    }
+
+    /**
+     * @return True if the current Object or Array has another element. Consumes
+     *         the separating comma.
+     */
+    public boolean hasNext() throws IOException {
+        skipSeparator();
+        if (pos >= limit)
+            throw error("Unexpected end of document");
+        char c = buf[pos];
+        return c != '}' && c != ']';
+    }
+
+    /**
+     * Reads the next key inside an Object, including the {@code :} after it.
+     */
+    public String nextName() throws IOException {
+        beforeName();
+        String name = readString();
+        expect(':');
+        return name;
+    }
+
+    /**
+     * @return The type of the next value without consuming it.
+     */
+    public Token peek() throws IOException {
+        skipSeparator();
+        if (pos >= limit)
+            return Token.END_DOCUMENT;
+        switch (buf[pos]) {
+            case '{':
+                return Token.BEGIN_OBJECT;
+            case '}':
+                return Token.END_OBJECT;
+            case '[':
+                return Token.BEGIN_ARRAY;
+            case ']':
+                return Token.END_ARRAY;
+            case '"':
+                return Token.STRING;
+            case 't':
+            case 'f':
+                return Token.BOOLEAN;
+            case 'n':
+                return Token.NULL;
+            default:
+                return Token.NUMBER;
+        }
+    } // peek()
+
+    /// /// /// Values /// /// ///
+
+    /**
+     * @return The next String, or null for a JSON {@code null}. Numbers and
+     *         booleans are returned as their literal text.
+     */
+    public String nextString() throws IOException {
+        Token token = peek();
+        beforeValue();
+        switch (token) {
+            case STRING:
+                return readString();
+            case NULL:
+                readLiteral("null");
+                return null;
+            case NUMBER:
+            case BOOLEAN:
+                return readBareWord();
+            default:
+                throw error("Expected a String");
+        }
+    } // nextString()
+
+    public long nextLong() throws IOException {
+        Token token = peek();
+        beforeValue();
+        String text = token == Token.STRING ? readString() : null;
+        if (text == null) {
+            if (token != Token.NUMBER)
+                throw error("Expected a Number");
+
+            // fast path for plain integers
+            int start = pos;
+            boolean negative = buf[pos] == '-';
+            if (negative)
+                pos++;
+            long value = 0;
+            while (pos < limit && buf[pos] >= '0' && buf[pos] <= '9') {
+                value = value * 10 + (buf[pos++] - '0');
+            }
+            if (pos >= limit || !isNumberChar(buf[pos]))
+                return negative ? -value : value;
+
+            pos = start;
+            text = readBareWord();
+        }
+        try {
+            return Long.parseLong(text.trim());
+        } catch (NumberFormatException e) {
+            return (long) Double.parseDouble(text.trim());
+        }
+    } // nextLong()
+
+    public int nextInt() throws IOException {
+        return (int) nextLong();
+    }
+
+    public boolean nextBoolean() throws IOException {
+        Token token = peek();
+        beforeValue();
+        if (token == Token.STRING)
+            return Boolean.parseBoolean(readString());
+        if (buf[pos] == 't') {
+            readLiteral("true");
+            return true;
+        }
+        readLiteral("false");
+        return false;
+    }
+
+    /**
+     * Consumes a JSON {@code null} if it is next.
+     *
+     * @return True if a null was consumed.
+     */
+    public boolean nextNullIf() throws IOException {
+        if (peek() != Token.NULL)
+            return false;
+        beforeValue();
+        readLiteral("null");
+        return true;
+    }
+
+    /**
+     * Skips the next value, including any nested Objects or Arrays, without
+     * allocating them.
+     */
+    public void skipValue() throws IOException {
+        int nested = 0;
+        do {
+            switch (peek()) {
+                case BEGIN_OBJECT:
+                    beginObject();
+                    nested++;
+                    break;
+                case BEGIN_ARRAY:
+                    beginArray();
+                    nested++;
+                    break;
+                case END_OBJECT:
+                    endObject();
+                    nested--;
+                    break;
+                case END_ARRAY:
+                    endArray();
+                    nested--;
+                    break;
+                case STRING:
+                    if (scopes[depth - 1] == EMPTY_OBJECT || scopes[depth - 1] == NONEMPTY_OBJECT) {
+                        beforeName(); // a key, the value follows
+                        skipString();
+                        expect(':');
+                        continue;
+                    }
+                    beforeValue();
+                    skipString();
+                    break;
+                case NULL:
+                case BOOLEAN:
+                case NUMBER:
+                    beforeValue();
+                    readBareWord();
+                    break;
+                default:
+                    throw error("Unexpected end of document");
+            }
+        } while (nested > 0);
+    } // skipValue()
+
+    /**
+     * Scans the top-level Object for a String field without building anything.
+     * The reader position is left untouched.
+     *
+     * @param key Top-level key to look for.
+     * @return The value, or null if missing.
+     */
+    public String findTopLevelString(String key) throws IOException {
+        int mark = pos;
+        int markDepth = depth;
+        int markScope = scopes[depth - 1];
+        boolean markComma = commaRead;
+        try {
+            beginObject();
+            while (hasNext()) {
+                if (nextName().equals(key))
+                    return nextString();
+                skipValue();
+            }
+            return null;
+        } finally {
+            pos = mark;
+            depth = markDepth;
+            scopes[depth - 1] = markScope;
+            commaRead = markComma;
+        }
+    } // findTopLevelString()
+
+    /// /// /// Helpers /// /// ///
+
+    /**
+     * Skips whitespace and, after an element, the one comma that must come
+     * before the next. Can be called again before the element is read.
+     */
+    private void skipSeparator() throws IOException {
+        skipWhitespace();
+        int scope = scopes[depth - 1];
+        if (!commaRead && (scope == NONEMPTY_ARRAY || scope == NONEMPTY_OBJECT) && pos < limit) {
+            if (buf[pos] == ',') {
+                pos++;
+                commaRead = true;
+                skipWhitespace();
+            } else if (buf[pos] != ']' && buf[pos] != '}') {
+                throw error("Expected ','");
+            }
+        }
+        if (pos < limit && buf[pos] == ',')
+            throw error("Unexpected ','");
+    } // skipSeparator()
+
+    private void begin(char open, int scope) throws IOException {
+        skipSeparator();
+        beforeValue();
+        expect(open);
+        if (depth == scopes.length)
+            scopes = Arrays.copyOf(scopes, depth * 2);
+        scopes[depth++] = scope;
+    }
+
+    private void end(char close, int empty, int nonEmpty) throws IOException {
+        skipSeparator();
+        int scope = scopes[depth - 1];
+        if (scope != empty && scope != nonEmpty)
+            throw error("Unexpected '" + close + "'");
+        if (commaRead)
+            throw error("Unexpected ',' before '" + close + "'");
+        expect(close);
+        depth--;
+    }
+
+    /**
+     * Marks a member's name as read, after the comma before it.
+     */
+    private void beforeName() throws IOException {
+        skipSeparator();
+        int scope = scopes[depth - 1];
+        if (scope != EMPTY_OBJECT && scope != NONEMPTY_OBJECT)
+            throw error("Unexpected name");
+        scopes[depth - 1] = DANGLING_NAME;
+        commaRead = false;
+    }
+
+    /**
+     * Marks a value as read, so a comma must come before the next element.
+     */
+    private void beforeValue() throws IOException {
+        switch (scopes[depth - 1]) {
+            case EMPTY_ARRAY:
+                scopes[depth - 1] = NONEMPTY_ARRAY;
+                break;
+            case DANGLING_NAME:
+                scopes[depth - 1] = NONEMPTY_OBJECT;
+                break;
+            case EMPTY_OBJECT:
+            case NONEMPTY_OBJECT:
+                throw error("Expected a name");
+            default: // the document, or an Array already read from
+        }
+        commaRead = false;
+    } // beforeValue()
+
+    private void skipWhitespace() {
+        while (pos < limit && (buf[pos] == ' ' || buf[pos] == '\n' || buf[pos] == '\r' || buf[pos] == '\t'))
+            pos++;
+    }
+
+    private void expect(char c) throws IOException {
+        skipWhitespace();
+        if (pos >= limit || buf[pos] != c)
+            throw error("Expected '" + c + "'");
+        pos++;
+    }
+
+    private String readString() throws IOException {
+        expect('"');
+        int start = pos;
+        // fast path, no escapes
+        while (pos < limit) {
+            char c = buf[pos];
+            if (c == '"') {
+                return new String(buf, start, pos++ - start);
+            }
+            if (c == '\\')
+                break;
+            pos++;
+        }
+
+        StringBuilder sb = new StringBuilder(pos - start + 16);
+        sb.append(buf, start, pos - start);
+        while (pos < limit) {
+            char c = buf[pos++];
+            if (c == '"')
+                return sb.toString();
+            if (c != '\\') {
+                sb.append(c);
+                continue;
+            }
+            if (pos >= limit)
+                break;
+            char esc = buf[pos++];
+            switch (esc) {
+                case 'n':
+                    sb.append('\n');
+                    break;
+                case 't':
+                    sb.append('\t');
+                    break;
+                case 'r':
+                    sb.append('\r');
+                    break;
+                case 'b':
+                    sb.append('\b');
+                    break;
+                case 'f':
+                    sb.append('\f');
+                    break;
+                case 'u':
+                    if (pos + 4 > limit)
+                        throw error("Bad unicode escape");
+                    sb.append((char) Integer.parseInt(new String(buf, pos, 4), 16));
+                    pos += 4;
+                    break;
+                default: // \" \\ \/
+                    sb.append(esc);
+            }
+        }
+        throw error("Unterminated String");
+    } // readString()
+
+    private void skipString() throws IOException {
+        expect('"');
+        while (pos < limit) {
+            char c = buf[pos++];
+            if (c == '"')
+                return;
+            if (c == '\\')
+                pos++;
+        }
+        throw error("Unterminated String");
+    }
+
+    private String readBareWord() {
+        int start = pos;
+        while (pos < limit && isNumberChar(buf[pos]))
+            pos++;
+        return new String(buf, start, pos - start);
+    }
+
+    private void readLiteral(String literal) throws IOException {
+        if (pos + literal.length() > limit || !new String(buf, pos, literal.length()).equals(literal))
+            throw error("Expected " + literal);
+        pos += literal.length();
+    }
+
+    private static boolean isNumberChar(char c) {
+        return (c >= '0' && c <= '9') || (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z')
+                || c == '-' || c == '+' || c == '.';
+    }
+
+    private IOException error(String message) {
+        return new IOException(message + " at position " + pos);
+    }
+
+} // Class
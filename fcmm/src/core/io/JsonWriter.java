@@ -0,0 +1,148 @@
+/**
+ * Author Stephanos B
+ * Date 19/10/2026
+ */
+package core.io;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Counterpart to {@link JsonReader}. Writes values straight to the underlying
+ * Writer, so typed codecs don't need to build a Map of every field first.
+ * Handles the commas, the caller only needs to open/close and name things.
+ *
+ * @author Stephanos B
+ */
+public class JsonWriter {
+
+    private final Writer out;
+    private boolean needsComma = false;
+
+    public JsonWriter(Writer out) {
+        this.out = out;
+    }
+
+    /// /// /// Structure /// /// ///
+
+    public JsonWriter beginObject() throws IOException {
+        separate();
+        out.write('{');
+        needsComma = false;
+        return this;
+    }
+
+    public JsonWriter endObject() throws IOException {
+        out.write('}');
+        needsComma = true;
+        return this;
+    }
+
+    public JsonWriter beginArray() throws IOException {
+        separate();
+        out.write('[');
+        needsComma = false;
+        return this;
+    }
+
+    public JsonWriter endArray() throws IOException {
+        out.write(']');
+        needsComma = true;
+        return this;
+    }
+
+    public JsonWriter name(String name) throws IOException {
+        separate();
+        writeString(name);
+        out.write(':');
+        needsComma = false;
+        return this;
+    }
+
+    /// /// /// Values /// /// ///
+
+    public JsonWriter value(String value) throws IOException {
+        separate();
+        if (value == null)
+            out.write("null");
+        else
+            writeString(value);
+        needsComma = true;
+        return this;
+    }
+
+    public JsonWriter value(long value) throws IOException {
+        separate();
+        out.write(Long.toString(value));
+        needsComma = true;
+        return this;
+    }
+
+    public JsonWriter value(boolean value) throws IOException {
+        separate();
+        out.write(value ? "true" : "false");
+        needsComma = true;
+        return this;
+    }
+
+    /**
+     * Shorthand for {@code name(name).value(value)}.
+     */
+    public JsonWriter field(String name, String value) throws IOException {
+        return name(name).value(value);
+    }
+
+    public JsonWriter field(String name, long value) throws IOException {
+        return name(name).value(value);
+    }
+
+    /// /// /// Helpers /// /// ///
+
+    private void separate() throws IOException {
+        if (needsComma)
+            out.write(',');
+    }
+
+    private void writeString(String value) throws IOException {
+        out.write('"');
+        int start = 0;
+        int len = value.length();
+        for (int i = 0; i < len; i++) {
+            char c = value.charAt(i);
+            String esc;
+            switch (c) {
+                case '"':
+                    esc = "\\\"";
+                    break;
+                case '\\':
+                    esc = "\\\\";
+                    break;
+                case '\n':
+                    esc = "\\n";
+                    break;
+                case '\r':
+                    esc = "\\r";
+                    break;
+                case '\t':
+                    esc = "\\t";
+                    break;
+                case '\b':
+                    esc = "\\b";
+                    break;
+                case '\f':
+                    esc = "\\f";
+                    break;
+                default:
+                    if (c >= 0x20)
+                        continue;
+                    esc = String.format("\\u%04x", (int) c);
+            }
+            out.write(value, start, i - start);
+            out.write(esc);
+            start = i + 1;
+        }
+        out.write(value, start, len - start);
+        out.write('"');
+    } // writeString()
+
+} // Class
@@ -0,0 +1,282 @@
+/**
+ * Author Stephanos B
+ * Date 19/10/2026
+ */
+package core.io;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+import core.utils.Logger;
+
+/**
+ * Group commit for the files written during one operation (deploy, disable,
+ * etc.). Instead of every lineage/manifest write paying for its own fsync, the
+ * written files are remembered and flushed together when the outermost batch
+ * closes.<br>
+ * <br>
+ * Writes outside any batch are synced individually, so one-off saves (Games,
+ * config) keep full durability.
+ *
+ * <pre>
+ * final WriteBatch batch = WriteBatch.begin(game.getDurability());
+ * try {
+ *     ...
+ * } finally {
+ *     batch.close();
+ * }
+ * </pre>
+ *
+ * @author Stephanos B
+ */
+public class WriteBatch implements AutoCloseable {
+
+    /**
+     * How hard a Game's files are pushed to disk. Trades safety after a crash or
+     * power loss against throughput.
+     */
+    public enum Durability {
+        /** Atomic replace only, leave flushing to the OS. Fastest. */
+        NONE("none"),
+        /** Flush all files written in an operation once, when it finishes. */
+        BATCHED("batched"),
+        /** Flush every file as it is written. Slowest. */
+        SYNC("sync");
+
+        private final String key;
+
+        private Durability(String key) {
+            this.key = key;
+        }
+
+        public String key() {
+            return this.key;
+        }
+
+        /**
+         * @return The matching Durability, or {@link #BATCHED} if unkown.
+         */
+        public static Durability fromKey(String key) {
+            for (Durability d : values()) {
+                if (d.key.equalsIgnoreCase(key) || d.name().equalsIgnoreCase(key))
+                    return d;
+            }
+            return BATCHED;
+        }
+
+        /**
+         * @return All keys, for dropdowns.
+         */
+        public static String[] keys() {
+            String[] keys = new String[values().length];
+            for (int i = 0; i < keys.length; i++)
+                keys[i] = values()[i].key;
+            return keys;
+        }
+    } // Durability enum
+
+    private static final ThreadLocal<WriteBatch> current = new ThreadLocal<>();
+
+    private final Durability durability;
+    private final Set<Path> files = ConcurrentHashMap.newKeySet();
+    private final Set<Path> dirs = ConcurrentHashMap.newKeySet();
+    private final Thread owner = Thread.currentThread();
+    private int depth = 1;
+
+    private WriteBatch(Durability durability) {
+        this.durability = durability;
+    }
+
+    /**
+     * Starts a batch on this thread, or joins the one already open so nested
+     * operations (deployGameState -> deployMod) commit once at the end.
+     *
+     * @param durability Durability of the Game being worked on.
+     */
+    public static WriteBatch begin(Durability durability) {
+        WriteBatch batch = current.get();
+        if (batch != null) {
+            synchronized (batch) {
+                batch.depth++;
+            }
+            return batch;
+        }
+        batch = new WriteBatch(durability == null ? Durability.BATCHED : durability);
+        current.set(batch);
+        return batch;
+    } // begin()
+
+    /**
+     * @return The batch open on this thread or null.
+     */
+    public static WriteBatch current() {
+        return current.get();
+    }
+
+    /**
+     * Lets a worker thread write into a batch opened by another thread. Close
+     * the returned batch on the worker when done; only the owner commits.
+     */
+    public static WriteBatch join(WriteBatch batch) {
+        if (batch == null)
+            return null;
+        current.set(batch);
+        synchronized (batch) {
+            batch.depth++;
+        }
+        return batch;
+    }
+
+    /// /// /// Writing /// /// ///
+
+    /**
+     * Creates an empty temp file beside a target, to write and then
+     * {@link #commitFile(Path, Path)} over it. It takes the target's
+     * permissions, or those of any new file if there is no target yet, instead
+     * of the owner-only ones of {@code Files.createTempFile}, so replacing a
+     * file does not change who can read it.
+     *
+     * @param target File the temp file will replace.
+     * @throws IOException If it could not be created.
+     */
+    public static Path tempFileFor(Path target) throws IOException {
+        final Path dir = target.toAbsolutePath().getParent();
+        final String prefix = "." + target.getFileName() + ".";
+        Path tmp;
+        while (true) {
+            tmp = dir.resolve(prefix + Long.toUnsignedString(ThreadLocalRandom.current().nextLong(), 36) + ".tmp");
+            try {
+                Files.createFile(tmp);
+                break;
+            } catch (FileAlreadyExistsException e) {
+                // Taken, try another name
+            }
+        }
+        PosixFileAttributeView view = Files.getFileAttributeView(target, PosixFileAttributeView.class);
+        if (view != null && Files.exists(target)) {
+            try {
+                Files.setPosixFilePermissions(tmp, view.readAttributes().permissions());
+            } catch (IOException | UnsupportedOperationException e) {
+                // Keeps the permissions of a new file
+            }
+        }
+        return tmp;
+    } // tempFileFor()
+
+    /**
+     * Atomically replaces the target with a fully written temp file from the
+     * same directory, syncing as the active Durability requires.
+     *
+     * @param tmp    Completely written temp file.
+     * @param target File to replace.
+     * @throws IOException
+     */
+    public static void commitFile(Path tmp, Path target) throws IOException {
+        WriteBatch batch = current.get();
+        Durability durability = batch == null ? Durability.SYNC : batch.durability;
+
+        if (durability == Durability.SYNC)
+            force(tmp, false);
+
+        try {
+            Files.move(tmp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+
+        if (durability == Durability.SYNC)
+            force(target.toAbsolutePath().getParent(), true);
+        else if (durability == Durability.BATCHED)
+            batch.add(target);
+    } // commitFile()
+
+    /**
+     * Records a file written by other means (copies into the game directory) so
+     * it is flushed with the rest of the batch. Does nothing outside a batch.
+     */
+    public static void register(Path file) {
+        WriteBatch batch = current.get();
+        if (batch == null || batch.durability == Durability.NONE)
+            return;
+        if (batch.durability == Durability.SYNC) {
+            force(file, false);
+            force(file.toAbsolutePath().getParent(), true);
+        } else
+            batch.add(file);
+    }
+
+    private void add(Path file) {
+        files.add(file);
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null)
+            dirs.add(parent);
+    }
+
+    /// /// ///
+
+    /**
+     * Flushes everything written in the batch, then the directories holding
+     * them, so renames are durable too. Files since removed are skipped.
+     */
+    public synchronized void commit() {
+        if (files.isEmpty())
+            return;
+        long start = System.nanoTime();
+        int count = files.size();
+
+        for (Path file : files)
+            force(file, false);
+        for (Path dir : dirs)
+            force(dir, true);
+        files.clear();
+        dirs.clear();
+
+        Logger.getInstance().info(null,
+                String.format("Group commit: flushed %d files in %d ms", count, (System.nanoTime() - start) / 1_000_000));
+    } // commit()
+
+    @Override
+    public void close() {
+        boolean last;
+        synchronized (this) {
+            last = --depth == 0;
+        }
+        // joined workers always leave, the owner only once it's done.
+        if (current.get() == this && (last || Thread.currentThread() != owner))
+            current.remove();
+        if (last)
+            commit();
+    } // close()
+
+    public Durability getDurability() {
+        return durability;
+    }
+
+    /// /// /// Helpers /// /// ///
+
+    /**
+     * fsync, ignoring failures from files that have since moved and from
+     * platforms that can't open directories.
+     */
+    private static void force(Path path, boolean directory) {
+        if (path == null || !Files.exists(path))
+            return;
+        try (FileChannel channel = FileChannel.open(path,
+                directory ? StandardOpenOption.READ : StandardOpenOption.WRITE)) {
+            channel.force(true);
+        } catch (IOException e) {
+            // Windows can't open directories, the rename is still atomic.
+        }
+    } // force()
+
+} // Class
@@ -0,0 +1,187 @@
+/**
+ * Author Stephanos B
+ * Date 19/10/2026
+ */
+package core.managers;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import core.objects.Game;
+import core.objects.GameStateSnapshot;
+import core.objects.Mod;
+
+/**
+ * Applies toggles and reorders of a Game's Mods as they are made, without a
+ * deploy per click. Changes staged within a short window of each other are
+ * applied together as one {@link GameQueue} command, which deploys only the
+ * difference between the committed GameState and the one wanted.<br>
+ * <br>
+ * Only the latest change to a Mod counts, so opposite changes cancel out:
+ * enabling a Mod and disabling it again before the window ends leaves the Game
+ * untouched. Changes staged while a run is applying wait for it, then go
+ * together in the next. A burst of clicks so costs about one apply.
+ *
+ * @author Stephanos B
+ * @since v4.0.5
+ */
+public class ChangeCoalescer {
+    private static final Map<String, ChangeCoalescer> coalescers = new ConcurrentHashMap<>();
+    private static final ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "change-coalescer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final GameQueue queue;
+    private long windowMillis = 400;
+    private long maxDelayMillis = 2000;
+
+    private final Map<String, Mod> wanted = new LinkedHashMap<>(); // guarded by this
+    private CompletableFuture<GameStateSnapshot.Diff> next = new CompletableFuture<>(); // guarded by this
+    private ScheduledFuture<?> scheduled; // guarded by this
+    private long firstStaged; // guarded by this
+    private boolean applying = false; // guarded by this
+
+    private ChangeCoalescer(GameQueue queue) {
+        this.queue = queue;
+    }
+
+    /**
+     * @return The coalescer of a Game, made on first use, applying through its
+     *         {@link GameQueue}.
+     */
+    public static ChangeCoalescer of(Game game) {
+        GameQueue queue = GameQueue.of(game);
+        return coalescers.computeIfAbsent(game.getId(), id -> new ChangeCoalescer(queue));
+    }
+
+    /// /// /// Options /// /// ///
+
+    /**
+     * @param windowMillis   Quiet time after the last change before applying.
+     * @param maxDelayMillis Longest a change waits while changes keep coming.
+     */
+    public synchronized ChangeCoalescer setWindow(long windowMillis, long maxDelayMillis) {
+        this.windowMillis = Math.max(0, windowMillis);
+        this.maxDelayMillis = Math.max(this.windowMillis, maxDelayMillis);
+        return this;
+    }
+
+    /// /// /// Staging /// /// ///
+
+    /**
+     * Stages Mods as they should be: enabled at their load order, or disabled.
+     * Replaces whatever was staged for them before.
+     *
+     * @param mods Mods toggled or moved, or all of them.
+     * @return Completes with what was changed once the run including these is
+     *         applied, or exceptionally with what the deploy threw.
+     */
+    public synchronized CompletableFuture<GameStateSnapshot.Diff> stage(Collection<Mod> mods) {
+        for (Mod mod : mods) {
+            Mod copy = new Mod().setFromMap(mod.toMap());
+            copy.setEnabled(Boolean.TRUE.equals(mod.isEnabled()));
+            wanted.put(mod.getId(), copy);
+        }
+        schedule();
+        return next;
+    } // stage()
+
+    /**
+     * Applies what is staged now, without waiting out the window.
+     *
+     * @return As {@link #stage(Collection)}.
+     */
+    public CompletableFuture<GameStateSnapshot.Diff> flush() {
+        final Map<String, Mod> run;
+        final CompletableFuture<GameStateSnapshot.Diff> done;
+        synchronized (this) {
+            if (scheduled != null) {
+                scheduled.cancel(false);
+                scheduled = null;
+            }
+            if (applying)
+                return next; // goes once the run applying ends
+            done = next;
+            next = new CompletableFuture<>();
+            if (wanted.isEmpty()) {
+                done.complete(GameStateSnapshot.empty().diff(GameStateSnapshot.empty())); // nothing changed
+                return done;
+            }
+            run = new LinkedHashMap<>(wanted);
+            wanted.clear();
+            applying = true;
+        }
+
+        queue.submit(manager -> apply(manager, run.values())).whenComplete((diff, e) -> {
+            synchronized (this) {
+                applying = false;
+                if (!wanted.isEmpty())
+                    schedule();
+            }
+            if (e != null)
+                done.completeExceptionally(e);
+            else
+                done.complete(diff);
+        });
+        return done;
+    } // flush()
+
+    /**
+     * @return Mods staged and not yet applying.
+     */
+    public synchronized int getStagedCount() {
+        return wanted.size();
+    }
+
+    /// /// /// Helpers /// /// ///
+
+    /**
+     * (Re)starts the window, cut short so the oldest change waits at most the
+     * max delay. Does nothing while a run applies, it schedules on ending.
+     */
+    private void schedule() {
+        if (applying)
+            return;
+        final long now = System.currentTimeMillis();
+        if (scheduled == null)
+            firstStaged = now;
+        else
+            scheduled.cancel(false);
+        final long delay = Math.min(windowMillis, Math.max(0, firstStaged + maxDelayMillis - now));
+        scheduled = timer.schedule(this::flush, delay, TimeUnit.MILLISECONDS);
+    } // schedule()
+
+    /**
+     * Deploys the smallest change from the committed GameState to the one
+     * wanted. Mods already as wanted are left out, so a run of changes that
+     * cancel out deploys nothing.
+     *
+     * @return What was changed.
+     */
+    private static GameStateSnapshot.Diff apply(ModManager manager, Collection<Mod> mods) throws Exception {
+        final GameStateSnapshot before = GameStateSnapshot.of(manager.getCommittedState());
+        GameStateSnapshot after = before;
+        for (Mod mod : mods) {
+            GameStateSnapshot.Entry current = after.get(mod.getId());
+            if (!mod.isEnabled())
+                after = after.without(mod.getId());
+            else if (current == null || current.getLoadOrder() != mod.getLoadOrder())
+                after = after.with(mod);
+        }
+
+        final GameStateSnapshot.Diff diff = after.diff(before);
+        if (!diff.isEmpty())
+            manager.deployGameState(after.toGameState());
+        return diff;
+    } // apply()
+
+} // Class
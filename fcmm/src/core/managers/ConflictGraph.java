@@ -0,0 +1,138 @@
+/**
+ * Author Stephanos B
+ * Date 19/10/2026
+ */
+package core.managers;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+import core.objects.ModFile;
+import core.objects.ModManifest;
+import core.utils.FileUtil;
+
+/**
+ * Which of a list of Mods, in the order they are deployed, touch the same
+ * files. Two Mods conflict if a file of one is, or is in a directory that is,
+ * a file of the other; their files then share a {@code FileLineage} and must
+ * be deployed in order. Mods with no conflicts before them can be deployed
+ * side by side.<br>
+ * <br>
+ * Built from the manifests in one pass, looking each file and the directories
+ * above it up in an index of the files before it. Paths are compared as the
+ * game directory resolves them: where its file system ignores case,
+ * {@code Data/a.txt} and {@code data/A.txt} are the same file and conflict.
+ *
+ * @author Stephanos B
+ * @since v4.0.5
+ */
+public class ConflictGraph {
+    private final List<ModManifest> mods;
+    private final List<Set<Integer>> before; // earlier Mods each conflicts with
+    private final int depth;
+
+    private ConflictGraph(List<ModManifest> mods, List<Set<Integer>> before) {
+        this.mods = mods;
+        this.before = before;
+        int[] level = new int[mods.size()];
+        int deepest = mods.isEmpty() ? 0 : 1;
+        for (int i = 0; i < mods.size(); i++) {
+            for (int j : before.get(i))
+                level[i] = Math.max(level[i], level[j] + 1);
+            deepest = Math.max(deepest, level[i] + 1);
+        }
+        this.depth = deepest;
+    }
+
+    /**
+     * @param ordered  Manifests in the order they are to be deployed.
+     * @param gameRoot Directory the Mods are deployed into, its file system
+     *                 decides whether paths differing in case conflict.
+     */
+    public static ConflictGraph of(List<ModManifest> ordered, Path gameRoot) {
+        final boolean ignoreCase = FileUtil.isCaseInsensitive(gameRoot);
+        final Map<Path, List<Integer>> files = new HashMap<>();
+        final Map<Path, List<Integer>> dirs = new HashMap<>(); // directories above files
+        final List<Set<Integer>> before = new ArrayList<>(ordered.size());
+
+        for (int i = 0; i < ordered.size(); i++) {
+            Set<Integer> conflicts = new LinkedHashSet<>();
+            List<Path> own = filesOf(ordered.get(i), ignoreCase);
+            for (Path file : own) {
+                conflicts.addAll(files.getOrDefault(file, List.of()));
+                conflicts.addAll(dirs.getOrDefault(file, List.of()));
+                for (Path dir = file.getParent(); dir != null; dir = dir.getParent())
+                    conflicts.addAll(files.getOrDefault(dir, List.of()));
+            }
+            conflicts.remove(i);
+            before.add(Collections.unmodifiableSet(conflicts));
+
+            for (Path file : own) {
+                add(files, file, i);
+                for (Path dir = file.getParent(); dir != null; dir = dir.getParent())
+                    add(dirs, dir, i);
+            }
+        }
+        return new ConflictGraph(List.copyOf(ordered), before);
+    } // of()
+
+    /// /// /// Reading /// /// ///
+
+    /**
+     * @return The Mods, in deploy order.
+     */
+    public List<ModManifest> getMods() {
+        return mods;
+    }
+
+    public int size() {
+        return mods.size();
+    }
+
+    /**
+     * @return Indexes of the earlier Mods the Mod at an index conflicts with,
+     *         which must be deployed before it.
+     */
+    public Set<Integer> getConflicts(int index) {
+        return before.get(index);
+    }
+
+    /**
+     * @return Length of the longest chain of conflicting Mods, the fewest
+     *         rounds the Mods can be deployed in. 1 if none conflict.
+     */
+    public int getDepth() {
+        return depth;
+    }
+
+    /// /// /// Helpers /// /// ///
+
+    /**
+     * @param ignoreCase Lower case every path, so names differing only in case
+     *                   are the same key.
+     */
+    private static List<Path> filesOf(ModManifest manifest, boolean ignoreCase) {
+        List<Path> files = new ArrayList<>();
+        if (manifest.getContents() == null)
+            return files;
+        for (ModFile mf : manifest.getContents()) {
+            Path file = mf.getFilePath().normalize();
+            files.add(ignoreCase ? Path.of(file.toString().toLowerCase(Locale.ROOT)) : file);
+        }
+        return files;
+    }
+
+    private static void add(Map<Path, List<Integer>> index, Path path, int mod) {
+        List<Integer> mods = index.computeIfAbsent(path, k -> new ArrayList<>(1));
+        if (mods.isEmpty() || mods.get(mods.size() - 1) != mod)
+            mods.add(mod);
+    }
+
+} // Class
@@ -0,0 +1,343 @@
+/**
+ * Author Stephanos B
+ * Date 19/10/2026
+ */
+package core.managers;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import core.config.AppConfig;
+import core.objects.Game;
+import core.objects.GameState;
+import core.objects.Mod;
+import core.utils.Logger;
+
+/**
+ * Runs one Mod operation across many Games at once. Games are grouped by the
+ * device (file store) their directory is on, and each device gets at most
+ * {@link #setPerDevice(int)} Games at a time, so Games on separate drives run
+ * side by side while Games sharing a drive do not fight over it. A batch over
+ * Games on separate drives takes about as long as its slowest Game.<br>
+ * <br>
+ * Each Game is run on its {@link GameQueue}, after any changes already queued
+ * for it, and holds its own Game lock, so one Game failing does not stop the
+ * others. The {@link Report} has a
+ * {@link Result} for every Game, in the order given.
+ *
+ * @author Stephanos B
+ * @since v4.0.5
+ */
+public class GameBatch {
+    private static final AppConfig config = AppConfig.getInstance();
+    private static final Logger log = Logger.getInstance();
+
+    /**
+     * What to run on every Game.
+     */
+    public enum Operation {
+        /** Deploy the GameState from {@link GameBatch#setStateFile(String)}. */
+        DEPLOY("deploy"),
+        /** Trash every deployed Mod, then deploy the Game's GameState again. */
+        REBUILD("rebuild"),
+        /** Check deployed files against their manifests, see {@link ModManager#verifyDeployment()}. */
+        VERIFY("verify"),
+        /** Trash every deployed Mod. */
+        DISABLE_ALL("disable");
+
+        private final String key;
+
+        private Operation(String key) {
+            this.key = key;
+        }
+
+        public String getKey() {
+            return key;
+        }
+
+        public static Operation fromKey(String key) {
+            for (Operation op : values())
+                if (op.key.equalsIgnoreCase(key))
+                    return op;
+            throw new IllegalArgumentException("Unknown batch operation: " + key);
+        }
+    } // Operation
+
+    private final Operation operation;
+    private int perDevice = 1;
+    private String stateFile;
+
+    /**
+     * The outcome for one Game.
+     */
+    public static class Result {
+        private final String gameId;
+        private final String device;
+        private boolean success = false;
+        private boolean ran = false;
+        private long millis = 0;
+        private String message = "Not run";
+        private List<Path> problems = List.of();
+
+        private Result(String gameId, String device) {
+            this.gameId = gameId;
+            this.device = device;
+        }
+
+        public String getGameId() {
+            return gameId;
+        }
+
+        /**
+         * @return The device the Game was grouped under.
+         */
+        public String getDevice() {
+            return device;
+        }
+
+        public boolean isSuccess() {
+            return success;
+        }
+
+        /**
+         * @return False if the batch was stopped before the Game's turn.
+         */
+        public boolean hasRun() {
+            return ran;
+        }
+
+        public long getMillis() {
+            return millis;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+
+        /**
+         * @return Files that failed verification, empty for other operations.
+         */
+        public List<Path> getProblems() {
+            return problems;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%-20s | %-4s | %6.1fs | %s", gameId, success ? "OK" : "FAIL", millis / 1000f,
+                    message);
+        }
+    } // Result
+
+    /**
+     * The outcome of a batch, one {@link Result} per Game.
+     */
+    public static class Report {
+        private final Operation operation;
+        private final List<Result> results;
+        private final long millis;
+
+        private Report(Operation operation, List<Result> results, long millis) {
+            this.operation = operation;
+            this.results = results;
+            this.millis = millis;
+        }
+
+        public List<Result> getResults() {
+            return results;
+        }
+
+        public List<Result> getFailed() {
+            return results.stream().filter(r -> !r.success).toList();
+        }
+
+        public boolean isSuccess() {
+            return getFailed().isEmpty();
+        }
+
+        public long getMillis() {
+            return millis;
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder str = new StringBuilder();
+            str.append(String.format("Batch %s of %d Game(s) in %.1fs, %d failed:\n", operation.getKey(),
+                    results.size(), millis / 1000f, getFailed().size()));
+            for (Result r : results)
+                str.append("\t").append(r).append("\n");
+            return str.toString();
+        }
+    } // Report
+
+    /**
+     * @param operation What to run on every Game.
+     */
+    public GameBatch(Operation operation) {
+        this.operation = operation;
+    }
+
+    /// /// /// Options /// /// ///
+
+    /**
+     * @param perDevice Games run at the same time on one device. 1 (the
+     *                  default) suits hard drives, SSDs can take more.
+     */
+    public GameBatch setPerDevice(int perDevice) {
+        this.perDevice = Math.max(1, perDevice);
+        return this;
+    }
+
+    /**
+     * @param stateFile GameState file to {@link Operation#DEPLOY}, any
+     *                  {@code {id}} in it is replaced by each Game's id.
+     */
+    public GameBatch setStateFile(String stateFile) {
+        this.stateFile = stateFile;
+        return this;
+    }
+
+    /// /// /// Running /// /// ///
+
+    /**
+     * Runs the operation on every Game, returning once all are done. Interrupt
+     * the calling thread to stop starting Games, those running finish.
+     *
+     * @param games Games to run on, each at most once.
+     * @return A result for every Game, in the order given.
+     */
+    public Report run(List<Game> games) {
+        if (operation == Operation.DEPLOY && stateFile == null)
+            throw new IllegalArgumentException("A GameState file is needed to deploy.");
+        final long start = System.nanoTime();
+        log.info(0, "\n🗄 Starting batch " + operation.getKey() + " of " + games.size() + " Game(s)...");
+
+        /// 1. Group by device, keeping the order given.
+        Map<String, Queue<Game>> devices = new LinkedHashMap<>();
+        Map<String, Result> results = new ConcurrentHashMap<>();
+        for (Game game : games) {
+            String device = TaskScheduler.deviceOf(game.getInstallDirectory());
+            devices.computeIfAbsent(device, k -> new ConcurrentLinkedQueue<>()).add(game);
+            results.put(game.getId(), new Result(game.getId(), device));
+        }
+
+        /// 2. Workers per device, each taking the device's next Game.
+        int workers = devices.values().stream().mapToInt(q -> Math.min(perDevice, q.size())).sum();
+        AtomicInteger count = new AtomicInteger();
+        AtomicBoolean stopping = new AtomicBoolean(false);
+        ExecutorService pool = Executors.newFixedThreadPool(Math.max(1, workers), r -> {
+            Thread thread = new Thread(r, "game-batch-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        for (Queue<Game> queue : devices.values()) {
+            for (int i = 0; i < Math.min(perDevice, queue.size()); i++) {
+                pool.execute(() -> {
+                    Game game;
+                    while (!stopping.get() && (game = queue.poll()) != null)
+                        runGame(game, results.get(game.getId()));
+                });
+            }
+        }
+
+        /// 3. Wait for all. Running Games are not interrupted, a half done
+        /// deploy is worse than a late one.
+        pool.shutdown();
+        boolean interrupted = false;
+        while (true) {
+            try {
+                if (pool.awaitTermination(1, TimeUnit.SECONDS))
+                    break;
+            } catch (InterruptedException e) {
+                interrupted = true;
+                stopping.set(true);
+            }
+        }
+        if (interrupted)
+            Thread.currentThread().interrupt();
+
+        List<Result> ordered = new ArrayList<>();
+        for (Game game : games)
+            ordered.add(results.get(game.getId()));
+        Report report = new Report(operation, ordered, (System.nanoTime() - start) / 1000000);
+        log.info(0, report.toString());
+        return report;
+    } // run()
+
+    /**
+     * Runs the operation on one Game, recording its result.
+     */
+    private void runGame(Game game, Result result) {
+        final long start = System.nanoTime();
+        result.ran = true;
+        try {
+            // Queued with the Game's other changes made in the app. Only a
+            // future that completed normally counts, the queue may still fail
+            // a command after it ran.
+            boolean passed = GameQueue.of(game).submit(manager -> {
+                switch (operation) {
+                    case DEPLOY:
+                        manager.deployGameState(loadState(Path.of(stateFile.replace("{id}", game.getId()))));
+                        result.message = "Deployed";
+                        break;
+
+                    case REBUILD:
+                        Path statePath = game.getInstallDirectory().resolve(config.getManagerDir().toString(),
+                                GameState.FILE_NAME);
+                        if (!Files.exists(statePath)) {
+                            result.message = "No Mods deployed";
+                            break;
+                        }
+                        GameState saved = loadState(statePath); // read before it is emptied
+                        manager.disableAllMods();
+                        manager.deployGameState(saved);
+                        result.message = "Rebuilt " + saved.getDeployedMods().size() + " Mod(s)";
+                        break;
+
+                    case VERIFY:
+                        result.problems = manager.verifyDeployment();
+                        result.message = result.problems.isEmpty() ? "Verified"
+                                : result.problems.size() + " file(s) missing or changed";
+                        return result.problems.isEmpty();
+
+                    case DISABLE_ALL:
+                        manager.disableAllMods();
+                        result.message = "Disabled all Mods";
+                        break;
+                }
+                return true;
+            }).get();
+            result.success = passed;
+        } catch (Exception e) {
+            Exception cause = e instanceof ExecutionException && e.getCause() instanceof Exception c ? c : e;
+            log.warning("Batch " + operation.getKey() + " failed for Game: " + game.getId(), cause);
+            result.message = cause.getMessage();
+        }
+        result.millis = (System.nanoTime() - start) / 1000000;
+    } // runGame()
+
+    /// /// /// Helpers /// /// ///
+
+    /**
+     * @return A GameState from a file, its Mods marked as to be enabled.
+     */
+    private static GameState loadState(Path path) throws Exception {
+        GameState state = GameState.loadFromFile(path);
+        for (Mod mod : state.getDeployedMods())
+            mod.setEnabled(true);
+        return state;
+    }
+
+} // Class
@@ -18,10 +18,13 @@ import core.config.AppConfig;
 import core.interfaces.MapSerializable;
 import core.io.JsonIO;
 import core.objects.Game;
+import core.storage.ModStore;
+import core.storage.TrashRefs;
 import core.utils.DateUtil;
 import core.utils.FileUtil;
 import core.utils.Logger;
 import core.utils.ScannerUtil;
+import core.utils.TrashIndex;
 
 /**
  * For performing core operations for Game managment.
@@ -112,9 +115,11 @@ public class GameManager {
             game = GameManager.getGameById(gameId);
             if (!game.getId().equals(gameId)) {
                 log.warning("GameID has changed. Trashing old file", null);
-                Files.move(
-                        config.getGameDir().resolve(gameId + ".json"),
-                        config.getTrashDir().resolve("games", gameId + ".json__" + DateUtil.getNumericTimestamp()));
+                Path trashed = TrashIndex.get().reserve("games/" + gameId + ".json__" + DateUtil.getNumericTimestamp());
+                Files.createDirectories(trashed.getParent());
+                Files.move(config.getGameDir().resolve(gameId + ".json"), trashed);
+                GameSession.of(gameId).changed();
+                TrashIndex.get().add(trashed);
             }
             GameManager.addGame(metaMap); // creates a new game, using the exsisting game data.
             log.info(0, "Game updated.");
@@ -142,18 +147,23 @@ public class GameManager {
         /// Remove any mods associated with the game.
         try {
             Game game = getGameById(gameId);
-            ModManager manager = new ModManager(game);
-
             log.info(1, "Trashing Enabled Mods if present...");
-            manager.disableAllMods();
+            GameQueue.of(game).submit(manager -> {
+                manager.disableAllMods();
+                return null;
+            }).get();
 
             log.info(1, "Trashing Disabled Mods if present...");
+            try (ModStore store = new ModStore(game.getStoreDirectory())) {
+                TrashRefs.materialize(store, null); // the store is going
+            }
             if (game.getStoreDirectory().toFile().list().length > 0) {
                 log.info(2, "Copying Mods to trash: " + targetDir);
                 FileUtil.copyDirectoryContents(game.getStoreDirectory(), targetDir, null);
 
                 log.info(2, "Deleting original Mod storage");
                 FileUtil.deleteDirectory(game.getStoreDirectory());
+                TrashIndex.get().add(targetDir);
             }
         } catch (Exception e) {
             throw new Exception("Faild to remove exsisting Mods of game: " + e.getMessage(), e);
@@ -162,14 +172,16 @@ public class GameManager {
         /// Remove the game itself
         try {
             log.info(1, "Trying to move game file to trash...");
-            targetDir = config.getTrashDir().resolve(gameId, gameId + ".json__" + DateUtil.getNumericTimestamp());
+            targetDir = TrashIndex.get().reserve(gameId + "/" + gameId + ".json__" + DateUtil.getNumericTimestamp());
 
             if (!Files.exists(targetDir.getParent()))
                 Files.createDirectories(targetDir.getParent());
             Files.move(gameFilePath, targetDir);
+            GameSession.of(gameId).changed();
+            TrashIndex.get().add(targetDir);
 
             gameFilePath = ICON_DIR.resolve(gameId);
-            targetDir = config.getTrashDir().resolve("games", "icons", gameId);
+            targetDir = TrashIndex.get().reserve("games/icons/" + gameId);
 
             if (Files.exists(gameFilePath) && Files.isRegularFile(gameFilePath)) {
                 log.info(1, "Icon file found moving to trash at: " + targetDir.toString());
@@ -177,6 +189,7 @@ public class GameManager {
                 if (!Files.exists(targetDir.getParent()))
                     Files.createDirectories(targetDir.getParent());
                 Files.move(gameFilePath, targetDir);
+                TrashIndex.get().add(targetDir);
             }
 
             log.info(0, "🗑 Game " + gameId + "sucessfully trashed.");
@@ -226,6 +239,7 @@ public class GameManager {
                 Files.createDirectories(path.getParent());
             }
             JsonIO.write(game, path.toFile());
+            GameSession.of(game.getId()).changed();
 
             log.info(0, "📦 Game " + game.getId() + " written.");
         } catch (Exception e) {
@@ -243,9 +257,7 @@ public class GameManager {
         Game tmp = new Game();
         final Path path = config.getGameDir().resolve(gameId + ".json");
         try {
-            tmp = (Game) JsonIO.read(
-                    path.toFile(),
-                    MapSerializable.ObjectTypes.GAME);
+            tmp = GameSession.of(gameId).getGame(); // only read if changed
         } catch (Exception e) {
             throw new Exception("Failed to get Game by ID: " + path.toString(), e);
         }
@@ -264,6 +276,9 @@ public class GameManager {
                 if (!Files.isRegularFile(path))
                     return null; // ignore non-regular files.
                 try {
+                    final String name = path.getFileName().toString();
+                    if (name.endsWith(".json"))
+                        return GameSession.of(name.substring(0, name.length() - 5)).getGame();
                     return (Game) JsonIO.read(path.toFile(), MapSerializable.ObjectTypes.GAME);
                 } catch (InvalidObjectException e) {
                     // differentiate between files that are not game types and other errors.
@@ -0,0 +1,311 @@
+/**
+ * Author Stephanos B
+ * Date 19/10/2026
+ */
+package core.managers;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+
+import core.io.WriteBatch;
+import core.objects.Game;
+import core.objects.GameState;
+import core.objects.GameStateSnapshot;
+import core.objects.Mod;
+import core.utils.CancelToken;
+import core.utils.Logger;
+
+/**
+ * The one writer of a Game within the app. Every change to a Game's Mods
+ * (deploy, disable, edit, update, compile...) is a {@link Command} queued here
+ * and run in order on the Game's own thread, so views no longer each keep a
+ * {@link ModManager} of their own racing the others.<br>
+ * <br>
+ * Commands queued while one runs are run together afterwards, in one
+ * {@link WriteBatch}, so callers can queue several without waiting on each.
+ * After every run the queue takes a new {@link Snapshot} of the Game's GameState
+ * and Mods, which readers get from {@link #snapshot()} at once, without locks
+ * or disk reads. A command's future completes once the snapshot includes it.
+ * Commands run with the {@link CancelToken} of the thread that queued them, so
+ * cancelling a task also stops what it queued.<br>
+ * <br>
+ * Each run gets a new {@link ModManager}, so changes made outside the app (eg:
+ * from the CLI) are picked up. The thread is started when commands are queued
+ * and ends once the queue is empty.
+ *
+ * @author Stephanos B
+ * @since v4.0.5
+ */
+public class GameQueue {
+    private static final Logger log = Logger.getInstance();
+    private static final Map<String, GameQueue> queues = new ConcurrentHashMap<>();
+
+    private volatile Game game;
+    private final LinkedBlockingQueue<Pending<?>> pending = new LinkedBlockingQueue<>();
+    private volatile Snapshot snapshot;
+    private boolean running = false; // guarded by this
+
+    /**
+     * A change to a Game, given the manager of the run it is in.
+     */
+    @FunctionalInterface
+    public interface Command<T> {
+        T run(ModManager manager) throws Exception;
+    }
+
+    private static class Pending<T> {
+        private final Command<T> command;
+        private final CancelToken token = CancelToken.current(); // of the thread queueing it
+        private final CompletableFuture<T> future = new CompletableFuture<>();
+        private T result;
+        private Exception error;
+
+        private Pending(Command<T> command) {
+            this.command = command;
+        }
+
+        private void run(ModManager manager) {
+            final CancelToken.Scope bound = CancelToken.bind(token);
+            try {
+                token.throwIfCancelled(); // cancelled while queued
+                result = command.run(manager);
+            } catch (Exception e) {
+                error = e;
+            } finally {
+                bound.close();
+            }
+        }
+
+        /**
+         * @param failed What committing the run failed with, or null.
+         */
+        private void complete(Exception failed) {
+            if (error != null)
+                future.completeExceptionally(error);
+            else if (failed != null)
+                future.completeExceptionally(failed);
+            else
+                future.complete(result);
+        }
+    } // Pending
+
+    /**
+     * The state of a Game after a run. Never changes once taken, every getter
+     * returns copies the caller is free to edit.
+     */
+    public static class Snapshot {
+        private final long version;
+        private final LocalDateTime takenAt;
+        private final GameStateSnapshot state;
+        private final List<Mod> mods;
+
+        private Snapshot(long version, GameStateSnapshot state, List<Mod> mods) {
+            this.version = version;
+            this.takenAt = LocalDateTime.now();
+            this.state = state;
+            this.mods = Collections.unmodifiableList(copy(mods));
+        }
+
+        /**
+         * @return Number of runs since the queue was made, 0 if none has yet and
+         *         the snapshot is empty.
+         */
+        public long getVersion() {
+            return version;
+        }
+
+        public LocalDateTime getTakenAt() {
+            return takenAt;
+        }
+
+        /**
+         * @return The GameState as last committed.
+         */
+        public GameState getGameState() {
+            return state.toGameState();
+        }
+
+        /**
+         * @return The GameState as last committed, sharing unchanged Mods with
+         *         the snapshots before it. Diff two to see what a run changed.
+         */
+        public GameStateSnapshot getState() {
+            return state;
+        }
+
+        /**
+         * @return All Mods of the Game, see {@link ModManager#getAllMods()}.
+         */
+        public List<Mod> getMods() {
+            return copy(mods);
+        }
+
+        /**
+         * @return A Mod of the Game, or null if it has none by that id.
+         */
+        public Mod getMod(String modId) {
+            for (Mod mod : mods)
+                if (mod.getId().equals(modId))
+                    return copy(mod);
+            return null;
+        }
+
+        private static List<Mod> copy(List<Mod> mods) {
+            List<Mod> copies = new ArrayList<>(mods.size());
+            for (Mod mod : mods)
+                copies.add(copy(mod));
+            return copies;
+        }
+
+        private static Mod copy(Mod mod) {
+            Mod copy = new Mod().setFromMap(mod.toMap());
+            copy.setEnabled(mod.isEnabled());
+            return copy;
+        }
+    } // Snapshot
+
+    private GameQueue(Game game) {
+        this.game = game;
+        this.snapshot = new Snapshot(0, GameStateSnapshot.empty(), List.of());
+    }
+
+    /**
+     * @return The queue of a Game, made on first use. Games are told apart by id,
+     *         the latest instance given is used from the next run on.
+     */
+    public static GameQueue of(Game game) {
+        GameQueue queue = queues.computeIfAbsent(game.getId(), id -> new GameQueue(game));
+        queue.game = game;
+        return queue;
+    }
+
+    /// /// /// Writing /// /// ///
+
+    /**
+     * Queues a command, returning at once.
+     *
+     * @return Completes with the command's result once it ran and the snapshot
+     *         was taken, or exceptionally with what it threw.
+     */
+    public <T> CompletableFuture<T> submit(Command<T> command) {
+        Pending<T> next = new Pending<>(command);
+        pending.add(next);
+        synchronized (this) {
+            if (!running)
+                start();
+        }
+        return next.future;
+    } // submit()
+
+    /**
+     * Queues a new snapshot, eg: after the Game was changed outside the app.
+     * The Game's files are read again, not taken from its {@link GameSession}.
+     *
+     * @return Completes with the snapshot once taken.
+     */
+    public CompletableFuture<Snapshot> refresh() {
+        return submit(manager -> {
+            GameSession.of(game.getId()).invalidate();
+            return null;
+        }).thenApply(v -> snapshot);
+    }
+
+    /// /// /// Reading /// /// ///
+
+    /**
+     * @return The Game's state after the last run. Does not wait for queued
+     *         commands, check {@link Snapshot#getVersion()} for whether one ran.
+     */
+    public Snapshot snapshot() {
+        return snapshot;
+    }
+
+    public Game getGame() {
+        return game;
+    }
+
+    /// /// /// Running /// /// ///
+
+    /**
+     * Starts the Game's thread. Called holding this.
+     */
+    private void start() {
+        running = true;
+        Thread thread = new Thread(this::drain, "game-queue-" + game.getId());
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Runs what is queued, in order, until the queue stays empty. Should the
+     * thread die on the way, its run's futures fail with it, and a new thread
+     * is started for anything queued since.
+     */
+    private void drain() {
+        try {
+            while (true) {
+                List<Pending<?>> run = new ArrayList<>();
+                pending.drainTo(run);
+                if (run.isEmpty()) {
+                    synchronized (this) {
+                        if (pending.isEmpty())
+                            return;
+                    }
+                    continue;
+                }
+                try {
+                    runAll(run);
+                } catch (Throwable e) {
+                    for (Pending<?> next : run)
+                        next.future.completeExceptionally(e); // no-op once completed
+                    throw e;
+                }
+            }
+        } finally {
+            synchronized (this) {
+                running = false;
+                if (!pending.isEmpty())
+                    start();
+            }
+        }
+    } // drain()
+
+    /**
+     * Runs commands in one {@link WriteBatch}, takes the snapshot, then
+     * completes them. If committing the batch fails, every command that did not
+     * fail itself fails with it, its changes may not have reached the disk.
+     */
+    private void runAll(List<Pending<?>> run) {
+        final Game game = this.game;
+        ModManager manager = new ModManager(game);
+        Exception failed = null;
+        final WriteBatch batch = WriteBatch.begin(game.getDurability());
+        try {
+            for (Pending<?> next : run) {
+                next.run(manager);
+                if (next.error != null)
+                    manager = new ModManager(game); // it may have stopped half way
+            }
+            batch.close(); // commits the run
+        } catch (Exception e) {
+            failed = e;
+            log.warning("Could not commit queued changes of Game: " + game.getId(), e);
+        }
+        try {
+            GameState committed = manager.getCommittedState();
+            snapshot = new Snapshot(snapshot.version + 1, GameStateSnapshot.of(committed, snapshot.state),
+                    manager.getAllMods(committed));
+        } catch (Exception e) {
+            log.warning("Could not take a snapshot of Game: " + game.getId(), e);
+        }
+        for (Pending<?> next : run)
+            next.complete(failed);
+    } // runAll()
+
+} // Class
@@ -0,0 +1,220 @@
+/**
+ * Author Stephanos B
+ * Date 19/10/2026
+ */
+package core.managers;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+import core.config.AppConfig;
+import core.interfaces.MapSerializable;
+import core.io.GenerationCounter;
+import core.io.JsonIO;
+import core.objects.Game;
+import core.objects.GameState;
+import core.objects.GameStateSnapshot;
+import core.objects.Mod;
+import core.objects.ModCatalog;
+import core.utils.Logger;
+
+/**
+ * What the app has read of a Game, kept for the life of the process: its
+ * {@link Game}, GameState and Mod catalog. Moving between views reads each
+ * once, after that a cached copy is given as long as the Game is unchanged.<br>
+ * <br>
+ * Every process of the app (GUI or CLI) shares a {@link GenerationCounter} per
+ * Game, in {@code games/.generations/<id>}, and moves it on whenever it changes
+ * the Game, see {@link #changed()}. A cached copy is given while the counter
+ * is where it was when the copy was read and its files' modified time, size
+ * and identity are as they were. The counter sees every change the app makes,
+ * even within the file system's time resolution; the stamps see changes made
+ * by hand, eg: a Mod folder added to the store or {@code game_state.json}
+ * edited. {@link #invalidate()} drops everything, for a refresh asked for by
+ * the user. Every getter returns a copy the caller is free to edit.
+ *
+ * @author Stephanos B
+ * @since v4.0.5
+ */
+public class GameSession {
+    private static final AppConfig config = AppConfig.getInstance();
+    private static final Logger log = Logger.getInstance();
+    private static final Map<String, GameSession> sessions = new ConcurrentHashMap<>();
+
+    private final String gameId;
+    private final GenerationCounter generation;
+    private long changes = 0; // guarded by this
+    private Cached<Game> game;
+    private Cached<GameStateSnapshot> gameState;
+    private Cached<List<Mod>> catalog;
+
+    /**
+     * A value read from disk, with what it was read from.
+     */
+    private static class Cached<T> {
+        private final Version version;
+        private final T value;
+
+        private Cached(Version version, T value) {
+            this.version = version;
+            this.value = value;
+        }
+    } // Cached
+
+    /**
+     * When something was read: the shared counter (-1 if unavailable), the
+     * local one and the stamps of the files read.
+     */
+    private record Version(long generation, long changes, List<Object> stamp) {
+    }
+
+    private GameSession(String gameId) {
+        this.gameId = gameId;
+        this.generation = GenerationCounter.of(config.getGameDir().resolve(".generations", gameId));
+    }
+
+    /**
+     * @return The session of a Game, made on first use.
+     */
+    public static GameSession of(String gameId) {
+        return sessions.computeIfAbsent(gameId, GameSession::new);
+    }
+
+    /// /// /// Reading /// /// ///
+
+    /**
+     * @return The Game, from {@code games/<id>.json}.
+     * @throws Exception If it cannot be read, as {@link JsonIO#read}.
+     */
+    public synchronized Game getGame() throws Exception {
+        final Path path = config.getGameDir().resolve(gameId + ".json");
+        final Version now = versionOf(path);
+        if (game == null || !game.version.equals(now)) {
+            Game read = (Game) JsonIO.read(path.toFile(), MapSerializable.ObjectTypes.GAME);
+            game = new Cached<>(now, read);
+        }
+        return copy(game.value);
+    } // getGame()
+
+    /**
+     * @param path The Game's {@code game_state.json}.
+     * @return The GameState as last saved.
+     * @throws Exception If it cannot be read, as
+     *                   {@link GameState#loadFromFile(Path)}.
+     */
+    public synchronized GameState getGameState(Path path) throws Exception {
+        final Version now = versionOf(path);
+        if (gameState == null || !gameState.version.equals(now)) {
+            if (!Files.exists(path))
+                throw new NoSuchFileException(path.toString());
+            gameState = new Cached<>(now,
+                    GameStateSnapshot.of(GameState.loadFromFile(path), gameState == null ? null : gameState.value));
+        }
+        return gameState.value.toGameState();
+    } // getGameState()
+
+    /**
+     * @param storeDir The Game's store directory.
+     * @return Every Mod in the store, as {@link ModCatalog#getMods()}.
+     * @throws Exception If the catalog cannot be loaded.
+     */
+    public synchronized List<Mod> getCatalog(Path storeDir) throws Exception {
+        final Path catalogPath = storeDir.resolve(config.getManagerDir().toString(), ModCatalog.FILE_NAME);
+        if (catalog == null || !catalog.version.equals(versionOf(storeDir, catalogPath))) {
+            // The store as before loading, a folder added while it loads is seen next time.
+            final Version before = versionOf(storeDir);
+            List<Mod> mods = ModCatalog.load(storeDir).getMods();
+            List<Object> stamp = new ArrayList<>(before.stamp());
+            stamp.addAll(stampOf(catalogPath)); // rescans write the catalog without changing the Game
+            catalog = new Cached<>(new Version(before.generation(), before.changes(), stamp), mods);
+        }
+        List<Mod> copies = new ArrayList<>(catalog.value.size());
+        for (Mod mod : catalog.value)
+            copies.add(copy(mod));
+        return copies;
+    } // getCatalog()
+
+    /// /// /// Invalidating /// /// ///
+
+    /**
+     * Drops everything cached for the Game. Called whenever this process writes
+     * one of its files, as a write within the file system's time resolution can
+     * leave the modified time as it was.
+     */
+    public synchronized void changed() {
+        changes++;
+        generation.bump();
+    }
+
+    /**
+     * Drops everything cached for the Game, so the next reads go to disk. For a
+     * refresh asked for by the user, should a file have been changed by hand
+     * within the file system's time resolution.
+     */
+    public synchronized void invalidate() {
+        game = null;
+        gameState = null;
+        catalog = null;
+    }
+
+    /**
+     * @return Times the Game was changed by this process since the session was
+     *         made.
+     */
+    public synchronized long getChangeCount() {
+        return changes;
+    }
+
+    /// /// /// Helpers /// /// ///
+
+    /**
+     * @return The version to compare a cached copy of the files with: both
+     *         counters and the files' stamps.
+     */
+    private Version versionOf(Path... paths) {
+        final long gen = generation.get();
+        List<Object> stamp = new ArrayList<>();
+        for (Path path : paths)
+            stamp.addAll(stampOf(path));
+        return new Version(gen, changes, stamp);
+    } // versionOf()
+
+    /**
+     * @return Modified time, size and identity of a file, empty if it does not
+     *         exist.
+     */
+    private static List<Object> stampOf(Path path) {
+        try {
+            BasicFileAttributes attrs = Files.readAttributes(path, BasicFileAttributes.class);
+            return List.of(attrs.lastModifiedTime(), attrs.size(), Objects.requireNonNullElse(attrs.fileKey(), ""));
+        } catch (NoSuchFileException e) {
+            return List.of();
+        } catch (IOException e) {
+            log.warning("Could not stat: " + path, e);
+            return List.of(new Object()); // never equal, read again
+        }
+    } // stampOf()
+
+    private static Game copy(Game game) {
+        Game copy = new Game(game.getId(), game.getReleaseVersion(), game.getName(), game.getInstallDirectory(),
+                game.getStoreDirectory());
+        copy.setDurability(game.getDurability());
+        copy.setStorageMode(game.getStorageMode());
+        return copy;
+    }
+
+    private static Mod copy(Mod mod) {
+        Mod copy = new Mod().setFromMap(mod.toMap());
+        copy.setEnabled(mod.isEnabled());
+        return copy;
+    }
+
+} // Class
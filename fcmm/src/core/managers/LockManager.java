@@ -4,6 +4,7 @@
 package core.managers;
 
 import java.nio.file.Path;
+import java.time.Duration;
 import java.util.concurrent.ConcurrentHashMap;
 
 import core.utils.DirectoryLocker;
@@ -11,23 +12,69 @@ import core.utils.Logger;
 
 /**
  * Provides DirectoryLock usage methods and lock-instance tracking. Has various
- * short-cut methods for ease-of-use.
+ * short-cut methods for ease-of-use.<br>
+ * <br>
+ * Locking waits up to {@link #DEFAULT_WAIT} for a lock held by another thread
+ * or process, but fails at once if the calling thread already holds it.<br>
+ * <br>
+ * Besides the Game lock Mod operations hold throughout, a Game has a commit
+ * lock on its deployed state (GameState, manifests, lineages and files). Mod
+ * operations hold it exclusively only while changing the game directory, and
+ * readers share it, so listings stay consistent and available during long
+ * operations.<br>
+ * <br>
+ * A Game's store has a lock of its own, held while Mods are stored, changed
+ * or removed and while {@link StorageCollector} sweeps it.
  * 
  * @since v4.0.1
  */
 public class LockManager {
     private static final Logger log = Logger.getInstance();
 
+    /**
+     * How long to wait for a lock held elsewhere.
+     */
+    public static final Duration DEFAULT_WAIT = Duration.ofSeconds(10);
+    /**
+     * How long a reader waits for a commit, which may be copying a large Mod.
+     */
+    public static final Duration READ_WAIT = Duration.ofMinutes(2);
+    /**
+     * Name of a Game's commit lock file, in its directory.
+     */
+    public static final String COMMIT_LOCK = ".commit.lock";
+    /**
+     * Name of a Game's store lock file, in its store directory.
+     */
+    public static final String STORE_LOCK = ".store.lock";
+
     private static final ConcurrentHashMap<String, DirectoryLocker> locks = new ConcurrentHashMap<>(0);
+    private static final ConcurrentHashMap<String, Integer> holdDepth = new ConcurrentHashMap<>(0);
+    private static final ConcurrentHashMap<String, Object> owners = new ConcurrentHashMap<>(0); // may release it
 
     public static boolean lockDirectory(String lockId, Path dir) {
-        if (locks.containsKey(lockId)) {
+        return lockDirectory(lockId, dir, DEFAULT_WAIT);
+    }
+
+    /**
+     * @param wait How long to wait for a lock held elsewhere, zero to not wait.
+     */
+    public static boolean lockDirectory(String lockId, Path dir, Duration wait) {
+        return lock(lockId, new DirectoryLocker(dir), dir, wait, Thread.currentThread());
+    }
+
+    /**
+     * @param owner What may release the lock, see {@link #unlock(String, Object)}.
+     */
+    private static boolean lock(String lockId, DirectoryLocker locker, Path dir, Duration wait, Object owner) {
+        DirectoryLocker held = locks.get(lockId);
+        if (held != null && held.getOwner() == Thread.currentThread()) {
             log.warning("Lock already on Directory: " + dir, null);
-            return false;
+            return false; // would wait on itself
         }
 
-        DirectoryLocker locker = new DirectoryLocker(dir);
-        if (locker.acquireLock()) {
+        if (locker.acquireLock(wait)) {
+            owners.put(lockId, owner);
             locks.put(lockId, locker);
             log.info("🔒 Lock granted on Directory: " + dir);
             return true;
@@ -36,13 +83,31 @@ public class LockManager {
         return false;
     }
 
+    /**
+     * Releases a lock taken by the calling thread. A lock held by another
+     * thread is left as it is, it is that thread's to release.
+     */
     public static void unlockDirectory(String lockId) {
-        DirectoryLocker locker = locks.remove(lockId);
-        if (locker != null) {
+        unlock(lockId, Thread.currentThread());
+    }
+
+    /**
+     * Releases a lock if taken for the owner, otherwise leaves it locked.
+     */
+    private static void unlock(String lockId, Object owner) {
+        DirectoryLocker locker = locks.get(lockId);
+        if (locker == null)
+            return;
+        if (owners.get(lockId) != owner) {
+            log.warning("Lock is held by another owner, left locked: " + lockId, null);
+            return;
+        }
+        if (locks.remove(lockId, locker)) {
+            owners.remove(lockId, owner);
             locker.releaseLock();
             log.info("🔓 Lock released: " + lockId);
         }
-    }
+    } // unlock()
 
     public static boolean isLocked(String lockId) {
         return locks.containsKey(lockId);
@@ -61,6 +126,114 @@ public class LockManager {
         unlockDirectory(key);
     }
 
+    /// /// Game commit window
+
+    /**
+     * Locks a Game's deployed state exclusively, while a Mod operation changes
+     * the game directory. Waits for readers to finish.
+     *
+     * @param owner What unlocks it, eg: a commit window that may be left on
+     *              another thread than the one that opened it.
+     */
+    public static boolean lockGameCommit(String gameId, Path gameDir, Object owner) {
+        String key = "commit:" + gameId;
+        return lock(key, new DirectoryLocker(gameDir, COMMIT_LOCK, DirectoryLocker.Mode.EXCLUSIVE), gameDir,
+                DEFAULT_WAIT, owner);
+    }
+
+    public static void unlockGameCommit(String gameId, Object owner) {
+        String key = "commit:" + gameId;
+        unlock(key, owner);
+    }
+
+    /**
+     * Locks a Game's deployed state to be read, shared with other readers.
+     * Only waits while a Mod operation commits. A thread may lock it again
+     * while holding it, unlocking once for each.
+     */
+    public static boolean lockGameRead(String gameId, Path gameDir) {
+        String key = "read:" + gameId + "@" + Thread.currentThread().threadId();
+        Integer depth = holdDepth.get(key);
+        if (depth != null) {
+            holdDepth.put(key, depth + 1);
+            return true;
+        }
+
+        DirectoryLocker locker = new DirectoryLocker(gameDir, COMMIT_LOCK, DirectoryLocker.Mode.SHARED);
+        if (!locker.acquireLock(READ_WAIT)) {
+            log.warning("Could not lock Game to read: " + gameId, null);
+            return false;
+        }
+        locks.put(key, locker);
+        holdDepth.put(key, 1);
+        return true;
+    } // lockGameRead()
+
+    public static void unlockGameRead(String gameId) {
+        String key = "read:" + gameId + "@" + Thread.currentThread().threadId();
+        Integer depth = holdDepth.get(key);
+        if (depth == null)
+            return;
+        if (depth > 1) {
+            holdDepth.put(key, depth - 1);
+            return;
+        }
+        holdDepth.remove(key);
+        DirectoryLocker locker = locks.remove(key);
+        if (locker != null)
+            locker.releaseLock();
+    } // unlockGameRead()
+
+    /// /// Game stores
+
+    public static boolean lockStore(Path storeDir) {
+        return lockStore(storeDir, DEFAULT_WAIT);
+    }
+
+    /**
+     * Locks a Game's store exclusively, while Mods are added to, changed in or
+     * removed from it, or what it no longer uses is collected. A thread may
+     * lock it again while holding it, unlocking once for each.
+     *
+     * @param wait How long to wait for a lock held elsewhere, zero to not wait.
+     */
+    public static boolean lockStore(Path storeDir, Duration wait) {
+        String key = storeKey(storeDir);
+        Integer depth = holdDepth.get(key);
+        if (depth != null) {
+            holdDepth.put(key, depth + 1);
+            return true;
+        }
+
+        DirectoryLocker locker = new DirectoryLocker(storeDir, STORE_LOCK, DirectoryLocker.Mode.EXCLUSIVE);
+        if (!locker.acquireLock(wait)) {
+            log.warning("Could not lock store: " + storeDir, null);
+            return false;
+        }
+        locks.put(key, locker);
+        holdDepth.put(key, 1);
+        return true;
+    } // lockStore()
+
+    public static void unlockStore(Path storeDir) {
+        String key = storeKey(storeDir);
+        Integer depth = holdDepth.get(key);
+        if (depth == null)
+            return;
+        if (depth > 1) {
+            holdDepth.put(key, depth - 1);
+            return;
+        }
+        holdDepth.remove(key);
+        DirectoryLocker locker = locks.remove(key);
+        if (locker != null)
+            locker.releaseLock();
+    } // unlockStore()
+
+    private static String storeKey(Path storeDir) {
+        return "store:" + storeDir.toAbsolutePath().normalize() + "@" + Thread.currentThread().threadId();
+    }
+
     /// /// Temporary directories (auto-generated key)
 
     public static boolean lockTempDir(Path tempDir) {
@@ -68,6 +241,15 @@ public class LockManager {
         return lockDirectory(key, tempDir);
     }
 
+    /**
+     * Locks a temporary directory only if it is free, eg: to check it is not in
+     * use.
+     */
+    public static boolean tryLockTempDir(Path tempDir) {
+        String key = "temp:" + tempDir.toAbsolutePath().toString();
+        return lockDirectory(key, tempDir, Duration.ZERO);
+    }
+
     public static void unlockTempDir(Path tempDir) {
         String key = "temp:" + tempDir.toAbsolutePath().toString();
         unlockDirectory(key);
@@ -16,23 +16,39 @@ import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Stream;
+import java.util.Objects;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
 
 import core.config.AppConfig;
 import core.interfaces.MapSerializable;
 import core.io.JsonIO;
+import core.io.WriteBatch;
 import core.objects.FileLineage;
 import core.objects.FileVersion;
 import core.objects.Game;
 import core.objects.GameState;
+import core.objects.GameStateSnapshot;
 import core.objects.Mod;
+import core.objects.ModCatalog;
 import core.objects.ModFile;
 import core.objects.ModManifest;
 import core.objects.ModMetadata;
+import core.storage.ModStore;
+import core.storage.TrashRefs;
+import core.utils.ArchiveUtil;
+import core.utils.CancelToken;
 import core.utils.DateUtil;
 import core.utils.FileUtil;
 import core.utils.HashUtil;
 import core.utils.Logger;
+import core.utils.TrashIndex;
 import core.utils.ScannerUtil;
 
 /**
@@ -50,6 +66,20 @@ public class ModManager {
     private final Path GAME_ROOT_PATH; // Path to the Game_Root directory where mods are deployed.
     private Game game;
     private GameState gameState;
+    private final ModStore store; // Where stored Mods keep their files.
+    private final GameSession session; // What was read of the Game, shared across managers.
+
+    // Deploying Mods side by side, see deployAll().
+    /**
+     * Mods deployed at once by default, see {@link #setDeployThreads(int)}.
+     */
+    public static final int DEFAULT_DEPLOY_THREADS = Math.max(1,
+            Math.min(4, Runtime.getRuntime().availableProcessors()));
+    private int deployThreads = DEFAULT_DEPLOY_THREADS;
+    private final Object stateLock = new Object(); // guards gameState and the commit window
+    private int committing = 0; // guarded by stateLock
+    private boolean stateChanged = false; // guarded by stateLock
+    private volatile boolean sharedStore = false; // closed by deployAll() once all are done
 
     // Comes from config.
     private final Path MANAGER_DIR;
@@ -78,9 +108,16 @@ public class ModManager {
         TRASH_DIR = config.getTrashDir();
 
         GAMESTATE_PATH = GAME_ROOT_PATH.resolve(MANAGER_DIR.toString(), GameState.FILE_NAME);
+        store = new ModStore(game.getStoreDirectory());
+        session = GameSession.of(game.getId());
 
         try {
-            gameState = GameState.loadFromFile(GAMESTATE_PATH);
+            try {
+                gameState = readGameState();
+            } catch (InaccessibleObjectException e) {
+                log.warning("Reading GameState while a commit holds the Game.", e);
+                gameState = session.getGameState(GAMESTATE_PATH);
+            }
         } catch (Exception e) {
             gameState = new GameState();
 
@@ -90,6 +127,15 @@ public class ModManager {
         }
     } // Constructor
 
+    /**
+     * @param threads Mods {@link #deployGameState(GameState)} deploys at once
+     *                where they share no files, 1 to deploy one after another.
+     */
+    public ModManager setDeployThreads(int threads) {
+        this.deployThreads = Math.max(1, threads);
+        return this;
+    }
+
     /// /// /// Core Methods /// /// ///
     // #region
 
@@ -98,22 +144,46 @@ public class ModManager {
      * The compiled mod is stored in the game's mod storage, ready for deployment.
      * 
      * @param dirName The directory name of the mod located in ./temp, doubles as
-     *                the mod's name.
+     *                the mod's name. May also be a .zip or .jar there, which is
+     *                extracted to a new directory first.
      * @param metaMap A HashMap of the Mod's meta data. For the CLI this comes from
      *                {@code collectUserMetadata()} otherwise the GUI will pass it.
      * @return Complete Mod that was created. Allows quick access to the exact data
      *         written without needing to read the JSON. (Mainly for data checking)
      */
     public ModManifest compileMod(final String dirName, final Map<String, Object> metaMap) throws Exception {
-        final Path tempDir = TEMP_DIR.resolve(dirName);
+        final Path source = TEMP_DIR.resolve(dirName);
 
         /// 1. Verify Directory is valid.
-        if (!Files.exists(tempDir) && Files.isDirectory(tempDir)) { // Verify the dirName given is a valid directory.
-            throw new Exception("No such directory found: " + tempDir.toString());
-        } else if (!Files.isDirectory(tempDir)) {
-            // TODO If path leads to a zip, attempt to extract.
-            // Path tempDir = extractToTemp(downloadedZip);
+        if (ArchiveUtil.isArchive(source)) { // Extract, hashing as it goes.
+            String dir = stageDirName(metaMap);
+            List<ModFile> hashed;
+            try {
+                hashed = ArchiveUtil.extractHashed(source, TEMP_DIR.resolve(dir));
+            } catch (Exception e) {
+                FileUtil.deleteDirectory(TEMP_DIR.resolve(dir)); // partial extract is of no use
+                throw new Exception("Could not extract Mod archive.", e);
+            }
+            return compileMod(dir, metaMap, hashed, null);
+        } else if (!Files.isDirectory(source)) { // Verify the dirName given is a valid directory.
+            throw new Exception("No such directory or archive found: " + source.toString());
         }
+        return compileMod(dirName, metaMap, null, null);
+    } // compileMod()
+
+    /**
+     * Compiles a staged Mod.
+     * 
+     * @param dirName Directory of the Mod in ./temp
+     * @param metaMap Mod data.
+     * @param hashed   Files already hashed while staging, or null to scan the
+     *                 directory.
+     * @param previous Stored version this one updates, to store only what
+     *                 changed since. Null for a new Mod.
+     */
+    private ModManifest compileMod(final String dirName, final Map<String, Object> metaMap, List<ModFile> hashed,
+            final ModManifest previous) throws Exception {
+        final Path tempDir = TEMP_DIR.resolve(dirName);
         log.info(0, "📦 Processing meta data: " + tempDir.getFileName());
 
         /// 2. Process passed HashMap to extract Mod data.
@@ -128,83 +198,130 @@ public class ModManager {
 
         if (!LockManager.lockTempDir(tempDir)) // Lock before reading
             throw new Exception("Could not lock temporary directory");
+        final WriteBatch batch = WriteBatch.begin(game.getDurability());
         try {
             log.info(1, "Readig contents of Mod: " + tempDir.getFileName());
 
             /// 3. Analyze exsisting files, generate ModFile objects with hashes
-            manifest.setContentsArr(FileUtil.getDirectoryModFiles(tempDir, tempDir).toArray(new ModFile[0]));
-
-            /// 4. Once the Mod is complete, the Mod.JSON file can be created.
-            log.info(0, "📦 Writing manifest...");
-            Path storagePath = game.getStoreDirectory().resolve(manifest.getId()); // Path where the Mods will be
-                                                                                   // stored.
-
+            if (hashed == null)
+                hashed = FileUtil.getDirectoryModFiles(tempDir, tempDir);
+            CancelToken.checkpoint(); // the last, storing is not cancelled part way
+            manifest.setContentsArr(hashed.toArray(new ModFile[0]));
+            if (!LockManager.lockStore(game.getStoreDirectory()))
+                throw new InaccessibleObjectException("Mod store is locked by another process");
             try {
-                Path path = tempDir.resolve(MANIFEST_DIR.toString(), manifest.getId() + ".json");
-                FileUtil.deleteDirectory(path.getParent());
-                Files.createDirectories(path.getParent());
-                // Write to JSON
-                JsonIO.write(manifest, path.toFile());
-                log.info(1, "✔ Written! to: " + path.toString());
+                // Blobs already share unchanged files between versions.
+                if (previous != null && !previous.getId().equals(manifest.getId())
+                        && game.getStorageMode() != ModStore.Mode.DEDUP)
+                    store.delta(manifest, tempDir, previous);
+                store.ingest(manifest, tempDir, game.getStorageMode()); // sets the manifest's storage mode
 
-            } catch (FileNotFoundException e) {
-                throw new Exception("Failed to write Manifest: "
-                        + storagePath.resolve(MANIFEST_DIR.toString(), manifest.getId() + ".json").toString(), e);
-            } catch (Exception e) {
-                throw new Exception("Failed to write manifest: " + e.getMessage(), e);
-            }
+                /// 4. Once the Mod is complete, the Mod.JSON file can be created.
+                log.info(0, "📦 Writing manifest...");
+                // Path where the Mods will be stored.
+                Path storagePath = game.getStoreDirectory().resolve(manifest.getId());
 
-            /// 5. Final operation: Move to .mod_storage/game_id/mod_id_version /
-            try {
-                log.info(0, "📦 New Mod " + manifest.getId() + " complete! Attempting to move Mod to: " + storagePath);
-                // Delete target directory to preven conflicts.
-                if (Files.exists(storagePath)) {
-                    FileUtil.deleteDirectory(storagePath);
+                try {
+                    Path path = tempDir.resolve(MANIFEST_DIR.toString(), manifest.getId() + ".json");
+                    FileUtil.deleteDirectory(path.getParent());
+                    Files.createDirectories(path.getParent());
+                    // Write to JSON
+                    JsonIO.write(manifest, path.toFile());
+                    log.info(1, "✔ Written! to: " + path.toString());
+
+                } catch (FileNotFoundException e) {
+                    throw new Exception("Failed to write Manifest: "
+                            + storagePath.resolve(MANIFEST_DIR.toString(), manifest.getId() + ".json").toString(), e);
+                } catch (Exception e) {
+                    throw new Exception("Failed to write manifest: " + e.getMessage(), e);
                 }
-                Files.move(tempDir, storagePath);
-                log.info(0, "✔ done.", "Move complete. Finished.");
-                return manifest;
-            } catch (IOException e) {
-                // thrown by deleteDirectory()
-                throw new Exception("Failed to move or delete exsisting Mod data at path: " + storagePath.toString(),
-                        e);
-            } catch (Exception e) {
-                throw new Exception("Failed to move files from temp: " + e.getMessage(), e);
+
+                /// 5. Final operation: Move to .mod_storage/game_id/mod_id_version /
+                try {
+                    log.info(0, "📦 New Mod " + manifest.getId() + " complete! Attempting to move Mod to: "
+                            + storagePath);
+                    // Delete target directory to preven conflicts.
+                    if (Files.exists(storagePath)) {
+                        removeStored(manifest.getId(), null);
+                    }
+                    Files.move(tempDir, storagePath);
+                    updateCatalog(manifest.getId());
+                    log.info(0, "✔ done.", "Move complete. Finished.");
+                    return manifest;
+                } catch (IOException e) {
+                    // thrown by deleteDirectory()
+                    throw new Exception("Failed to move or delete exsisting Mod data at path: "
+                            + storagePath.toString(), e);
+                } catch (Exception e) {
+                    throw new Exception("Failed to move files from temp: " + e.getMessage(), e);
+                }
+            } finally {
+                LockManager.unlockStore(game.getStoreDirectory());
             }
         } finally {
+            batch.close();
             LockManager.unlockTempDir(tempDir);
         }
     } // modCompileNew()
 
     /**
      * For GUI. Copies Mod contents to an auto-generated location before compiling.
+     * A .zip or .jar is extracted there instead, in the same pass that hashes it.
      * 
-     * @param filesDir Path to Mod-contents root directory.
+     * @param filesDir Path to Mod-contents root directory, or a Mod archive.
      * @param metaMap  Expected Map of mod Data for compiler.
      * @throws Exception
+     * @throws CancellationException If cancelled before the Mod is stored. The
+     *                               staged copy is removed.
      */
     public ModManifest compileMod(final Path filesDir, final Map<String, Object> metaMap) throws Exception {
+        return compileMod(filesDir, metaMap, null);
+    }
+
+    /**
+     * @param previous Stored version this one updates, or null.
+     * @see #compileMod(Path, Map)
+     */
+    private ModManifest compileMod(final Path filesDir, final Map<String, Object> metaMap,
+            final ModManifest previous) throws Exception {
         /// Prepare mod files.
         System.out.println("Compiling from Files from: " + filesDir.toString());
 
-        String modId = metaMap.containsKey("name")
-                ? String.format("%05d", metaMap.get("name").toString().hashCode() & 0xffff)
-                : "modId"; // should be impossible to not have a name
-        String dir = (modId + "__" + DateUtil.getNumericTimestamp());
-
+        String dir = stageDirName(metaMap);
         Path target = TEMP_DIR.resolve(dir);
 
-        /// Copy files to temp.
         try {
-            // Files.copy(filesDir, target);
-            FileUtil.copyDirectoryContents(filesDir, target, null);
-            log.info(1, "Mod files copied to " + target.toString());
-        } catch (Exception e) {
-            throw new Exception("Could not copy Mod contents.", e);
-        }
+            if (ArchiveUtil.isArchive(filesDir)) {
+                List<ModFile> hashed;
+                try {
+                    hashed = ArchiveUtil.extractHashed(filesDir, target);
+                } catch (CancellationException e) {
+                    throw e;
+                } catch (Exception e) {
+                    FileUtil.deleteDirectory(target); // partial extract is of no use
+                    throw new Exception("Could not extract Mod archive.", e);
+                }
+                return this.compileMod(dir, metaMap, hashed, previous);
+            }
+
+            /// Copy files to temp.
+            try {
+                // Files.copy(filesDir, target);
+                FileUtil.copyDirectoryContents(filesDir, target, null);
+                log.info(1, "Mod files copied to " + target.toString());
+            } catch (CancellationException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new Exception("Could not copy Mod contents.", e);
+            }
 
-        /// Compile like normal.
-        return this.compileMod(dir, metaMap);
+            /// Compile like normal.
+            return this.compileMod(dir, metaMap, null, previous);
+        } catch (CancellationException e) {
+            FileUtil.deleteDirectory(target); // only ever staged, nothing was stored
+            log.info(0, "⏹ Compile cancelled, staged files removed.");
+            throw e;
+        }
     } // compileMod()
 
     /**
@@ -212,6 +329,9 @@ public class ModManager {
      * Manifest file, it expects the data to be provided.
      * 
      * @param manifest Ready Manifest instance to work with.
+     * @throws CancellationException If cancelled while its files are staged.
+     *                               The staged files are removed, the game
+     *                               directory is untouched.
      */
     public void deployMod(ModManifest manifest) throws Exception {
         final String modId = manifest.getId();
@@ -219,15 +339,26 @@ public class ModManager {
         final Path storedDir = game.getStoreDirectory().resolve(modId);
 
         log.info(0, "📦 Attempting to deploy Mod " + modId + "...");
+        CancelToken.checkpoint();
+        final CancelToken.Scope trashed = CancelToken.shield(); // moves back all or nothing
+        try {
+            if (redeployFromTrash(manifest)) {
+                log.info(0, "📦 Mod " + modId + " successfully re-enabled from trash!");
+                return;
+            }
+        } finally {
+            trashed.close();
+        }
         if (!LockManager.lockTempDir(tempDir))
             throw new Exception("Could not lock temporary directory");
+        final WriteBatch batch = WriteBatch.begin(game.getDurability());
         try {
 
             /// 1. Find and copy the ModManifest's json file.
             try {
                 final Path manPath = MANIFEST_DIR.resolve(modId + ".json");
                 Files.createDirectories(tempDir.resolve(manPath.getParent()));
-                Files.copy(storedDir.resolve(manPath), tempDir.resolve(manPath));
+                transferManifest(storedDir.resolve(manPath), tempDir.resolve(manPath), false);
                 // copy the manifest first so we have it incase of partial copy.
 
             } catch (FileNotFoundException e) {
@@ -243,38 +374,60 @@ public class ModManager {
             // left behind.
             try {
                 log.info(1, "Copying files to temp...");
-                for (ModFile mf : manifest.getContentsArr()) { // Try to copy each file from the Manifest.
-                    copyModFile(storedDir, tempDir, mf.getFilePath(), manifest);
+                for (ModFile mf : manifest.getContents()) { // Try to copy each file from the Manifest.
+                    CancelToken.checkpoint(); // only temp is changed so far
+                    copyModFile(store.locate(modId, mf.getFilePath(), mf.getHash()), tempDir, mf.getFilePath(),
+                            manifest);
                 }
 
             } catch (FileNotFoundException e) {
                 throw new Exception("Missing ModFile: " + e.getMessage(), e);
             } catch (IOException e) {
                 throw new IOException("Failed IO operation on ModFiles: " + e.getMessage(), e);
+            } catch (CancellationException e) {
+                throw e;
             } catch (Exception e) {
                 throw new Exception("Failed safe copy operation: " + e.getMessage(), e);
             }
+            CancelToken.checkpoint();
 
             /// 3. Copy from temp/{mod_id} to game_root and clean temp.
+            // Readers wait from here until the GameState is saved, it is no longer cancelled.
+            beginCommit("Mod " + modId);
+            final CancelToken.Scope whole = CancelToken.shield();
             try {
-                FileUtil.copyDirectoryContents(tempDir, GAME_ROOT_PATH, StandardCopyOption.REPLACE_EXISTING);
-                log.info(1, "Mod copied from temp to: " + GAME_ROOT_PATH);
-                log.info(1, "Cleaning temp...");
-                FileUtil.deleteDirectory(tempDir);
+                try {
+                    FileUtil.copyDirectoryContents(tempDir, GAME_ROOT_PATH, StandardCopyOption.REPLACE_EXISTING);
+                    log.info(1, "Mod copied from temp to: " + GAME_ROOT_PATH);
+                    log.info(1, "Cleaning temp...");
+                    FileUtil.deleteDirectory(tempDir);
 
-                log.info(0, "📦 Mod " + modId + " successfully deployed!");
-            } catch (IOException e) {
-                throw new Exception("Failed to copy Mod files to temp!", e);
-            }
+                    log.info(0, "📦 Mod " + modId + " successfully deployed!");
+                } catch (IOException e) {
+                    throw new Exception("Failed to copy Mod files to temp!", e);
+                }
 
-            /// 4. Add to GameState
-            this.gameState.appendModOnly(manifest.getAsMod());
-            this.gameState.saveToFile(GAMESTATE_PATH);
+                /// 4. Add to GameState, saved as the commit window closes.
+                synchronized (stateLock) {
+                    this.gameState.appendModOnly(manifest.getAsMod());
+                    stateChanged = true;
+                }
+            } finally {
+                whole.close();
+                endCommit();
+            }
 
+        } catch (CancellationException e) {
+            FileUtil.deleteDirectory(tempDir); // nothing outside temp was changed
+            log.info(0, "⏹ Deploy of Mod " + modId + " cancelled, staged files removed.");
+            throw e;
         } catch (Exception e) {
             throw new Exception("Fatal Error!\n" + e.getMessage() + "\nTemp files remain for review/recovery.", e);
         } finally {
+            batch.close();
             LockManager.unlockTempDir(tempDir);
+            if (!sharedStore)
+                store.close(); // archives read from
         }
     } // deployMod()
 
@@ -303,7 +456,14 @@ public class ModManager {
         /// /// 2. Use data from manifest to safley remove Mod files.
         log.info(1, "moving files of mod: " + manifest.getName());
         Path src;
-        targetDir = TRASH_DIR.resolve(manifest.getId() + "__" + DateUtil.getNumericTimestamp());
+        targetDir = TrashIndex.of(TRASH_DIR).reserve(manifest.getId() + "__" + DateUtil.getNumericTimestamp());
+        // Files still the same as in storage are only referenced in the trash.
+        final TrashRefs refs = store.contains(modId) ? new TrashRefs(targetDir, game.getStoreDirectory()) : null;
+        // Every step changes the game directory, readers wait until done and it is never cancelled part way.
+        if (!LockManager.lockGameCommit(game.getId(), GAME_ROOT_PATH, Thread.currentThread()))
+            throw new InaccessibleObjectException("Game is being read, could not trash Mod " + modId);
+        final WriteBatch batch = WriteBatch.begin(game.getDurability());
+        final CancelToken.Scope whole = CancelToken.shield();
         try {
             // Delete any exsiting trash of the Mod and create target directory.
             try {
@@ -319,7 +479,7 @@ public class ModManager {
             }
 
             Path mfPath; // Path of ModFile entry.
-            for (ModFile mf : manifest.getContentsArr()) {
+            for (ModFile mf : manifest.getContents()) {
                 mfPath = mf.getFilePath();
                 src = GAME_ROOT_PATH.resolve(mfPath);
                 Path flPath = GAME_ROOT_PATH.resolve(LINEAGE_DIR.resolve(mfPath + ".json"));
@@ -331,6 +491,7 @@ public class ModManager {
                     FileLineage fl = (FileLineage) JsonIO.read(
                             flPath.toFile(),
                             MapSerializable.ObjectTypes.FILE_LINEAGE);
+                    final boolean stored = refs != null && isStoredCopy(fl, mf, src);
                     fl.removeAllOf(modId); // Current Mod has forefit any ownership.
 
                     if (fl.getStack().isEmpty()) {
@@ -341,6 +502,8 @@ public class ModManager {
                         if (!Files.exists(targetDir.resolve(mfPath)))
                             Files.createDirectories(targetDir.resolve(mfPath).getParent());
                         Files.move(src, targetDir.resolve(mfPath));
+                        if (stored)
+                            refs.add(modId, mf); // a cached copy, released once stale
 
                         // Trash empty FileLineage/
                         Path flTarget = targetDir.resolve(LINEAGE_DIR.resolve(mfPath + ".json"));
@@ -356,10 +519,15 @@ public class ModManager {
                     } else { // other Owners exsist
                         log.info(1, "⚫ Other owner(s) found for: " + mfPath);
 
-                        log.info(2, "Copy to trash: " + src.toString() + " to " + targetDir.resolve(mfPath));
-                        if (!Files.exists(targetDir.resolve(mfPath)))
-                            Files.createDirectories(targetDir.resolve(mfPath).getParent());
-                        Files.copy(src, targetDir.resolve(mfPath));
+                        if (stored) {
+                            log.info(2, "Reference in trash: " + src.toString() + " (kept in storage)");
+                            refs.add(modId, mf);
+                        } else {
+                            log.info(2, "Copy to trash: " + src.toString() + " to " + targetDir.resolve(mfPath));
+                            if (!Files.exists(targetDir.resolve(mfPath)))
+                                Files.createDirectories(targetDir.resolve(mfPath).getParent());
+                            Files.copy(src, targetDir.resolve(mfPath));
+                        }
 
                         if (!HashUtil.verifyFileIntegrity(mfPath, fl.peek().getHash())) {
                             // If hashes differ, must trash current and restore.
@@ -389,7 +557,8 @@ public class ModManager {
                             } else {
                                 // Restore from Storage for Mod now current owner.
                                 log.info(3, "Restoring from Mod " + fl.peek().getModId() + "'s Storage...");
-                                this.restoreFromStorage(fl.peek().getModId(), mf.getFilePath());
+                                this.restoreFromStorage(fl.peek().getModId(), mf.getFilePath(),
+                                        fl.peek().getHash());
                             }
 
                         } else {
@@ -416,11 +585,11 @@ public class ModManager {
 
             /// /// 4. Remove ModManifest from game files.
             log.info(1, "Trashing Mod Manifest...");
-            Files.move(GAME_ROOT_PATH.resolve(manifestPath), targetDir.resolve(manifestPath));
+            transferManifest(GAME_ROOT_PATH.resolve(manifestPath), targetDir.resolve(manifestPath), true);
 
             /// /// 3. Remove Mod from GameState
             gameState.removeMod(manifest.getAsMod());
-            gameState.saveToFile(GAMESTATE_PATH);
+            saveGameState();
 
             // clean the .manifest/ if it's empty.
             FileUtil.cleanDirectories(GAME_ROOT_PATH, MANIFEST_DIR);
@@ -434,9 +603,177 @@ public class ModManager {
             throw new Exception("Fatal IO Error.", e);
         } catch (Exception e) {
             throw new Exception("Fatal Error! ", e);
+        } finally {
+            whole.close();
+            batch.close();
+            LockManager.unlockGameCommit(game.getId(), Thread.currentThread());
+            store.close(); // archives restored from
+            if (refs != null) {
+                try {
+                    refs.save();
+                } catch (IOException e) {
+                    log.warning("Could not record trash references of Mod " + modId, e);
+                }
+            }
+            TrashIndex.of(TRASH_DIR).add(targetDir); // whatever made it to the trash
         }
     } // trashMod()
 
+    /**
+     * Re-enables a recently disabled Mod by moving its files and lineages back
+     * from the trash entry its disable left, instead of copying them from
+     * storage. Only done if the entry still holds every file of the Mod, not
+     * modified since it was trashed and hashing as in the manifest, with a
+     * lineage naming the Mod as sole owner at the manifest's hash, and nothing
+     * has taken their place in the game since. Otherwise nothing is changed and
+     * the Mod is deployed as normal.<br>
+     * <br>
+     * If moving back fails part way, every file moved is put back in the trash
+     * one by one and the Mod is deployed as normal.
+     * 
+     * @param manifest Manifest of the Mod being deployed.
+     * @return True if the Mod was re-enabled from the trash.
+     * @throws IOException If moving back failed and some files could not be put
+     *                     back either, the failure of the move, with those of
+     *                     putting back suppressed. They are logged.
+     * @throws Exception   If the GameState could not be saved.
+     */
+    private boolean redeployFromTrash(final ModManifest manifest) throws Exception {
+        final String modId = manifest.getId();
+        final Path manifestPath = MANIFEST_DIR.resolve(modId + ".json");
+        final TrashIndex index = TrashIndex.of(TRASH_DIR);
+        final TrashIndex.Entry entry = lastDisabled(modId);
+        if (entry == null || manifest.getContents() == null || manifest.getContents().size() == 0
+                || Files.exists(GAME_ROOT_PATH.resolve(manifestPath)))
+            return false;
+        final Path entryDir = index.resolve(entry);
+
+        /// 1. Check every file can go back as it was. [from, to] pairs.
+        List<Path[]> moves = new ArrayList<>();
+        try {
+            for (ModFile mf : manifest.getContents()) {
+                final Path mfPath = mf.getFilePath();
+                final Path lineage = LINEAGE_DIR.resolve(mfPath + ".json");
+                final Path trashed = entryDir.resolve(mfPath.toString());
+                final Path trashedLineage = entryDir.resolve(lineage.toString());
+
+                if (Files.exists(GAME_ROOT_PATH.resolve(mfPath)) || Files.exists(GAME_ROOT_PATH.resolve(lineage))
+                        || !Files.isRegularFile(trashed) || !Files.isRegularFile(trashedLineage))
+                    return false;
+                if (Files.getLastModifiedTime(trashed).toMillis() > entry.getTrashedAt()
+                        || !HashUtil.verifyFileIntegrity(trashed, mf.getHash(), mf.getSize()))
+                    return false;
+
+                FileLineage fl = (FileLineage) JsonIO.read(trashedLineage.toFile(),
+                        MapSerializable.ObjectTypes.FILE_LINEAGE);
+                if (fl.peek() == null || !Objects.equals(fl.peek().getHash(), mf.getHash())
+                        || !fl.getStack().stream().allMatch(v -> modId.equals(v.getModId())))
+                    return false;
+
+                moves.add(new Path[] { trashed, GAME_ROOT_PATH.resolve(mfPath) });
+                moves.add(new Path[] { trashedLineage, GAME_ROOT_PATH.resolve(lineage) });
+            }
+        } catch (Exception e) {
+            log.warning("Trash of Mod " + modId + " can't be re-enabled from, deploying from storage.", e);
+            return false;
+        }
+
+        /// 2. Move everything back, undoing it all if any move fails.
+        log.info(1, "Moving files back from trash: " + entryDir);
+        List<Path[]> done = new ArrayList<>();
+        try {
+            beginCommit("Mod " + modId);
+        } catch (InaccessibleObjectException e) {
+            return false;
+        }
+        final WriteBatch batch = WriteBatch.begin(game.getDurability());
+        try {
+            try {
+                for (Path[] move : moves) {
+                    Files.createDirectories(move[1].getParent());
+                    Files.move(move[0], move[1]);
+                    done.add(move);
+                }
+                Files.createDirectories(GAME_ROOT_PATH.resolve(manifestPath).getParent());
+                transferManifest(game.getStoreDirectory().resolve(modId).resolve(manifestPath),
+                        GAME_ROOT_PATH.resolve(manifestPath), false);
+            } catch (IOException e) {
+                log.warning("Could not re-enable Mod " + modId + " from trash, putting files back.", e);
+                if (!undoMoves(done, e)) {
+                    log.warning("Mod " + modId + " is left part way re-enabled, see the files above.", e);
+                    throw e;
+                }
+                try {
+                    Files.deleteIfExists(ModManifest.contentsPathFor(GAME_ROOT_PATH.resolve(manifestPath)));
+                    Files.deleteIfExists(GAME_ROOT_PATH.resolve(manifestPath));
+                } catch (IOException undo) {
+                    e.addSuppressed(undo);
+                    log.warning("Could not remove manifest of Mod " + modId + " from the game.", undo);
+                    throw e;
+                }
+                log.info(1, "Files put back, deploying from storage.");
+                return false;
+            }
+
+            synchronized (stateLock) {
+                gameState.appendModOnly(manifest.getAsMod());
+                stateChanged = true;
+            }
+        } finally {
+            batch.close();
+            endCommit();
+        }
+
+        /// 3. The trash entry is used up.
+        try {
+            FileUtil.deleteDirectory(entryDir);
+        } catch (IOException e) {
+            log.warning("Could not delete used trash of Mod " + modId + ": " + entryDir, e);
+        }
+        index.remove(entryDir);
+        return true;
+    } // redeployFromTrash()
+
+    /**
+     * Puts files moved out of the trash back, newest first. Each file is tried
+     * on its own, a file that can't be moved back is logged and the rest still
+     * tried.
+     * 
+     * @param done  [from, to] pairs already moved.
+     * @param cause What the moves failed with, given the failures suppressed.
+     * @return True if every file was put back.
+     */
+    private boolean undoMoves(final List<Path[]> done, final Exception cause) {
+        boolean undone = true;
+        for (int i = done.size() - 1; i >= 0; i--) {
+            final Path[] move = done.get(i);
+            try {
+                Files.move(move[1], move[0]);
+                FileUtil.cleanDirectories(GAME_ROOT_PATH, GAME_ROOT_PATH.relativize(move[1]).getParent());
+            } catch (IOException e) {
+                undone = false;
+                cause.addSuppressed(e);
+                log.warning("Could not put back into the trash: " + move[1] + " -> " + move[0], e);
+            }
+        }
+        return undone;
+    } // undoMoves()
+
+    /**
+     * @param modId A Mod ID.
+     * @return The newest trash entry left by disabling the Mod, or null.
+     */
+    private TrashIndex.Entry lastDisabled(final String modId) {
+        final Pattern name = Pattern.compile(Pattern.quote(modId) + "__\\d{8}_\\d{6}(_\\d+)?");
+        TrashIndex.Entry newest = null;
+        for (TrashIndex.Entry e : TrashIndex.of(TRASH_DIR).list()) {
+            if (name.matcher(e.getPath()).matches()
+                    && (newest == null || e.getTrashedAt() > newest.getTrashedAt()))
+                newest = e;
+        }
+        return newest;
+    } // lastDisabled()
+
     /// /// /// Core Method users /// /// ///
 
     /**
@@ -444,7 +781,12 @@ public class ModManager {
      * saves the file.
      * 
      * @param gState GameState to deploy.
-     * @throws Exception Allows fatal throws from deployMod() to propagate.
+     * @throws Exception             Allows fatal throws from deployMod() to
+     *                               propagate.
+     * @throws CancellationException If the {@link CancelToken} of the thread was
+     *                               cancelled. Stops between Mods, or while one
+     *                               is staged (which is undone); the GameState
+     *                               lists every Mod changed before.
      */
     public void deployGameState(GameState gState) throws Exception {
         log.info(0, "\n🗄 Starting to deploying GameState...");
@@ -453,36 +795,155 @@ public class ModManager {
         if (!LockManager.lockDirectory(game.getId(), game.getInstallDirectory()))
             throw new InaccessibleObjectException("Game directory is locked by another process");
 
+        final AtomicInteger changed = new AtomicInteger();
+        final WriteBatch batch = WriteBatch.begin(game.getDurability());
         try {
             List<Mod> diff = mkGameStateDif(gState).getDeployedMods()
                     .stream()
                     .sorted(Comparator.comparing(Mod::isEnabled)) // Get disabled first
                     .toList();
-            int changeMax = diff.size();
-            int i = 0;
+            final int changeMax = diff.size();
+            final Runnable progress = () -> log.info(0, "\n" + Logger.progressBar(changed.incrementAndGet(), changeMax));
+
+            List<ModManifest> enabled = new ArrayList<>();
             for (Mod mod : diff) {
 
                 if (mod.isEnabled()) {
-                    // log.logEntry("Installing enabled mod: " + mod.getId());
-                    deployMod(
-                            this.getModManifestById(
-                                    mod.getId()).setFromMap(mod.toMap()));
                     // Passes the updated (re-ordered) version from the GameState.
+                    enabled.add(this.getModManifestById(mod.getId()).setFromMap(mod.toMap()));
                 } else {
                     // log.logEntry("Trashing disabled mod: " + mod.getId());
+                    CancelToken.checkpoint();
                     disableMod(mod.getId());
+                    progress.run();
                 }
-                i++;
-                log.info(0, "\n" + Logger.progressBar(i, changeMax));
 
             } // for each Mod
+            deployAll(enabled, progress);
+        } catch (CancellationException e) {
+            log.info(0, "\n⏹ Deploying GameState cancelled, " + changed.get() + " Mod(s) changed before it stopped.");
+            throw e;
         } finally {
+            batch.close();
             // Always release lock
             LockManager.unlockDirectory(game.getId());
         }
         log.info(0, "\n🗄 Done deploying GameState.");
     } // deployGameState()
 
+    /**
+     * Deploys Mods in order, side by side where they share no files. Each waits
+     * for the Mods before it that it conflicts with (see {@link ConflictGraph}),
+     * so Mods touching the same file, or its lineage, still deploy in load
+     * order and Mods running side by side never share one. After a failure or
+     * cancel no more Mods are started, the first failure in order is thrown
+     * once the rest finish.
+     * 
+     * @param manifests Manifests to deploy, in load order.
+     * @param progress  Run after each Mod is deployed.
+     */
+    private void deployAll(final List<ModManifest> manifests, final Runnable progress) throws Exception {
+        final ConflictGraph graph = ConflictGraph.of(manifests, GAME_ROOT_PATH);
+        final int workers = Math.min(deployThreads, graph.size());
+        if (workers <= 1 || graph.getDepth() == graph.size()) { // nothing to gain
+            for (ModManifest manifest : manifests) {
+                deployMod(manifest);
+                progress.run();
+            }
+            return;
+        }
+        log.info(1, String.format("Deploying %d Mods on %d threads, at least %d in a row by conflicts.",
+                graph.size(), workers, graph.getDepth()));
+
+        final WriteBatch batch = WriteBatch.current();
+        final CancelToken token = CancelToken.current();
+        final Exception[] errors = new Exception[graph.size()];
+        final AtomicBoolean failed = new AtomicBoolean(false);
+        final AtomicInteger count = new AtomicInteger();
+        final ExecutorService pool = Executors.newFixedThreadPool(workers, r -> {
+            Thread thread = new Thread(r, "deploy-" + game.getId() + "-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        final List<CompletableFuture<Void>> done = new ArrayList<>(graph.size());
+        sharedStore = true;
+        try {
+            for (int i = 0; i < graph.size(); i++) {
+                final int index = i;
+                final ModManifest manifest = graph.getMods().get(i);
+                final CompletableFuture<?>[] before = graph.getConflicts(i).stream()
+                        .map(done::get)
+                        .toArray(CompletableFuture[]::new);
+                done.add(CompletableFuture.allOf(before).thenRunAsync(() -> {
+                    if (failed.get())
+                        throw new CancellationException("Not deployed after an earlier failure: " + manifest.getId());
+                    final WriteBatch joined = WriteBatch.join(batch);
+                    final CancelToken.Scope bound = CancelToken.bind(token);
+                    try {
+                        deployMod(manifest);
+                        progress.run();
+                    } catch (Exception e) {
+                        errors[index] = e;
+                        failed.set(true);
+                        throw new CompletionException(e);
+                    } finally {
+                        bound.close();
+                        joined.close();
+                    }
+                }, pool));
+            }
+            try {
+                CompletableFuture.allOf(done.toArray(CompletableFuture[]::new)).join();
+            } catch (CompletionException | CancellationException e) {
+                // Waited for every Mod, the cause is found below.
+                for (CompletableFuture<Void> next : done)
+                    next.handle((v, t) -> null).join();
+            }
+        } finally {
+            pool.shutdown();
+            sharedStore = false;
+            store.close(); // archives read from
+        }
+        for (Exception e : errors)
+            if (e != null)
+                throw e;
+    } // deployAll()
+
+    /**
+     * Opens the commit window: the first Mod committing locks the Game's
+     * deployed state, readers waiting until the last one leaves. Mods deploying
+     * side by side commit within one window.
+     * 
+     * @param what What is committed, for the error.
+     * @throws InaccessibleObjectException If the Game could not be locked.
+     */
+    private void beginCommit(final String what) {
+        synchronized (stateLock) {
+            if (committing == 0 && !LockManager.lockGameCommit(game.getId(), GAME_ROOT_PATH, stateLock))
+                throw new InaccessibleObjectException("Game is being read, could not commit " + what);
+            committing++;
+        }
+    } // beginCommit()
+
+    /**
+     * Leaves the commit window. The last to leave saves the GameState if it
+     * changed, then unlocks the Game.
+     */
+    private void endCommit() throws Exception {
+        synchronized (stateLock) {
+            if (--committing > 0)
+                return;
+            try {
+                if (stateChanged) {
+                    stateChanged = false;
+                    saveGameState();
+                }
+            } finally {
+                LockManager.unlockGameCommit(game.getId(), stateLock); // the window's, not a thread's
+            }
+        }
+    } // endCommit()
+
     ///
 
     /**
@@ -506,9 +967,16 @@ public class ModManager {
         }
 
         /// Write file with changes
-        manifest = (ModManifest) JsonIO.read(path.toFile(), MapSerializable.ObjectTypes.MOD_MANIFEST);
-        manifest = this.getModManifestById(modId).setFromMap(metaMap);
-        JsonIO.write(manifest, path.toFile());
+        if (!LockManager.lockStore(game.getStoreDirectory()))
+            throw new InaccessibleObjectException("Mod store is locked by another process");
+        try {
+            manifest = (ModManifest) JsonIO.read(path.toFile(), MapSerializable.ObjectTypes.MOD_MANIFEST);
+            manifest = this.getModManifestById(modId).setFromMap(metaMap);
+            JsonIO.write(manifest, path.toFile());
+        } finally {
+            LockManager.unlockStore(game.getStoreDirectory());
+        }
+        updateCatalog(modId);
 
         /// Restore if was installed
         if (loadOrder > -1) {
@@ -527,6 +995,8 @@ public class ModManager {
      * @param filesDir Path to new files or Null to skip and use exsisting files.
      * @param metaMap  Map of values to change.
      * @throws Exception
+     * @throws CancellationException If cancelled while the new version is
+     *                               compiled. The old one is left deployed.
      */
     public void updateMod(final String modId, Path filesDir, final Map<String, Object> metaMap) throws Exception {
         ModManifest manifest = new ModManifest();
@@ -540,22 +1010,118 @@ public class ModManager {
         }
 
         /// Compile new Manifest.
-        if (filesDir == null) { // get old contents path.
-            filesDir = game.getStoreDirectory().resolve(modId);
+        final ModManifest previous = getModManifestById(modId);
+        try {
+            if (filesDir == null && previous.getStorage() == ModStore.Mode.LOOSE) {
+                manifest = updateInPlace(previous, metaMap); // only looks at what was edited
+            } else if (filesDir == null) { // re-use the stored contents.
+                String dir = stageDirName(metaMap);
+                try {
+                    store.export(previous, TEMP_DIR.resolve(dir));
+                } finally {
+                    store.close();
+                }
+                try {
+                    manifest = compileMod(dir, metaMap, null, previous);
+                } catch (CancellationException e) {
+                    FileUtil.deleteDirectory(TEMP_DIR.resolve(dir));
+                    throw e;
+                }
+            } else {
+                manifest = compileMod(filesDir, metaMap, previous); // this will also write the file
+            }
+        } catch (CancellationException e) {
+            if (loadOrder > -1) { // put back as it was
+                final CancelToken.Scope whole = CancelToken.shield();
+                try {
+                    previous.setLoadOrder(loadOrder);
+                    deployMod(previous);
+                } finally {
+                    whole.close();
+                }
+            }
+            log.info(0, "⏹ Update of Mod " + modId + " cancelled, it is left as it was.");
+            throw e;
         }
-        manifest = compileMod(filesDir, metaMap); // this will also write the file
+        // Past here the old version is replaced, it is seen through.
+        final CancelToken.Scope whole = CancelToken.shield();
+        try {
+            /// Keep old version as the new one's base, or delete it.
+            if (!manifest.getId().equals(modId)) {
+                if (!LockManager.lockStore(game.getStoreDirectory()))
+                    throw new InaccessibleObjectException("Mod store is locked by another process");
+                try {
+                    if (modId.equals(manifest.getBase())) {
+                        log.info("Mod ID has changed. Keeping old version for the files the new one shares.");
+                        store.supersede(modId, manifest.getId());
+                    } else {
+                        log.info("Mod ID has changed. Deleting old version.");
+                        removeStored(modId, null);
+                    }
+                } finally {
+                    LockManager.unlockStore(game.getStoreDirectory());
+                }
+                updateCatalog(modId);
+            }
 
-        /// Delete old version if present.
-        if (!manifest.getId().equals(modId)) {
-            log.info("Mod ID has changed. Deleting old version.");
-            FileUtil.deleteDirectory(game.getStoreDirectory().resolve(modId));
+            /// Restore if was installed.
+            if (loadOrder > -1) {
+                deployMod(manifest);
+            }
+        } finally {
+            whole.close();
         }
+    }
 
-        /// Restore if was installed.
-        if (loadOrder > -1) {
-            deployMod(manifest);
+    /**
+     * Updates a loose Mod from files edited in its storage folder, without
+     * staging a copy. Only new or modified files are hashed. If the ID changed
+     * the new version only takes the changed files, the rest are read from the
+     * old version.
+     * 
+     * @param previous Manifest of the stored Mod.
+     * @param metaMap  Mod data of the new version.
+     * @return Manifest of the updated Mod.
+     * @throws Exception
+     */
+    private ModManifest updateInPlace(final ModManifest previous, final Map<String, Object> metaMap)
+            throws Exception {
+        ModManifest manifest = new ModManifest();
+        manifest.setGameId(game.getId());
+        try {
+            manifest.setFromMap(metaMap);
+        } catch (Exception e) {
+            throw new Exception("Failed to prase meta data: " + e.getMessage(), e);
         }
-    }
+        manifest.generateModId();
+
+        log.info(1, "Scanning stored files of Mod: " + previous.getId());
+        final ModStore.Changes changes = store.scanChanges(previous);
+        log.info(1, changes.changed.size() + " file(s) added or changed, " + changes.removed + " removed.");
+        manifest.setContents(changes.contents);
+        manifest.setStorage(ModStore.Mode.LOOSE);
+
+        if (!LockManager.lockStore(game.getStoreDirectory()))
+            throw new InaccessibleObjectException("Mod store is locked by another process");
+        final WriteBatch batch = WriteBatch.begin(game.getDurability());
+        try {
+            // The trash only references the stored files about to be rewritten or moved.
+            TrashRefs.materialize(store, previous.getId());
+            if (manifest.getId().equals(previous.getId())) {
+                manifest.setBase(previous.getBase());
+                store.rewrite(manifest);
+            } else {
+                store.branch(previous, manifest, changes.changed);
+            }
+        } catch (Exception e) {
+            throw new Exception("Failed to update stored Mod: " + e.getMessage(), e);
+        } finally {
+            batch.close();
+            LockManager.unlockStore(game.getStoreDirectory());
+        }
+        updateCatalog(manifest.getId());
+        return manifest;
+    } // updateInPlace()
 
     /**
      * Deletes (moves to trash with a timestamp) a Mod from storage if it is not
@@ -572,9 +1138,18 @@ public class ModManager {
             throw new InaccessibleObjectException("Cannot delete as the Mod is currently deployed");
 
         /// 2. Delete the mod.
-        Files.move(
-                game.getStoreDirectory().resolve(modId),
-                TRASH_DIR.resolve(modId + "__" + DateUtil.getNumericTimestamp()));
+        if (!LockManager.lockStore(game.getStoreDirectory()))
+            throw new InaccessibleObjectException("Mod store is locked by another process");
+        final Path trashDir = TrashIndex.of(TRASH_DIR).reserve(modId + "__" + DateUtil.getNumericTimestamp());
+        final WriteBatch batch = WriteBatch.begin(game.getDurability());
+        try {
+            removeStored(modId, trashDir);
+        } finally {
+            batch.close();
+            TrashIndex.of(TRASH_DIR).add(trashDir);
+            LockManager.unlockStore(game.getStoreDirectory());
+        }
+        updateCatalog(modId);
         log.info(0, "Mod has been moved to trash.");
     }
 
@@ -591,8 +1166,8 @@ public class ModManager {
      * <br>
      * Can support restoring files when mods are re-deployed/re-ordered.
      * 
-     * @param sourceDir   The source directory the ModFile is relative to.
-     *                    eg: ./mod_storage/mod_id/...
+     * @param source      The stored file to copy, from
+     *                    {@link ModStore#locate(String, Path, String)}.
      * @param targetDir   The target directory the ModFile is relative to.
      *                    eg: ./temp/mod_id_timestamp/...
      * @param modFilePath The relative path (String) and file being copied.
@@ -603,7 +1178,7 @@ public class ModManager {
      * 
      * @see Doc/diagrams/ModFile_copy_logic.png in Project for logic-breakdown.
      */
-    private void copyModFile(Path sourceDir, final Path targetDir, Path modFilePath, final ModManifest mod)
+    private void copyModFile(final Path source, final Path targetDir, Path modFilePath, final ModManifest mod)
             throws Exception {
         final String modId = mod.getId();
         final int loadOrder = mod.getLoadOrder();
@@ -623,8 +1198,10 @@ public class ModManager {
         try {
             modFile = new ModFile(
                     modFilePath,
-                    HashUtil.computeFileHash(sourceDir.resolve(modFilePath)),
-                    Files.size(sourceDir.resolve(modFilePath)));
+                    HashUtil.computeFileHash(source),
+                    Files.size(source));
+        } catch (CancellationException e) {
+            throw e;
         } catch (Exception e) {
             throw new Exception("Failed to construct ModFile: " + e.getMessage(), e);
         }
@@ -655,8 +1232,8 @@ public class ModManager {
                 // Setup lineage
                 fl = new FileLineage(
                         new ModFile(modFilePath,
-                                HashUtil.computeFileHash(sourceDir.resolve(modFilePath)),
-                                Files.size(sourceDir.resolve(modFilePath))),
+                                HashUtil.computeFileHash(source),
+                                Files.size(source)),
                         FileVersion.GAME_OWNER); // initialize with Game Version
                 fl.pushVersion(modId, modFile.getHash()); // Add the new Version
                 // COPY
@@ -672,7 +1249,12 @@ public class ModManager {
 
                 try {
                     // If it was top: COPY
-                    if (fl.insertOrderedVersion(new FileVersion(modId, modFile.getHash()), gameState, loadOrder) == 0) {
+                    final int position;
+                    synchronized (stateLock) { // other Mods may be deploying
+                        position = fl.insertOrderedVersion(new FileVersion(modId, modFile.getHash()), gameState,
+                                loadOrder);
+                    }
+                    if (position == 0) {
                         copy = true;
                         log.info(1, "✔ Pushed as new owner in lineage.");
 
@@ -687,14 +1269,16 @@ public class ModManager {
                             log.warning(2, "File is not what owner expects! Repairing...", null);
                             try {
                                 Files.copy(
-                                        game.getStoreDirectory().resolve(fl.getStack().peek().getModId(),
-                                                modFilePath.toString()),
+                                        store.locate(fl.getStack().peek().getModId(), modFilePath,
+                                                fl.getStack().peek().getHash()),
                                         targetDir.resolve(modFilePath));
                             } catch (IOException e) {
                                 throw new IOException("Failed to restore file from owner.", e);
                             }
                         }
                     }
+                } catch (CancellationException e) {
+                    throw e;
                 } catch (Exception e) {
                     log.warning(3, "Did not re-insert Mod, skipping...", e);
                 }
@@ -723,9 +1307,9 @@ public class ModManager {
         if (copy) {
             Files.createDirectories(targetDir.resolve(modFilePath).getParent()); // won't exsist in temp.
             Files.copy(
-                    sourceDir.resolve(modFilePath), targetDir.resolve(modFilePath),
+                    source, targetDir.resolve(modFilePath),
                     StandardCopyOption.REPLACE_EXISTING);
-            log.info(1, "✔ File copied from: " + sourceDir.resolve(modFilePath) + " to "
+            log.info(1, "✔ File copied from: " + source + " to "
                     + targetDir.resolve(modFilePath) + "\n");
         }
     } // copyModFile()
@@ -766,10 +1350,12 @@ public class ModManager {
      * 
      * @param modId       ModId to retreive matching file from.
      * @param modFilePath ModFile path in manifest to fetch.
+     * @param hash        Hash of the file the Mod expects.
      * @throws Exception Throws is Mod Storage file or manifest is missing.
      */
-    private void restoreFromStorage(final String modId, final Path modFilePath) throws Exception {
-        final Path source = game.getStoreDirectory().resolve(modId, modFilePath.toString());
+    private void restoreFromStorage(final String modId, final Path modFilePath, final String hash)
+            throws Exception {
+        final Path source = store.locate(modId, modFilePath, hash);
         if (!Files.exists(source)) {
             throw new FileNotFoundException(
                     "Source file in storage not found: " + source.toString());
@@ -777,6 +1363,99 @@ public class ModManager {
         Files.copy(source, GAME_ROOT_PATH.resolve(modFilePath), StandardCopyOption.REPLACE_EXISTING);
     } // restoreFromManifest()
 
+    /**
+     * @param fl  Lineage of the deployed file, before the Mod is removed from it.
+     * @param mf  The Mod's file, as in its manifest.
+     * @param src The deployed file.
+     * @return True if the deployed file is still the Mod's own copy, so the same
+     *         bytes are in storage. The file is hashed, as it may have been
+     *         edited in place since it was deployed.
+     */
+    private static boolean isStoredCopy(final FileLineage fl, final ModFile mf, final Path src) {
+        FileVersion top = fl.peek();
+        if (top == null || mf.getHash() == null || !mf.getHash().equals(top.getHash()))
+            return false;
+        return HashUtil.verifyFileIntegrity(src, mf.getHash(), mf.getSize());
+    } // isStoredCopy()
+
+    /**
+     * Removes a Mod from storage, releasing any files it shares with other Mods.
+     * 
+     * @param modId    ID of the stored Mod.
+     * @param trashDir Where to move it, or null to delete it.
+     * @throws Exception
+     */
+    private void removeStored(final String modId, final Path trashDir) throws Exception {
+        final ModManifest manifest;
+        try {
+            manifest = getModManifestById(modId);
+        } catch (Exception e) {
+            // Nothing can be released without the manifest, get the folder out of the way.
+            log.warning("Could not read manifest of stored Mod " + modId + ", removing folder as-is.", e);
+            TrashRefs.materialize(store, modId);
+            if (trashDir != null)
+                Files.move(game.getStoreDirectory().resolve(modId), trashDir);
+            else
+                FileUtil.deleteDirectory(game.getStoreDirectory().resolve(modId));
+            return;
+        }
+        store.remove(manifest, trashDir);
+    } // removeStored()
+
+    /**
+     * Saves the GameState, letting the Game's session know it changed.
+     */
+    private void saveGameState() throws Exception {
+        try {
+            gameState.saveToFile(GAMESTATE_PATH);
+        } finally {
+            session.changed();
+        }
+    } // saveGameState()
+
+    /**
+     * Refreshes a Mod's catalog entry, letting the Game's session know it
+     * changed.
+     */
+    private void updateCatalog(final String modId) {
+        ModCatalog.update(game.getStoreDirectory(), modId);
+        session.changed();
+    }
+
+    /**
+     * @param metaMap Mod data, for the name.
+     * @return Unique directory name in temp to stage a Mod's files in.
+     */
+    private static String stageDirName(final Map<String, Object> metaMap) {
+        String modId = metaMap.containsKey("name")
+                ? String.format("%05d", metaMap.get("name").toString().hashCode() & 0xffff)
+                : "modId"; // should be impossible to not have a name
+        return modId + "__" + DateUtil.getNumericTimestamp();
+    } // stageDirName()
+
+    /**
+     * Copies or moves a manifest header together with its contents file, if it
+     * has one. (Older manifests are a single file)
+     * 
+     * @param header Manifest header to copy/move.
+     * @param target Where the header should end up.
+     * @param move   Move instead of copy.
+     * @throws IOException
+     */
+    private static void transferManifest(final Path header, final Path target, boolean move) throws IOException {
+        final Path contents = ModManifest.contentsPathFor(header);
+        if (Files.exists(contents)) {
+            if (move)
+                Files.move(contents, ModManifest.contentsPathFor(target));
+            else
+                Files.copy(contents, ModManifest.contentsPathFor(target));
+        }
+        if (move)
+            Files.move(header, target);
+        else
+            Files.copy(header, target);
+    } // transferManifest()
+
     /**
      * Makes a Diff-GameState that only contains the changes that need to be made to
      * the current instance GameState to make it the same as the passed new
@@ -787,32 +1466,32 @@ public class ModManager {
      * <br>
      * This instance is not for being written to a file.
      * 
-     * @param newGs A new GameState with changes to apply.
+     * @param newGs A new GameState with changes to apply, left as it is.
      * @return A GameState with only the changes to apply relative to the current
      *         GameState, where Mods with a LoadOrder of -1 are to be removed.
      */
     private GameState mkGameStateDif(GameState newGs) {
         log.info(1, "Making GameState Diff.");
-
-        /// 1. Go through current GameState
-        for (Mod current : gameState.getDeployedMods()) {
-
-            /// .1 Remove un-changed duplicates from newGs.
-            if (newGs.containsMod(current.getId()) && newGs.getLoadOrder(current.getId()) == current.getLoadOrder()) {
-                newGs.removeMod(current);
-                continue;
-            }
-            /// .2 Add to newGs entries that were removed as disabled.
-            else if (gameState.containsMod(current.getId()) && !newGs.containsMod(current.getId())) {
-                current.setEnabled(false);
-                newGs.addMod(current);
-            }
+        final GameStateSnapshot wanted = GameStateSnapshot.of(newGs);
+        final GameStateSnapshot.Diff changes = wanted.diff(GameStateSnapshot.of(gameState));
+        GameState diffGs = new GameState();
+
+        /// 1. New or moved Mods in load order, as flagged in newGs. Unmoved ones are left be.
+        for (GameStateSnapshot.Entry entry : wanted.getEntries())
+            if (changes.getAdded().contains(entry) || changes.getReordered().contains(entry))
+                diffGs.addMod(entry.toMod());
+
+        /// 2. Mods no longer in newGs, as disabled.
+        for (GameStateSnapshot.Entry entry : changes.getRemoved()) {
+            Mod removed = entry.toMod();
+            removed.setEnabled(false);
+            diffGs.addMod(removed);
         }
 
         log.info(1,
                 "Finished GameState Diff.",
-                "Finished GameState Diff: " + newGs.toString() + "\n");
-        return newGs;
+                "Finished GameState Diff: " + diffGs.toString() + "\n");
+        return diffGs;
     } // mkGameStateDif()
 
     // #endregion
@@ -858,10 +1537,7 @@ public class ModManager {
         Path path = game.getStoreDirectory().resolve(modId, MANIFEST_DIR.toString(), modId + ".json");
 
         try {
-            mod = (Mod) JsonIO.read(
-                    path.toFile(),
-                    MapSerializable.ObjectTypes.MOD_MANIFEST,
-                    MapSerializable.ObjectTypes.MOD);
+            mod = ModManifest.loadFromFile(path).getAsMod(); // header only
         } catch (InvalidObjectException e) {
             throw new Exception("Mod file does not exsists! " + path.toString(), e);
         } catch (Exception e) {
@@ -881,9 +1557,7 @@ public class ModManager {
         Path path = game.getStoreDirectory().resolve(modId, MANIFEST_DIR.toString(), modId + ".json");
 
         try {
-            mod = (ModManifest) JsonIO.read(
-                    path.toFile(),
-                    MapSerializable.ObjectTypes.MOD_MANIFEST);
+            mod = ModManifest.loadFromFile(path); // contents load on first use
         } catch (InvalidObjectException e) {
             throw new Exception("File is not a ModManifest. " + path.toString(), e);
         } catch (Exception e) {
@@ -902,43 +1576,63 @@ public class ModManager {
      * @throws Exception
      */
     public List<Mod> getAllMods() throws Exception {
-        List<Mod> allLs = new ArrayList<>();
-        try (Stream<Path> paths = Files.list(game.getStoreDirectory())) {
-            for (Path path : (Iterable<Path>) paths::iterator) {
-                // Process each directory
-                if (Files.isDirectory(path)) {
-                    try {
-                        path = path.resolve(config.getManifestDir().toString(), path.getFileName() + ".json");
-
-                        if (!Files.exists(path)) {
-                            log.warning("Mod folder " + path.getFileName() + " is missing a manifest!", null);
-                            throw new InvalidObjectException(
-                                    "Directory" + path.getFileName() + "is missing a Manifest.");
-                        }
-                        Mod mod = (Mod) JsonIO.read(
-                                path.toFile(),
-                                MapSerializable.ObjectTypes.MOD_MANIFEST,
-                                MapSerializable.ObjectTypes.MOD);
-
-                        if (gameState.containsMod(mod.getId())) {
-                            mod.setLoadOrder(gameState.getLoadOrder(mod.getId()));
-                            mod.setEnabled(true);
-                        } else {
-                            mod.setEnabled(false); // redundant but better be safe.
-                        }
-                        allLs.add(mod);
+        return getAllMods(getCommittedState()); // as last committed, not mid-operation
+    }
 
-                    } catch (InvalidObjectException e) {
-                        // Just skips silently. Other errors are caught outside to stop process.
-                    }
-                }
-            }
+    /**
+     * @param deployed GameState to take Enabled flags and LoadOrders from.
+     * @see #getAllMods()
+     */
+    List<Mod> getAllMods(final GameState deployed) throws Exception {
+        List<Mod> allLs;
+        try {
+            allLs = session.getCatalog(game.getStoreDirectory()); // Only reads what changed.
         } catch (Exception e) {
             throw new Exception("Failed to read Storage mods: " + e.getMessage(), e);
         }
+
+        for (Mod mod : allLs) {
+            if (deployed.containsMod(mod.getId())) {
+                mod.setLoadOrder(deployed.getLoadOrder(mod.getId()));
+                mod.setEnabled(true);
+            } else {
+                mod.setEnabled(false); // redundant but better be safe.
+            }
+        }
         return allLs;
     }
 
+    /**
+     * @return The Game's GameState as last committed, this manager's own if it
+     *         cannot be read, or an empty one if the Game has none.
+     * @throws InaccessibleObjectException If a commit held the Game too long.
+     */
+    GameState getCommittedState() {
+        try {
+            return readGameState();
+        } catch (InaccessibleObjectException e) {
+            throw e;
+        } catch (Exception e) {
+            return Files.exists(GAMESTATE_PATH) ? gameState : new GameState();
+        }
+    } // getCommittedState()
+
+    /**
+     * @return The Game's GameState as last committed, read under the Game's
+     *         read lock.
+     * @throws InaccessibleObjectException If a commit held the Game too long.
+     * @throws Exception                   If there is no readable GameState.
+     */
+    private GameState readGameState() throws Exception {
+        if (!LockManager.lockGameRead(game.getId(), GAME_ROOT_PATH))
+            throw new InaccessibleObjectException("Game is busy committing changes: " + game.getId());
+        try {
+            return session.getGameState(GAMESTATE_PATH);
+        } finally {
+            LockManager.unlockGameRead(game.getId());
+        }
+    } // readGameState()
+
     /**
      * Trashes all deployed Mods, ordered to reduce total file system operations and
      * file restorations.
@@ -948,6 +1642,7 @@ public class ModManager {
     public void disableAllMods() throws Exception {
         if (!LockManager.lockDirectory(game.getId(), game.getInstallDirectory()))
             throw new InaccessibleObjectException("Game directory is locked by another process");
+        final WriteBatch batch = WriteBatch.begin(game.getDurability());
         try {
             if (gameState.getDeployedMods() == null || gameState.getDeployedMods().isEmpty())
                 return;
@@ -956,9 +1651,63 @@ public class ModManager {
                 this.disableMod(gameState.getDeployedMods().getFirst().getId());
             }
         } finally {
+            batch.close();
             LockManager.unlockDirectory(game.getId());
         }
     } // trashAll()
 
+    /**
+     * Checks the deployed files of every deployed Mod against its manifest. A
+     * file is only checked while its lineage says this Mod's version is on top,
+     * otherwise another Mod's version is expected there.<br>
+     * <br>
+     * Only reads, so holds the Game's read lock rather than its lock: the
+     * GameState last committed is checked, none if the Game has never had
+     * one, and commits wait until done.
+     * 
+     * @return Files missing, without a lineage, or changed since deployed,
+     *         relative to the Game's directory. Empty if all is as deployed.
+     * @throws InaccessibleObjectException If a commit held the Game too long.
+     * @throws Exception                   If a manifest cannot be read.
+     */
+    public List<Path> verifyDeployment() throws Exception {
+        if (!LockManager.lockGameRead(game.getId(), GAME_ROOT_PATH))
+            throw new InaccessibleObjectException("Game is busy committing changes: " + game.getId());
+        List<Path> problems = new ArrayList<>();
+        try {
+            final GameState committed = Files.exists(GAMESTATE_PATH) ? readGameState() : new GameState();
+            for (Mod mod : committed.getDeployedMods()) {
+                ModManifest manifest = (ModManifest) JsonIO.read(
+                        GAME_ROOT_PATH.resolve(MANIFEST_DIR.resolve(mod.getId() + ".json")).toFile(),
+                        MapSerializable.ObjectTypes.MOD_MANIFEST);
+
+                for (ModFile mf : manifest.getContents()) {
+                    final Path mfPath = mf.getFilePath();
+                    final Path flPath = GAME_ROOT_PATH.resolve(LINEAGE_DIR.resolve(mfPath + ".json"));
+                    if (!Files.exists(flPath) || !Files.exists(GAME_ROOT_PATH.resolve(mfPath))) {
+                        log.info(1, "❗ Missing file or lineage: " + mfPath);
+                        problems.add(mfPath);
+                        continue;
+                    }
+                    FileVersion top = ((FileLineage) JsonIO.read(flPath.toFile(),
+                            MapSerializable.ObjectTypes.FILE_LINEAGE)).peek();
+                    if (top == null || !mod.getId().equals(top.getModId()))
+                        continue; // overridden
+                    // The lineage has the hash deployed, the manifest may be of a newer update.
+                    final boolean intact = Objects.equals(top.getHash(), mf.getHash())
+                            ? HashUtil.verifyFileIntegrity(GAME_ROOT_PATH.resolve(mfPath), mf.getHash(), mf.getSize())
+                            : HashUtil.verifyFileIntegrity(GAME_ROOT_PATH.resolve(mfPath), top.getHash());
+                    if (!intact) {
+                        log.info(1, "❗ Changed since deployed: " + mfPath);
+                        problems.add(mfPath);
+                    }
+                }
+            }
+        } finally {
+            LockManager.unlockGameRead(game.getId());
+        }
+        return problems;
+    } // verifyDeployment()
+
     // #endregion
 } // Class
\ No newline at end of file
@@ -0,0 +1,618 @@
+/**
+ * Author Stephanos B
+ * Date 19/10/2026
+ */
+package core.managers;
+
+import java.io.IOException;
+import java.lang.reflect.InaccessibleObjectException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import core.config.AppConfig;
+import core.objects.Game;
+import core.objects.GameState;
+import core.objects.ModFile;
+import core.objects.ModManifest;
+import core.storage.BlobStore;
+import core.storage.ModStore;
+import core.utils.DateUtil;
+import core.utils.FileUtil;
+import core.utils.Logger;
+import core.utils.TrashIndex;
+
+/**
+ * Finds and reclaims data nothing references anymore:
+ * <ul>
+ * <li>Store folders without a manifest.</li>
+ * <li>Superseded Mod versions whose newer version is gone.</li>
+ * <li>Blobs no manifest or reference count uses.</li>
+ * <li>Staging folders left in temp by failed operations.</li>
+ * <li>Game file backups no lineage will ever restore.</li>
+ * </ul>
+ * The live set is built from every Game's GameState, manifests and lineages.
+ * Anything that could still be the user's data (store folders, backups) is
+ * moved to the trash, everything else is deleted. Manifests still in the older
+ * single-file form are split on the way, as the collector holds the store
+ * lock readers don't.<br>
+ * <br>
+ * Works one Game and one item at a time, deleting in throttled batches. A
+ * Game's store is swept holding its store lock and its backups holding its
+ * Game lock, so no Mod can be stored, updated or deployed part way through.
+ * Neither is waited for: a busy Game is left for the next run, and Mod
+ * operations on other Games are never blocked. The GameState is read under
+ * the Game's read lock. Anything younger than the minimum age is left too, in
+ * case another process works on it without file locks. A run can be capped
+ * with {@link #setMaxBytes(long)}, the rest is found next run.
+ *
+ * @author Stephanos B
+ * @since v4.0.5
+ */
+public class StorageCollector {
+    private static final AppConfig config = AppConfig.getInstance();
+    private static final Logger log = Logger.getInstance();
+
+    /**
+     * Names of the staging folders Mod operations create in temp, as
+     * {@code name__yyyyMMdd_HHmmss}. Anything else in temp is the user's.
+     */
+    private static final Pattern STAGING_NAME = Pattern.compile(".+__\\d{8}_\\d{6}");
+
+    private Duration minAge = Duration.ofHours(1);
+    private int filesPerPause = 500;
+    private long pauseMillis = 20;
+    private long maxBytes = Long.MAX_VALUE;
+    private boolean dryRun = false;
+
+    private Report report;
+
+    /**
+     * What a run found and reclaimed.
+     */
+    public static class Report {
+        private long bytesFreed = 0;
+        private long filesDeleted = 0;
+        private int itemsReclaimed = 0;
+        private int movedToTrash = 0;
+        private int skipped = 0;
+        private int refsRepaired = 0;
+        private int refsLeaked = 0;
+        private boolean complete = true;
+
+        public long getBytesFreed() {
+            return bytesFreed;
+        }
+
+        public long getFilesDeleted() {
+            return filesDeleted;
+        }
+
+        /**
+         * @return Number of folders, blobs and files reclaimed.
+         */
+        public int getItemsReclaimed() {
+            return itemsReclaimed;
+        }
+
+        public int getMovedToTrash() {
+            return movedToTrash;
+        }
+
+        /**
+         * @return Items left because they were in use or locked.
+         */
+        public int getSkipped() {
+            return skipped;
+        }
+
+        /**
+         * @return Blob reference counts raised to match the manifests using them.
+         */
+        public int getRefsRepaired() {
+            return refsRepaired;
+        }
+
+        /**
+         * @return Blob references no manifest accounts for. Left alone, as a Mod
+         *         may be being stored.
+         */
+        public int getRefsLeaked() {
+            return refsLeaked;
+        }
+
+        /**
+         * @return False if the run stopped early, on its byte budget or when
+         *         interrupted.
+         */
+        public boolean isComplete() {
+            return complete;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(
+                    "Reclaimed %.2f MB in %d file(s) from %d item(s), %d moved to trash, %d skipped, "
+                            + "%d blob reference(s) repaired, %d leaked.%s",
+                    bytesFreed / (1024f * 1024f), filesDeleted, itemsReclaimed, movedToTrash, skipped,
+                    refsRepaired, refsLeaked, complete ? "" : " (stopped early)");
+        }
+    } // Report
+
+    /// /// /// Options /// /// ///
+
+    /**
+     * @param minAge Only reclaim what was last modified longer ago than this.
+     */
+    public StorageCollector setMinAge(Duration minAge) {
+        this.minAge = minAge;
+        return this;
+    }
+
+    /**
+     * @param filesPerPause Files to delete between pauses.
+     * @param pauseMillis   How long to pause, to leave disk time for other work.
+     */
+    public StorageCollector setThrottle(int filesPerPause, long pauseMillis) {
+        this.filesPerPause = Math.max(1, filesPerPause);
+        this.pauseMillis = Math.max(0, pauseMillis);
+        return this;
+    }
+
+    /**
+     * @param maxBytes Stop once this much has been reclaimed in a run.
+     */
+    public StorageCollector setMaxBytes(long maxBytes) {
+        this.maxBytes = maxBytes;
+        return this;
+    }
+
+    /**
+     * @param dryRun Only report what would be reclaimed.
+     */
+    public StorageCollector setDryRun(boolean dryRun) {
+        this.dryRun = dryRun;
+        return this;
+    }
+
+    /// /// /// Running /// /// ///
+
+    /**
+     * Collects every Game's storage, then temp.
+     *
+     * @return What was reclaimed.
+     */
+    public Report collect() {
+        List<Game> games = GameManager.getAllGames();
+        return collect(games == null ? List.of() : games);
+    }
+
+    /**
+     * @param games Games whose storage to collect.
+     * @return What was reclaimed.
+     */
+    public synchronized Report collect(List<Game> games) {
+        report = new Report();
+        log.info(0, (dryRun ? "Looking for" : "Reclaiming") + " unreferenced storage...");
+        try {
+            for (Game game : games) {
+                if (stopping())
+                    break;
+                try {
+                    collectGame(game);
+                } catch (InterruptedException e) {
+                    throw e;
+                } catch (Exception e) {
+                    log.warning("Could not collect storage of Game: " + game.getId(), e);
+                }
+            }
+            if (!stopping()) {
+                try {
+                    collectTemp();
+                } catch (InterruptedException e) {
+                    throw e;
+                } catch (Exception e) {
+                    log.warning("Could not collect temp directory.", e);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            report.complete = false;
+        }
+        log.info(0, report.toString());
+        return report;
+    } // collect()
+
+    /**
+     * Runs {@link #collect()} on a low priority background thread. Interrupt
+     * the thread to stop after the current file.
+     *
+     * @param onDone Given the report once done, may be null.
+     * @return The running thread.
+     */
+    public Thread start(Consumer<Report> onDone) {
+        Thread thread = new Thread(() -> {
+            Report done = collect();
+            if (onDone != null)
+                onDone.accept(done);
+        }, "storage-collector");
+        thread.setDaemon(true);
+        thread.setPriority(Thread.MIN_PRIORITY);
+        thread.start();
+        return thread;
+    } // start()
+
+    /// /// /// Per Game /// /// ///
+
+    private void collectGame(Game game) throws Exception {
+        log.info(1, "Collecting storage of Game: " + game.getId());
+        final GameState state = readGameState(game);
+
+        if (Files.isDirectory(game.getStoreDirectory())) {
+            if (!LockManager.lockStore(game.getStoreDirectory(), Duration.ZERO)) {
+                log.info(2, "Store is busy, leaving it for next time: " + game.getId());
+                report.skipped++;
+            } else {
+                try (ModStore store = new ModStore(game.getStoreDirectory())) {
+                    collectStore(game, store, state);
+                } finally {
+                    LockManager.unlockStore(game.getStoreDirectory());
+                    if (!dryRun)
+                        GameSession.of(game.getId()).changed(); // folders may have gone
+                }
+            }
+        }
+        if (!stopping())
+            collectBackups(game);
+    } // collectGame()
+
+    /**
+     * @return The Game's GameState as last committed, empty if it has none.
+     * @throws InaccessibleObjectException If a commit held the Game too long.
+     */
+    private static GameState readGameState(Game game) throws Exception {
+        final Path root = game.getInstallDirectory();
+        if (!LockManager.lockGameRead(game.getId(), root))
+            throw new InaccessibleObjectException("Game is busy committing changes: " + game.getId());
+        try {
+            Path statePath = root.resolve(config.getManagerDir().toString(), GameState.FILE_NAME);
+            return Files.exists(statePath) ? GameState.loadFromFile(statePath) : new GameState();
+        } finally {
+            LockManager.unlockGameRead(game.getId());
+        }
+    } // readGameState()
+
+    /**
+     * Store folders without a manifest, stranded superseded versions, unused
+     * blobs and leftover temporary files. Manifests still in the older
+     * single-file form are split on the way. Called holding the store lock.
+     */
+    private void collectStore(Game game, ModStore store, GameState state) throws Exception {
+        final Path storeDir = game.getStoreDirectory();
+        final Path managerDir = storeDir.resolve(config.getManagerDir().toString());
+
+        /// 1. Read every manifest, the roots of the store.
+        Map<String, ModManifest> manifests = new HashMap<>();
+        try (DirectoryStream<Path> dirs = Files.newDirectoryStream(storeDir, Files::isDirectory)) {
+            for (Path dir : dirs) {
+                String name = dir.getFileName().toString();
+                if (name.startsWith("."))
+                    continue;
+                Path header = dir.resolve(config.getManifestDir().toString(), name + ".json");
+                if (!Files.exists(header)) {
+                    if (isOld(dir)) {
+                        log.info(2, "Store folder without a manifest: " + dir);
+                        trash(dir, game.getId() + "__orphan__" + name);
+                    }
+                    continue;
+                }
+                ModManifest manifest;
+                try {
+                    manifest = ModManifest.loadFromFile(header);
+                } catch (Exception e) {
+                    log.warning("Could not read manifest, leaving: " + header, e);
+                    report.skipped++;
+                    continue;
+                }
+                manifests.put(name, manifest);
+                if (manifest.hasInlineContents() && !dryRun)
+                    migrate(store, manifest, header);
+            }
+        }
+
+        /// 2. Superseded versions nothing reads from.
+        for (ModManifest manifest : manifests.values()) {
+            if (stopping())
+                return;
+            String successor = manifest.getSupersededBy();
+            if (successor == null || state.containsMod(manifest.getId()))
+                continue;
+            ModManifest next = manifests.get(successor);
+            if (next != null && manifest.getId().equals(next.getBase()))
+                continue;
+
+            log.info(2, "Superseded version without its newer version: " + manifest.getId());
+            long bytes = sizeOf(storeDir.resolve(manifest.getId()));
+            if (!dryRun)
+                store.remove(manifest, null); // also its own stranded base
+            reclaimed(bytes, 0);
+        }
+
+        /// 3. Blobs, counted from the manifests.
+        BlobStore blobs = store.getBlobs();
+        if (Files.isDirectory(blobs.getRoot()) && !stopping())
+            collectBlobs(blobs, manifests.values());
+
+        /// 4. Leftover temporary files.
+        if (Files.isDirectory(managerDir)) {
+            try (DirectoryStream<Path> leftovers = Files.newDirectoryStream(managerDir, ".*")) {
+                for (Path leftover : leftovers) {
+                    if (!stopping() && isOld(leftover))
+                        delete(leftover);
+                }
+            }
+        }
+        for (String modId : manifests.keySet()) {
+            Path modManager = storeDir.resolve(modId, config.getManagerDir().toString());
+            if (stopping() || !Files.isDirectory(modManager))
+                continue;
+            try (DirectoryStream<Path> leftovers = Files.newDirectoryStream(modManager, ".*.tmp")) {
+                for (Path leftover : leftovers) {
+                    if (isOld(leftover))
+                        delete(leftover);
+                }
+            }
+        }
+    } // collectStore()
+
+    /**
+     * Splits a manifest in the older single-file form into its header and
+     * contents. Readers leave it as it is, as only the store lock holder may
+     * write it.
+     */
+    private void migrate(ModStore store, ModManifest manifest, Path header) {
+        try {
+            store.rewrite(manifest);
+            log.info(2, "Migrated manifest to header + contents: " + header);
+        } catch (Exception e) {
+            log.warning("Could not migrate manifest: " + header, e);
+        }
+    } // migrate()
+
+    /**
+     * Deletes blobs that neither a manifest nor a reference count uses. Counts
+     * below what the manifests need are raised, so a later delete can't free a
+     * blob still in use. Counts above are only reported: the extra reference
+     * may be a Mod still being stored.
+     */
+    private void collectBlobs(BlobStore blobs, Iterable<ModManifest> manifests) throws Exception {
+        Map<String, Long> used = new HashMap<>();
+        for (ModManifest manifest : manifests) {
+            if (manifest.getStorage() != ModStore.Mode.DEDUP)
+                continue;
+            for (ModFile mf : manifest.getContents())
+                used.merge(mf.getHash().toLowerCase(), 1L, Long::sum);
+        }
+
+        Map<String, Long> refs = blobs.getRefs();
+        boolean repaired = false;
+        for (Map.Entry<String, Long> entry : used.entrySet()) {
+            if (refs.getOrDefault(entry.getKey(), 0L) < entry.getValue()) {
+                refs.put(entry.getKey(), entry.getValue());
+                report.refsRepaired++;
+                repaired = true;
+            }
+        }
+        for (String hash : refs.keySet()) {
+            if (!used.containsKey(hash))
+                report.refsLeaked++;
+        }
+        if (repaired && !dryRun) {
+            blobs.setRefs(refs);
+            blobs.save();
+        }
+
+        List<Path> shards = new ArrayList<>();
+        try (DirectoryStream<Path> dirs = Files.newDirectoryStream(blobs.getRoot(), Files::isDirectory)) {
+            dirs.forEach(shards::add);
+        }
+        for (Path shard : shards) {
+            try (DirectoryStream<Path> files = Files.newDirectoryStream(shard)) {
+                for (Path blob : files) {
+                    if (stopping())
+                        return;
+                    String hash = blob.getFileName().toString().toLowerCase();
+                    if (!used.containsKey(hash) && !refs.containsKey(hash) && isOld(blob))
+                        delete(blob);
+                }
+            }
+            if (!dryRun)
+                FileUtil.cleanDirectories(blobs.getRoot(), shard.getFileName());
+        }
+        try (DirectoryStream<Path> leftovers = Files.newDirectoryStream(blobs.getRoot(), ".*.tmp")) {
+            for (Path leftover : leftovers) {
+                if (isOld(leftover))
+                    delete(leftover);
+            }
+        }
+    } // collectBlobs()
+
+    /**
+     * Game file backups without a lineage will never be restored. They are the
+     * user's original files, so they go to the trash.
+     */
+    private void collectBackups(Game game) throws Exception {
+        final Path root = game.getInstallDirectory();
+        final Path backups = root.resolve(config.getBackupDir());
+        final Path lineages = root.resolve(config.getLineageDir());
+        if (!Files.isDirectory(backups))
+            return;
+
+        if (!LockManager.lockDirectory(game.getId(), root, Duration.ZERO)) {
+            log.info(2, "Game is busy, leaving its backups for next time: " + game.getId());
+            report.skipped++;
+            return;
+        }
+        try {
+            List<Path> stale;
+            try (Stream<Path> paths = Files.walk(backups)) {
+                stale = paths.filter(Files::isRegularFile).filter(p -> {
+                    String rel = backups.relativize(p).toString();
+                    if (!rel.endsWith(".backup"))
+                        return false;
+                    rel = rel.substring(0, rel.length() - ".backup".length());
+                    return !Files.exists(lineages.resolve(rel + ".json"));
+                }).toList();
+            }
+            if (stale.isEmpty())
+                return;
+
+            final Path trashDir = dryRun ? null
+                    : TrashIndex.get().reserve(game.getId() + "__backups__" + DateUtil.getNumericTimestamp());
+            try {
+                for (Path backup : stale) {
+                    if (stopping())
+                        return;
+                    log.info(2, "Backup without a lineage: " + backup);
+                    if (!dryRun) {
+                        Path target = trashDir.resolve(backups.relativize(backup));
+                        Files.createDirectories(target.getParent());
+                        Files.move(backup, target);
+                        FileUtil.cleanDirectories(root, root.relativize(backup.getParent()));
+                    }
+                    report.movedToTrash++;
+                }
+            } finally {
+                if (trashDir != null)
+                    TrashIndex.get().add(trashDir);
+            }
+        } finally {
+            LockManager.unlockDirectory(game.getId());
+        }
+    } // collectBackups()
+
+    /// /// /// Temp /// /// ///
+
+    /**
+     * Staging folders in temp that no running operation holds.
+     */
+    private void collectTemp() throws Exception {
+        final Path temp = config.getTempDir();
+        final Path trash = config.getTrashDir().toAbsolutePath().normalize();
+        if (!Files.isDirectory(temp))
+            return;
+
+        List<Path> staged = new ArrayList<>();
+        try (DirectoryStream<Path> dirs = Files.newDirectoryStream(temp, Files::isDirectory)) {
+            for (Path dir : dirs) {
+                if (trash.startsWith(dir.toAbsolutePath().normalize()))
+                    continue; // the trash has its own cleaning
+                if (STAGING_NAME.matcher(dir.getFileName().toString()).matches() && isOld(dir))
+                    staged.add(dir);
+            }
+        }
+
+        for (Path dir : staged) {
+            if (stopping())
+                return;
+            if (!LockManager.tryLockTempDir(dir)) { // still in use
+                report.skipped++;
+                continue;
+            }
+            LockManager.unlockTempDir(dir);
+            log.info(2, "Leftover staging folder: " + dir);
+            delete(dir);
+        }
+    } // collectTemp()
+
+    /// /// /// Helpers /// /// ///
+
+    /**
+     * Deletes a file or directory tree in throttled batches.
+     */
+    private void delete(Path path) throws IOException, InterruptedException {
+        long bytes = 0;
+        long files = 0;
+        if (Files.isDirectory(path)) {
+            List<Path> contents;
+            try (Stream<Path> paths = Files.walk(path)) {
+                contents = paths.filter(Files::isRegularFile).toList();
+            }
+            for (Path file : contents) {
+                bytes += Files.size(file);
+                if (!dryRun)
+                    Files.delete(file);
+                if (++files % filesPerPause == 0)
+                    pause();
+            }
+            if (!dryRun)
+                FileUtil.deleteDirectory(path); // the emptied directories
+        } else {
+            bytes = Files.size(path);
+            files = 1;
+            if (!dryRun)
+                Files.delete(path);
+        }
+        reclaimed(bytes, files);
+    } // delete()
+
+    /**
+     * Moves something that may still be the user's data to the trash.
+     */
+    private void trash(Path path, String name) throws IOException {
+        if (!dryRun) {
+            Path target = TrashIndex.get().reserve(name + "__" + DateUtil.getNumericTimestamp());
+            Files.createDirectories(target.getParent());
+            Files.move(path, target);
+            TrashIndex.get().add(target);
+        }
+        report.movedToTrash++;
+    } // trash()
+
+    private void reclaimed(long bytes, long files) {
+        report.bytesFreed += bytes;
+        report.filesDeleted += files;
+        report.itemsReclaimed++;
+    }
+
+    private void pause() throws InterruptedException {
+        TaskScheduler.getInstance().yieldToInteractive(); // the Mod list first
+        if (pauseMillis > 0)
+            Thread.sleep(pauseMillis);
+        else if (Thread.interrupted())
+            throw new InterruptedException();
+    }
+
+    /**
+     * @return True once the run should stop, marking it incomplete.
+     */
+    private boolean stopping() {
+        if (report.bytesFreed >= maxBytes || Thread.currentThread().isInterrupted()) {
+            report.complete = false;
+            return true;
+        }
+        return false;
+    }
+
+    private boolean isOld(Path path) throws IOException {
+        return Files.getLastModifiedTime(path).toInstant().isBefore(Instant.now().minus(minAge));
+    }
+
+    private static long sizeOf(Path dir) throws IOException {
+        if (!Files.exists(dir))
+            return 0;
+        try (Stream<Path> paths = Files.walk(dir)) {
+            return paths.filter(Files::isRegularFile).mapToLong(p -> p.toFile().length()).sum();
+        }
+    }
+
+} // Class
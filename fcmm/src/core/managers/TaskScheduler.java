@@ -0,0 +1,304 @@
+/**
+ * Author Stephanos B
+ * Date 19/10/2026
+ */
+package core.managers;
+
+import java.nio.file.FileStore;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+
+import core.utils.CancelToken;
+
+/**
+ * Runs the app's background work, each task on its own virtual thread, in order
+ * of {@link Priority}. Views submit list loads, applies, compiles and trash work
+ * here instead of starting their own workers, so a long trash walk can no
+ * longer hold up the Mod list.<br>
+ * <br>
+ * Interactive tasks start at once. Operations start while fewer than the
+ * operation limit run, background tasks only while no interactive task runs or
+ * waits. Operations and background tasks that name a path also wait for a
+ * permit of its device, so a few at most read or write the same disk together.
+ * Work already running in the background (trash maintenance, storage
+ * collection) calls {@link #yieldToInteractive()} between batches to step
+ * aside for interactive tasks.<br>
+ * <br>
+ * Cancelling a {@link Task} drops it if it has not started, or interrupts it
+ * if it has. Each task runs with its own {@link CancelToken} bound, which
+ * {@link GameQueue} commands it queues check too; cancelling only the token
+ * lets the work roll back and complete the task itself.
+ *
+ * @author Stephanos B
+ * @since v4.0.5
+ */
+public class TaskScheduler {
+    private static TaskScheduler instance;
+
+    /**
+     * Kinds of work, served in this order.
+     */
+    public enum Priority {
+        /**
+         * What the user is waiting to see, eg: the Mod list.
+         */
+        INTERACTIVE,
+        /**
+         * What the user asked for and watches run, eg: apply or compile.
+         */
+        OPERATION,
+        /**
+         * Maintenance the user is not waiting on, eg: trash sizing or cleaning.
+         */
+        BACKGROUND
+    }
+
+    private int maxOperations = 2;
+    private int maxBackground = 1;
+    private int perDevice = 2;
+    private long maxYieldMillis = 2000;
+
+    private final ThreadFactory threads = Thread.ofVirtual().name("task-", 0).factory();
+    private final PriorityQueue<Task<?>> queued = new PriorityQueue<>(
+            Comparator.comparing((Task<?> t) -> t.priority).thenComparingLong(t -> t.order)); // guarded by this
+    private final int[] running = new int[Priority.values().length]; // guarded by this
+    private final Map<String, Semaphore> devices = new ConcurrentHashMap<>();
+    private long submitted = 0; // guarded by this
+
+    /**
+     * A submitted task. Completes with what its work returns, or exceptionally
+     * with what it throws. {@link #cancel(boolean)} stops it.
+     */
+    public static final class Task<T> extends CompletableFuture<T> {
+        private final TaskScheduler scheduler;
+        private final Priority priority;
+        private final Path path;
+        private final Callable<T> work;
+        private final long order;
+        private final CancelToken token = new CancelToken();
+        private volatile Thread thread;
+
+        private Task(TaskScheduler scheduler, Priority priority, Path path, Callable<T> work, long order) {
+            this.scheduler = scheduler;
+            this.priority = priority;
+            this.path = path;
+            this.work = work;
+            this.order = order;
+        }
+
+        public Priority getPriority() {
+            return priority;
+        }
+
+        /**
+         * @return The token the work checks. Cancelling it stops the work at
+         *         its next checkpoint, the task completing once it rolled back.
+         */
+        public CancelToken getToken() {
+            return token;
+        }
+
+        /**
+         * Drops the task if it has not started, else interrupts it. Interrupts
+         * whether or not asked to, as no task is left half run on purpose.
+         */
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            boolean cancelled = super.cancel(mayInterruptIfRunning);
+            if (cancelled) {
+                token.cancel();
+                scheduler.dequeue(this);
+                Thread running = thread;
+                if (running != null)
+                    running.interrupt();
+            }
+            return cancelled;
+        }
+    } // Task
+
+    private TaskScheduler() {
+    }
+
+    public static synchronized TaskScheduler getInstance() {
+        if (instance == null)
+            instance = new TaskScheduler();
+        return instance;
+    }
+
+    /// /// /// Options /// /// ///
+
+    /**
+     * Set before submitting, devices keep the permits they were first given.
+     *
+     * @param maxOperations Operations to run at once.
+     * @param maxBackground Background tasks to run at once.
+     * @param perDevice     Operations and background tasks to run at once on
+     *                      one device.
+     */
+    public synchronized TaskScheduler setLimits(int maxOperations, int maxBackground, int perDevice) {
+        this.maxOperations = Math.max(1, maxOperations);
+        this.maxBackground = Math.max(1, maxBackground);
+        this.perDevice = Math.max(1, perDevice);
+        return this;
+    }
+
+    /**
+     * @param maxYieldMillis Longest {@link #yieldToInteractive()} waits, so
+     *                       background work holding something an interactive
+     *                       task needs carries on.
+     */
+    public synchronized TaskScheduler setMaxYield(long maxYieldMillis) {
+        this.maxYieldMillis = Math.max(0, maxYieldMillis);
+        return this;
+    }
+
+    /// /// /// Submitting /// /// ///
+
+    /**
+     * Submits work that touches no disk in particular.
+     */
+    public <T> Task<T> submit(Priority priority, Callable<T> work) {
+        return submit(priority, null, work);
+    }
+
+    /**
+     * @param priority Kind of work.
+     * @param path     Where the work reads or writes, to limit work per device,
+     *                 or null.
+     * @param work     What to run.
+     * @return The task, completing once the work ran.
+     */
+    public <T> Task<T> submit(Priority priority, Path path, Callable<T> work) {
+        Task<T> task;
+        synchronized (this) {
+            task = new Task<>(this, priority, path, work, submitted++);
+            queued.add(task);
+        }
+        dispatch();
+        return task;
+    } // submit()
+
+    /**
+     * Waits while interactive tasks run or wait, at most the set maximum. Called
+     * by background work between batches.
+     *
+     * @throws InterruptedException If the caller is interrupted while waiting.
+     */
+    public void yieldToInteractive() throws InterruptedException {
+        synchronized (this) {
+            final long until = System.currentTimeMillis() + maxYieldMillis;
+            long left;
+            while (interactiveBusy() && (left = until - System.currentTimeMillis()) > 0)
+                wait(left);
+        }
+        if (Thread.interrupted())
+            throw new InterruptedException();
+    } // yieldToInteractive()
+
+    /// /// /// Reading /// /// ///
+
+    /**
+     * @return Tasks of a priority running now.
+     */
+    public synchronized int getRunning(Priority priority) {
+        return running[priority.ordinal()];
+    }
+
+    /**
+     * @return Tasks waiting to start.
+     */
+    public synchronized int getQueued() {
+        return queued.size();
+    }
+
+    /**
+     * @return A name for the device a path is on, its root if unknown.
+     */
+    public static String deviceOf(Path dir) {
+        Path path = dir.toAbsolutePath();
+        try {
+            while (path != null && !Files.exists(path))
+                path = path.getParent();
+            if (path != null) {
+                FileStore store = Files.getFileStore(path);
+                return store.name() + " (" + store.type() + ")";
+            }
+        } catch (Exception e) {
+            // Grouped by root instead
+        }
+        return String.valueOf(dir.toAbsolutePath().getRoot());
+    } // deviceOf()
+
+    /// /// /// Running /// /// ///
+
+    /**
+     * Starts every queued task that may start, in order, stopping at the first
+     * that may not.
+     */
+    private synchronized void dispatch() {
+        while (!queued.isEmpty() && mayStart(queued.peek().priority)) {
+            Task<?> next = queued.poll();
+            running[next.priority.ordinal()]++;
+            threads.newThread(() -> run(next)).start();
+        }
+    }
+
+    private boolean mayStart(Priority priority) {
+        return switch (priority) {
+            case INTERACTIVE -> true;
+            case OPERATION -> running[Priority.OPERATION.ordinal()] < maxOperations;
+            case BACKGROUND -> running[Priority.BACKGROUND.ordinal()] < maxBackground
+                    && running[Priority.INTERACTIVE.ordinal()] == 0;
+        };
+    }
+
+    private boolean interactiveBusy() {
+        return running[Priority.INTERACTIVE.ordinal()] > 0
+                || (!queued.isEmpty() && queued.peek().priority == Priority.INTERACTIVE);
+    }
+
+    private <T> void run(Task<T> task) {
+        task.thread = Thread.currentThread();
+        Semaphore device = null;
+        final CancelToken.Scope bound = CancelToken.bind(task.token);
+        try {
+            if (task.isDone())
+                return; // cancelled as it started
+            if (task.path != null && task.priority != Priority.INTERACTIVE) {
+                device = devices.computeIfAbsent(deviceOf(task.path), d -> new Semaphore(perDevice, true));
+                device.acquire();
+            }
+            task.complete(task.work.call());
+        } catch (Throwable e) {
+            task.completeExceptionally(e); // does nothing if cancelled
+        } finally {
+            bound.close();
+            if (device != null)
+                device.release();
+            task.thread = null;
+            finished(task);
+        }
+    } // run()
+
+    private synchronized void finished(Task<?> task) {
+        running[task.priority.ordinal()]--;
+        notifyAll(); // yielding background work
+        dispatch();
+    }
+
+    private synchronized void dequeue(Task<?> task) {
+        if (queued.remove(task)) {
+            notifyAll();
+            dispatch(); // it may have held up those behind it
+        }
+    }
+
+} // Class
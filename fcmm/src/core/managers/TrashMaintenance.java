@@ -0,0 +1,383 @@
+/**
+ * Author Stephanos B
+ * Date 19/10/2026
+ */
+package core.managers;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import core.config.AppConfig;
+import core.config.AppPreferences.properties;
+import core.storage.TrashRefs;
+import core.utils.DateUtil;
+import core.utils.FileUtil;
+import core.utils.Logger;
+import core.utils.TrashIndex;
+import core.utils.TrashUtil;
+
+/**
+ * Keeps the trash within its limits in the background, when the trash warning
+ * preference is set to {@link #AUTO_CLEAN}. Every run deletes whatever was
+ * trashed longer ago than {@code TRASH_DAYS_OLD}, then the oldest entries until
+ * the trash fits {@code TRASH_SIZE_LIMIT}, and removes empty folders left in
+ * the trash. Whether on or not, every run releases the cached copies of stored
+ * files kept in the trash once stale (see {@link TrashRefs}).<br>
+ * <br>
+ * Runs on one low priority daemon thread, every {@link #INTERVAL_MINUTES}
+ * minutes and whenever {@link #wake()} is called after a Mod operation. Sizes
+ * come from the {@link TrashIndex} and files are deleted in throttled batches,
+ * stepping aside for interactive tasks of the {@link TaskScheduler}, so
+ * foreground operations never wait on trash accounting. Listeners are given
+ * the {@link Status} after every run.
+ *
+ * @author Stephanos B
+ * @since v4.0.5
+ */
+public class TrashMaintenance {
+    private static final AppConfig config = AppConfig.getInstance();
+    private static final Logger log = Logger.getInstance();
+    private static TrashMaintenance instance;
+
+    /**
+     * Value of the {@code TRASH_SIZE_WARNING} preference that turns on automatic
+     * cleaning.
+     */
+    public static final int AUTO_CLEAN = 3;
+    /**
+     * Minutes between scheduled runs.
+     */
+    public static final long INTERVAL_MINUTES = 15;
+
+    private int filesPerPause = 200;
+    private long pauseMillis = 20;
+
+    private ScheduledExecutorService scheduler;
+    private final Object running = new Object(); // one run at a time, apart from scheduling
+    private final List<Consumer<Status>> listeners = new CopyOnWriteArrayList<>();
+    private volatile Status status = new Status(false, false, null, 0, 0, 0, 0);
+
+    /**
+     * The state of the trash after the last run, for display.
+     */
+    public static class Status {
+        private final boolean enabled;
+        private final boolean running;
+        private final LocalDateTime lastRun;
+        private final int entriesDeleted;
+        private final long bytesFreed;
+        private final long trashBytes;
+        private final long limitBytes;
+
+        private Status(boolean enabled, boolean running, LocalDateTime lastRun, int entriesDeleted,
+                long bytesFreed, long trashBytes, long limitBytes) {
+            this.enabled = enabled;
+            this.running = running;
+            this.lastRun = lastRun;
+            this.entriesDeleted = entriesDeleted;
+            this.bytesFreed = bytesFreed;
+            this.trashBytes = trashBytes;
+            this.limitBytes = limitBytes;
+        }
+
+        /**
+         * @return True if the trash is cleaned automatically.
+         */
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public boolean isRunning() {
+            return running;
+        }
+
+        /**
+         * @return When the last run finished, null if none has yet.
+         */
+        public LocalDateTime getLastRun() {
+            return lastRun;
+        }
+
+        /**
+         * @return Entries deleted by the last run.
+         */
+        public int getEntriesDeleted() {
+            return entriesDeleted;
+        }
+
+        /**
+         * @return Bytes freed by the last run.
+         */
+        public long getBytesFreed() {
+            return bytesFreed;
+        }
+
+        public long getTrashBytes() {
+            return trashBytes;
+        }
+
+        public long getLimitBytes() {
+            return limitBytes;
+        }
+
+        @Override
+        public String toString() {
+            if (!enabled)
+                return "Automatic cleaning is off.";
+            if (running)
+                return "Cleaning trash...";
+            if (lastRun == null)
+                return "Automatic cleaning is on, waiting for first run.";
+            return String.format("Last cleaned %s: %d entries, %.2f MB freed.",
+                    DateUtil.getDisplayTime(lastRun), entriesDeleted, TrashUtil.megabyte(bytesFreed));
+        }
+    } // Status
+
+    private TrashMaintenance() {
+    }
+
+    public static synchronized TrashMaintenance getInstance() {
+        if (instance == null)
+            instance = new TrashMaintenance();
+        return instance;
+    }
+
+    /// /// /// Options /// /// ///
+
+    /**
+     * @param filesPerPause Files to delete between pauses.
+     * @param pauseMillis   How long to pause, to leave disk time for other work.
+     */
+    public TrashMaintenance setThrottle(int filesPerPause, long pauseMillis) {
+        this.filesPerPause = Math.max(1, filesPerPause);
+        this.pauseMillis = Math.max(0, pauseMillis);
+        return this;
+    }
+
+    /**
+     * @return True if the preferences ask for the trash to be cleaned
+     *         automatically.
+     */
+    public static boolean isEnabled() {
+        return config.preferences.getAsInt(properties.TRASH_SIZE_WARNING) == AUTO_CLEAN;
+    }
+
+    /// /// /// Scheduling /// /// ///
+
+    /**
+     * Starts the scheduled runs, the first shortly after. Does nothing if
+     * already started. Runs while disabled only release cached copies and refresh
+     * the status.
+     */
+    public synchronized void start() {
+        if (scheduler != null)
+            return;
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "trash-maintenance");
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::runSafely, 30, INTERVAL_MINUTES * 60, TimeUnit.SECONDS);
+    } // start()
+
+    /**
+     * Stops the scheduled runs, interrupting a run after its current file.
+     */
+    public synchronized void stop() {
+        if (scheduler == null)
+            return;
+        scheduler.shutdownNow();
+        scheduler = null;
+    } // stop()
+
+    /**
+     * Asks for a run as soon as the thread is free, eg: after Mods were trashed.
+     * Returns at once.
+     */
+    public synchronized void wake() {
+        if (scheduler == null)
+            return;
+        try {
+            scheduler.execute(this::runSafely);
+        } catch (RejectedExecutionException e) {
+            // stopping
+        }
+    } // wake()
+
+    public Status getStatus() {
+        return status;
+    }
+
+    /**
+     * @param listener Given the status after every run, on the maintenance
+     *                 thread.
+     */
+    public void addListener(Consumer<Status> listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(Consumer<Status> listener) {
+        listeners.remove(listener);
+    }
+
+    /// /// /// Running /// /// ///
+
+    /**
+     * Enforces the trash limits once, on the calling thread.
+     *
+     * @return The status after the run.
+     */
+    public Status runOnce() {
+        synchronized (running) {
+            return clean();
+        }
+    }
+
+    private Status clean() {
+        final long startedAt = System.currentTimeMillis();
+        final TrashIndex index = TrashIndex.get();
+        final long maxBytes = config.preferences.getAsInt(properties.TRASH_SIZE_LIMIT) * 1000000L;
+        // Duplicates of stored files, not the user's trash, so released either way.
+        TrashRefs.releaseCached(TrashRefs.CACHE_WINDOW);
+        if (!isEnabled())
+            return publish(new Status(false, false, status.lastRun, 0, 0, index.getTotalBytes(), maxBytes));
+
+        publish(new Status(true, true, status.lastRun, 0, 0, index.getTotalBytes(), maxBytes));
+        final int daysOld = config.preferences.getAsInt(properties.TRASH_DAYS_OLD);
+        final long cutoff = LocalDate.now().minusDays(daysOld)
+                .atStartOfDay(ZoneId.systemDefault()).toInstant().toEpochMilli();
+
+        int deleted = 0;
+        long freed = 0;
+        try {
+            /// 1. Whole entries, oldest first, while past the age or size limit.
+            PriorityQueue<TrashIndex.Entry> queue = index.oldestFirst();
+            while (!queue.isEmpty()) {
+                TrashIndex.Entry entry = queue.poll();
+                if (entry.getTrashedAt() >= cutoff && index.getTotalBytes() <= maxBytes)
+                    break; // queue is ordered, the rest is within limits.
+
+                try {
+                    deleteFiles(index.resolve(entry));
+                    TrashUtil.deleteEntry(index, entry);
+                    deleted++;
+                    freed += entry.getBytes();
+                } catch (IOException e) {
+                    log.warning("Could not delete trash: " + index.resolve(entry), e);
+                }
+            }
+
+            /// 2. Folders left empty in the trash.
+            pruneEmptyDirectories(index, startedAt);
+
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        if (deleted > 0)
+            log.info(0, String.format("Trash maintenance: deleted %d entries, %.2f MB freed.", deleted,
+                    TrashUtil.megabyte(freed)));
+        return publish(new Status(true, false, LocalDateTime.now(), deleted, freed, index.getTotalBytes(),
+                maxBytes));
+    } // clean()
+
+    private void runSafely() {
+        try {
+            runOnce();
+        } catch (Exception e) {
+            log.warning("Trash maintenance failed.", e);
+        }
+    }
+
+    /// /// /// Helpers /// /// ///
+
+    /**
+     * Deletes the files of an entry in throttled batches, leaving its folders.
+     */
+    private void deleteFiles(Path path) throws IOException, InterruptedException {
+        if (!Files.isDirectory(path))
+            return;
+        List<Path> files;
+        try (Stream<Path> paths = Files.walk(path)) {
+            files = paths.filter(Files::isRegularFile).toList();
+        }
+        long count = 0;
+        for (Path file : files) {
+            Files.deleteIfExists(file);
+            if (++count % filesPerPause == 0)
+                pause();
+        }
+    } // deleteFiles()
+
+    /**
+     * Removes top level folders of the trash that hold no entry and no files.
+     * Folders holding an entry, or reserved and still being filled, are never
+     * walked. Folders changed since the run started are left too, they may be
+     * reserved by another process.
+     *
+     * @param startedAt Epoch milliseconds of when the run started.
+     */
+    private static void pruneEmptyDirectories(TrashIndex index, long startedAt) throws InterruptedException {
+        final Path root = index.getRoot();
+        if (!Files.isDirectory(root))
+            return;
+        try (DirectoryStream<Path> dirs = Files.newDirectoryStream(root, Files::isDirectory)) {
+            for (Path dir : dirs) {
+                if (Thread.interrupted())
+                    throw new InterruptedException();
+                if (!index.covers(dir) && Files.getLastModifiedTime(dir).toMillis() < startedAt
+                        && isEmptyTree(dir)) {
+                    log.info(1, "Removing empty trash folder: " + dir);
+                    FileUtil.deleteDirectory(dir);
+                }
+            }
+        } catch (IOException e) {
+            log.warning("Could not prune empty trash folders.", e);
+        }
+    } // pruneEmptyDirectories()
+
+    /**
+     * @return True if the directory tree holds no files.
+     */
+    private static boolean isEmptyTree(Path dir) throws IOException {
+        try (Stream<Path> paths = Files.walk(dir)) {
+            return paths.noneMatch(Files::isRegularFile);
+        }
+    }
+
+    private void pause() throws InterruptedException {
+        TaskScheduler.getInstance().yieldToInteractive(); // the Mod list first
+        if (pauseMillis > 0)
+            Thread.sleep(pauseMillis);
+        else if (Thread.interrupted())
+            throw new InterruptedException();
+    }
+
+    private Status publish(Status next) {
+        status = next;
+        for (Consumer<Status> listener : listeners) {
+            try {
+                listener.accept(next);
+            } catch (Exception e) {
+                log.warning("Trash maintenance listener failed.", e);
+            }
+        }
+        return next;
+    } // publish()
+
+} // Class
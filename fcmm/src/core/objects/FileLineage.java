@@ -4,6 +4,7 @@
  */
 package core.objects;
 
+import java.io.IOException;
 import java.nio.file.Path;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
@@ -12,7 +13,10 @@ import java.util.List;
 import java.util.Map;
 import java.util.Stack;
 
+import core.interfaces.JsonStreamable;
 import core.interfaces.MapSerializable;
+import core.io.JsonReader;
+import core.io.JsonWriter;
 import core.utils.Logger;
 
 /**
@@ -21,7 +25,7 @@ import core.utils.Logger;
  * 
  * @author Stephanos B
  */
-public class FileLineage implements MapSerializable {
+public class FileLineage implements MapSerializable, JsonStreamable {
 
     private Stack<FileVersion> stack = new Stack<FileVersion>();
 
@@ -97,6 +101,32 @@ public class FileLineage implements MapSerializable {
         return map;
     } // toMap()
 
+    @Override
+    public boolean readJsonField(String name, JsonReader reader) throws IOException {
+        if (!name.equals(Keys.STACK.key))
+            return false;
+
+        Stack<FileVersion> ls = new Stack<>();
+        reader.beginArray();
+        while (reader.hasNext()) {
+            FileVersion fVersion = new FileVersion();
+            fVersion.readJson(reader);
+            ls.add(fVersion);
+        }
+        reader.endArray();
+        this.setStack(ls);
+        return true;
+    } // readJsonField()
+
+    @Override
+    public void writeJsonFields(JsonWriter writer) throws IOException {
+        writer.name(Keys.STACK.key).beginArray();
+        for (FileVersion tmp : this.getStack()) {
+            tmp.writeJson(writer);
+        }
+        writer.endArray();
+    } // writeJsonFields()
+
     /// /// /// Getters and Setters /// /// ///
 
     public Stack<FileVersion> getStack() {
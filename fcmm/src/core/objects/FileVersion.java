@@ -4,20 +4,24 @@
  */
 package core.objects;
 
+import java.io.IOException;
 import java.nio.file.Path;
 import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.Map;
 
+import core.interfaces.JsonStreamable;
 import core.interfaces.MapSerializable;
 import core.io.JsonIO;
+import core.io.JsonReader;
+import core.io.JsonWriter;
 
 /**
  * Stores the previous versions of a file for roll-back tracking.
  * 
  * @author Stephanos B
  */
-public class FileVersion implements MapSerializable {
+public class FileVersion implements MapSerializable, JsonStreamable {
 
     private String modId; // Path of the content file within the Mod
     private String hash; // Hexadecimal string, of file contents
@@ -95,6 +99,30 @@ public class FileVersion implements MapSerializable {
         return map;
     } // toMap()
 
+    @Override
+    public boolean readJsonField(String name, JsonReader reader) throws IOException {
+        switch (name) {
+            case "modId":
+                this.setModId(reader.nextString());
+                return true;
+            case "hash":
+                this.setHash(reader.nextString());
+                return true;
+            case "timestamp":
+                this.setTimestamp(LocalDateTime.parse(reader.nextString()));
+                return true;
+            default:
+                return false;
+        }
+    } // readJsonField()
+
+    @Override
+    public void writeJsonFields(JsonWriter writer) throws IOException {
+        writer.field(Keys.MOD_ID.key, this.getModId())
+                .field(Keys.HASH.key, this.getHash())
+                .field(Keys.TIMESTAMP.key, this.getTimestamp().toString());
+    } // writeJsonFields()
+
     /// /// /// Getters and Setters /// /// ///
 
     public String getModId() {
@@ -4,18 +4,24 @@
 */
 package core.objects;
 
+import java.io.IOException;
 import java.nio.file.Path;
 import java.util.HashMap;
 import java.util.Map;
 
+import core.interfaces.JsonStreamable;
 import core.interfaces.MapSerializable;
+import core.io.JsonReader;
+import core.io.JsonWriter;
+import core.io.WriteBatch.Durability;
+import core.storage.ModStore;
 
 /**
  * Represents a Game. This sets the general parameters for the Mod deployment.
  * 
  * @author Stephanos B
  */
-public class Game implements MapSerializable {
+public class Game implements MapSerializable, JsonStreamable {
 
     /** Unique identifier for the Game. Used as the directory name. */
     private String id;
@@ -27,6 +33,10 @@ public class Game implements MapSerializable {
     private Path installDirectory;
     /** Path where the Mods are stored. */
     private Path storeDirectory;
+    /** How eagerly this Game's manager files are flushed to disk. */
+    private Durability durability;
+    /** How newly compiled Mods keep their files in storage. */
+    private ModStore.Mode storageMode;
 
     /**
      * Used to ensure Json Keys are consistent.
@@ -36,7 +46,9 @@ public class Game implements MapSerializable {
         RELEASE_VERSION("releaseVersion"),
         NAME("name"),
         INSTALL_DIR("installDirectory"),
-        STORE_DIR("storeDirectory");
+        STORE_DIR("storeDirectory"),
+        DURABILITY("durability"),
+        STORAGE_MODE("storageMode");
 
         private final String key;
 
@@ -55,6 +67,8 @@ public class Game implements MapSerializable {
         name = "Unkown Game";
         installDirectory = Path.of(""); // Null because it must be set.
         storeDirectory = Path.of("");
+        durability = Durability.BATCHED;
+        storageMode = ModStore.Mode.LOOSE;
     }
 
     /**
@@ -74,6 +88,8 @@ public class Game implements MapSerializable {
         this.name = name;
         this.setInstallDirectory(installDirectory);
         this.setStoreDirectory(storeDirectory);
+        this.durability = Durability.BATCHED;
+        this.storageMode = ModStore.Mode.LOOSE;
     }
 
     /// /// /// Implements /// /// ///
@@ -100,6 +116,12 @@ public class Game implements MapSerializable {
         if (map.containsKey(Keys.STORE_DIR.key))
             this.setStoreDirectory((String) map.get(Keys.STORE_DIR.key));
 
+        if (map.containsKey(Keys.DURABILITY.key))
+            this.setDurability(Durability.fromKey((String) map.get(Keys.DURABILITY.key)));
+
+        if (map.containsKey(Keys.STORAGE_MODE.key))
+            this.setStorageMode(ModStore.Mode.fromKey((String) map.get(Keys.STORAGE_MODE.key)));
+
         return this;
     } // setFromMap()
 
@@ -112,10 +134,52 @@ public class Game implements MapSerializable {
         map.put(Keys.RELEASE_VERSION.key, this.getReleaseVersion());
         map.put(Keys.INSTALL_DIR.key, this.getInstallDirectory().toAbsolutePath().toString());
         map.put(Keys.STORE_DIR.key, this.getStoreDirectory().toAbsolutePath().toString());
+        map.put(Keys.DURABILITY.key, this.getDurability().key());
+        map.put(Keys.STORAGE_MODE.key, this.getStorageMode().key());
 
         return map;
     } // toMap()
 
+    @Override
+    public boolean readJsonField(String name, JsonReader reader) throws IOException {
+        switch (name) {
+            case "id":
+                this.setId(reader.nextString());
+                return true;
+            case "name":
+                this.setName(reader.nextString());
+                return true;
+            case "releaseVersion":
+                this.setReleaseVersion(reader.nextString());
+                return true;
+            case "installDirectory":
+                this.setInstallDirectory(reader.nextString());
+                return true;
+            case "storeDirectory":
+                this.setStoreDirectory(reader.nextString());
+                return true;
+            case "durability":
+                this.setDurability(Durability.fromKey(reader.nextString()));
+                return true;
+            case "storageMode":
+                this.setStorageMode(ModStore.Mode.fromKey(reader.nextString()));
+                return true;
+            default:
+                return false;
+        }
+    } // readJsonField()
+
+    @Override
+    public void writeJsonFields(JsonWriter writer) throws IOException {
+        writer.field(Keys.ID.key, this.getId())
+                .field(Keys.NAME.key, this.getName())
+                .field(Keys.RELEASE_VERSION.key, this.getReleaseVersion())
+                .field(Keys.INSTALL_DIR.key, this.getInstallDirectory().toAbsolutePath().toString())
+                .field(Keys.STORE_DIR.key, this.getStoreDirectory().toAbsolutePath().toString())
+                .field(Keys.DURABILITY.key, this.getDurability().key())
+                .field(Keys.STORAGE_MODE.key, this.getStorageMode().key());
+    } // writeJsonFields()
+
     /// /// /// Getters and Setters /// /// ///
     // #region
 
@@ -184,6 +248,30 @@ public class Game implements MapSerializable {
         this.storeDirectory = storeDirectoryStr != null ? Path.of(storeDirectoryStr).normalize() : null;
     }
 
+    /**
+     * Trades crash-safety of the manager files (lineages, GameState) against
+     * deploy speed. {@link Durability#BATCHED} by default.
+     */
+    public Durability getDurability() {
+        return durability;
+    }
+
+    public void setDurability(Durability durability) {
+        this.durability = durability != null ? durability : Durability.BATCHED;
+    }
+
+    /**
+     * How newly compiled Mods keep their files. Mods already in storage keep
+     * the mode they were compiled with. {@link ModStore.Mode#LOOSE} by default.
+     */
+    public ModStore.Mode getStorageMode() {
+        return storageMode;
+    }
+
+    public void setStorageMode(ModStore.Mode storageMode) {
+        this.storageMode = storageMode != null ? storageMode : ModStore.Mode.LOOSE;
+    }
+
     // #endregion
     /// /// /// Methods /// /// ///
 
@@ -198,7 +286,9 @@ public class Game implements MapSerializable {
                 + "\n\tName = " + name
                 + "\n\tRelease Version: " + releaseVersion
                 + "\n\tInstall Path = " + installDirectory
-                + "\n\tMods Path = " + storeDirectory;
+                + "\n\tMods Path = " + storeDirectory
+                + "\n\tDurability = " + durability.key()
+                + "\n\tStorage Mode = " + storageMode.key();
     } // toString()
 
 } // Class
@@ -4,6 +4,7 @@
 */
 package core.objects;
 
+import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.time.LocalDateTime;
@@ -15,8 +16,11 @@ import java.util.List;
 import java.util.Map;
 import java.util.stream.IntStream;
 
+import core.interfaces.JsonStreamable;
 import core.interfaces.MapSerializable;
 import core.io.JsonIO;
+import core.io.JsonReader;
+import core.io.JsonWriter;
 import core.utils.Logger;
 
 /**
@@ -25,7 +29,7 @@ import core.utils.Logger;
  * 
  * @author Stephanos B
  */
-public class GameState implements MapSerializable {
+public class GameState implements MapSerializable, JsonStreamable {
 
     public enum Keys {
         LAST_MODIFIED("lastModified"),
@@ -106,6 +110,39 @@ public class GameState implements MapSerializable {
         return map;
     } // toMap()
 
+    @Override
+    public boolean readJsonField(String name, JsonReader reader) throws IOException {
+        switch (name) {
+            case "lastModified":
+                this.setLastModified(LocalDateTime.parse(reader.nextString()));
+                return true;
+            case "deployedMods":
+                List<Mod> ls = new ArrayList<>();
+                reader.beginArray();
+                while (reader.hasNext()) {
+                    Mod mod = new Mod();
+                    mod.readJson(reader);
+                    ls.add(mod);
+                }
+                reader.endArray();
+                this.setDeployedMods(ls);
+                return true;
+            default:
+                return false;
+        }
+    } // readJsonField()
+
+    @Override
+    public void writeJsonFields(JsonWriter writer) throws IOException {
+        writer.field(Keys.LAST_MODIFIED.key, this.getLastModified().toString());
+
+        writer.name(Keys.DEPLOYED_MODS.key).beginArray();
+        for (Mod tmp : this.getDeployedMods()) {
+            tmp.writeJson(writer);
+        }
+        writer.endArray();
+    } // writeJsonFields()
+
     /// /// /// Getters and Setters /// /// ///
 
     public LocalDateTime getLastModified() {
@@ -120,12 +157,19 @@ public class GameState implements MapSerializable {
         this.lastModified = LocalDateTime.now();
     }
 
+    /**
+     * @return Read-only view of the deployed Mods, change them through this
+     *         GameState. See {@link GameStateSnapshot} for one that never changes.
+     */
     public List<Mod> getDeployedMods() {
-        return deployedMods;
+        return Collections.unmodifiableList(deployedMods);
     }
 
+    /**
+     * @param deployedMods Mods to deploy, copied into the GameState.
+     */
     public void setDeployedMods(List<Mod> deployedMods) {
-        this.deployedMods = deployedMods;
+        this.deployedMods = new ArrayList<>(deployedMods);
         this.updateModified();
     }
 
@@ -137,7 +181,7 @@ public class GameState implements MapSerializable {
      * @deprecated // no longer used
      */
     public void setOrderedMods(List<Mod> deployedMods) {
-        this.deployedMods = deployedMods;
+        this.deployedMods = new ArrayList<>(deployedMods);
 
         // set the load order of each mod to match it's position in the List
         IntStream.range(0, deployedMods.size())
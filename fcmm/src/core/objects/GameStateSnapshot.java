@@ -0,0 +1,282 @@
+/**
+ * Author Stephanos B
+ * Date 19/10/2026
+ */
+package core.objects;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * A GameState that never changes. Changing one gives a new snapshot that shares
+ * every unchanged {@link Entry} with the old, so keeping many versions around
+ * (undo, diffs, a view drawing in the background) costs little more than one,
+ * and {@link #diff(GameStateSnapshot)} skips shared entries by identity.<br>
+ * <br>
+ * Updates copy the list of references, not the Mods, which at the number of
+ * Mods a Game has is cheaper than a tree. {@link #toGameState()} gives a
+ * GameState to work on, {@link #of(GameState, GameStateSnapshot)} turns it
+ * back into a snapshot sharing what it can with the one before.
+ *
+ * @author Stephanos B
+ * @since v4.0.5
+ */
+public final class GameStateSnapshot {
+    private static final GameStateSnapshot EMPTY = new GameStateSnapshot(LocalDateTime.MIN, List.of());
+
+    private final LocalDateTime lastModified;
+    private final List<Entry> entries; // ordered by load order, as deployed
+    private final Map<String, Entry> byId;
+
+    /**
+     * A deployed Mod, frozen. Its Mod is never handed out, {@link #toMod()}
+     * gives a copy.
+     */
+    public static final class Entry {
+        private final Mod mod;
+        private final Map<String, Object> fields;
+
+        private Entry(Mod mod) {
+            this.fields = Collections.unmodifiableMap(new HashMap<>(mod.toMap()));
+            this.mod = new Mod().setFromMap(fields);
+            this.mod.setEnabled(mod.isEnabled());
+        }
+
+        public String getId() {
+            return mod.getId();
+        }
+
+        public String getName() {
+            return mod.getName();
+        }
+
+        public int getLoadOrder() {
+            return mod.getLoadOrder();
+        }
+
+        public boolean isEnabled() {
+            return Boolean.TRUE.equals(mod.isEnabled());
+        }
+
+        /**
+         * @return A copy of the Mod, free to edit.
+         */
+        public Mod toMod() {
+            Mod copy = new Mod().setFromMap(fields);
+            copy.setEnabled(mod.isEnabled());
+            return copy;
+        }
+
+        /**
+         * @return True if both hold the same Mod, field for field.
+         */
+        public boolean sameAs(Entry other) {
+            return this == other || (other != null && fields.equals(other.fields)
+                    && Objects.equals(mod.isEnabled(), other.mod.isEnabled()));
+        }
+    } // Entry
+
+    /**
+     * What changed from one snapshot to another, each list in load order.
+     */
+    public static final class Diff {
+        private final List<Entry> added = new ArrayList<>();
+        private final List<Entry> removed = new ArrayList<>();
+        private final List<Entry> reordered = new ArrayList<>();
+        private final List<Entry> changed = new ArrayList<>();
+
+        /**
+         * @return Mods only in the newer snapshot.
+         */
+        public List<Entry> getAdded() {
+            return Collections.unmodifiableList(added);
+        }
+
+        /**
+         * @return Mods only in the older snapshot, as they were there.
+         */
+        public List<Entry> getRemoved() {
+            return Collections.unmodifiableList(removed);
+        }
+
+        /**
+         * @return Mods in both whose load order changed, as in the newer one.
+         */
+        public List<Entry> getReordered() {
+            return Collections.unmodifiableList(reordered);
+        }
+
+        /**
+         * @return Mods in both at the same load order with other changes, as in
+         *         the newer one.
+         */
+        public List<Entry> getChanged() {
+            return Collections.unmodifiableList(changed);
+        }
+
+        public boolean isEmpty() {
+            return added.isEmpty() && removed.isEmpty() && reordered.isEmpty() && changed.isEmpty();
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%d added, %d removed, %d reordered, %d changed", added.size(), removed.size(),
+                    reordered.size(), changed.size());
+        }
+    } // Diff
+
+    private GameStateSnapshot(LocalDateTime lastModified, List<Entry> entries) {
+        this.lastModified = lastModified;
+        this.entries = entries;
+        this.byId = new HashMap<>(entries.size() * 2);
+        for (Entry entry : entries)
+            byId.put(entry.getId(), entry);
+    }
+
+    /// /// /// Making /// /// ///
+
+    /**
+     * @return A snapshot with no Mods deployed.
+     */
+    public static GameStateSnapshot empty() {
+        return EMPTY;
+    }
+
+    /**
+     * @param gameState GameState to freeze, left as it is.
+     */
+    public static GameStateSnapshot of(GameState gameState) {
+        return of(gameState, null);
+    }
+
+    /**
+     * @param gameState GameState to freeze, left as it is.
+     * @param previous  Snapshot to share unchanged entries with, or null.
+     */
+    public static GameStateSnapshot of(GameState gameState, GameStateSnapshot previous) {
+        List<Entry> entries = new ArrayList<>(gameState.getDeployedMods().size());
+        for (Mod mod : gameState.getDeployedMods())
+            entries.add(share(new Entry(mod), previous));
+        entries.sort(Comparator.comparingInt(Entry::getLoadOrder)); // stable, keeps ties as given
+        return new GameStateSnapshot(gameState.getLastModified(), Collections.unmodifiableList(entries));
+    } // of()
+
+    /**
+     * @param mod Mod to deploy, or to replace the one with its id.
+     * @return A new snapshot with the Mod at its load order.
+     */
+    public GameStateSnapshot with(Mod mod) {
+        Entry next = share(new Entry(mod), this);
+        List<Entry> ls = new ArrayList<>(entries.size() + 1);
+        boolean placed = false;
+        for (Entry entry : entries) {
+            if (entry.getId().equals(next.getId()))
+                continue;
+            if (!placed && entry.getLoadOrder() > next.getLoadOrder()) {
+                ls.add(next);
+                placed = true;
+            }
+            ls.add(entry);
+        }
+        if (!placed)
+            ls.add(next);
+        return new GameStateSnapshot(LocalDateTime.now(), Collections.unmodifiableList(ls));
+    } // with()
+
+    /**
+     * @return A new snapshot without the Mod, or this one if it is not deployed.
+     */
+    public GameStateSnapshot without(String modId) {
+        if (!byId.containsKey(modId))
+            return this;
+        List<Entry> ls = new ArrayList<>(entries.size());
+        for (Entry entry : entries)
+            if (!entry.getId().equals(modId))
+                ls.add(entry);
+        return new GameStateSnapshot(LocalDateTime.now(), Collections.unmodifiableList(ls));
+    } // without()
+
+    /**
+     * @return A GameState of copies, free to edit.
+     */
+    public GameState toGameState() {
+        GameState gameState = new GameState();
+        for (Entry entry : entries)
+            gameState.addMod(entry.toMod());
+        gameState.setLastModified(lastModified);
+        return gameState;
+    }
+
+    /// /// /// Reading /// /// ///
+
+    public LocalDateTime getLastModified() {
+        return lastModified;
+    }
+
+    /**
+     * @return Deployed Mods in load order.
+     */
+    public List<Entry> getEntries() {
+        return entries;
+    }
+
+    /**
+     * @return The deployed Mod, or null if not deployed.
+     */
+    public Entry get(String modId) {
+        return byId.get(modId);
+    }
+
+    public boolean containsMod(String modId) {
+        return byId.containsKey(modId);
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * @param older Snapshot to compare against.
+     * @return What changed from the older snapshot to this one.
+     */
+    public Diff diff(GameStateSnapshot older) {
+        Diff diff = new Diff();
+        if (older == this)
+            return diff;
+        for (Entry entry : entries) {
+            Entry old = older.byId.get(entry.getId());
+            if (old == entry)
+                continue; // shared, unchanged
+            if (old == null)
+                diff.added.add(entry);
+            else if (old.getLoadOrder() != entry.getLoadOrder())
+                diff.reordered.add(entry);
+            else if (!old.sameAs(entry))
+                diff.changed.add(entry);
+        }
+        for (Entry old : older.entries)
+            if (!byId.containsKey(old.getId()))
+                diff.removed.add(old);
+        return diff;
+    } // diff()
+
+    /// /// /// Helpers /// /// ///
+
+    /**
+     * @return The previous snapshot's entry if it holds the same Mod, else the
+     *         new one.
+     */
+    private static Entry share(Entry entry, GameStateSnapshot previous) {
+        if (previous == null)
+            return entry;
+        Entry old = previous.byId.get(entry.getId());
+        return entry.sameAs(old) ? old : entry;
+    }
+
+} // Class
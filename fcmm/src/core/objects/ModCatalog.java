@@ -0,0 +1,361 @@
+/**
+ * Author Stephanos B
+ * Date 19/10/2026
+ */
+package core.objects;
+
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+
+import core.config.AppConfig;
+import core.interfaces.JsonStreamable;
+import core.interfaces.MapSerializable;
+import core.io.JsonIO;
+import core.io.JsonReader;
+import core.io.JsonWriter;
+import core.managers.LockManager;
+import core.storage.ModStore;
+import core.utils.Logger;
+
+/**
+ * Index of every Mod in a Game's mod storage, stored as
+ * {@code store/.mod_manager/catalog.json}. Holds each Mod's metadata and the
+ * modified time of its manifest header, so listing a store is a single file
+ * read instead of reading every manifest.<br>
+ * <br>
+ * Trusted as long as the store directory's modified time matches, which
+ * changes whenever a Mod folder is added, removed or renamed. Otherwise only
+ * the headers whose modified time changed are re-read. ModManager keeps it up
+ * to date through {@link #update(Path, String)} when it compiles, edits,
+ * updates or deletes a Mod.
+ *
+ * @author Stephanos B
+ * @since v4.0.5
+ */
+public class ModCatalog implements MapSerializable, JsonStreamable {
+
+    private static final AppConfig config = AppConfig.getInstance();
+    private static final Logger log = Logger.getInstance();
+
+    /**
+     * File name of the catalog, within the store's manager directory.
+     */
+    public static final String FILE_NAME = "catalog.json";
+
+    /**
+     * Used to ensure Json Keys are consistent.
+     */
+    public enum Keys {
+        STORE_MODIFIED("storeModified"),
+        ENTRIES("entries"),
+        DIR("dir"),
+        MANIFEST_MODIFIED("manifestModified"),
+        MOD("mod");
+
+        private final String key;
+
+        private Keys(String key) {
+            this.key = key;
+        }
+
+        public String key() {
+            return this.key;
+        }
+    }
+
+    /**
+     * A single Mod folder in the store.
+     */
+    private static class Entry {
+        long manifestModified;
+        Mod mod;
+
+        Entry(long manifestModified, Mod mod) {
+            this.manifestModified = manifestModified;
+            this.mod = mod;
+        }
+    }
+
+    private long storeModified = -1;
+    private final Map<String, Entry> entries = new TreeMap<>(); // keyed by folder name
+
+    public ModCatalog() {
+    }
+
+    /// /// /// Implements /// /// ///
+
+    @Override
+    public String getObjectType() {
+        return ObjectTypes.MOD_CATALOG;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public ModCatalog setFromMap(Map<String, Object> map) {
+        if (map.containsKey(Keys.STORE_MODIFIED.key))
+            this.storeModified = Long.parseLong(map.get(Keys.STORE_MODIFIED.key).toString());
+
+        if (map.get(Keys.ENTRIES.key) instanceof List<?> rawList) {
+            entries.clear();
+            for (Object item : rawList) {
+                if (item instanceof Map) {
+                    Map<String, Object> entryMap = (Map<String, Object>) item;
+                    entries.put(entryMap.get(Keys.DIR.key).toString(), new Entry(
+                            Long.parseLong(entryMap.get(Keys.MANIFEST_MODIFIED.key).toString()),
+                            new Mod().setFromMap((Map<String, Object>) entryMap.get(Keys.MOD.key))));
+                }
+            }
+        }
+        return this;
+    } // setFromMap()
+
+    @Override
+    public HashMap<String, Object> toMap() {
+        HashMap<String, Object> map = new HashMap<>();
+        map.put(Keys.STORE_MODIFIED.key, this.storeModified);
+
+        List<Map<String, Object>> arrLs = new ArrayList<>();
+        for (Map.Entry<String, Entry> tmp : entries.entrySet()) {
+            HashMap<String, Object> entryMap = new HashMap<>();
+            entryMap.put(Keys.DIR.key, tmp.getKey());
+            entryMap.put(Keys.MANIFEST_MODIFIED.key, tmp.getValue().manifestModified);
+            entryMap.put(Keys.MOD.key, tmp.getValue().mod.toMap());
+            arrLs.add(entryMap);
+        }
+        map.put(Keys.ENTRIES.key, arrLs);
+        return map;
+    } // toMap()
+
+    @Override
+    public boolean readJsonField(String name, JsonReader reader) throws IOException {
+        switch (name) {
+            case "storeModified":
+                this.storeModified = reader.nextLong();
+                return true;
+            case "entries":
+                entries.clear();
+                reader.beginArray();
+                while (reader.hasNext()) {
+                    String dir = null;
+                    long modified = -1;
+                    Mod mod = null;
+
+                    reader.beginObject();
+                    while (reader.hasNext()) {
+                        switch (reader.nextName()) {
+                            case "dir" -> dir = reader.nextString();
+                            case "manifestModified" -> modified = reader.nextLong();
+                            case "mod" -> mod = (Mod) new Mod().readJson(reader);
+                            default -> reader.skipValue();
+                        }
+                    }
+                    reader.endObject();
+
+                    if (dir != null && mod != null)
+                        entries.put(dir, new Entry(modified, mod));
+                }
+                reader.endArray();
+                return true;
+            default:
+                return false;
+        }
+    } // readJsonField()
+
+    @Override
+    public void writeJsonFields(JsonWriter writer) throws IOException {
+        writer.field(Keys.STORE_MODIFIED.key, this.storeModified);
+
+        writer.name(Keys.ENTRIES.key).beginArray();
+        for (Map.Entry<String, Entry> tmp : entries.entrySet()) {
+            writer.beginObject()
+                    .field(Keys.DIR.key, tmp.getKey())
+                    .field(Keys.MANIFEST_MODIFIED.key, tmp.getValue().manifestModified);
+            writer.name(Keys.MOD.key);
+            tmp.getValue().mod.writeJson(writer);
+            writer.endObject();
+        }
+        writer.endArray();
+    } // writeJsonFields()
+
+    /// /// /// Getters /// /// ///
+
+    /**
+     * @return The Mods in the store, ordered by folder name. Fresh instances on
+     *         every load, so callers are free to set enabled flags etc.
+     */
+    public List<Mod> getMods() {
+        List<Mod> ls = new ArrayList<>(entries.size());
+        for (Entry entry : entries.values())
+            ls.add(entry.mod);
+        return ls;
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    /// /// /// File I/O Methods /// /// ///
+
+    /**
+     * Loads the catalog of a store, re-reading what changed since it was last
+     * written. Costs a single file read when nothing did.
+     *
+     * @param storeDir The Game's store directory.
+     * @return Up-to-date catalog.
+     * @throws Exception If the store cannot be listed or a manifest is unreadable.
+     */
+    public static ModCatalog load(Path storeDir) throws Exception {
+        ModCatalog catalog = readOrEmpty(storeDir);
+        final long stamp = stamp(storeDir);
+        if (catalog.storeModified != stamp) {
+            catalog.rescan(storeDir);
+            catalog.save(storeDir, stamp);
+        }
+        return catalog;
+    } // load()
+
+    /**
+     * Refreshes the entry of a single Mod after it was compiled, edited or
+     * deleted. Failing to do so only costs a rescan on the next load, so errors
+     * are logged rather than thrown.
+     *
+     * @param storeDir The Game's store directory.
+     * @param modId    Mod (folder) to refresh. Removed if it no longer exists.
+     */
+    public static void update(Path storeDir, String modId) {
+        try {
+            ModCatalog catalog = readOrEmpty(storeDir);
+            final long stamp = stamp(storeDir);
+            if (catalog.storeModified == stamp)
+                catalog.refresh(storeDir, modId); // only this Mod changed
+            else
+                catalog.rescan(storeDir); // folders came or went, maybe not just this one
+            catalog.save(storeDir, stamp);
+        } catch (Exception e) {
+            log.warning("Could not update the Mod catalog for: " + modId, e);
+        }
+    } // update()
+
+    /**
+     * @param stamp The store's modified time from before it was scanned, so a
+     *              folder added while scanning is found by the next load.
+     */
+    private void save(Path storeDir, long stamp) throws Exception {
+        this.storeModified = stamp;
+        JsonIO.write(this, catalogPath(storeDir).toFile());
+    }
+
+    /**
+     * @return The store's modified time, taken before it is scanned. Makes the
+     *         catalog's folder first, creating it touches the store.
+     */
+    private static long stamp(Path storeDir) throws IOException {
+        Files.createDirectories(catalogPath(storeDir).getParent());
+        return modifiedTime(storeDir);
+    }
+
+    private static ModCatalog readOrEmpty(Path storeDir) {
+        Path file = catalogPath(storeDir);
+        if (!Files.exists(file))
+            return new ModCatalog();
+        try {
+            return (ModCatalog) JsonIO.read(file.toFile(), ObjectTypes.MOD_CATALOG);
+        } catch (Exception e) {
+            log.warning("Mod catalog is unreadable, rebuilding: " + file, e);
+            return new ModCatalog();
+        }
+    }
+
+    /// /// /// Helpers /// /// ///
+
+    /**
+     * Brings every entry in line with the store, only reading headers whose
+     * modified time changed.
+     */
+    private void rescan(Path storeDir) throws Exception {
+        Set<String> seen = new HashSet<>();
+        try (Stream<Path> paths = Files.list(storeDir)) {
+            for (Path path : (Iterable<Path>) paths::iterator) {
+                String dir = path.getFileName().toString();
+                if (!Files.isDirectory(path) || dir.startsWith("."))
+                    continue;
+                if (refresh(storeDir, dir))
+                    seen.add(dir);
+            }
+        }
+        entries.keySet().retainAll(seen);
+    } // rescan()
+
+    /**
+     * Re-reads a single Mod folder's header if it changed.
+     *
+     * @return False if the folder has no readable manifest, or is a superseded
+     *         version, it is dropped.
+     */
+    private boolean refresh(Path storeDir, String dir) throws Exception {
+        Path header = storeDir.resolve(dir, config.getManifestDir().toString(), dir + ".json");
+        if (!Files.exists(header)) {
+            if (Files.isDirectory(storeDir.resolve(dir)))
+                log.warning("Mod folder " + dir + " is missing a manifest!", null);
+            entries.remove(dir);
+            return false;
+        }
+
+        Entry entry = entries.get(dir);
+        if (entry != null && entry.manifestModified == modifiedTime(header))
+            return true;
+
+        try {
+            ModManifest manifest = ModManifest.loadFromFile(header);
+            if (manifest.getSupersededBy() != null) { // only kept as a newer version's base
+                entries.remove(dir);
+                return false;
+            }
+            if (manifest.hasInlineContents())
+                migrate(storeDir, manifest, header);
+            entries.put(dir, new Entry(modifiedTime(header), manifest.getAsMod()));
+            return true;
+        } catch (InvalidObjectException e) {
+            entries.remove(dir); // Not a manifest, skip like the listing always has.
+            return false;
+        }
+    } // refresh()
+
+    /**
+     * Splits a manifest still in the older single-file form into a header and
+     * contents, if the store's lock can be had without waiting. Otherwise it is
+     * read whole again until a later rescan or the StorageCollector splits it.
+     */
+    private static void migrate(Path storeDir, ModManifest manifest, Path header) {
+        if (!LockManager.lockStore(storeDir, Duration.ZERO))
+            return;
+        try (ModStore store = new ModStore(storeDir)) {
+            store.rewrite(manifest);
+            log.info(2, "Migrated manifest to header + contents: " + header);
+        } catch (Exception e) {
+            log.warning("Could not migrate manifest: " + header, e);
+        } finally {
+            LockManager.unlockStore(storeDir);
+        }
+    } // migrate()
+
+    private static Path catalogPath(Path storeDir) {
+        return storeDir.resolve(config.getManagerDir().toString(), FILE_NAME);
+    }
+
+    private static long modifiedTime(Path path) throws IOException {
+        return Files.getLastModifiedTime(path).toMillis();
+    }
+
+} // Class
@@ -0,0 +1,645 @@
+/**
+ * Author Stephanos B
+ * Date 19/10/2026
+ */
+package core.objects;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+import core.interfaces.JsonStreamable;
+import core.interfaces.MapSerializable;
+import core.io.JsonReader;
+import core.io.JsonWriter;
+
+/**
+ * The file list of a ModManifest, stored beside the manifest header as
+ * {@code mod_id.files.json}. Kept separate so listing Mods only reads the
+ * small headers, and the contents are only loaded when deploying or
+ * verifying.<br>
+ * <br>
+ * Stored by column rather than as ModFile objects, so Mods with hundreds of
+ * thousands of files stay small and iterate quickly:
+ * <ul>
+ * <li>Paths are nodes in a trie of path elements, each directory stored once
+ * and all names packed into one UTF-8 array.</li>
+ * <li>Hashes are raw digest bytes packed into one array.</li>
+ * <li>Sizes are a {@code long[]}.</li>
+ * </ul>
+ * {@link #get(int)} and iteration hand out ModFile views over a single entry,
+ * so the rest of the code keeps using the ModFile API.
+ *
+ * @author Stephanos B
+ * @since v4.0.5
+ */
+public class ModContents implements MapSerializable, JsonStreamable, Iterable<ModFile> {
+
+    private static final HexFormat HEX = HexFormat.of();
+    private static final int ROOT = -1; // parent of top-level path elements
+    private static final int NONE = -2; // no such node
+
+    /// Path trie
+    private int[] nodeParent = new int[16];
+    private int[] nameEnd = new int[16]; // a node's name ends here, and starts where the previous one ends
+    private byte[] nameBytes = new byte[256]; // UTF-8 path elements, back to back
+    private int nodeCount = 0;
+    // Lookups, built on first use. Only filled tables are published, as one
+    // manifest is read by every deploy worker at once.
+    private volatile int[] childTable; // open addressing on (parent, name), holds node + 1, dropped by trim()
+    private volatile int[] nodeFile; // file index + 1 per node, for indexOf()
+
+    /// Files
+    private int count = 0;
+    private int[] fileNode = new int[16];
+    private long[] sizes = new long[16];
+    private byte[] digests = new byte[0];
+    private int digestWidth = 0; // set by the first hex hash: 16 for MD5, 32 for SHA-256
+    private HashMap<Integer, String> otherHashes = new HashMap<>(); // hashes that don't fit the packed form
+
+    /**
+     * Used to ensure Json Keys are consistent.
+     */
+    public enum Keys {
+        FILES("files");
+
+        private final String key;
+
+        private Keys(String key) {
+            this.key = key;
+        }
+
+        public String key() {
+            return this.key;
+        }
+    }
+
+    public ModContents() {
+    }
+
+    public ModContents(ModFile[] files) {
+        if (files != null) {
+            for (ModFile file : files)
+                add(file);
+        }
+        trim();
+    }
+
+    /// /// /// Implements /// /// ///
+
+    @Override
+    public String getObjectType() {
+        return ObjectTypes.MOD_CONTENTS;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public ModContents setFromMap(Map<String, Object> map) {
+        if (map.get(Keys.FILES.key) instanceof List<?> rawList) {
+            clear();
+            for (Object item : rawList) {
+                if (item instanceof Map)
+                    add(new ModFile().setFromMap((Map<String, Object>) item));
+            }
+            trim();
+        }
+        return this;
+    } // setFromMap()
+
+    @Override
+    public HashMap<String, Object> toMap() {
+        HashMap<String, Object> map = new HashMap<>();
+        List<Map<String, Object>> arrLs = new ArrayList<>(count);
+        for (ModFile tmp : this) {
+            arrLs.add(tmp.toMap());
+        }
+        map.put(Keys.FILES.key, arrLs);
+        return map;
+    } // toMap()
+
+    /**
+     * Reads straight into the columns, no ModFile is created per entry.
+     */
+    @Override
+    public boolean readJsonField(String name, JsonReader reader) throws IOException {
+        if (!name.equals(Keys.FILES.key))
+            return false;
+
+        clear();
+        reader.beginArray();
+        while (reader.hasNext()) {
+            String filePath = "";
+            String hash = "";
+            long size = 0;
+
+            reader.beginObject();
+            while (reader.hasNext()) {
+                switch (reader.nextName()) {
+                    case "filePath" -> filePath = reader.nextString();
+                    case "hash" -> hash = reader.nextString();
+                    case "size" -> size = reader.nextLong();
+                    default -> reader.skipValue();
+                }
+            }
+            reader.endObject();
+
+            int index = append();
+            fileNode[index] = insertPath(filePath);
+            setHash(index, hash);
+            sizes[index] = size;
+        }
+        reader.endArray();
+        trim();
+        return true;
+    } // readJsonField()
+
+    @Override
+    public void writeJsonFields(JsonWriter writer) throws IOException {
+        StringBuilder sb = new StringBuilder();
+        writer.name(Keys.FILES.key).beginArray();
+        for (int i = 0; i < count; i++) {
+            sb.setLength(0);
+            writer.beginObject()
+                    .field(ModFile.Keys.FILE_PATH.key(), appendPath(sb, fileNode[i]).toString())
+                    .field(ModFile.Keys.HASH.key(), getHash(i))
+                    .field(ModFile.Keys.SIZE.key(), sizes[i])
+                    .endObject();
+        }
+        writer.endArray();
+    } // writeJsonFields()
+
+    @Override
+    public Iterator<ModFile> iterator() {
+        return new Iterator<>() {
+            private int next = 0;
+
+            @Override
+            public boolean hasNext() {
+                return next < count;
+            }
+
+            @Override
+            public ModFile next() {
+                if (next >= count)
+                    throw new NoSuchElementException();
+                return new View(next++);
+            }
+        };
+    }
+
+    /// /// /// Getters and Setters /// /// ///
+
+    public int size() {
+        return count;
+    }
+
+    /**
+     * @return A ModFile view of the entry. Setting values on it changes this
+     *         list.
+     */
+    public ModFile get(int index) {
+        checkIndex(index);
+        return new View(index);
+    }
+
+    public Path getFilePath(int index) {
+        checkIndex(index);
+        List<String> parts = new ArrayList<>(8);
+        for (int node = fileNode[index]; node != ROOT; node = nodeParent[node])
+            parts.add(nodeName(node));
+
+        String first = parts.getLast();
+        String[] more = new String[parts.size() - 1];
+        for (int i = 0; i < more.length; i++)
+            more[i] = parts.get(more.length - 1 - i);
+        return Path.of(first, more);
+    } // getFilePath()
+
+    public String getHash(int index) {
+        checkIndex(index);
+        String other = otherHashes.get(index);
+        if (other != null || digestWidth == 0)
+            return other != null ? other : "";
+        return HEX.formatHex(digests, index * digestWidth, (index + 1) * digestWidth);
+    }
+
+    public long getSize(int index) {
+        checkIndex(index);
+        return sizes[index];
+    }
+
+    /**
+     * @return A new array of ModFile views, for code that needs an array.
+     */
+    public ModFile[] getFiles() {
+        ModFile[] files = new ModFile[count];
+        for (int i = 0; i < count; i++)
+            files[i] = new View(i);
+        return files;
+    }
+
+    public void setFiles(ModFile[] files) {
+        clear();
+        if (files != null) {
+            for (ModFile file : files)
+                add(file);
+        }
+        trim();
+    }
+
+    /// /// /// Methods /// /// ///
+
+    /**
+     * Appends a copy of the ModFile.
+     */
+    public void add(ModFile file) {
+        // read before append(), it may be a view of this list
+        Path path = file.getFilePath();
+        String hash = file.getHash();
+        long size = file.getSize();
+
+        int index = append();
+        fileNode[index] = insertPath(path);
+        nodeFile = null;
+        setHash(index, hash);
+        sizes[index] = size;
+    } // add()
+
+    /**
+     * @param path Relative path of a file.
+     * @return Index of the file at that path, or -1 if there is none.
+     */
+    public int indexOf(Path path) {
+        if (path == null || count == 0)
+            return -1;
+        path = path.normalize();
+
+        byte[] buf = new byte[path.toString().length() * 3]; // fits any element, this call's own
+        int node = ROOT;
+        if (path.getRoot() != null)
+            node = find(node, path.getRoot().toString(), buf);
+        for (Path part : path) {
+            if (node == NONE)
+                return -1;
+            node = find(node, part.toString(), buf);
+        }
+        if (node == NONE || node == ROOT)
+            return -1;
+        return nodeFile()[node] - 1;
+    } // indexOf()
+
+    /**
+     * Shrinks the arrays to size and drops the lookups only needed for adding.
+     * Called after each bulk load.
+     */
+    public void trim() {
+        nodeParent = Arrays.copyOf(nodeParent, nodeCount);
+        nameEnd = Arrays.copyOf(nameEnd, nodeCount);
+        nameBytes = Arrays.copyOf(nameBytes, nodeCount == 0 ? 0 : nameEnd[nodeCount - 1]);
+        fileNode = Arrays.copyOf(fileNode, count);
+        sizes = Arrays.copyOf(sizes, count);
+        digests = Arrays.copyOf(digests, count * digestWidth);
+        childTable = null;
+    } // trim()
+
+    /// /// /// Helpers /// /// ///
+
+    private void clear() {
+        nodeParent = new int[16];
+        nameEnd = new int[16];
+        nameBytes = new byte[256];
+        nodeCount = 0;
+        childTable = null;
+        nodeFile = null;
+
+        count = 0;
+        fileNode = new int[16];
+        sizes = new long[16];
+        digests = new byte[0];
+        digestWidth = 0;
+        otherHashes = new HashMap<>();
+    }
+
+    /**
+     * Makes room for one more file.
+     *
+     * @return Index of the new entry.
+     */
+    private int append() {
+        if (count == fileNode.length) {
+            int capacity = Math.max(16, count * 2);
+            fileNode = Arrays.copyOf(fileNode, capacity);
+            sizes = Arrays.copyOf(sizes, capacity);
+        }
+        if (digestWidth > 0 && digests.length < (count + 1) * digestWidth)
+            digests = Arrays.copyOf(digests, Math.max(16, count * 2) * digestWidth);
+        return count++;
+    }
+
+    private void setHash(int index, String hash) {
+        hash = hash == null ? "" : hash;
+        int width = hash.length() / 2;
+        boolean hex = width > 0 && isHex(hash);
+
+        if (digestWidth == 0 && hex) {
+            digestWidth = width;
+            digests = new byte[Math.max(16, fileNode.length) * width];
+        }
+        if (hex && width == digestWidth) {
+            int offset = index * width;
+            for (int i = 0; i < width; i++)
+                digests[offset + i] = (byte) ((Character.digit(hash.charAt(i * 2), 16) << 4)
+                        | Character.digit(hash.charAt(i * 2 + 1), 16));
+            if (!otherHashes.isEmpty())
+                otherHashes.remove(index);
+        } else {
+            otherHashes.put(index, hash.toLowerCase()); // not hex, or a different algorithm
+        }
+    } // setHash()
+
+    private static boolean isHex(String hash) {
+        if ((hash.length() & 1) != 0)
+            return false;
+        for (int i = 0; i < hash.length(); i++) {
+            char c = hash.charAt(i);
+            if (Character.digit(c, 16) < 0)
+                return false;
+        }
+        return true;
+    }
+
+    /**
+     * Adds a path as it would be read by {@link ModFile#setFilePath(String)},
+     * splitting on either separator without creating a Path when it's a plain
+     * relative one.
+     *
+     * @return The trie node of the file.
+     */
+    private int insertPath(String filePath) {
+        if (!isPlainRelative(filePath))
+            return insertPath(Path.of(filePath.replace('/', File.separatorChar)
+                    .replace('\\', File.separatorChar))); // let Path normalise it
+
+        byte[] buf = new byte[filePath.length() * 3];
+        int node = ROOT;
+        int start = 0;
+        for (int i = 0; i <= filePath.length(); i++) {
+            if (i < filePath.length() && filePath.charAt(i) != '/' && filePath.charAt(i) != '\\')
+                continue;
+            if (i > start)
+                node = child(node, filePath, start, i, buf);
+            start = i + 1;
+        }
+        return node;
+    } // insertPath()
+
+    private int insertPath(Path path) {
+        path = path == null ? Path.of("") : path.normalize();
+        List<String> parts = new ArrayList<>();
+        if (path.getRoot() != null)
+            parts.add(path.getRoot().toString());
+        for (Path part : path)
+            parts.add(part.toString());
+
+        byte[] buf = new byte[path.toString().length() * 3];
+        int node = ROOT;
+        for (int i = 0; i < parts.size(); i++) {
+            String part = parts.get(i);
+            node = child(node, part, 0, part.length(), buf);
+        }
+        return node;
+    } // insertPath()
+
+    /**
+     * @return True if the path has no root, no "." or ".." and at least one
+     *         element, so splitting it is the same as normalising it.
+     */
+    private static boolean isPlainRelative(String filePath) {
+        if (filePath.isEmpty() || filePath.indexOf(':') >= 0)
+            return false;
+        char first = filePath.charAt(0);
+        if (first == '/' || first == '\\')
+            return false;
+
+        int start = 0;
+        for (int i = 0; i <= filePath.length(); i++) {
+            if (i < filePath.length() && filePath.charAt(i) != '/' && filePath.charAt(i) != '\\')
+                continue;
+            int len = i - start;
+            if (len == 1 && filePath.charAt(start) == '.'
+                    || len == 2 && filePath.charAt(start) == '.' && filePath.charAt(start + 1) == '.')
+                return false;
+            start = i + 1;
+        }
+        return true;
+    } // isPlainRelative()
+
+    /**
+     * @return The node of the element under parent, or {@link #NONE}.
+     */
+    private int find(int parent, String name, byte[] buf) {
+        return child(parent, name, 0, name.length(), buf, false);
+    }
+
+    private int child(int parent, String src, int from, int to, byte[] buf) {
+        return child(parent, src, from, to, buf, true);
+    }
+
+    /**
+     * Finds the node for {@code src[from, to)} under parent, adding it if new
+     * and asked to. Lookups of ASCII names don't allocate.
+     *
+     * @param buf Room for the element encoded, at least 3 bytes per char.
+     */
+    private int child(int parent, String src, int from, int to, byte[] buf, boolean add) {
+        int[] table = childTable();
+        int len = encode(src, from, to, buf);
+        int hash = hash(parent, buf, 0, len);
+
+        int mask = table.length - 1;
+        int slot = hash & mask;
+        while (table[slot] != 0) {
+            int node = table[slot] - 1;
+            int start = nameStart(node);
+            if (nodeParent[node] == parent && nameEnd[node] - start == len
+                    && Arrays.equals(nameBytes, start, start + len, buf, 0, len))
+                return node;
+            slot = (slot + 1) & mask;
+        }
+        if (!add)
+            return NONE;
+
+        if (nodeCount == nodeParent.length) {
+            nodeParent = Arrays.copyOf(nodeParent, Math.max(16, nodeCount * 2));
+            nameEnd = Arrays.copyOf(nameEnd, nodeParent.length);
+        }
+        int start = nodeCount == 0 ? 0 : nameEnd[nodeCount - 1];
+        if (start + len > nameBytes.length)
+            nameBytes = Arrays.copyOf(nameBytes, Math.max(start + len, nameBytes.length * 2));
+        System.arraycopy(buf, 0, nameBytes, start, len);
+
+        nodeParent[nodeCount] = parent;
+        nameEnd[nodeCount] = start + len;
+        int node = nodeCount++;
+        table[slot] = node + 1;
+        if (nodeCount * 2 > table.length)
+            rehash(table.length * 2);
+        return node;
+    } // child()
+
+    /**
+     * UTF-8 encodes {@code src[from, to)} into buf.
+     *
+     * @return Encoded length.
+     */
+    private static int encode(String src, int from, int to, byte[] buf) {
+        int len = to - from;
+        for (int i = 0; i < len; i++) {
+            char c = src.charAt(from + i);
+            if (c >= 0x80) { // rare, let String deal with it
+                byte[] utf8 = src.substring(from, to).getBytes(StandardCharsets.UTF_8);
+                System.arraycopy(utf8, 0, buf, 0, utf8.length);
+                return utf8.length;
+            }
+            buf[i] = (byte) c;
+        }
+        return len;
+    } // encode()
+
+    private static int hash(int parent, byte[] bytes, int from, int to) {
+        int h = parent;
+        for (int i = from; i < to; i++)
+            h = 31 * h + bytes[i];
+        h *= 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * @return The child lookup, built first if dropped. Built once however
+     *         many threads look up at the same time.
+     */
+    private int[] childTable() {
+        int[] table = childTable;
+        if (table == null) {
+            synchronized (this) {
+                table = childTable;
+                if (table == null)
+                    table = rehash(Math.max(16, Integer.highestOneBit(Math.max(1, nodeCount)) * 4));
+            }
+        }
+        return table;
+    } // childTable()
+
+    /**
+     * @return The file of each node, built first if not yet.
+     */
+    private int[] nodeFile() {
+        int[] table = nodeFile;
+        if (table == null) {
+            synchronized (this) {
+                table = nodeFile;
+                if (table == null) {
+                    table = new int[nodeCount];
+                    for (int i = 0; i < count; i++)
+                        table[fileNode[i]] = i + 1;
+                    nodeFile = table;
+                }
+            }
+        }
+        return table;
+    } // nodeFile()
+
+    /**
+     * Fills a new child lookup of the given capacity, then publishes it.
+     */
+    private int[] rehash(int capacity) {
+        int[] table = new int[capacity];
+        int mask = capacity - 1;
+        for (int node = 0; node < nodeCount; node++) {
+            int slot = hash(nodeParent[node], nameBytes, nameStart(node), nameEnd[node]) & mask;
+            while (table[slot] != 0)
+                slot = (slot + 1) & mask;
+            table[slot] = node + 1;
+        }
+        childTable = table;
+        return table;
+    } // rehash()
+
+    private int nameStart(int node) {
+        return node == 0 ? 0 : nameEnd[node - 1];
+    }
+
+    private String nodeName(int node) {
+        int start = nameStart(node);
+        return new String(nameBytes, start, nameEnd[node] - start, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Writes the path of a node like {@link Path#toString()} would.
+     */
+    private StringBuilder appendPath(StringBuilder sb, int node) {
+        if (nodeParent[node] != ROOT) {
+            appendPath(sb, nodeParent[node]);
+            if (sb.charAt(sb.length() - 1) != File.separatorChar) // roots end in one already
+                sb.append(File.separatorChar);
+        }
+        return sb.append(nodeName(node));
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= count)
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for length " + count);
+    }
+
+    /**
+     * A ModFile backed by a single entry of this list.
+     */
+    private final class View extends ModFile {
+        private final int index;
+
+        private View(int index) {
+            this.index = index;
+        }
+
+        @Override
+        public Path getFilePath() {
+            return ModContents.this.getFilePath(index);
+        }
+
+        @Override
+        public void setFilePath(Path filePath) {
+            fileNode[index] = insertPath(filePath);
+            nodeFile = null;
+        }
+
+        @Override
+        public String getHash() {
+            return ModContents.this.getHash(index);
+        }
+
+        @Override
+        public void setHash(String hash) {
+            ModContents.this.setHash(index, hash);
+        }
+
+        @Override
+        public long getSize() {
+            return sizes[index];
+        }
+
+        @Override
+        public void setSize(long size) {
+            sizes[index] = size;
+        }
+    } // View
+
+} // Class
@@ -6,18 +6,23 @@
 package core.objects;
 
 import java.io.File;
+import java.io.IOException;
 import java.nio.file.Path;
 import java.util.HashMap;
 import java.util.Map;
 
+import core.interfaces.JsonStreamable;
 import core.interfaces.MapSerializable;
+import core.io.JsonReader;
+import core.io.JsonWriter;
 
 /**
- * Represents the File Contents of a Mod within the Mod.JSON file.
+ * Represents the File Contents of a Mod within the Mod.JSON file. Those held by
+ * a ModManifest are views over its {@link ModContents}.
  * 
  * @author Stephanos B
  */
-public class ModFile implements MapSerializable {
+public class ModFile implements MapSerializable, JsonStreamable {
 
     /**
      * {@code ~mod_id/} {@code data/file.txt}
@@ -29,6 +34,8 @@ public class ModFile implements MapSerializable {
     private String hash; // SHA-256 stored as a hexadecimal string, of file contents
     private long size = 0; // For info/validation
 
+    private static final Path EMPTY_PATH = Path.of("");
+
     /**
      * Used to ensure Json Keys are consistent.
      */
@@ -55,7 +62,7 @@ public class ModFile implements MapSerializable {
     }
 
     public ModFile() {
-        this.filePath = Path.of("");
+        this.filePath = EMPTY_PATH;
         this.hash = "";
         this.size = 0;
     }
@@ -106,6 +113,30 @@ public class ModFile implements MapSerializable {
         return map;
     } // toMap()
 
+    @Override
+    public boolean readJsonField(String name, JsonReader reader) throws IOException {
+        switch (name) {
+            case "filePath":
+                this.setFilePath(reader.nextString());
+                return true;
+            case "hash":
+                this.setHash(reader.nextString());
+                return true;
+            case "size":
+                this.setSize(reader.nextLong());
+                return true;
+            default:
+                return false;
+        }
+    } // readJsonField()
+
+    @Override
+    public void writeJsonFields(JsonWriter writer) throws IOException {
+        writer.field(Keys.FILE_PATH.key, this.getFilePath().toString())
+                .field(Keys.HASH.key, this.getHash())
+                .field(Keys.SIZE.key, this.getSize());
+    } // writeJsonFields()
+
     /// /// /// Getters and Setters /// /// ///
 
     /**
@@ -142,7 +173,7 @@ public class ModFile implements MapSerializable {
                 filePathStr = filePathStr.replace(sep, File.separator);
         }
 
-        this.filePath = filePathStr != null ? Path.of(filePathStr).normalize() : null;
+        this.setFilePath(filePathStr != null ? Path.of(filePathStr) : null);
     }
 
     public String getHash() {
@@ -170,8 +201,9 @@ public class ModFile implements MapSerializable {
      */
     @Override
     public String toString() {
-        return String.format("filePath= %s, hash= %s, size= %d", filePath,
-                hash.length() <= 6 ? hash : hash.substring(0, 6) + "...", size);
+        String hash = getHash();
+        return String.format("filePath= %s, hash= %s, size= %d", getFilePath(),
+                hash.length() <= 6 ? hash : hash.substring(0, 6) + "...", getSize());
     } // toString()
 
 } // Class
@@ -4,25 +4,58 @@
 */
 package core.objects;
 
-import java.util.ArrayList;
+import java.io.IOException;
+import java.nio.file.Path;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
+import core.interfaces.MapSerializable;
+import core.io.JsonIO;
+import core.io.JsonReader;
+import core.io.JsonWriter;
+import core.storage.ModStore;
+
 /**
- * Represents a Mod.JSON file for tracking contents and metadata of a Mod.
+ * Represents a Mod.JSON file for tracking contents and metadata of a Mod.<br>
+ * <br>
+ * On disk this is a small header ({@code mod_id.json}) plus the file list in
+ * {@code mod_id.files.json} (see {@link ModContents}). The file list is only
+ * read the first time {@link #getContentsArr()} is called. Older manifests
+ * with the list inline are still read, and are split the next time they are
+ * written, which only happens holding the Game's store lock.
  * 
  * @author Stephanos B
  */
 public class ModManifest extends ModMetadata {
 
-    private ModFile[] contentsArr; // Array of contents inside the ModFile.
+    private ModContents contents; // Files inside the Mod.
+    private Path contentsSource; // Where to lazily load contentsArr from, null once loaded.
+    private boolean inlineContents = false; // Read from an older single-file manifest.
+    private boolean splitContents = false; // Read from a header, contents are beside it.
+    private ModStore.Mode storage = ModStore.Mode.LOOSE; // Where the files are kept in storage.
+    private String base; // Previous version unchanged files are kept in, null if complete.
+    private String supersededBy; // Newer version this one is only kept as a base for.
+
+    /**
+     * Suffix of the contents file that sits beside each manifest header.
+     */
+    public static final String CONTENTS_SUFFIX = ".files.json";
 
     /**
      * Used to ensure Json Keys are consistent.
      */
     public enum Keys {
-        FILES("files");
+        FILES("files"),
+        /** Marks the header as split, value is the contents file name. */
+        CONTENTS("contents"),
+        FILE_COUNT("fileCount"),
+        /** How the Mod's files are kept in storage, see {@link ModStore.Mode}. */
+        STORAGE("storage"),
+        /** ID of the previous version holding this one's unchanged files. */
+        BASE("base"),
+        /** ID of the newer version this one is kept as a base for. */
+        SUPERSEDED_BY("supersededBy");
 
         private final String key;
 
@@ -40,7 +73,7 @@ public class ModManifest extends ModMetadata {
      */
     public ModManifest() {
         super();
-        contentsArr = new ModFile[0];
+        contents = new ModContents();
     }
 
     /**
@@ -58,6 +91,7 @@ public class ModManifest extends ModMetadata {
                 mod.getLoadOrder(),
                 mod.getDownloadDate(),
                 mod.getDownloadLink());
+        contents = new ModContents();
     }
 
     /**
@@ -85,6 +119,7 @@ public class ModManifest extends ModMetadata {
         mod.setDownloadDate(downloadDate);
         mod.setDownloadLink(downloadLink);
         mod.setDownloadSource(downloadSource);
+        mod.setTagSet(tagSet);
 
         return mod;
     }
@@ -96,25 +131,19 @@ public class ModManifest extends ModMetadata {
         return ObjectTypes.MOD_MANIFEST;
     }
 
-    @SuppressWarnings("unchecked")
     @Override
     public ModManifest setFromMap(Map<String, Object> map) {
         super.setFromMap(map);
 
-        if (map.containsKey(Keys.FILES.key)) {
-            Object rawValue = map.get(Keys.FILES.key);
-            if (rawValue instanceof List) {
-                List<?> rawList = (List<?>) rawValue;
-                List<ModFile> ls = new ArrayList<>();
-                for (Object item : rawList) {
-                    if (item instanceof Map) {
-                        Map<String, Object> itemMap = (Map<String, Object>) item;
-                        ls.add(new ModFile().setFromMap(itemMap));
-                    }
-                }
-                this.setContentsArr(ls.toArray(new ModFile[0]));
-            }
+        if (map.get(Keys.FILES.key) instanceof List) {
+            this.setContents(new ModContents().setFromMap(map));
         }
+        if (map.containsKey(Keys.STORAGE.key))
+            this.setStorage(ModStore.Mode.fromKey(map.get(Keys.STORAGE.key).toString()));
+        if (map.get(Keys.BASE.key) instanceof String tmp)
+            this.setBase(tmp);
+        if (map.get(Keys.SUPERSEDED_BY.key) instanceof String tmp)
+            this.setSupersededBy(tmp);
         return this;
     } // setFromMap()
 
@@ -122,28 +151,177 @@ public class ModManifest extends ModMetadata {
     public HashMap<String, Object> toMap() {
         HashMap<String, Object> map = super.toMap();
 
-        ArrayList<HashMap<String, Object>> arrLs = new ArrayList<>();
         /// Get map of each modFile stored.
-        for (ModFile tmp : this.getContentsArr()) {
-            arrLs.add((HashMap<String, Object>) tmp.toMap());
-        }
-        map.put(Keys.FILES.key(), arrLs);
+        map.put(Keys.FILES.key(), this.getContents().toMap().get(Keys.FILES.key()));
+        map.put(Keys.STORAGE.key(), this.storage.key());
+        if (base != null)
+            map.put(Keys.BASE.key(), base);
+        if (supersededBy != null)
+            map.put(Keys.SUPERSEDED_BY.key(), supersededBy);
 
         return map;
     } // toMap()
 
+    @Override
+    public boolean readJsonField(String name, JsonReader reader) throws IOException {
+        if (name.equals(Keys.CONTENTS.key)) {
+            // Header only, JsonIO points contentsSource at the file beside it.
+            this.splitContents = true;
+            reader.skipValue();
+            return true;
+        }
+        if (name.equals(Keys.STORAGE.key)) {
+            this.setStorage(ModStore.Mode.fromKey(reader.nextString()));
+            return true;
+        }
+        if (name.equals(Keys.BASE.key)) {
+            this.setBase(reader.nextString());
+            return true;
+        }
+        if (name.equals(Keys.SUPERSEDED_BY.key)) {
+            this.setSupersededBy(reader.nextString());
+            return true;
+        }
+        if (!name.equals(Keys.FILES.key))
+            return super.readJsonField(name, reader);
+
+        this.inlineContents = true;
+        ModContents inline = new ModContents();
+        inline.readJsonField(name, reader);
+        this.setContents(inline);
+        return true;
+    } // readJsonField()
+
+    /**
+     * Writes the header only. JsonIO writes the contents file beside it.
+     */
+    @Override
+    public void writeJsonFields(JsonWriter writer) throws IOException {
+        super.writeJsonFields(writer);
+
+        writer.field(Keys.CONTENTS.key, CONTENTS_SUFFIX);
+        writer.field(Keys.STORAGE.key, this.storage.key());
+        if (base != null)
+            writer.field(Keys.BASE.key, base);
+        if (supersededBy != null)
+            writer.field(Keys.SUPERSEDED_BY.key, supersededBy);
+        if (isContentsLoaded())
+            writer.field(Keys.FILE_COUNT.key, contents.size());
+    } // writeJsonFields()
+
     /// /// /// Getters and Setters /// /// ///
 
     /**
+     * Loads the contents file on first use. Iterate this rather than
+     * {@link #getContentsArr()} for large Mods.
      * 
-     * @return Array of ModFiles.
+     * @return The files, as views through the ModFile API.
+     * @throws IllegalStateException If the contents file cannot be read.
+     */
+    public ModContents getContents() {
+        if (contentsSource != null) {
+            try {
+                contents = (ModContents) JsonIO.read(contentsSource.toFile(),
+                        MapSerializable.ObjectTypes.MOD_CONTENTS);
+                contentsSource = null;
+            } catch (Exception e) {
+                throw new IllegalStateException("Failed to load Mod contents: " + contentsSource, e);
+            }
+        }
+        return contents;
+    }
+
+    public void setContents(ModContents contents) {
+        this.contents = contents != null ? contents : new ModContents();
+        this.contentsSource = null;
+    }
+
+    /**
+     * @return Array of ModFile views over {@link #getContents()}.
+     * @throws IllegalStateException If the contents file cannot be read.
      */
     public ModFile[] getContentsArr() {
-        return contentsArr;
+        return getContents().getFiles();
     }
 
     public void setContentsArr(ModFile[] contentsArr) {
-        this.contentsArr = contentsArr;
+        this.setContents(new ModContents(contentsArr));
+    }
+
+    /**
+     * For JsonIO. Where the contents will be loaded from when first needed.
+     */
+    public void setContentsSource(Path contentsSource) {
+        this.contentsSource = contentsSource;
+    }
+
+    /**
+     * For JsonIO. If the header just read says the contents are in their own
+     * file, point the lazy load at it.
+     * 
+     * @param header Path the header was read from.
+     */
+    public void bindContents(Path header) {
+        if (splitContents && !inlineContents)
+            this.contentsSource = contentsPathFor(header);
+    }
+
+    /**
+     * @return The unread contents file, or null if already in memory.
+     */
+    public Path getContentsSource() {
+        return contentsSource;
+    }
+
+    /**
+     * @return False while the contents are still only on disk.
+     */
+    public boolean isContentsLoaded() {
+        return contentsSource == null;
+    }
+
+    /**
+     * @return True if this was read from an older manifest with the files inline.
+     */
+    public boolean hasInlineContents() {
+        return inlineContents;
+    }
+
+    /**
+     * @return How the Mod's files are kept in storage. {@link ModStore.Mode#LOOSE}
+     *         for manifests written before there was a choice.
+     */
+    public ModStore.Mode getStorage() {
+        return storage;
+    }
+
+    public void setStorage(ModStore.Mode storage) {
+        this.storage = storage != null ? storage : ModStore.Mode.LOOSE;
+    }
+
+    /**
+     * @return ID of the previous version this one only stores the changes
+     *         against, or null if it stores every file itself.
+     */
+    public String getBase() {
+        return base;
+    }
+
+    public void setBase(String base) {
+        this.base = base;
+    }
+
+    /**
+     * @return ID of the newer version that replaced this one, or null. A
+     *         superseded version is hidden from listings and only kept for the
+     *         files its successor shares.
+     */
+    public String getSupersededBy() {
+        return supersededBy;
+    }
+
+    public void setSupersededBy(String supersededBy) {
+        this.supersededBy = supersededBy;
     }
 
     /// /// /// Methods /// /// ///
@@ -154,14 +332,7 @@ public class ModManifest extends ModMetadata {
      * @param content The ModContent to add.
      */
     public void addFile(ModFile content) {
-        if (this.contentsArr == null) {
-            this.contentsArr = new ModFile[] { content };
-        } else {
-            ModFile[] newArr = new ModFile[this.contentsArr.length + 1]; // initialize array if needed
-            System.arraycopy(this.contentsArr, 0, newArr, 0, this.contentsArr.length);
-            newArr[newArr.length - 1] = content;
-            this.contentsArr = newArr;
-        }
+        this.getContents().add(content); // load first if needed
     } // addContent()
 
     /**
@@ -170,17 +341,40 @@ public class ModManifest extends ModMetadata {
      * @return A string representation of the contents of the Mod.
      */
     public String printContents() {
-        String contents = "";
-        if (contentsArr != null) {
-            for (ModFile content : contentsArr) {
-                contents += content.toString() + "\n";
-            }
-        } else {
-            contents = "No contents available.";
+        StringBuilder sb = new StringBuilder();
+        for (ModFile content : getContents()) {
+            sb.append(content.toString()).append("\n");
         }
-        return contents;
+        return sb.toString();
     } // printContents()
 
+    /**
+     * @param header Path of a manifest header.
+     * @return Path of the contents file that belongs beside it.
+     */
+    public static Path contentsPathFor(Path header) {
+        String name = header.getFileName().toString();
+        if (name.toLowerCase().endsWith(".json"))
+            name = name.substring(0, name.length() - 5);
+        return header.resolveSibling(name + CONTENTS_SUFFIX);
+    } // contentsPathFor()
+
+    /**
+     * Reads a manifest header, leaving the contents to load lazily. Manifests
+     * in the older single-file form are read whole and left as they are on
+     * disk; reading never writes, as readers don't hold the store lock. They
+     * are split by whatever holds it: the {@link ModCatalog} rescan when it can
+     * take the lock, {@link core.managers.StorageCollector}, or any write of
+     * the manifest.
+     * 
+     * @param header Path of the manifest header.
+     * @return The ModManifest.
+     * @throws Exception If the file cannot be read or is not a ModManifest.
+     */
+    public static ModManifest loadFromFile(Path header) throws Exception {
+        return (ModManifest) JsonIO.read(header.toFile(), ObjectTypes.MOD_MANIFEST);
+    } // loadFromFile()
+
     /**
      * Overrides toString() to provide a string representation of the Mod object.
      * 
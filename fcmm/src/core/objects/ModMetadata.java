@@ -1,15 +1,21 @@
 package core.objects;
 
+import java.io.IOException;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.stream.Collectors;
 
+import core.interfaces.JsonStreamable;
 import core.interfaces.MapSerializable;
+import core.io.JsonReader;
+import core.io.JsonWriter;
 import core.utils.Logger;
 
 /**
@@ -17,7 +23,7 @@ import core.utils.Logger;
  * 
  * @author Stephanos B
  */
-public abstract class ModMetadata implements MapSerializable {
+public abstract class ModMetadata implements MapSerializable, JsonStreamable {
 
     protected String gameId; // ID of the Game this Mod is for.
     protected String id; // Unique identifier for the Mod.
@@ -205,6 +211,71 @@ public abstract class ModMetadata implements MapSerializable {
         return map;
     } // toMap()
 
+    @Override
+    public boolean readJsonField(String name, JsonReader reader) throws IOException {
+        // Same setters as setFromMap() so the ID regeneration rules still apply.
+        switch (name) {
+            case "id":
+                this.setId(reader.nextString());
+                return true;
+            case "gameId":
+                this.setGameId(reader.nextString());
+                return true;
+            case "version":
+                this.setVersion(reader.nextString());
+                return true;
+            case "loadOrder":
+                this.setLoadOrder(reader.nextInt());
+                return true;
+            case "name":
+                this.setName(reader.nextString());
+                return true;
+            case "description":
+                this.setDescription(reader.nextString());
+                return true;
+            case "downloadSource":
+                this.setDownloadSource(reader.nextString());
+                return true;
+            case "downloadLink":
+                this.setDownloadLink(reader.nextString());
+                return true;
+            case "downloadDate":
+                this.setDownloadDate(LocalDateTime.parse(reader.nextString()));
+                return true;
+            case "tags":
+                if (reader.peek() == JsonReader.Token.BEGIN_ARRAY) {
+                    List<String> ls = new ArrayList<>();
+                    reader.beginArray();
+                    while (reader.hasNext())
+                        ls.add(reader.nextString());
+                    reader.endArray();
+                    this.setTagSet(TagParser.parseTags(ls));
+                } else
+                    this.setTagSet(TagParser.parseTags(reader.nextString()));
+                return true;
+            default:
+                return false;
+        }
+    } // readJsonField()
+
+    @Override
+    public void writeJsonFields(JsonWriter writer) throws IOException {
+        writer.field(Keys.ID.key, this.getId())
+                .field(Keys.GAME_ID.key, this.getGameId())
+                .field(Keys.VERSION.key, this.getVersion())
+                .field(Keys.LOAD_ORDER.key, this.getLoadOrder())
+                .field(Keys.NAME.key, this.getName())
+                .field(Keys.DESCRIPTION.key, this.getDescription())
+                .field(Keys.DOWNLOAD_DATE.key, this.getDownloadDate().toString())
+                .field(Keys.DOWNLOAD_SOURCE.key, this.getDownloadSource())
+                .field(Keys.DOWNLOAD_LINK.key, this.getDownloadLink());
+
+        writer.name(Keys.TAGS.key).beginArray();
+        for (String tag : this.getTagSet())
+            writer.value(tag);
+        writer.endArray();
+    } // writeJsonFields()
+
     /// /// /// Getters and Setters /// /// ///
 
     public String getName() {
@@ -338,6 +409,9 @@ public abstract class ModMetadata implements MapSerializable {
             if (input == null) {
                 return Collections.emptySet();
             }
+            if (input instanceof List<?> ls) { // same result as the "[a, b]" form
+                input = String.join(",", ls.stream().map(String::valueOf).toList());
+            }
 
             String inputString = input.toString().trim().toLowerCase();
 
@@ -0,0 +1,281 @@
+/**
+ * Author Stephanos B
+ * Date 19/10/2026
+ */
+package core.storage;
+
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import core.config.AppConfig;
+import core.io.JsonIO;
+import core.io.WriteBatch;
+import core.utils.DirectoryLocker;
+
+/**
+ * Content-addressable file store shared by every deduplicated Mod of a Game,
+ * kept in {@code store/.mod_manager/blobs/}. Each distinct file is stored once
+ * under the hash its ModFile already carries, and reference counted so it
+ * can be removed once no Mod uses it.<br>
+ * <br>
+ * The counts are read again whenever another process saved them, and saved
+ * under a lock by adding this instance's changes to what is on disk. If the
+ * counts can't be read nothing is changed: every call fails until they are
+ * fixed, rather than freeing blobs still in use.<br>
+ * <br>
+ * One instance per store directory, see {@link #of(Path)}.
+ *
+ * @author Stephanos B
+ * @since v4.0.5
+ */
+public class BlobStore {
+
+    private static final AppConfig config = AppConfig.getInstance();
+    private static final Map<Path, BlobStore> open = new ConcurrentHashMap<>();
+
+    /**
+     * Directory name of the blob store, within the store's manager directory.
+     */
+    public static final String DIR_NAME = "blobs";
+    /**
+     * File holding the reference counts, within the blob store.
+     */
+    public static final String REFS_FILE = "refs.json";
+    /**
+     * Lock file held while the reference counts are saved, within the blob
+     * store.
+     */
+    public static final String LOCK_NAME = ".refs.lock";
+    private static final Duration LOCK_WAIT = Duration.ofSeconds(10);
+
+    private final Path root;
+    private HashMap<String, Long> refs; // loaded on first use, with the pending changes
+    private String loaded; // stamp of the file refs was read from
+    private final HashMap<String, Long> pending = new HashMap<>(); // changes not saved yet
+    private boolean replaced = false; // refs are saved whole, see setRefs()
+
+    private BlobStore(Path storeDir) {
+        this.root = storeDir.resolve(config.getManagerDir().toString(), DIR_NAME);
+    }
+
+    /**
+     * @param storeDir A Game's store directory.
+     * @return The shared BlobStore of that directory.
+     */
+    public static BlobStore of(Path storeDir) {
+        return open.computeIfAbsent(storeDir.toAbsolutePath().normalize(), BlobStore::new);
+    }
+
+    /// /// /// Blobs /// /// ///
+
+    /**
+     * @param hash Hex hash of the file contents.
+     * @return Where the blob with this hash is (or would be) stored.
+     * @throws IllegalArgumentException If the hash can't be used as a file name.
+     */
+    public Path pathOf(String hash) {
+        if (!isUsableHash(hash))
+            throw new IllegalArgumentException("Not a usable content hash: " + hash);
+        hash = hash.toLowerCase();
+        return root.resolve(hash.substring(0, 2), hash);
+    }
+
+    /**
+     * @return True if the hash is hex and long enough to be stored under.
+     */
+    public static boolean isUsableHash(String hash) {
+        return hash != null && hash.length() >= 3 && hash.chars().allMatch(c -> Character.digit(c, 16) >= 0);
+    }
+
+    public boolean contains(String hash) {
+        return Files.exists(pathOf(hash));
+    }
+
+    /**
+     * Takes a file into the store and adds a reference to it. If the content is
+     * already stored the file is simply deleted.
+     *
+     * @param hash Hash of the file's contents.
+     * @param file File to take. Moved or deleted.
+     * @throws IOException
+     */
+    public synchronized void add(String hash, Path file) throws IOException {
+        refs(); // can't be counted, leave the file where it is
+        Path blob = pathOf(hash);
+        if (Files.exists(blob)) {
+            Files.delete(file);
+        } else {
+            Files.createDirectories(blob.getParent());
+            try {
+                Files.move(file, blob, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(file, blob); // other device, copy + delete
+            }
+            WriteBatch.register(blob);
+        }
+        retain(hash);
+    } // add()
+
+    /**
+     * Adds a reference to an already stored blob.
+     *
+     * @throws IOException If the reference counts can't be read.
+     */
+    public synchronized void retain(String hash) throws IOException {
+        change(hash.toLowerCase(), 1);
+    }
+
+    /**
+     * Drops a reference. The blob is left on disk for the caller to move or
+     * delete once no longer referenced.
+     *
+     * @return The blob's path if nothing references it anymore, otherwise null.
+     * @throws IOException If the reference counts can't be read.
+     */
+    public synchronized Path release(String hash) throws IOException {
+        hash = hash.toLowerCase();
+        long count = refs().getOrDefault(hash, 0L);
+        change(hash, -Math.min(count, 1));
+        return count <= 1 ? pathOf(hash) : null;
+    } // release()
+
+    public synchronized long refCount(String hash) throws IOException {
+        return refs().getOrDefault(hash.toLowerCase(), 0L);
+    }
+
+    /**
+     * @return A copy of all reference counts.
+     * @throws IOException If the reference counts can't be read.
+     */
+    public synchronized Map<String, Long> getRefs() throws IOException {
+        return new HashMap<>(refs());
+    }
+
+    /**
+     * Replaces all reference counts, for rebuilding them from the manifests.
+     * Only call holding the store lock, the next save overwrites whatever
+     * other processes saved since.
+     */
+    public synchronized void setRefs(Map<String, Long> counts) {
+        this.refs = new HashMap<>(counts);
+        this.refs.values().removeIf(count -> count <= 0);
+        pending.clear();
+        replaced = true;
+    }
+
+    public Path getRoot() {
+        return root;
+    }
+
+    /// /// /// File I/O Methods /// /// ///
+
+    /**
+     * Writes the reference counts if they changed. Holding the blob store's
+     * lock, the counts on disk are read again and this instance's changes are
+     * added to them, so changes saved by other processes since are kept.
+     *
+     * @throws IOException If the blob store stayed locked elsewhere, or the
+     *                     counts on disk can't be read.
+     */
+    public synchronized void save() throws Exception {
+        if (pending.isEmpty() && !replaced)
+            return;
+        DirectoryLocker lock = new DirectoryLocker(root, LOCK_NAME, DirectoryLocker.Mode.EXCLUSIVE);
+        if (!lock.acquireLock(LOCK_WAIT))
+            throw new IOException("Blob store is locked by another process: " + root);
+        try {
+            HashMap<String, Long> merged = replaced ? new HashMap<>(refs) : apply(read(), pending);
+
+            Path file = root.resolve(REFS_FILE);
+            if (merged.isEmpty()) {
+                Files.deleteIfExists(file);
+            } else {
+                Files.createDirectories(root);
+                JsonIO.writeHashMap(file.toFile(), new HashMap<>(merged));
+            }
+            refs = merged;
+            loaded = stamp(file);
+            pending.clear();
+            replaced = false;
+        } finally {
+            lock.releaseLock();
+        }
+    } // save()
+
+    /**
+     * Records a change to a count, in memory and to save.
+     */
+    private void change(String hash, long by) throws IOException {
+        if (by == 0)
+            return;
+        refs().merge(hash, by, (a, b) -> a + b > 0 ? a + b : null);
+        if (!replaced)
+            pending.merge(hash, by, (a, b) -> a + b != 0 ? a + b : null);
+    } // change()
+
+    /**
+     * @return The counts, read again if another process saved since, with the
+     *         changes not yet saved on top.
+     */
+    private HashMap<String, Long> refs() throws IOException {
+        if (refs != null && (replaced || stamp(root.resolve(REFS_FILE)).equals(loaded)))
+            return refs;
+
+        refs = apply(read(), pending);
+        return refs;
+    } // refs()
+
+    /**
+     * Adds changes to counts, dropping those that reach zero.
+     *
+     * @return The counts.
+     */
+    private static HashMap<String, Long> apply(HashMap<String, Long> counts, Map<String, Long> changes) {
+        for (Map.Entry<String, Long> change : changes.entrySet())
+            counts.merge(change.getKey(), change.getValue(), Long::sum);
+        counts.values().removeIf(count -> count <= 0);
+        return counts;
+    } // apply()
+
+    /**
+     * Reads the counts on disk, empty if there are none yet.
+     *
+     * @throws IOException If the file is there but can't be read. Nothing is
+     *                     changed then, as treating it as empty would free
+     *                     every blob still in use.
+     */
+    private HashMap<String, Long> read() throws IOException {
+        Path file = root.resolve(REFS_FILE);
+        HashMap<String, Long> counts = new HashMap<>();
+        String stamp = stamp(file);
+        if (Files.exists(file)) {
+            try {
+                for (Map.Entry<String, Object> entry : JsonIO.readHashMap(file.toFile()).entrySet())
+                    counts.put(entry.getKey(), Long.parseLong(entry.getValue().toString()));
+            } catch (Exception e) {
+                throw new IOException("Blob reference counts can't be read, fix or remove " + file
+                        + " and reclaim storage to rebuild them.", e);
+            }
+        }
+        loaded = stamp;
+        return counts;
+    } // read()
+
+    /**
+     * @return What tells one write of the file from another, its modified time
+     *         and size.
+     */
+    private static String stamp(Path file) throws IOException {
+        if (!Files.exists(file))
+            return "";
+        return Files.getLastModifiedTime(file).toMillis() + ":" + Files.size(file);
+    } // stamp()
+
+} // Class
@@ -0,0 +1,777 @@
+/**
+ * Author Stephanos B
+ * Date 19/10/2026
+ */
+package core.storage;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import core.config.AppConfig;
+import core.io.JsonIO;
+import core.io.WriteBatch;
+import core.objects.ModContents;
+import core.objects.ModFile;
+import core.objects.ModManifest;
+import core.utils.CancelToken;
+import core.utils.FileUtil;
+import core.utils.HashUtil;
+import core.utils.Logger;
+
+/**
+ * Where a Game's stored Mods keep their files. Each Mod keeps its manifest in
+ * {@code store/mod_id/}, its files are either beside it (
+ * {@link Mode#LOOSE}), in the Game's shared {@link BlobStore} (
+ * {@link Mode#DEDUP}) or compressed in a zip beside the manifest (
+ * {@link Mode#ARCHIVE}), as recorded in the manifest header.<br>
+ * <br>
+ * A new version of a Mod may be stored as a delta: its manifest names the
+ * version it was updated from as its {@code base} and its folder only keeps
+ * the files that changed. Unchanged files are read from the base, which is
+ * kept (hidden, as {@code supersededBy} the new version) until the newest
+ * version is removed. Chains are capped at {@link #MAX_CHAIN} versions.<br>
+ * <br>
+ * Everything that reads a stored file goes through {@link #locate}, so callers
+ * don't need to know how a Mod is stored. Archived files are read in place
+ * through the zip file system, so close the store once an operation is done
+ * with them.
+ *
+ * @author Stephanos B
+ * @since v4.0.5
+ */
+public class ModStore implements AutoCloseable {
+
+    private static final AppConfig config = AppConfig.getInstance();
+    private static final Logger log = Logger.getInstance();
+
+    /**
+     * How a Mod's files are kept in storage.
+     */
+    public enum Mode {
+        /** A full copy of every file in the Mod's own folder. */
+        LOOSE("loose"),
+        /** Files kept once per content in the shared blob store. */
+        DEDUP("dedup"),
+        /** Files compressed into a single zip, the manifest kept outside. */
+        ARCHIVE("archive");
+
+        private final String key;
+
+        private Mode(String key) {
+            this.key = key;
+        }
+
+        public String key() {
+            return this.key;
+        }
+
+        /**
+         * @return The matching Mode, or {@link #LOOSE} if unkown.
+         */
+        public static Mode fromKey(String key) {
+            for (Mode m : values()) {
+                if (m.key.equalsIgnoreCase(key) || m.name().equalsIgnoreCase(key))
+                    return m;
+            }
+            return LOOSE;
+        }
+
+        /**
+         * @return All keys, for dropdowns.
+         */
+        public static String[] keys() {
+            String[] keys = new String[values().length];
+            for (int i = 0; i < keys.length; i++)
+                keys[i] = values()[i].key;
+            return keys;
+        }
+    } // Mode enum
+
+    private final Path storeDir;
+    private final BlobStore blobs;
+    private final Map<String, ModManifest> headers = new ConcurrentHashMap<>(); // read on demand
+    private final Map<String, FileSystem> archives = new ConcurrentHashMap<>(); // opened on demand
+
+    /**
+     * File name of an archived Mod's zip, within the Mod's manager directory.
+     */
+    public static final String ARCHIVE_NAME = "files.zip";
+    /**
+     * Most versions a delta chain may span. Once reached, the next version is
+     * stored complete so reads never walk too far back.
+     */
+    public static final int MAX_CHAIN = 8;
+
+    /**
+     * @param storeDir A Game's store directory.
+     */
+    public ModStore(Path storeDir) {
+        this.storeDir = storeDir;
+        this.blobs = BlobStore.of(storeDir);
+    }
+
+    /// /// /// Storing /// /// ///
+
+    /**
+     * Prepares a staged Mod to be moved into storage. For {@link Mode#DEDUP}
+     * every file is moved into the blob store (or dropped, if its content is
+     * already there), for {@link Mode#ARCHIVE} they are compressed into a zip,
+     * leaving only the manifest (and zip) to move. Sets the manifest's storage
+     * mode, so call before it is written.
+     *
+     * @param manifest  Manifest of the staged Mod, with hashed contents.
+     * @param stagedDir Directory the Mod is staged in.
+     * @param mode      How the Mod should be stored.
+     * @throws Exception If the files could not be moved. Already moved files are
+     *                   put back.
+     */
+    public void ingest(ModManifest manifest, Path stagedDir, Mode mode) throws Exception {
+        if (mode == Mode.DEDUP && !hasUsableHashes(manifest)) {
+            log.warning("Mod " + manifest.getId() + " has files without a usable hash, storing loose.", null);
+            mode = Mode.LOOSE;
+        }
+        manifest.setStorage(mode);
+        headers.remove(manifest.getId()); // not in storage until moved there
+        if (mode == Mode.LOOSE)
+            return;
+        final List<ModFile> own = ownFiles(manifest);
+        if (mode == Mode.ARCHIVE) {
+            archive(own, stagedDir);
+            return;
+        }
+
+        List<ModFile> moved = new ArrayList<>();
+        try {
+            for (ModFile mf : own) {
+                blobs.add(mf.getHash(), stagedDir.resolve(mf.getFilePath()));
+                moved.add(mf);
+            }
+            blobs.save();
+        } catch (Exception e) {
+            for (ModFile mf : moved) { // put back what was taken
+                Path blob = blobs.release(mf.getHash());
+                Files.copy(blobs.pathOf(mf.getHash()), stagedDir.resolve(mf.getFilePath()));
+                if (blob != null)
+                    Files.deleteIfExists(blob);
+            }
+            manifest.setStorage(Mode.LOOSE);
+            throw new Exception("Failed to move Mod files into the blob store: " + e.getMessage(), e);
+        }
+
+        pruneEmptyDirs(stagedDir);
+        log.info(1, "Stored " + moved.size() + " file(s) in the blob store.");
+    } // ingest()
+
+    /**
+     * Makes a staged new version of a Mod a delta of the version it replaces:
+     * every staged file the previous version already holds, at the same path
+     * with the same hash, is deleted and will be read from there instead. Call
+     * after hashing and before {@link #ingest}.
+     *
+     * @param manifest  Manifest of the staged version, with hashed contents.
+     * @param stagedDir Directory the version is staged in.
+     * @param previous  Manifest of the stored version being replaced.
+     * @return Number of files the new version keeps itself, or -1 if the chain
+     *         is already {@link #MAX_CHAIN} long and the version stays complete.
+     * @throws IOException
+     */
+    public int delta(ModManifest manifest, Path stagedDir, ModManifest previous) throws IOException {
+        headers.putIfAbsent(previous.getId(), previous);
+        if (chainLength(previous.getId()) >= MAX_CHAIN)
+            return -1;
+
+        manifest.setBase(previous.getId());
+        int kept = 0;
+        for (ModFile mf : manifest.getContents()) {
+            if (inherits(previous.getId(), mf.getFilePath(), mf.getHash()))
+                Files.delete(stagedDir.resolve(mf.getFilePath()));
+            else
+                kept++;
+        }
+        pruneEmptyDirs(stagedDir);
+        log.info(1, "Stored as a delta of " + previous.getId() + ", " + kept + " of "
+                + manifest.getContents().size() + " file(s) changed.");
+        return kept;
+    } // delta()
+
+    /**
+     * Hides a version that a newer one is a delta of. It stays in storage for
+     * the files the newer version reads from it.
+     *
+     * @param modId       ID of the older version.
+     * @param successorId ID of the version replacing it.
+     * @throws Exception If the header could not be read or written.
+     */
+    public void supersede(String modId, String successorId) throws Exception {
+        ModManifest previous = header(modId); // may have changed while the new version was stored
+        if (previous == null)
+            throw new Exception("Could not read manifest of stored Mod: " + modId);
+        previous.setSupersededBy(successorId);
+        JsonIO.write(previous, headerPath(modId).toFile());
+    } // supersede()
+
+    /**
+     * Writes the header (and contents) of a Mod already in storage, after its
+     * files were changed in place.
+     *
+     * @param manifest Manifest of the stored Mod.
+     * @throws Exception
+     */
+    public void rewrite(ModManifest manifest) throws Exception {
+        JsonIO.write(manifest, headerPath(manifest.getId()).toFile());
+        headers.put(manifest.getId(), manifest);
+    } // rewrite()
+
+    /**
+     * Starts a new version of a loose Mod from files edited in the stored
+     * folder, see {@link #scanChanges}. Only the changed files are moved into
+     * the new version's folder, the rest stay with the previous version as its
+     * base. If the chain is too long the unchanged files are copied over
+     * instead, leaving a complete version.
+     *
+     * @param previous Manifest of the edited version.
+     * @param next     Manifest of the new version, with its new contents.
+     * @param changed  Paths of the added and modified files.
+     * @throws Exception
+     */
+    public void branch(ModManifest previous, ModManifest next, List<Path> changed) throws Exception {
+        final Path from = storeDir.resolve(previous.getId());
+        final Path to = storeDir.resolve(next.getId());
+        if (Files.exists(to)) { // replaced, as when compiling
+            ModManifest existing = header(next.getId());
+            if (existing != null)
+                remove(existing, null);
+            else
+                FileUtil.deleteDirectory(to);
+        }
+
+        for (Path rel : changed) {
+            Path target = to.resolve(rel);
+            Files.createDirectories(target.getParent());
+            Files.move(from.resolve(rel), target);
+        }
+        pruneEmptyDirs(from);
+
+        next.setStorage(Mode.LOOSE);
+        if (chainLength(previous.getId()) < MAX_CHAIN) {
+            next.setBase(previous.getId());
+        } else {
+            next.setBase(null);
+            for (ModFile mf : next.getContents()) {
+                Path target = to.resolve(mf.getFilePath());
+                if (Files.exists(target))
+                    continue;
+                Files.createDirectories(target.getParent());
+                Files.copy(locate(previous.getId(), mf.getFilePath(), mf.getHash()), target);
+            }
+        }
+
+        Path header = headerPath(next.getId());
+        Files.createDirectories(header.getParent());
+        JsonIO.write(next, header.toFile());
+        headers.put(next.getId(), next);
+    } // branch()
+
+    /**
+     * Removes a Mod from storage, releasing its blobs. Blobs no other Mod uses
+     * are deleted. Files the trash references from this Mod are copied into the
+     * trash first. A delta is trashed complete, with the files it reads from
+     * its base, and a base only kept for this version is removed with it. If a
+     * newer version is a delta of this one, it is made complete first.
+     *
+     * @param manifest Manifest of the stored Mod, read before calling.
+     * @param trashDir Where to move the Mod to, complete and loose, or null to
+     *                 delete it.
+     * @throws Exception
+     */
+    public void remove(ModManifest manifest, Path trashDir) throws Exception {
+        final String modId = manifest.getId();
+        final Path modDir = storeDir.resolve(modId);
+        TrashRefs.materialize(this, modId); // the trash can't read from it once gone
+        if (manifest.getSupersededBy() != null) {
+            ModManifest successor = header(manifest.getSupersededBy());
+            if (successor != null && modId.equals(successor.getBase()))
+                detach(successor);
+        }
+        closeArchive(modId); // can't move an open zip on every OS
+
+        // Needed after the folder is gone.
+        final List<ModFile> own = manifest.getStorage() == Mode.DEDUP ? ownFiles(manifest) : List.of();
+
+        if (trashDir == null) {
+            FileUtil.deleteDirectory(modDir);
+        } else if (manifest.getBase() == null && manifest.getStorage() != Mode.DEDUP) {
+            Files.createDirectories(trashDir.getParent());
+            Files.move(modDir, trashDir); // already complete
+        } else {
+            final CancelToken.Scope whole = CancelToken.shield(); // half a copy is of no use
+            try {
+                trashComplete(manifest, trashDir);
+            } finally {
+                whole.close();
+            }
+            FileUtil.deleteDirectory(modDir);
+        }
+        headers.remove(modId);
+
+        if (!own.isEmpty())
+            releaseBlobs(own);
+
+        // The version this was a delta of has no other use.
+        if (manifest.getBase() != null) {
+            ModManifest base = header(manifest.getBase());
+            if (base != null && modId.equals(base.getSupersededBy()))
+                remove(base, null);
+        }
+    } // remove()
+
+    /// /// /// Reading /// /// ///
+
+    /**
+     * @param modId       Stored Mod the file belongs to.
+     * @param modFilePath Relative path of the file in the Mod.
+     * @param hash        Hash of the file, as in the Mod's manifest.
+     * @return Where the file's contents are in storage.
+     */
+    public Path locate(String modId, Path modFilePath, String hash) throws IOException {
+        ModManifest header = header(modId);
+        if (header != null && header.getBase() != null && inherits(header.getBase(), modFilePath, hash))
+            return locate(header.getBase(), modFilePath, hash); // unchanged since the base
+
+        switch (header == null ? Mode.LOOSE : header.getStorage()) {
+            case DEDUP:
+                if (hash != null)
+                    return blobs.pathOf(hash);
+                break;
+            case ARCHIVE:
+                return openArchive(modId).getPath("/", entryName(modFilePath));
+            default:
+                break;
+        }
+        return storeDir.resolve(modId, modFilePath.toString());
+    } // locate()
+
+    /**
+     * Copies every file of a stored Mod into a directory, in the Mod's layout.
+     *
+     * @param manifest  Manifest of the stored Mod.
+     * @param targetDir Directory to copy into.
+     * @throws IOException
+     */
+    public void export(ModManifest manifest, Path targetDir) throws IOException {
+        for (ModFile mf : manifest.getContents()) {
+            Path target = targetDir.resolve(mf.getFilePath());
+            Files.createDirectories(target.getParent());
+            Files.copy(locate(manifest.getId(), mf.getFilePath(), mf.getHash()), target,
+                    StandardCopyOption.REPLACE_EXISTING);
+        }
+    } // export()
+
+    /**
+     * @return How the given stored Mod keeps its files. {@link Mode#LOOSE} if
+     *         its manifest can't be read.
+     */
+    public Mode modeOf(String modId) {
+        ModManifest header = header(modId);
+        return header == null ? Mode.LOOSE : header.getStorage();
+    } // modeOf()
+
+    /**
+     * Compares the files in a loose Mod's folder to its manifest, to update it
+     * after being edited in place. Only files that are new, changed size or
+     * were modified after the manifest was written are hashed. A file missing
+     * from the folder is only dropped if the Mod held it itself, not if it is
+     * read from its base.
+     *
+     * @param manifest Manifest of the stored Mod.
+     * @return The Mod's files as they are now.
+     * @throws Exception
+     */
+    public Changes scanChanges(ModManifest manifest) throws Exception {
+        final Path modDir = storeDir.resolve(manifest.getId());
+        final ModContents old = manifest.getContents();
+        final Path contentsFile = ModManifest.contentsPathFor(headerPath(manifest.getId()));
+        final long written = Files.exists(contentsFile) ? Files.getLastModifiedTime(contentsFile).toMillis()
+                : Long.MIN_VALUE; // unknown, hash everything
+
+        final boolean[] inherited = new boolean[old.size()];
+        final boolean[] present = new boolean[old.size()];
+        final String[] hashes = new String[old.size()];
+        final long[] sizes = new long[old.size()];
+        for (int i = 0; i < old.size(); i++) {
+            inherited[i] = manifest.getBase() != null
+                    && inherits(manifest.getBase(), old.getFilePath(i), old.getHash(i));
+            hashes[i] = old.getHash(i);
+            sizes[i] = old.getSize(i);
+        }
+
+        List<ModFile> added = new ArrayList<>();
+        List<Path> changed = new ArrayList<>();
+        try (Stream<Path> paths = Files.walk(modDir)) {
+            for (Path file : (Iterable<Path>) paths::iterator) {
+                Path rel = modDir.relativize(file);
+                if (!Files.isRegularFile(file) || rel.startsWith(config.getManagerDir()))
+                    continue;
+
+                long size = Files.size(file);
+                int i = old.indexOf(rel);
+                if (i < 0) {
+                    added.add(new ModFile(rel, HashUtil.computeFileHash(file), size));
+                    changed.add(rel);
+                    continue;
+                }
+                present[i] = true;
+                if (!inherited[i] && size == sizes[i] && Files.getLastModifiedTime(file).toMillis() <= written)
+                    continue; // untouched
+
+                String hash = HashUtil.computeFileHash(file);
+                if (!hash.equalsIgnoreCase(hashes[i])) {
+                    hashes[i] = hash;
+                    sizes[i] = size;
+                    changed.add(rel);
+                }
+            }
+        }
+
+        ModContents now = new ModContents();
+        int removed = 0;
+        for (int i = 0; i < old.size(); i++) {
+            if (!present[i] && !inherited[i]) {
+                removed++;
+                continue;
+            }
+            now.add(new ModFile(old.getFilePath(i), hashes[i], sizes[i]));
+        }
+        for (ModFile mf : added)
+            now.add(mf);
+        now.trim();
+        return new Changes(now, changed, removed);
+    } // scanChanges()
+
+    /**
+     * Result of {@link ModStore#scanChanges}.
+     */
+    public static class Changes {
+        /** The Mod's files as they are now. */
+        public final ModContents contents;
+        /** Added or modified files, relative to the Mod. */
+        public final List<Path> changed;
+        /** Number of files deleted from the folder. */
+        public final int removed;
+
+        private Changes(ModContents contents, List<Path> changed, int removed) {
+            this.contents = contents;
+            this.changed = changed;
+            this.removed = removed;
+        }
+
+        public boolean isEmpty() {
+            return changed.isEmpty() && removed == 0;
+        }
+    } // Changes
+
+    /**
+     * @return True if the Mod is in storage.
+     */
+    public boolean contains(String modId) {
+        return header(modId) != null;
+    }
+
+    public Path getDirectory() {
+        return storeDir;
+    }
+
+    public BlobStore getBlobs() {
+        return blobs;
+    }
+
+    /**
+     * @param modDir Folder of a stored (or staged) Mod.
+     * @return Where its zip is if it is archived.
+     */
+    public static Path archivePathFor(Path modDir) {
+        return modDir.resolve(config.getManagerDir().toString(), ARCHIVE_NAME);
+    }
+
+    /**
+     * Closes any archives opened by {@link #locate}. They are re-opened when
+     * next needed.
+     */
+    @Override
+    public void close() {
+        for (String modId : archives.keySet())
+            closeArchive(modId);
+    }
+
+    /// /// /// Helpers /// /// ///
+
+    /**
+     * Compresses every file of a staged Mod into its zip, then deletes them.
+     * The zip's central directory is the per-entry index, so single files can
+     * be read without touching the rest.
+     */
+    private static void archive(List<ModFile> files, Path stagedDir) throws Exception {
+        Path zip = archivePathFor(stagedDir);
+        Files.createDirectories(zip.getParent());
+        Path tmp = WriteBatch.tempFileFor(zip);
+        try {
+            try (OutputStream out = Files.newOutputStream(tmp);
+                    ZipOutputStream zipOut = new ZipOutputStream(new BufferedOutputStream(out))) {
+                for (ModFile mf : files) {
+                    Path file = stagedDir.resolve(mf.getFilePath());
+                    ZipEntry entry = new ZipEntry(entryName(mf.getFilePath()));
+                    entry.setLastModifiedTime(Files.getLastModifiedTime(file));
+                    zipOut.putNextEntry(entry);
+                    Files.copy(file, zipOut);
+                    zipOut.closeEntry();
+                }
+            }
+            WriteBatch.commitFile(tmp, zip);
+        } catch (IOException e) {
+            throw new Exception("Failed to archive Mod files: " + e.getMessage(), e);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+
+        for (ModFile mf : files)
+            Files.delete(stagedDir.resolve(mf.getFilePath()));
+        pruneEmptyDirs(stagedDir);
+        log.info(1, "Archived " + files.size() + " file(s) ("
+                + Files.size(zip) / 1024 + " KB).");
+    } // archive()
+
+    /**
+     * Copies a Mod into the trash complete and loose, whatever it reads from
+     * blobs, its zip or its base.
+     */
+    private void trashComplete(ModManifest manifest, Path trashDir) throws Exception {
+        try {
+            export(manifest, trashDir);
+        } finally {
+            close();
+        }
+        Path manifests = storeDir.resolve(manifest.getId(), config.getManifestDir().toString());
+        FileUtil.copyDirectoryContents(manifests, trashDir.resolve(config.getManifestDir().toString()), null);
+
+        Path header = trashDir.resolve(config.getManifestDir().toString(), manifest.getId() + ".json");
+        if (Files.exists(header)) {
+            ModManifest trashed = ModManifest.loadFromFile(header);
+            trashed.setStorage(Mode.LOOSE);
+            trashed.setBase(null);
+            JsonIO.write(trashed, header.toFile());
+        }
+    } // trashComplete()
+
+    /**
+     * Makes a delta complete by copying in what it reads from its base, so the
+     * base can be removed.
+     */
+    private void detach(ModManifest manifest) throws Exception {
+        final String modId = manifest.getId();
+        final Path modDir = storeDir.resolve(modId);
+        log.info(1, "Copying the files Mod " + modId + " shares with " + manifest.getBase() + " into it.");
+
+        switch (manifest.getStorage()) {
+            case ARCHIVE: { // re-pack the zip with every file
+                Path staged = storeDir.resolve(config.getManagerDir().toString(), "." + modId + "__detach");
+                FileUtil.deleteDirectory(staged);
+                try {
+                    export(manifest, staged);
+                    close();
+                    archive(List.of(manifest.getContentsArr()), staged);
+                    WriteBatch.commitFile(archivePathFor(staged), archivePathFor(modDir));
+                } finally {
+                    FileUtil.deleteDirectory(staged);
+                }
+                break;
+            }
+            case DEDUP:
+                for (ModFile mf : manifest.getContents()) {
+                    if (!inherits(manifest.getBase(), mf.getFilePath(), mf.getHash()))
+                        continue;
+                    Path tmp = WriteBatch.tempFileFor(blobs.getRoot().resolveSibling("blob"));
+                    Files.copy(locate(modId, mf.getFilePath(), mf.getHash()), tmp,
+                            StandardCopyOption.REPLACE_EXISTING);
+                    blobs.add(mf.getHash(), tmp);
+                }
+                blobs.save();
+                break;
+            default:
+                for (ModFile mf : manifest.getContents()) {
+                    if (!inherits(manifest.getBase(), mf.getFilePath(), mf.getHash()))
+                        continue;
+                    Path target = modDir.resolve(mf.getFilePath());
+                    Files.createDirectories(target.getParent());
+                    Files.copy(locate(modId, mf.getFilePath(), mf.getHash()), target,
+                            StandardCopyOption.REPLACE_EXISTING);
+                    WriteBatch.register(target);
+                }
+                break;
+        }
+        close();
+
+        manifest.setBase(null);
+        JsonIO.write(manifest, headerPath(modId).toFile());
+        headers.put(modId, manifest);
+    } // detach()
+
+    /**
+     * Drops a removed Mod's references to its blobs, deleting the ones nothing
+     * else uses.
+     */
+    private void releaseBlobs(List<ModFile> files) throws Exception {
+        for (ModFile mf : files) {
+            Path freed = blobs.release(mf.getHash());
+            if (freed != null) {
+                Files.deleteIfExists(freed);
+                FileUtil.cleanDirectories(blobs.getRoot(), freed.getParent().getFileName());
+            }
+        }
+        blobs.save();
+    } // releaseBlobs()
+
+    /**
+     * @return The files a Mod keeps itself, rather than reads from its base.
+     */
+    private List<ModFile> ownFiles(ModManifest manifest) {
+        List<ModFile> own = new ArrayList<>();
+        for (ModFile mf : manifest.getContents()) {
+            if (manifest.getBase() == null || !inherits(manifest.getBase(), mf.getFilePath(), mf.getHash()))
+                own.add(mf);
+        }
+        return own;
+    } // ownFiles()
+
+    /**
+     * @return True if the base version holds the same file at the same path.
+     */
+    private boolean inherits(String baseId, Path modFilePath, String hash) {
+        ModManifest base = header(baseId);
+        if (base == null || hash == null)
+            return false;
+        ModContents contents = base.getContents();
+        int i = contents.indexOf(modFilePath);
+        return i >= 0 && hash.equalsIgnoreCase(contents.getHash(i));
+    } // inherits()
+
+    /**
+     * @return Number of versions from this one back to the first complete one.
+     */
+    private int chainLength(String modId) {
+        int length = 0;
+        ModManifest m = header(modId);
+        while (m != null && length <= MAX_CHAIN) {
+            length++;
+            m = m.getBase() == null ? null : header(m.getBase());
+        }
+        return length;
+    } // chainLength()
+
+    /**
+     * @return The stored Mod's manifest, cached, or null if it can't be read.
+     */
+    private ModManifest header(String modId) {
+        ModManifest cached = headers.get(modId);
+        if (cached != null)
+            return cached;
+        Path header = headerPath(modId);
+        if (!Files.exists(header))
+            return null;
+        try {
+            ModManifest manifest = ModManifest.loadFromFile(header); // contents load on first use
+            headers.put(modId, manifest);
+            return manifest;
+        } catch (Exception e) {
+            log.warning("Could not read manifest of stored Mod: " + modId, e);
+            return null;
+        }
+    } // header()
+
+    private Path headerPath(String modId) {
+        return storeDir.resolve(modId, config.getManifestDir().toString(), modId + ".json");
+    }
+
+    private FileSystem openArchive(String modId) throws IOException {
+        FileSystem fs = archives.get(modId);
+        if (fs != null && fs.isOpen())
+            return fs;
+        synchronized (archives) {
+            fs = archives.get(modId);
+            if (fs == null || !fs.isOpen()) {
+                fs = FileSystems.newFileSystem(archivePathFor(storeDir.resolve(modId)),
+                        Map.of("accessMode", "readOnly"));
+                archives.put(modId, fs);
+            }
+            return fs;
+        }
+    } // openArchive()
+
+    private void closeArchive(String modId) {
+        FileSystem fs = archives.remove(modId);
+        if (fs == null)
+            return;
+        try {
+            fs.close();
+        } catch (IOException e) {
+            log.warning("Could not close archive of Mod: " + modId, e);
+        }
+    } // closeArchive()
+
+    /**
+     * @return Zip entry name of a ModFile path, always '/' separated.
+     */
+    private static String entryName(Path modFilePath) {
+        StringBuilder sb = new StringBuilder();
+        for (Path part : modFilePath) {
+            if (sb.length() > 0)
+                sb.append('/');
+            sb.append(part.toString());
+        }
+        return sb.toString();
+    }
+
+    private static boolean hasUsableHashes(ModManifest manifest) {
+        for (ModFile mf : manifest.getContents()) {
+            if (!BlobStore.isUsableHash(mf.getHash()))
+                return false;
+        }
+        return true;
+    }
+
+    /**
+     * Deletes the directories left empty once files were taken from the staged
+     * Mod, deepest first.
+     */
+    private static void pruneEmptyDirs(Path root) throws IOException {
+        List<Path> dirs;
+        try (Stream<Path> paths = Files.walk(root)) {
+            dirs = paths.filter(Files::isDirectory)
+                    .filter(p -> !p.equals(root))
+                    .sorted(Comparator.reverseOrder())
+                    .toList();
+        }
+        for (Path dir : dirs) {
+            try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir)) {
+                if (stream.iterator().hasNext())
+                    continue;
+            }
+            Files.delete(dir);
+        }
+    } // pruneEmptyDirs()
+
+} // Class
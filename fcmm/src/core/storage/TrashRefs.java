@@ -0,0 +1,384 @@
+/**
+ * Author Stephanos B
+ * Date 19/10/2026
+ */
+package core.storage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import core.io.WriteBatch;
+import core.objects.ModFile;
+import core.utils.FileUtil;
+import core.utils.HashUtil;
+import core.utils.Logger;
+import core.utils.TrashIndex;
+
+/**
+ * References from a trash entry to files still kept in a Game's store. A
+ * disabled Mod's deployed files are the same bytes as its stored copy, so
+ * instead of keeping them in the trash their entry records where they can be
+ * read from, in {@code entry/.trash_refs}.<br>
+ * <br>
+ * Files moved into the trash are kept there as a cached copy for
+ * {@link #CACHE_WINDOW}, so a Mod re-enabled soon after can be moved straight
+ * back. After that {@link #releaseCached(Duration)} deletes them, leaving only
+ * the reference.<br>
+ * <br>
+ * A reference only lives as long as the stored Mod. Anything removing a Mod
+ * from storage calls {@link #materialize(ModStore, String)} first, which copies
+ * the referenced files into their trash entries. Until then, a trash entry is
+ * only complete together with the files listed in its references.
+ *
+ * @author Stephanos B
+ * @since v4.0.5
+ */
+public class TrashRefs {
+    private static final Logger log = Logger.getInstance();
+
+    /**
+     * File name of the references, within a trash entry.
+     */
+    public static final String FILE_NAME = ".trash_refs";
+
+    /**
+     * How long referenced files moved into the trash are kept as a cached copy.
+     */
+    public static final Duration CACHE_WINDOW = Duration.ofHours(1);
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final Path entryDir;
+    private final String storeKey;
+    private final List<String> lines = new ArrayList<>();
+
+    /**
+     * A file of a trash entry kept in storage.
+     */
+    public static class Ref {
+        private final String storeDir;
+        private final String modId;
+        private final String hash;
+        private final long size;
+        private final Path filePath;
+
+        private Ref(String storeDir, String modId, String hash, long size, Path filePath) {
+            this.storeDir = storeDir;
+            this.modId = modId;
+            this.hash = hash;
+            this.size = size;
+            this.filePath = filePath;
+        }
+
+        public String getModId() {
+            return modId;
+        }
+
+        public String getHash() {
+            return hash;
+        }
+
+        public long getSize() {
+            return size;
+        }
+
+        /**
+         * @return Path of the file, relative to the trash entry and the Mod.
+         */
+        public Path getFilePath() {
+            return filePath;
+        }
+
+        private String toLine() {
+            return storeDir + "\t" + modId + "\t" + hash + "\t" + size + "\t" + filePath;
+        }
+
+        private static Ref parse(String line) {
+            String[] parts = line.split("\t", 5);
+            if (parts.length != 5)
+                return null;
+            try {
+                return new Ref(parts[0], parts[1], parts[2], Long.parseLong(parts[3]), Path.of(parts[4]));
+            } catch (Exception e) {
+                return null;
+            }
+        }
+    } // Ref
+
+    /**
+     * @param entryDir Trash entry the references are recorded for.
+     * @param storeDir Store directory of the Game the files are kept in.
+     */
+    public TrashRefs(Path entryDir, Path storeDir) {
+        this.entryDir = entryDir;
+        this.storeKey = keyOf(storeDir);
+    }
+
+    /// /// /// Recording /// /// ///
+
+    /**
+     * Records a file of the trash entry as kept in storage, instead of its bytes.
+     *
+     * @param modId Stored Mod the file is read from.
+     * @param mf    The file, as in the Mod's manifest.
+     */
+    public void add(String modId, ModFile mf) {
+        lines.add(new Ref(storeKey, modId, mf.getHash(), mf.getSize(), mf.getFilePath()).toLine());
+    }
+
+    public int size() {
+        return lines.size();
+    }
+
+    /**
+     * Writes the recorded references into the trash entry. Does nothing if none
+     * were recorded.
+     *
+     * @throws IOException
+     */
+    public void save() throws IOException {
+        if (lines.isEmpty())
+            return;
+        Files.createDirectories(entryDir);
+        Path file = entryDir.resolve(FILE_NAME);
+        Files.write(file, lines, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        WriteBatch.register(file);
+        lines.clear();
+    } // save()
+
+    /// /// /// Reading /// /// ///
+
+    /**
+     * @param entryDir A trash entry.
+     * @return The files of the entry kept in storage, empty if none.
+     */
+    public static List<Ref> read(Path entryDir) {
+        List<Ref> refs = new ArrayList<>();
+        Path file = entryDir.resolve(FILE_NAME);
+        if (!Files.isRegularFile(file))
+            return refs;
+        try {
+            for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+                Ref ref = Ref.parse(line);
+                if (ref != null)
+                    refs.add(ref);
+            }
+        } catch (IOException e) {
+            log.warning("Could not read trash references: " + file, e);
+        }
+        return refs;
+    } // read()
+
+    /**
+     * Copies every file referenced from the trash into a stored Mod (or a whole
+     * store) into its trash entry, then drops those references. Called before
+     * the stored files are removed or changed. A reference whose file could not
+     * be copied, or no longer hashes the same, is kept.
+     *
+     * @param store Store the files are kept in.
+     * @param modId Mod about to be removed, or null for every Mod in the store.
+     * @return Number of files copied into the trash.
+     */
+    public static int materialize(ModStore store, String modId) {
+        final TrashIndex index = TrashIndex.get();
+        final String key = keyOf(store.getDirectory());
+        int copied = 0;
+
+        for (TrashIndex.Entry entry : index.list()) {
+            Path entryDir = index.resolve(entry);
+            Path file = entryDir.resolve(FILE_NAME);
+            if (!Files.isRegularFile(file))
+                continue;
+
+            List<String> keep = new ArrayList<>();
+            int done = 0;
+            boolean changed = false;
+            try {
+                for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+                    Ref ref = Ref.parse(line);
+                    if (ref == null) {
+                        log.warning("Dropping malformed trash reference in " + file + ": " + line, null);
+                        changed = true;
+                        continue;
+                    }
+                    if (!ref.storeDir.equals(key) || (modId != null && !ref.modId.equals(modId))) {
+                        keep.add(line);
+                        continue;
+                    }
+                    Path target = entryDir.resolve(ref.filePath.toString());
+                    if (isCached(target, ref, entry)) {
+                        changed = true; // still has its cached copy
+                    } else if (copy(store, ref, target)) {
+                        changed = true;
+                        done++;
+                    } else {
+                        keep.add(line); // the trash can't be completed, don't hide it
+                    }
+                }
+
+                if (!changed)
+                    continue;
+                if (keep.isEmpty())
+                    Files.delete(file);
+                else
+                    Files.write(file, keep, StandardCharsets.UTF_8);
+            } catch (IOException e) {
+                log.warning("Could not update trash references: " + file, e);
+            }
+
+            if (done > 0)
+                log.info(1, "Copied " + done + " referenced file(s) into trash: " + entryDir);
+            if (changed)
+                index.refresh(entryDir);
+            copied += done;
+        }
+        return copied;
+    } // materialize()
+
+    /**
+     * Deletes the cached copies of referenced files from trash entries older than
+     * the given age. Their references remain, so nothing is lost while the Mod
+     * is stored. A copy is only deleted while its stored file still hashes the
+     * same, eg: not after the Mod was edited in its storage folder.
+     *
+     * @param olderThan Only release entries trashed longer ago than this.
+     * @return Bytes freed.
+     */
+    public static long releaseCached(Duration olderThan) {
+        final TrashIndex index = TrashIndex.get();
+        final long cutoff = System.currentTimeMillis() - olderThan.toMillis();
+        final Map<String, ModStore> stores = new HashMap<>();
+        long freed = 0;
+
+        try {
+            for (TrashIndex.Entry entry : index.list()) {
+                if (entry.getTrashedAt() > cutoff)
+                    continue;
+                freed += release(index, entry, stores);
+            }
+        } finally {
+            for (ModStore store : stores.values())
+                store.close();
+        }
+        return freed;
+    } // releaseCached()
+
+    /**
+     * Deletes the cached copies of one trash entry.
+     *
+     * @param stores Stores opened so far, by key.
+     * @return Bytes freed.
+     */
+    private static long release(TrashIndex index, TrashIndex.Entry entry, Map<String, ModStore> stores) {
+        Path entryDir = index.resolve(entry);
+        List<Ref> refs = read(entryDir);
+        if (refs.isEmpty())
+            return 0;
+
+        long released = 0;
+        for (Ref ref : refs) {
+            Path cached = entryDir.resolve(ref.filePath.toString());
+            if (!isCached(cached, ref, entry))
+                continue;
+            ModStore store = stores.computeIfAbsent(ref.storeDir, key -> new ModStore(Path.of(key)));
+            if (!isStored(store, ref)) {
+                log.warning("Stored file changed since it was trashed, keeping cached copy: " + cached, null);
+                continue;
+            }
+            try {
+                Files.delete(cached);
+                released += ref.size;
+                FileUtil.cleanDirectories(entryDir, ref.filePath.getParent());
+            } catch (IOException e) {
+                log.warning("Could not release cached trash file: " + cached, e);
+            }
+        }
+        if (released > 0) {
+            log.info(1, String.format("Released %.2f MB of cached files kept in storage: %s",
+                    released / 1000000f, entryDir));
+            index.refresh(entryDir);
+        }
+        return released;
+    } // release()
+
+    /**
+     * @param file  Where a referenced file would be in its trash entry.
+     * @param ref   The reference.
+     * @param entry The trash entry.
+     * @return True if the file is in the entry, untouched since it was trashed
+     *         and hashing the same as its stored copy.
+     */
+    public static boolean isCached(Path file, Ref ref, TrashIndex.Entry entry) {
+        try {
+            if (!Files.isRegularFile(file) || Files.getLastModifiedTime(file).toMillis() > entry.getTrashedAt())
+                return false;
+        } catch (IOException e) {
+            return false;
+        }
+        return ref.hash != null && HashUtil.verifyFileIntegrity(file, ref.hash, ref.size);
+    } // isCached()
+
+    /// /// /// Helpers /// /// ///
+
+    /**
+     * @return True if the referenced file is in storage with the same hash.
+     */
+    private static boolean isStored(ModStore store, Ref ref) {
+        try {
+            Path stored = store.locate(ref.modId, ref.filePath, ref.hash);
+            return ref.hash != null && HashUtil.verifyFileIntegrity(stored, ref.hash, ref.size);
+        } catch (IOException e) {
+            return false;
+        }
+    } // isStored()
+
+    /**
+     * Copies a referenced file out of storage, hashing it on the way.
+     *
+     * @return True if copied with the hash referenced. A file that no longer
+     *         hashes the same is left copied as is, as the closest there is.
+     */
+    private static boolean copy(ModStore store, Ref ref, Path target) {
+        try {
+            Path source = store.locate(ref.modId, ref.filePath, ref.hash);
+            Files.createDirectories(target.getParent());
+
+            MessageDigest digest = HashUtil.newDigest();
+            byte[] buffer = new byte[BUFFER_SIZE];
+            try (InputStream in = Files.newInputStream(source); OutputStream out = Files.newOutputStream(target)) {
+                int read;
+                while ((read = in.read(buffer)) != -1) {
+                    digest.update(buffer, 0, read);
+                    out.write(buffer, 0, read);
+                }
+            }
+            WriteBatch.register(target);
+
+            if (!HashUtil.toHex(digest).equalsIgnoreCase(ref.hash)) {
+                log.warning("Stored file changed since it was trashed, copied as is and reference kept: "
+                        + target, null);
+                return false;
+            }
+            return true;
+        } catch (Exception e) {
+            log.warning("Could not copy referenced file into trash: " + target, e);
+            return false;
+        }
+    } // copy()
+
+    private static String keyOf(Path storeDir) {
+        return storeDir.toAbsolutePath().normalize().toString();
+    }
+
+} // Class
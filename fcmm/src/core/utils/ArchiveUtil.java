@@ -0,0 +1,157 @@
+/*
+ * Author Stephanos B
+ * Date: 19/10/2026
+ */
+package core.utils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+import core.config.AppConfig;
+import core.objects.ModFile;
+
+/**
+ * Imports downloaded Mod archives (.zip / .jar) straight into a staging
+ * directory. Each entry is read once: hashed while it is written out, so the
+ * staged files never need to be copied or hashed again.
+ *
+ * @author Stephanos B
+ * @since v4.0.5
+ */
+public class ArchiveUtil {
+    private static final AppConfig config = AppConfig.getInstance();
+    private static final Logger log = Logger.getInstance();
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * @param path Any path.
+     * @return True if the path is a file that can be imported as a Mod archive.
+     */
+    public static boolean isArchive(Path path) {
+        if (path == null || !Files.isRegularFile(path))
+            return false;
+        String name = path.getFileName().toString().toLowerCase();
+        return name.endsWith(".zip") || name.endsWith(".jar");
+    } // isArchive()
+
+    /**
+     * Extracts every file of an archive into a directory, hashing each as it is
+     * written. Entries are independent in a zip (its central directory gives
+     * random access), so they are extracted in parallel. Memory stays bounded to
+     * one buffer per worker no matter the archive's size.<br>
+     * <br>
+     * Mod Manager files inside the archive are skipped, as when scanning a
+     * directory.
+     *
+     * @param archive   The .zip or .jar to import.
+     * @param targetDir Staging directory to extract into.
+     * @return ModFiles of the extracted files, relative to targetDir, in archive
+     *         order.
+     * @throws IOException If an entry would be written outside of targetDir.
+     * @throws Exception   Any read, write or hashing error.
+     * @throws CancellationException If cancelled, see {@link CancelToken}. What
+     *                               was extracted is left for the caller.
+     */
+    public static List<ModFile> extractHashed(Path archive, Path targetDir) throws Exception {
+        final Path root = targetDir.toAbsolutePath().normalize();
+        Files.createDirectories(root);
+
+        try (ZipFile zip = new ZipFile(archive.toFile())) {
+            /// 1. Collect the file entries to extract, from the central directory.
+            List<ZipEntry> entries = new ArrayList<>();
+            List<Path> paths = new ArrayList<>();
+            Set<Path> seen = new HashSet<>();
+            Enumeration<? extends ZipEntry> en = zip.entries();
+            while (en.hasMoreElements()) {
+                ZipEntry entry = en.nextElement();
+                if (entry.isDirectory())
+                    continue;
+
+                Path rel = Path.of(entry.getName()).normalize();
+                if (rel.isAbsolute() || !root.resolve(rel).normalize().startsWith(root))
+                    throw new IOException("Archive entry points outside of the Mod: " + entry.getName());
+                if (rel.startsWith(config.getManagerDir())) {
+                    log.warning("Mod Manager files found in archive! Skipping: " + entry.getName(), null);
+                    continue;
+                }
+                if (!seen.add(rel)) {
+                    log.warning("Duplicate archive entry, keeping the first: " + entry.getName(), null);
+                    continue;
+                }
+                entries.add(entry);
+                paths.add(rel);
+            }
+            log.info(1, "Extracting " + entries.size() + " file(s) from: " + archive.getFileName());
+
+            /// 2. Extract + hash each entry.
+            final CancelToken token = CancelToken.current();
+            int threads = Math.max(1, Math.min(Runtime.getRuntime().availableProcessors(), entries.size()));
+            ExecutorService pool = Executors.newFixedThreadPool(threads);
+            try {
+                List<Future<ModFile>> results = new ArrayList<>(entries.size());
+                for (int i = 0; i < entries.size(); i++) {
+                    final ZipEntry entry = entries.get(i);
+                    final Path rel = paths.get(i);
+                    results.add(pool.submit(() -> extractEntry(zip, entry, root, rel, token)));
+                }
+
+                List<ModFile> files = new ArrayList<>(results.size());
+                for (Future<ModFile> result : results)
+                    files.add(result.get());
+                return files;
+
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof CancellationException cancelled)
+                    throw cancelled; // the caller removes what was extracted
+                throw new Exception("Failed to extract archive: " + cause.getMessage(), cause);
+            } finally {
+                pool.shutdownNow();
+            }
+        }
+    } // extractHashed()
+
+    /**
+     * Streams a single entry to disk through the hash.
+     */
+    private static ModFile extractEntry(ZipFile zip, ZipEntry entry, Path root, Path rel, CancelToken token)
+            throws IOException {
+        Path target = root.resolve(rel);
+        Files.createDirectories(target.getParent());
+
+        MessageDigest digest = HashUtil.newDigest();
+        long size = 0;
+        byte[] buffer = new byte[BUFFER_SIZE];
+        try (InputStream in = zip.getInputStream(entry); OutputStream out = Files.newOutputStream(target)) {
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                token.throwIfCancelled();
+                digest.update(buffer, 0, read);
+                out.write(buffer, 0, read);
+                size += read;
+            }
+        }
+        if (entry.getLastModifiedTime() != null)
+            Files.setLastModifiedTime(target, entry.getLastModifiedTime());
+
+        return new ModFile(rel, HashUtil.toHex(digest), size);
+    } // extractEntry()
+
+} // Class
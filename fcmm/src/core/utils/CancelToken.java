@@ -0,0 +1,129 @@
+/**
+ * Author Stephanos B
+ * Date 19/10/2026
+ */
+package core.utils;
+
+import java.util.concurrent.CancellationException;
+
+/**
+ * Asks a long operation (deploying a GameState, compiling a Mod, cleaning the
+ * trash) to stop. Cancelling only sets a flag; the operation checks it at its
+ * checkpoints, between files and between Mods, and stops there after undoing
+ * what it staged.<br>
+ * <br>
+ * A token is bound to the thread doing the work, so helpers deep in it
+ * ({@link FileUtil} copies and scans, {@link HashUtil}, {@link ArchiveUtil})
+ * call {@link #checkpoint()} without being handed one. Work that must not stop
+ * half way, eg: copying staged files into the game directory, runs under
+ * {@link #shield()}.
+ *
+ * <pre>
+ * final CancelToken.Scope bound = CancelToken.bind(token);
+ * try {
+ *     ...
+ * } finally {
+ *     bound.close();
+ * }
+ * </pre>
+ *
+ * @author Stephanos B
+ * @since v4.0.5
+ */
+public class CancelToken {
+    private static final ThreadLocal<CancelToken> current = new ThreadLocal<>();
+
+    /**
+     * Never cancelled. What threads with no token bound work for.
+     */
+    public static final CancelToken NONE = new CancelToken() {
+        @Override
+        public void cancel() {
+            // Cannot be cancelled
+        }
+    };
+
+    private volatile boolean cancelled = false;
+
+    /**
+     * A token bound to a thread. Closing it binds what was bound before.
+     */
+    public static final class Scope implements AutoCloseable {
+        private final CancelToken previous;
+
+        private Scope(CancelToken previous) {
+            this.previous = previous;
+        }
+
+        @Override
+        public void close() {
+            if (previous == null)
+                current.remove();
+            else
+                current.set(previous);
+        }
+    } // Scope
+
+    /// /// /// Binding /// /// ///
+
+    /**
+     * Binds a token to this thread, eg: a worker joining an operation started
+     * on another.
+     *
+     * @param token Token to check, null for none.
+     * @return The scope, to close once done.
+     */
+    public static Scope bind(CancelToken token) {
+        Scope scope = new Scope(current.get());
+        current.set(token == null ? NONE : token);
+        return scope;
+    }
+
+    /**
+     * Checkpoints do nothing until the scope is closed. For work that must
+     * finish once started, and for rolling back after a cancel.
+     */
+    public static Scope shield() {
+        return bind(NONE);
+    }
+
+    /**
+     * @return The token bound to this thread, {@link #NONE} if none is.
+     */
+    public static CancelToken current() {
+        CancelToken token = current.get();
+        return token == null ? NONE : token;
+    }
+
+    /// /// /// Cancelling /// /// ///
+
+    /**
+     * Asks the work to stop at its next checkpoint.
+     */
+    public void cancel() {
+        cancelled = true;
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * @throws CancellationException If cancelled.
+     */
+    public void throwIfCancelled() {
+        if (cancelled)
+            throw new CancellationException("Cancelled");
+    }
+
+    /**
+     * Stops the work of this thread if its token was cancelled. Called at file
+     * boundaries.
+     *
+     * @throws CancellationException If cancelled.
+     */
+    public static void checkpoint() {
+        current().throwIfCancelled();
+    }
+
+} // Class
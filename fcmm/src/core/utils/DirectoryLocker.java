@@ -5,245 +5,604 @@
 package core.utils;
 
 import java.io.*;
+import java.nio.ByteBuffer;
 import java.nio.channels.FileChannel;
 import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.*;
+import java.time.Duration;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
 
 import core.config.AppConfig;
 import core.config.AppPreferences.properties;
 
 /**
+ * Locks a directory against other threads and, with the {@code FS_LOCKS}
+ * preference, other processes. A lock is {@link Mode#EXCLUSIVE}, or
+ * {@link Mode#SHARED} with any number of other shared holders, eg: readers
+ * taking a consistent look at what writers change.<br>
+ * <br>
+ * Within this JVM every lock file has a fair semaphore: a shared holder takes
+ * one permit, an exclusive holder all of them. A waiting thread is parked and
+ * handed the lock on release, with no polling, and a waiting writer holds back
+ * readers that come after it. A thread holding a lock exclusively can take it
+ * shared as well.<br>
+ * <br>
+ * Across processes the lock file holds an OS file lock, shared or exclusive,
+ * taken once per JVM for all its shared holders. An exclusive holder also
+ * writes a lease: its pid, host and when the lease was last renewed. A shared
+ * heartbeat renews the lease of every exclusive lock every {@link #HEARTBEAT},
+ * so a lock stays valid for as long as its holder runs, however long a deploy
+ * takes. Where file locks are not supported the lock file alone is the
+ * exclusive lock, and it is taken over once its lease expired or its holder's
+ * process is gone, checked with {@link ProcessHandle} rather than starting a
+ * process. Shared holders there only wait for such a lock to go.<br>
+ * <br>
+ * {@link #acquireLock()} fails at once if the directory is locked,
+ * {@link #acquireLock(Duration)} waits for it, retrying the lock file with
+ * backoff.
+ *
  * @since v4.0.1
  */
 public class DirectoryLocker {
+    /**
+     * How long a lease is valid without being renewed.
+     */
+    public static final Duration LEASE = Duration.ofSeconds(30);
+    /**
+     * How often held leases are renewed.
+     */
+    public static final Duration HEARTBEAT = Duration.ofSeconds(10);
+
+    /**
+     * Name of the lock file of {@link #DirectoryLocker(Path)}.
+     */
+    public static final String LOCK_NAME = ".lock";
+
+    /**
+     * How a lock is held.
+     */
+    public enum Mode {
+        /** Held alongside other shared holders, never with an exclusive one. */
+        SHARED,
+        /** Held alone. */
+        EXCLUSIVE
+    }
+
+    private static final long MIN_BACKOFF_MILLIS = 1;
+    private static final long MAX_BACKOFF_MILLIS = 200;
+    private static final int ALL_PERMITS = 1 << 16; // taken by an exclusive holder
+
+    private static final String PID = String.valueOf(ProcessHandle.current().pid());
+    private static final String HOST = getHostName();
+
     private final Path lockFilePath;
     private final Path lockDir;
+    private final Mode mode;
+    private final LockState state;
     private FileLock fileLock;
     private FileChannel lockChannel;
-    private final ReentrantLock jvmLock = new ReentrantLock();
+    private boolean ownsLockFile = false;
+    private boolean sharedFile = false; // counted in the JVM's shared file lock
+    private boolean nested = false; // shared within this thread's exclusive hold
+    private String token;
+    private volatile Thread owner;
 
-    // Track locks by their canonical path
+    // Track exclusive locks by their lock file
     private static final Map<Path, DirectoryLocker> activeLocks = new ConcurrentHashMap<>();
-
+    // Shared by every locker of a lock file
+    private static final Map<Path, LockState> states = new ConcurrentHashMap<>();
+    private static ScheduledExecutorService heartbeat;
+
+    /**
+     * State of one lock file, shared by every locker of it in this JVM.
+     */
+    private static class LockState {
+        final Semaphore permits = new Semaphore(ALL_PERMITS, true);
+        volatile Thread exclusiveOwner;
+        // The JVM's shared OS lock, held while any shared holder uses it.
+        int readers = 0;
+        FileChannel readChannel;
+        FileLock readLock;
+    } // LockState
+
+    /**
+     * An exclusive lock on the directory's {@value #LOCK_NAME} file.
+     */
     public DirectoryLocker(Path dir) {
-        this.lockDir = dir.toAbsolutePath();
-        this.lockFilePath = lockDir.resolve(".lock");
+        this(dir, LOCK_NAME, Mode.EXCLUSIVE);
     }
 
+    /**
+     * @param dir      Directory to lock.
+     * @param lockName Name of the lock file within it, separate names lock
+     *                 separately.
+     * @param mode     How to hold the lock.
+     */
+    public DirectoryLocker(Path dir, String lockName, Mode mode) {
+        this.lockDir = dir.toAbsolutePath().normalize();
+        this.lockFilePath = lockDir.resolve(lockName);
+        this.mode = mode;
+        this.state = states.computeIfAbsent(lockFilePath, k -> new LockState());
+    }
+
+    /// /// /// Acquiring /// /// ///
+
+    /**
+     * Locks the directory if it is free.
+     *
+     * @return True if locked, false if locked elsewhere.
+     */
     public boolean acquireLock() {
-        // Check if already locked in this JVM
-        if (activeLocks.containsKey(lockDir)) {
-            return false; // Already locked
+        return acquireLock(Duration.ZERO);
+    }
+
+    /**
+     * Locks the directory, waiting for up to {@code wait} if it is locked.
+     *
+     * @param wait Longest time to wait, zero to not wait.
+     * @return True if locked, false if still locked elsewhere after waiting or
+     *         if interrupted.
+     */
+    public boolean acquireLock(Duration wait) {
+        if (owner != null)
+            return false; // this locker already holds it
+        if (mode == Mode.SHARED && state.exclusiveOwner == Thread.currentThread()) {
+            nested = true; // already excluded everyone else
+            owner = Thread.currentThread();
+            return true;
         }
+        final long deadline = System.nanoTime() + wait.toNanos();
+        final int permits = mode == Mode.SHARED ? 1 : ALL_PERMITS;
 
         // Layer 1: JVM-level lock (prevents multiple threads)
-        if (!jvmLock.tryLock()) {
+        try {
+            if (!state.permits.tryAcquire(permits, wait.toNanos(), TimeUnit.NANOSECONDS))
+                return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
             return false;
         }
 
         if (AppConfig.getInstance().preferences.is(properties.FS_LOCKS)) {
+            // Layer 2: File system lock
+            boolean acquired = false;
             try {
-                // Layer 2: File system lock
-                boolean acquired = acquireFileSystemLock();
-                if (acquired) {
-                    activeLocks.put(lockDir, this);
-                }
-                return acquired;
+                acquired = mode == Mode.SHARED ? acquireSharedFile(deadline) : retry(deadline);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
             } catch (Exception e) {
-                jvmLock.unlock();
+                closeChannel();
+            }
+            if (!acquired) {
+                state.permits.release(permits);
                 return false;
             }
-        } else
-            return true;
+        }
+
+        owner = Thread.currentThread();
+        if (mode == Mode.EXCLUSIVE) {
+            state.exclusiveOwner = owner;
+            activeLocks.put(lockFilePath, this);
+            if (fileLock != null || ownsLockFile)
+                startHeartbeat();
+        }
+        return true;
+    } // acquireLock()
+
+    /**
+     * Retries the exclusive lock file with backoff until the deadline.
+     */
+    private boolean retry(long deadline) throws IOException, InterruptedException {
+        long backoff = MIN_BACKOFF_MILLIS;
+        while (!acquireFileSystemLock()) {
+            long left = deadline - System.nanoTime();
+            if (left <= 0)
+                return false;
+            backoff = backoff(backoff, left);
+        }
+        return true;
+    } // retry()
+
+    /**
+     * Sleeps for a jittered backoff, no longer than what is left.
+     *
+     * @return The next backoff.
+     */
+    private static long backoff(long backoff, long leftNanos) throws InterruptedException {
+        Thread.sleep(Math.min(ThreadLocalRandom.current().nextLong(backoff, backoff * 2 + 1),
+                TimeUnit.NANOSECONDS.toMillis(leftNanos) + 1));
+        return Math.min(backoff * 2, MAX_BACKOFF_MILLIS);
     }
 
-    private boolean acquireFileSystemLock() {
+    /**
+     * Joins the JVM's shared lock of the file, taking it if this is the first
+     * shared holder.
+     */
+    private boolean acquireSharedFile(long deadline) throws IOException, InterruptedException {
+        synchronized (state) {
+            if (state.readers == 0) {
+                long backoff = MIN_BACKOFF_MILLIS;
+                while (!trySharedFile()) {
+                    long left = deadline - System.nanoTime();
+                    if (left <= 0)
+                        return false;
+                    backoff = backoff(backoff, left);
+                }
+            }
+            state.readers++;
+            sharedFile = true;
+            return true;
+        }
+    } // acquireSharedFile()
+
+    /**
+     * One attempt at a shared lock of the file, for the whole JVM.
+     */
+    private boolean trySharedFile() throws IOException {
+        Files.createDirectories(lockDir);
+        FileChannel channel;
+        Object fileKey;
         try {
-            // Create parent directories
-            Files.createDirectories(lockFilePath.getParent());
+            channel = FileChannel.open(lockFilePath,
+                    StandardOpenOption.CREATE,
+                    StandardOpenOption.READ,
+                    StandardOpenOption.WRITE);
+        } catch (IOException e) {
+            // File locking not supported, only wait out an exclusive lock file.
+            Lease lease = readLease(lockFilePath);
+            return lease == null || lease.isStale();
+        }
 
-            // Open/create lock file - use only ONE lock file
+        FileLock lock = null;
+        try {
+            fileKey = fileKey(lockFilePath);
+            lock = channel.tryLock(0, Long.MAX_VALUE, true);
+            if (lock != null && (fileKey == null || fileKey.equals(fileKey(lockFilePath)))) {
+                state.readChannel = channel;
+                state.readLock = lock;
+                return true;
+            }
+        } catch (OverlappingFileLockException | NoSuchFileException e) {
+            // held by a stale locker of this JVM, or deleted by its holder
+        } catch (IOException e) {
+            channel.close();
+            Lease lease = readLease(lockFilePath);
+            return lease == null || lease.isStale();
+        }
+        if (lock != null && lock.isValid())
+            lock.release();
+        channel.close();
+        return false;
+    } // trySharedFile()
+
+    /**
+     * One attempt at the lock file.
+     *
+     * @return True if this locker now holds it.
+     */
+    private boolean acquireFileSystemLock() throws IOException {
+        Files.createDirectories(lockDir);
+        token = PID + "-" + System.nanoTime() + "-" + Thread.currentThread().threadId();
+
+        Object fileKey;
+        try {
             lockChannel = FileChannel.open(lockFilePath,
                     StandardOpenOption.CREATE,
-                    StandardOpenOption.WRITE,
-                    StandardOpenOption.DELETE_ON_CLOSE);
+                    StandardOpenOption.WRITE);
+            fileKey = fileKey(lockFilePath);
+        } catch (NoSuchFileException e) {
+            closeChannel();
+            return false; // deleted by its holder as it was opened
+        } catch (IOException e) {
+            return fallbackLock(); // File locking not supported
+        }
 
+        try {
             // Try to get exclusive lock (non-blocking)
             fileLock = lockChannel.tryLock(0, Long.MAX_VALUE, false);
-
-            if (fileLock != null) {
-                // Write PID and info to lock file
-                writeLockInfo();
-                return true;
-            }
-
-            // Lock exists - check if stale
-            return checkAndCleanStaleLock();
-
+        } catch (OverlappingFileLockException e) {
+            fileLock = null; // held by a stale locker of this JVM
         } catch (IOException e) {
-            // File locking not supported
+            closeChannel();
             return fallbackLock();
         }
-    }
-
-    private boolean checkAndCleanStaleLock() {
-        try {
-            // Try to read existing lock info
-            if (!Files.exists(lockFilePath)) {
-                return false; // No lock file
-            }
-
-            String content;
-            try (FileChannel channel = FileChannel.open(lockFilePath,
-                    StandardOpenOption.READ)) {
-                // Read entire file
-                long size = channel.size();
-                if (size == 0) {
-                    // Empty lock file - stale
-                    Files.delete(lockFilePath);
-                    return acquireFileSystemLock();
-                }
-
-                java.nio.ByteBuffer buffer = java.nio.ByteBuffer.allocate((int) size);
-                channel.read(buffer);
-                content = new String(buffer.array());
-            }
-
-            // Parse lock info
-            LockInfo info = parseLockInfo(content);
-            if (info == null) {
-                // Invalid format - delete stale lock
-                Files.delete(lockFilePath);
-                return acquireFileSystemLock();
-            }
 
-            long currentTime = System.currentTimeMillis();
-            long lockAge = currentTime - info.timestamp;
-
-            // Lock is stale if older than 5 minutes
-            if (lockAge > 300000) {
-                Files.delete(lockFilePath);
-                return acquireFileSystemLock();
-            }
-
-            // Check if process is still alive
-            if (isProcessAlive(info.pid)) {
-                return false; // Valid lock held by another process
-            } else {
-                // Process is dead - stale lock
-                Files.delete(lockFilePath);
-                return acquireFileSystemLock();
-            }
-
-        } catch (Exception e) {
+        if (fileLock == null) {
+            // Held by another process, it is freed by the OS if that process ends.
+            closeChannel();
             return false;
         }
-    }
 
-    private boolean fallbackLock() {
-        // Fallback using only the main .lock file (no .lock.pid)
+        // Not read back through another stream, closing it would release the lock.
+        boolean current;
         try {
-            String pid = getProcessId();
-            String content = createLockInfo(pid);
+            current = fileKey == null || fileKey.equals(fileKey(lockFilePath));
+        } catch (NoSuchFileException e) {
+            current = false;
+        }
+        if (!current) {
+            // Locked a lock file that its previous holder deleted, not the current one.
+            closeChannel();
+            return false;
+        }
+        writeLease(lockChannel);
+        return true;
+    } // acquireFileSystemLock()
 
-            // Try to create lock file atomically
-            Files.write(lockFilePath, content.getBytes(),
+    private boolean fallbackLock() throws IOException {
+        // Fallback using only the lock file's existence and lease
+        try {
+            Files.write(lockFilePath, leaseInfo().getBytes(StandardCharsets.UTF_8),
                     StandardOpenOption.CREATE_NEW,
                     StandardOpenOption.WRITE);
-
+            ownsLockFile = true;
             return true;
 
         } catch (FileAlreadyExistsException e) {
-            // Lock exists - check if stale
-            return checkAndCleanStaleLock();
-        } catch (IOException e) {
-            return false;
+            // Lock exists - take it over if stale
+            Lease stale = readLease(lockFilePath);
+            if (stale == null || !stale.isStale())
+                return false;
+            // Move it aside rather than delete it, to not delete a lock file
+            // another waiter took over in the meantime.
+            Path aside = lockDir.resolve(".lock." + token + ".stale");
+            try {
+                Files.move(lockFilePath, aside, StandardCopyOption.ATOMIC_MOVE);
+            } catch (NoSuchFileException e2) {
+                return false;
+            }
+            Lease moved = readLease(aside);
+            if (moved != null && !moved.token.equals(stale.token)) {
+                try {
+                    Files.move(aside, lockFilePath, StandardCopyOption.ATOMIC_MOVE);
+                } catch (IOException e2) {
+                    // Already replaced, its holder re-checks its lease on renewal
+                }
+            }
+            Files.deleteIfExists(aside);
+            return false; // retried by the caller, racing any other waiter fairly
         }
-    }
+    } // fallbackLock()
 
-    public void releaseLock() {
+    /// /// /// Releasing /// /// ///
+
+    public synchronized void releaseLock() {
+        if (owner == null)
+            return;
+        if (nested) {
+            nested = false;
+            owner = null;
+            return;
+        }
+        if (mode == Mode.SHARED) {
+            try {
+                if (sharedFile)
+                    releaseSharedFile();
+            } finally {
+                sharedFile = false;
+                owner = null;
+                state.permits.release(1);
+            }
+            return;
+        }
         try {
             // Remove from active locks first
-            activeLocks.remove(lockDir);
+            activeLocks.remove(lockFilePath, this);
+            state.exclusiveOwner = null;
 
+            // Clean up lock file, while still holding it
             if (fileLock != null) {
-                fileLock.release();
-            }
-            if (lockChannel != null) {
-                lockChannel.close();
+                Files.deleteIfExists(lockFilePath);
+            } else if (ownsLockFile) {
+                Lease lease = readLease(lockFilePath);
+                if (lease != null && token.equals(lease.token))
+                    Files.deleteIfExists(lockFilePath);
             }
 
-            // Clean up lock file
-            Files.deleteIfExists(lockFilePath);
-
         } catch (IOException e) {
             // Ignore cleanup errors
         } finally {
-            jvmLock.unlock();
+            closeChannel();
+            ownsLockFile = false;
+            owner = null;
+            state.permits.release(ALL_PERMITS);
+        }
+    } // releaseLock()
+
+    /**
+     * Leaves the JVM's shared lock of the file. The last holder releases it,
+     * and deletes the file if no other process uses it.
+     */
+    private void releaseSharedFile() {
+        synchronized (state) {
+            if (--state.readers > 0 || state.readChannel == null)
+                return;
+            FileChannel channel = state.readChannel;
+            try {
+                state.readLock.release();
+                FileLock lock = channel.tryLock(0, Long.MAX_VALUE, false);
+                if (lock != null) {
+                    Files.deleteIfExists(lockFilePath); // waiters on it re-check the file
+                    lock.release();
+                }
+            } catch (IOException | OverlappingFileLockException e) {
+                // In use by another process, left to it
+            } finally {
+                try {
+                    channel.close();
+                } catch (IOException e) {
+                    // Ignore cleanup errors
+                }
+                state.readChannel = null;
+                state.readLock = null;
+            }
         }
+    } // releaseSharedFile()
+
+    /**
+     * @return True if this locker holds the lock.
+     */
+    public boolean isHeld() {
+        return owner != null;
     }
 
-    private void writeLockInfo() throws IOException {
-        String info = createLockInfo(getProcessId());
-        lockChannel.position(0);
-        lockChannel.write(java.nio.ByteBuffer.wrap(info.getBytes()));
+    /**
+     * @return The thread that acquired the lock, null if not held.
+     */
+    public Thread getOwner() {
+        return owner;
     }
 
-    private String createLockInfo(String pid) {
+    public Mode getMode() {
+        return mode;
+    }
+
+    private void closeChannel() {
+        try {
+            if (fileLock != null && fileLock.isValid())
+                fileLock.release();
+            if (lockChannel != null)
+                lockChannel.close();
+        } catch (IOException e) {
+            // Ignore cleanup errors
+        } finally {
+            fileLock = null;
+            lockChannel = null;
+        }
+    } // closeChannel()
+
+    /// /// /// Lease /// /// ///
+
+    private static class Lease {
+        final String pid;
+        final String host;
+        final String token;
+        final long renewed;
+        final long leaseMillis;
+
+        Lease(String pid, String host, String token, long renewed, long leaseMillis) {
+            this.pid = pid;
+            this.host = host;
+            this.token = token;
+            this.renewed = renewed;
+            this.leaseMillis = leaseMillis;
+        }
+
+        /**
+         * @return True if the holder stopped renewing, or is a process of this
+         *         host that has ended.
+         */
+        boolean isStale() {
+            if (System.currentTimeMillis() - renewed > leaseMillis)
+                return true;
+            return HOST.equals(host) && !"unknown".equals(pid) && !isProcessAlive(pid);
+        }
+    } // Lease
+
+    private String leaseInfo() {
         return String.format(
-                "pid=%s%ntimestamp=%d%nthread=%s%nhost=%s%n",
-                pid,
+                "pid=%s%ntimestamp=%d%nlease=%d%nthread=%s%nhost=%s%ntoken=%s%n",
+                PID,
                 System.currentTimeMillis(),
-                Thread.currentThread().getName(),
-                getHostName());
+                LEASE.toMillis(),
+                owner != null ? owner.getName() : Thread.currentThread().getName(),
+                HOST,
+                token);
+    } // leaseInfo()
+
+    private void writeLease(FileChannel channel) throws IOException {
+        byte[] info = leaseInfo().getBytes(StandardCharsets.UTF_8);
+        channel.truncate(0);
+        channel.write(ByteBuffer.wrap(info), 0);
     }
 
-    private LockInfo parseLockInfo(String content) {
+    /**
+     * @return The lease in a lock file, null if there is none. A lock file
+     *         without a readable lease (being written, or abandoned) is leased
+     *         from when it was last modified.
+     */
+    private static Lease readLease(Path file) {
         try {
-            String pid = null;
-            long timestamp = 0;
+            String pid = null, host = "unknown", token = "";
+            long timestamp = 0, lease = LEASE.toMillis();
 
-            for (String line : content.split("\n")) {
+            for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
                 if (line.startsWith("pid=")) {
                     pid = line.substring(4);
                 } else if (line.startsWith("timestamp=")) {
                     timestamp = Long.parseLong(line.substring(10));
+                } else if (line.startsWith("lease=")) {
+                    lease = Long.parseLong(line.substring(6));
+                } else if (line.startsWith("host=")) {
+                    host = line.substring(5);
+                } else if (line.startsWith("token=")) {
+                    token = line.substring(6);
                 }
             }
 
-            if (pid != null && timestamp > 0) {
-                return new LockInfo(pid, timestamp);
-            }
+            if (pid != null && timestamp > 0)
+                return new Lease(pid, host, token, timestamp, lease);
+        } catch (NoSuchFileException e) {
             return null;
         } catch (Exception e) {
-            return null;
+            // Unreadable lease
         }
-    }
-
-    private static class LockInfo {
-        final String pid;
-        final long timestamp;
-
-        LockInfo(String pid, long timestamp) {
-            this.pid = pid;
-            this.timestamp = timestamp;
+        try {
+            return new Lease("unknown", "unknown", "", Files.getLastModifiedTime(file).toMillis(),
+                    LEASE.toMillis());
+        } catch (IOException e) {
+            return null;
         }
-    }
-
-    private String getProcessId() {
+    } // readLease()
+
+    /**
+     * Renews the lease in the lock file.
+     */
+    private synchronized void renew() {
+        if (owner == null)
+            return;
         try {
-            String processName = java.lang.management.ManagementFactory
-                    .getRuntimeMXBean().getName();
-            return processName.split("@")[0];
-        } catch (Exception e) {
-            return "unknown";
+            if (lockChannel != null && lockChannel.isOpen()) {
+                writeLease(lockChannel);
+            } else if (ownsLockFile) {
+                Lease lease = readLease(lockFilePath);
+                if (lease == null || !token.equals(lease.token))
+                    return; // taken over, nothing to renew
+                Path tmp = lockDir.resolve(".lock." + PID + ".tmp");
+                Files.write(tmp, leaseInfo().getBytes(StandardCharsets.UTF_8));
+                Files.move(tmp, lockFilePath, StandardCopyOption.REPLACE_EXISTING,
+                        StandardCopyOption.ATOMIC_MOVE);
+            }
+        } catch (IOException e) {
+            // Renewed on the next beat
         }
-    }
-
-    private String getHostName() {
+    } // renew()
+
+    private static synchronized void startHeartbeat() {
+        if (heartbeat != null)
+            return;
+        heartbeat = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "lock-heartbeat");
+            thread.setDaemon(true);
+            return thread;
+        });
+        heartbeat.scheduleWithFixedDelay(() -> {
+            for (DirectoryLocker locker : activeLocks.values())
+                locker.renew();
+        }, HEARTBEAT.toMillis(), HEARTBEAT.toMillis(), TimeUnit.MILLISECONDS);
+    } // startHeartbeat()
+
+    /// /// /// Helpers /// /// ///
+
+    private static String getHostName() {
         try {
             return java.net.InetAddress.getLocalHost().getHostName();
         } catch (Exception e) {
@@ -251,31 +610,18 @@ public class DirectoryLocker {
         }
     }
 
-    private boolean isUnix() {
-        return !System.getProperty("os.name").toLowerCase().contains("win");
+    /**
+     * @return The file's identity (eg: its inode), null if the platform has none.
+     */
+    private static Object fileKey(Path file) throws IOException {
+        return Files.readAttributes(file, java.nio.file.attribute.BasicFileAttributes.class).fileKey();
     }
 
-    private boolean isProcessAlive(String pid) {
-        if ("unknown".equals(pid)) {
-            return false; // Can't check unknown PID
-        }
-
-        if (!isUnix()) {
-            // Windows process checking
-            try {
-                Process process = new ProcessBuilder("tasklist", "/FI",
-                        "PID eq " + pid).start();
-                String output = new String(process.getInputStream().readAllBytes());
-                return output.contains(pid);
-            } catch (Exception e) {
-                return true; // Assume alive if can't check
-            }
-        }
-
-        // Unix/Linux
+    private static boolean isProcessAlive(String pid) {
         try {
-            Process process = new ProcessBuilder("ps", "-p", pid).start();
-            return process.waitFor() == 0;
+            return ProcessHandle.of(Long.parseLong(pid)).map(ProcessHandle::isAlive).orElse(false);
+        } catch (NumberFormatException e) {
+            return false; // Can't check unknown PID
         } catch (Exception e) {
             return true; // Assume alive if can't check
         }
@@ -288,13 +634,13 @@ public class DirectoryLocker {
     }
 
     public static void unlockDirectory(Path dir) {
-        DirectoryLocker locker = activeLocks.get(dir.toAbsolutePath());
+        DirectoryLocker locker = activeLocks.get(dir.toAbsolutePath().normalize().resolve(LOCK_NAME));
         if (locker != null) {
             locker.releaseLock();
         }
     }
 
     public static boolean isDirectoryLocked(Path dir) {
-        return activeLocks.containsKey(dir.toAbsolutePath());
+        return activeLocks.containsKey(dir.toAbsolutePath().normalize().resolve(LOCK_NAME));
     }
-} // Class
\ No newline at end of file
+} // Class
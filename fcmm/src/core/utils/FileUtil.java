@@ -16,15 +16,20 @@ import java.nio.file.StandardCopyOption;
 import java.nio.file.attribute.BasicFileAttributes;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CancellationException;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 import core.config.AppConfig;
 import core.interfaces.MapSerializable;
 import core.io.JsonIO;
+import core.io.WriteBatch;
+import core.managers.LockManager;
 import core.objects.Game;
 import core.objects.GameState;
 import core.objects.Mod;
+import core.objects.ModCatalog;
 import core.objects.ModFile;
 
 /**
@@ -90,6 +95,7 @@ public class FileUtil {
             int maxDepth) {
         try (Stream<Path> paths = Files.list(dirPath)) {
             return paths.flatMap(path -> {
+                CancelToken.checkpoint();
                 try {
                     if (Files.isRegularFile(path)) {
                         // Create ModFile for regular file
@@ -119,6 +125,8 @@ public class FileUtil {
                         return getDirectoryModFiles(path, relative, tmpPrefix, depth + 1,
                                 maxDepth).stream();
                     }
+                } catch (CancellationException e) {
+                    throw e;
                 } catch (Exception e) {
                     e.printStackTrace();
                     return Stream.empty();
@@ -166,6 +174,7 @@ public class FileUtil {
     private static List<File> getAllFiles(Path dirPath, String prefix, int depth, int maxDepth) {
         try (Stream<Path> paths = Files.list(dirPath)) {
             return paths.flatMap(path -> {
+                CancelToken.checkpoint();
                 try {
                     if (Files.isRegularFile(path)) {
                         // Create ModFile for regular file
@@ -187,6 +196,8 @@ public class FileUtil {
                         // Recursively process subdirectory
                         return getAllFiles(path, tmpPrefix, depth + 1, maxDepth).stream();
                     }
+                } catch (CancellationException e) {
+                    throw e;
                 } catch (Exception e) {
                     e.printStackTrace();
                     return Stream.empty();
@@ -214,14 +225,20 @@ public class FileUtil {
         GameState gState;
         Path GsPath = game.getInstallDirectory().resolve(managerPath.toString(), GameState.FILE_NAME);
 
-        if (!Files.exists(GsPath))
-            throw new Exception("No mods installed, could not find " + GameState.FILE_NAME);
+        if (!LockManager.lockGameRead(game.getId(), game.getInstallDirectory()))
+            throw new Exception("Game is busy committing changes, try again.");
         try {
-            gState = (GameState) JsonIO.read(GsPath.toFile(), MapSerializable.ObjectTypes.GAME_STATE);
-            return gState.toString();
+            if (!Files.exists(GsPath))
+                throw new Exception("No mods installed, could not find " + GameState.FILE_NAME);
+            try {
+                gState = (GameState) JsonIO.read(GsPath.toFile(), MapSerializable.ObjectTypes.GAME_STATE);
+                return gState.toString();
 
-        } catch (Exception e) {
-            throw new Exception("Error reading GameState", e);
+            } catch (Exception e) {
+                throw new Exception("Error reading GameState", e);
+            }
+        } finally {
+            LockManager.unlockGameRead(game.getId());
         }
     } // readGameState()
 
@@ -236,18 +253,21 @@ public class FileUtil {
      * @throws Exception
      */
     public static String printStoredMods(Game game, boolean all) throws Exception {
-        Path manifestPath = config.getManifestDir();
         StringBuilder sb = new StringBuilder();
 
         Path GsPath = game.getInstallDirectory().resolve(config.getManagerDir().toString(), GameState.FILE_NAME);
         GameState gState;
-        if (!Files.exists(GsPath))
-            log.warning("No mods installed, could not find " + GameState.FILE_NAME, null);
+        if (!LockManager.lockGameRead(game.getId(), game.getInstallDirectory()))
+            throw new Exception("Game is busy committing changes, try again.");
         try {
+            if (!Files.exists(GsPath))
+                log.warning("No mods installed, could not find " + GameState.FILE_NAME, null);
             gState = (GameState) JsonIO.read(GsPath.toFile(), MapSerializable.ObjectTypes.GAME_STATE);
 
         } catch (Exception e) {
             gState = new GameState();
+        } finally {
+            LockManager.unlockGameRead(game.getId());
         }
 
         if (all) {
@@ -261,36 +281,22 @@ public class FileUtil {
             log.warning("Could not find: " + storeDir.toString(), null);
         }
 
-        try (Stream<Path> paths = Files.list(storeDir)) {
-            // List<ModFile> list = new java.util.ArrayList<ModFile>();
-
-            for (Path path : (Iterable<Path>) paths::iterator) {
-                // Process each file
-
-                if (Files.isDirectory(path)) {
-                    try {
-                        Mod mod = (Mod) JsonIO.read(
-                                storeDir.resolve(path.getFileName().toString(), manifestPath.toString(),
-                                        path.getFileName() + ".json").toFile(),
-                                MapSerializable.ObjectTypes.MOD_MANIFEST,
-                                MapSerializable.ObjectTypes.MOD);
-
-                        if (gState.containsMod(mod.getId())) {
-                            if (all)
-                                sb.append("\n\t\t⚫ " + mod.printLite());
-                        } else {
-                            sb.append("\n\t\t⚪ " + mod.printLite());
-                        }
-
-                    } catch (InvalidObjectException e) {
-                        // Just skips silently. Other errors are caught outside to stop process.
-                    }
-                }
-            }
+        List<Mod> mods;
+        try {
+            mods = ModCatalog.load(storeDir).getMods();
         } catch (Exception e) {
             throw new Exception("Failed to read Storage mods: " + e.getMessage(), e);
         }
 
+        for (Mod mod : mods) {
+            if (gState.containsMod(mod.getId())) {
+                if (all)
+                    sb.append("\n\t\t⚫ " + mod.printLite());
+            } else {
+                sb.append("\n\t\t⚪ " + mod.printLite());
+            }
+        }
+
         return sb.toString();
     } // printStoredMods()
 
@@ -364,12 +370,16 @@ public class FileUtil {
     } // deleteDirectory()
 
     /**
-     * Copies all contents of a rootDirectory into another directory.
+     * Copies all contents of a rootDirectory into another directory. Copied
+     * manager files (lineages, manifests, backups) are flushed with the open
+     * {@link WriteBatch}, the rest is left to the OS.
      * 
      * @param rootDir    Directory who's contents are to be copied.
      * @param targetDir  Directory contents are copied into.
      * @param copyOption StandardCopyOption to use or Null.
      * @throws IOException
+     * @throws CancellationException If cancelled, see {@link CancelToken}. Files
+     *                               copied so far are left.
      * 
      * @author Qwen3 Coder 30B
      */
@@ -381,6 +391,7 @@ public class FileUtil {
         // Walk through all files and directories in rootDir
         try (Stream<Path> paths = Files.walk(rootDir)) {
             paths.forEach(sourcePath -> {
+                CancelToken.checkpoint(); // between files
                 try {
                     // Skip the root directory itself
                     if (sourcePath.equals(rootDir)) {
@@ -402,6 +413,9 @@ public class FileUtil {
                             Files.copy(sourcePath, targetPath);
                         else
                             Files.copy(sourcePath, targetPath, copyOption);
+                        if (relativePath.startsWith(config.getManagerDir()))
+                            WriteBatch.register(targetPath); // manager files are flushed with the operation
+                        // Deployed game files are left to the OS, like any other copy.
                     }
                 } catch (IOException e) {
                     throw new RuntimeException(e);
@@ -471,4 +485,32 @@ public class FileUtil {
         return count;
     } // cleanDirectories()
 
+    /**
+     * Whether a directory's file system treats names differing only in case as
+     * the same file, eg: NTFS and APFS by default. Found by creating a file in
+     * it and looking it up by another case, so the answer is of the directory
+     * itself, not of the platform.
+     * 
+     * @param dir An existing, writable directory.
+     * @return True if case is ignored. False if it is not, or the check failed.
+     */
+    public static boolean isCaseInsensitive(Path dir) {
+        Path probe = null;
+        try {
+            probe = Files.createTempFile(dir, ".case", ".tmp");
+            String name = probe.getFileName().toString();
+            return Files.exists(dir.resolve(name.toUpperCase(Locale.ROOT)));
+        } catch (IOException e) {
+            log.warning("Could not check case sensitivity of: " + dir, e);
+            return false;
+        } finally {
+            try {
+                if (probe != null)
+                    Files.deleteIfExists(probe);
+            } catch (IOException e) {
+                // Left with the other temporary files
+            }
+        }
+    } // isCaseInsensitive()
+
 } // Class
@@ -7,11 +7,13 @@
 package core.utils;
 
 import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.HexFormat;
+import java.util.concurrent.CancellationException;
 
 /**
  * Used for various Hashing operations.
@@ -66,12 +68,14 @@ public class HashUtil {
     public static String computeFileHash(Path filePath, HashAlgorithm algorithm) throws Exception {
         System.out.println("Hashing File: " + filePath.toString());
         MessageDigest digest = MessageDigest.getInstance(algorithm.algorithm);
+        final CancelToken token = CancelToken.current();
 
         try (InputStream is = Files.newInputStream(filePath)) {
             byte[] buffer = new byte[8192]; // 8 KB buffer
             int bytesRead;
 
             while ((bytesRead = is.read(buffer)) != -1) {
+                token.throwIfCancelled(); // large files stop part way
                 digest.update(buffer, 0, bytesRead);
             }
         }
@@ -80,12 +84,36 @@ public class HashUtil {
         return HexFormat.of().formatHex(hashBytes);
     } // computeFileHash()
 
+    /**
+     * For hashing data while it is streamed elsewhere. Finish with
+     * {@link #toHex(MessageDigest)} to match {@link #computeFileHash(Path)}.
+     * 
+     * @return A new digest of the default algorithm. (MD5)
+     */
+    public static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance(HashAlgorithm.MD5.algorithm);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("MD5 is not available", e); // required by every JVM
+        }
+    } // newDigest()
+
+    /**
+     * @param digest Digest with all data passed through.
+     * @return Hexadecimal string of the hash.
+     */
+    public static String toHex(MessageDigest digest) {
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
     /**
      * Hash only check, Size is not considered as a False short-cut.
      * 
      * @param filePath
      * @param expectedHash
      * @return True if file passes Hash. False ONLY if file fails Hash
+     * @throws CancellationException If the work was cancelled, see
+     *                               {@link CancelToken}.
      */
     public static boolean verifyFileIntegrity(Path filePath, String expectedHash) {
         try {
@@ -95,6 +123,8 @@ public class HashUtil {
 
         } catch (IOException e) {
             return false;
+        } catch (CancellationException e) {
+            throw e;
         } catch (Exception e) {
             Logger.getInstance().error("Error Hashing the file.", e);
             return false;
@@ -123,6 +153,8 @@ public class HashUtil {
 
         } catch (IOException e) {
             return false;
+        } catch (CancellationException e) {
+            throw e;
         } catch (Exception e) {
             Logger.getInstance().error("Error Hashing the file.", e);
             return false;
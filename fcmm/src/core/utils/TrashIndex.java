@@ -0,0 +1,545 @@
+/**
+ * Author Stephanos B
+ * Date 19/10/2026
+ */
+package core.utils;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+import core.config.AppConfig;
+import core.io.WriteBatch;
+
+/**
+ * Index of everything moved into the trash, kept in
+ * {@code trash/.trash_index}. Each entry is one thing trashed in one go (a
+ * disabled Mod, a deleted Mod, a Game file, ...) with its size, file count
+ * and when it was trashed. The total is kept as entries are added and
+ * removed, so the trash's size never needs a walk of the directory.<br>
+ * <br>
+ * The file is an append-only log of additions and removals, so recording a
+ * change is a single line. It is compacted once removals outnumber the
+ * entries. Both are done holding {@value #LOCK_NAME}, and compacting reads the
+ * log again first, so lines other processes appended are kept. The log is
+ * also read again whenever its size or modified time is not what this index
+ * last read or wrote, so totals and ages include what other processes
+ * trashed. A trash without an index (older versions, or a deleted index) is
+ * indexed once from its top-level folders.<br>
+ * <br>
+ * Anything moving data into the trash should get its path from
+ * {@link #reserve(String)} and {@link #add(Path)} it once done. One instance
+ * per trash directory, see {@link #get()}.
+ *
+ * @author Stephanos B
+ * @since v4.0.5
+ */
+public class TrashIndex {
+    private static final AppConfig config = AppConfig.getInstance();
+    private static final Logger log = Logger.getInstance();
+    private static final Map<Path, TrashIndex> open = new ConcurrentHashMap<>();
+
+    /**
+     * File name of the index, within the trash directory.
+     */
+    public static final String FILE_NAME = ".trash_index";
+    /**
+     * Lock file held while the index file is appended to or compacted, within
+     * the trash directory.
+     */
+    public static final String LOCK_NAME = ".trash_index.lock";
+    private static final Duration LOCK_WAIT = Duration.ofSeconds(10);
+
+    private static final String ADD = "+";
+    private static final String REMOVE = "-";
+    private static final int COMPACT_SLACK = 1000; // log lines allowed beyond twice the entries
+
+    private final Path root;
+    private TreeMap<String, Entry> entries; // loaded on first use, keyed by '/' separated relative path
+    private final Set<String> reserved = new HashSet<>(); // handed out, not added yet
+    private long totalBytes = 0;
+    private long totalFiles = 0;
+    private int logLines = 0;
+    private long logSize = -1; // of the log as last read or written, -1 to read it again
+    private long logModified = -1;
+
+    /**
+     * Something trashed in one go.
+     */
+    public static class Entry {
+        private final String path;
+        private final long bytes;
+        private final long files;
+        private final long trashedAt;
+
+        private Entry(String path, long bytes, long files, long trashedAt) {
+            this.path = path;
+            this.bytes = bytes;
+            this.files = files;
+            this.trashedAt = trashedAt;
+        }
+
+        /**
+         * @return Path relative to the trash directory, '/' separated.
+         */
+        public String getPath() {
+            return path;
+        }
+
+        public long getBytes() {
+            return bytes;
+        }
+
+        public long getFiles() {
+            return files;
+        }
+
+        /**
+         * @return Epoch milliseconds of when it was trashed.
+         */
+        public long getTrashedAt() {
+            return trashedAt;
+        }
+    } // Entry
+
+    private TrashIndex(Path trashDir) {
+        this.root = trashDir;
+    }
+
+    /**
+     * @return The index of the configured trash directory.
+     */
+    public static TrashIndex get() {
+        return of(config.getTrashDir());
+    }
+
+    /**
+     * @param trashDir A trash directory.
+     * @return The shared index of that directory.
+     */
+    public static TrashIndex of(Path trashDir) {
+        return open.computeIfAbsent(trashDir.toAbsolutePath().normalize(), TrashIndex::new);
+    }
+
+    /// /// /// Recording /// /// ///
+
+    /**
+     * @param name Name to trash something under, may contain directories.
+     * @return A path in the trash that is not in use, nor reserved by another
+     *         thread. The name itself if free, otherwise with a {@code _n} suffix.
+     */
+    public synchronized Path reserve(String name) {
+        Path path = root.resolve(name);
+        for (int n = 1; Files.exists(path) || entries().containsKey(keyOf(path))
+                || reserved.contains(keyOf(path)); n++)
+            path = root.resolve(name + "_" + n);
+        reserved.add(keyOf(path));
+        return path;
+    } // reserve()
+
+    /**
+     * Records something just moved into the trash. Its size is read once, here.
+     * Adding a path again replaces its entry.
+     *
+     * @param path File or directory within the trash.
+     */
+    public synchronized void add(Path path) {
+        if (path == null)
+            return;
+        String key = keyOf(path);
+        reserved.remove(key);
+        if (!Files.exists(path))
+            return;
+        if (key.isEmpty() || key.equals(FILE_NAME) || key.equals(LOCK_NAME))
+            return;
+
+        entries();
+        long[] size = measure(path);
+        Entry entry = new Entry(key, size[0], size[1], System.currentTimeMillis());
+        put(entry);
+        append(ADD + "\t" + entry.trashedAt + "\t" + entry.bytes + "\t" + entry.files + "\t" + key);
+    } // add()
+
+    /**
+     * Re-measures an entry whose contents changed in the trash, keeping when it
+     * was trashed. Adds it if not indexed yet.
+     *
+     * @param path File or directory within the trash.
+     */
+    public synchronized void refresh(Path path) {
+        Entry old = entries().get(keyOf(path));
+        if (old == null || !Files.exists(path)) {
+            add(path);
+            return;
+        }
+        long[] size = measure(path);
+        Entry entry = new Entry(old.path, size[0], size[1], old.trashedAt);
+        put(entry);
+        append(ADD + "\t" + entry.trashedAt + "\t" + entry.bytes + "\t" + entry.files + "\t" + entry.path);
+    } // refresh()
+
+    /**
+     * Records that something left the trash, along with any entries within it.
+     *
+     * @param path File or directory within the trash.
+     */
+    public synchronized void remove(Path path) {
+        String key = keyOf(path);
+        entries();
+        if (drop(key) > 0)
+            append(REMOVE + "\t" + key);
+        if (logLines > 2 * entries().size() + COMPACT_SLACK)
+            compact();
+    } // remove()
+
+    /**
+     * Forgets every entry, once the trash was emptied.
+     */
+    public synchronized void clear() {
+        entries = new TreeMap<>();
+        totalBytes = 0;
+        totalFiles = 0;
+        writeAll();
+    } // clear()
+
+    /**
+     * Re-indexes the trash from its top-level folders and files. Only needed if
+     * it was changed by hand.
+     */
+    public synchronized void rebuild() {
+        entries = new TreeMap<>();
+        totalBytes = 0;
+        totalFiles = 0;
+        if (Files.isDirectory(root)) {
+            try (DirectoryStream<Path> paths = Files.newDirectoryStream(root)) {
+                for (Path path : paths) {
+                    String name = path.getFileName().toString();
+                    if (name.equals(FILE_NAME) || name.equals(LOCK_NAME))
+                        continue;
+                    long[] size = measure(path);
+                    put(new Entry(keyOf(path), size[0], size[1],
+                            Files.getLastModifiedTime(path).toMillis()));
+                }
+            } catch (IOException e) {
+                log.warning("Could not index trash: " + root, e);
+            }
+        }
+        writeAll();
+        log.info(1, "Indexed trash: " + entries.size() + " entries, " + totalFiles + " file(s).");
+    } // rebuild()
+
+    /// /// /// Queries /// /// ///
+
+    /**
+     * @return Size of everything in the trash, in bytes.
+     */
+    public synchronized long getTotalBytes() {
+        entries();
+        return totalBytes;
+    }
+
+    public synchronized long getTotalFiles() {
+        entries();
+        return totalFiles;
+    }
+
+    public synchronized int size() {
+        return entries().size();
+    }
+
+    /**
+     * @param path File or directory within the trash.
+     * @return True if an entry, or a path reserved and not added yet, is at or
+     *         within the path.
+     */
+    public synchronized boolean covers(Path path) {
+        String key = keyOf(path);
+        if (entries().containsKey(key) || reserved.contains(key))
+            return true;
+        String sub = entries.ceilingKey(key + "/");
+        if (sub != null && sub.startsWith(key + "/"))
+            return true;
+        for (String r : reserved) {
+            if (r.startsWith(key + "/"))
+                return true;
+        }
+        return false;
+    } // covers()
+
+    /**
+     * @return A copy of every entry.
+     */
+    public synchronized List<Entry> list() {
+        return new ArrayList<>(entries().values());
+    }
+
+    /**
+     * @return Every entry, oldest first on {@link PriorityQueue#poll()}.
+     */
+    public synchronized PriorityQueue<Entry> oldestFirst() {
+        TreeMap<String, Entry> all = entries();
+        PriorityQueue<Entry> queue = new PriorityQueue<>(Math.max(1, all.size()),
+                Comparator.comparingLong(Entry::getTrashedAt));
+        queue.addAll(all.values());
+        return queue;
+    }
+
+    /**
+     * @return Absolute path of an entry.
+     */
+    public Path resolve(Entry entry) {
+        return root.resolve(entry.path);
+    }
+
+    public Path getRoot() {
+        return root;
+    }
+
+    /// /// /// Helpers /// /// ///
+
+    private void put(Entry entry) {
+        drop(entry.path); // replaces it and anything already indexed within it
+        entries.put(entry.path, entry);
+        totalBytes += entry.bytes;
+        totalFiles += entry.files;
+    }
+
+    /**
+     * Removes an entry and the entries within it.
+     *
+     * @return Number of entries removed.
+     */
+    private int drop(String key) {
+        List<String> gone = new ArrayList<>();
+        if (entries.containsKey(key))
+            gone.add(key);
+        for (String sub : entries.tailMap(key + "/", true).keySet()) {
+            if (!sub.startsWith(key + "/"))
+                break;
+            gone.add(sub);
+        }
+        for (String k : gone) {
+            Entry e = entries.remove(k);
+            totalBytes -= e.bytes;
+            totalFiles -= e.files;
+        }
+        return gone.size();
+    } // drop()
+
+    /**
+     * @return The entries, read again first if the log changed since this index
+     *         last read or wrote it.
+     */
+    private TreeMap<String, Entry> entries() {
+        Path file = root.resolve(FILE_NAME);
+        if (entries != null && isCurrent(file))
+            return entries;
+
+        if (!Files.exists(file)) {
+            rebuild();
+            return entries;
+        }
+        try {
+            load(file);
+        } catch (Exception e) {
+            log.warning("Trash index is unreadable, re-indexing: " + file, e);
+            rebuild();
+        }
+        return entries;
+    } // entries()
+
+    /**
+     * Reads the entries from the log, replacing those in memory.
+     */
+    private void load(Path file) throws Exception {
+        entries = new TreeMap<>();
+        totalBytes = 0;
+        totalFiles = 0;
+        logLines = 0;
+        stamp(file); // before reading, so lines appended meanwhile are read next time
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank())
+                    continue;
+                logLines++;
+                String[] parts = line.split("\t", 5);
+                if (parts[0].equals(ADD) && parts.length == 5) {
+                    put(new Entry(parts[4], Long.parseLong(parts[2]), Long.parseLong(parts[3]),
+                            Long.parseLong(parts[1])));
+                } else if (parts[0].equals(REMOVE) && parts.length == 2) {
+                    drop(parts[1]);
+                } else {
+                    throw new IOException("Malformed line: " + line);
+                }
+            }
+        }
+    } // load()
+
+    private void append(String line) {
+        try {
+            Path file = root.resolve(FILE_NAME);
+            locked(() -> {
+                boolean current = isCurrent(file);
+                Files.writeString(file, line + System.lineSeparator(),
+                        StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+                if (current)
+                    stamp(file);
+                else
+                    logSize = -1; // others appended too, read it all next time
+            });
+            logLines++;
+        } catch (IOException e) {
+            log.warning("Could not update trash index.", e);
+        }
+    } // append()
+
+    /**
+     * Reads the log again, with what other processes appended, and rewrites it
+     * with only the current entries.
+     */
+    private void compact() {
+        try {
+            locked(() -> {
+                Path file = root.resolve(FILE_NAME);
+                if (Files.exists(file)) {
+                    try {
+                        load(file);
+                    } catch (Exception e) {
+                        throw new IOException("Trash index is unreadable, left as it is: " + file, e);
+                    }
+                }
+                write();
+            });
+        } catch (IOException e) {
+            log.warning("Could not compact trash index.", e);
+        }
+    } // compact()
+
+    /**
+     * Rewrites the log with only the entries in memory, once they were read
+     * from the trash itself.
+     */
+    private void writeAll() {
+        try {
+            locked(this::write);
+        } catch (IOException e) {
+            log.warning("Could not write trash index.", e);
+        }
+    } // writeAll()
+
+    /**
+     * Replaces the log with the entries in memory. Called holding the lock.
+     */
+    private void write() throws IOException {
+        Path tmp = WriteBatch.tempFileFor(root.resolve(FILE_NAME));
+        try {
+            try (BufferedWriter writer = Files.newBufferedWriter(tmp, StandardCharsets.UTF_8)) {
+                for (Entry e : entries.values()) {
+                    writer.write(ADD + "\t" + e.trashedAt + "\t" + e.bytes + "\t" + e.files + "\t" + e.path);
+                    writer.newLine();
+                }
+            }
+            WriteBatch.commitFile(tmp, root.resolve(FILE_NAME));
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+        logLines = entries.size();
+        stamp(root.resolve(FILE_NAME));
+    } // write()
+
+    /**
+     * @return True if the log is as this index last read or wrote it.
+     */
+    private boolean isCurrent(Path file) {
+        try {
+            BasicFileAttributes attrs = Files.readAttributes(file, BasicFileAttributes.class);
+            return attrs.size() == logSize && attrs.lastModifiedTime().toMillis() == logModified;
+        } catch (IOException e) {
+            return false;
+        }
+    } // isCurrent()
+
+    /**
+     * Remembers the log's size and modified time, as just read or written.
+     */
+    private void stamp(Path file) {
+        try {
+            BasicFileAttributes attrs = Files.readAttributes(file, BasicFileAttributes.class);
+            logSize = attrs.size();
+            logModified = attrs.lastModifiedTime().toMillis();
+        } catch (IOException e) {
+            logSize = -1;
+        }
+    } // stamp()
+
+    @FunctionalInterface
+    private interface IndexWrite {
+        void run() throws IOException;
+    }
+
+    /**
+     * Runs a change to the index file holding its lock.
+     *
+     * @throws IOException If it stayed locked by another process.
+     */
+    private void locked(IndexWrite write) throws IOException {
+        Files.createDirectories(root);
+        DirectoryLocker lock = new DirectoryLocker(root, LOCK_NAME, DirectoryLocker.Mode.EXCLUSIVE);
+        if (!lock.acquireLock(LOCK_WAIT))
+            throw new IOException("Trash index is locked by another process: " + root);
+        try {
+            write.run();
+        } finally {
+            lock.releaseLock();
+        }
+    } // locked()
+
+    /**
+     * @return The path relative to the trash, '/' separated.
+     */
+    private String keyOf(Path path) {
+        Path rel = root.relativize(path.toAbsolutePath().normalize());
+        StringBuilder sb = new StringBuilder();
+        for (Path part : rel) {
+            if (sb.length() > 0)
+                sb.append('/');
+            sb.append(part.toString());
+        }
+        return sb.toString();
+    } // keyOf()
+
+    /**
+     * @return [bytes, files] of a file or directory tree.
+     */
+    private static long[] measure(Path path) {
+        long[] size = new long[2];
+        try (Stream<Path> paths = Files.walk(path)) {
+            paths.filter(Files::isRegularFile).forEach(p -> {
+                size[0] += p.toFile().length();
+                size[1]++;
+            });
+        } catch (IOException e) {
+            log.warning("Could not measure trashed path: " + path, e);
+        }
+        return size;
+    } // measure()
+
+} // Class
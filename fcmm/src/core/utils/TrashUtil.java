@@ -4,17 +4,15 @@
  */
 package core.utils;
 
-import java.io.File;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.time.LocalDate;
 import java.time.ZoneId;
-import java.util.Comparator;
-import java.util.List;
-import java.util.stream.Collectors;
+import java.util.PriorityQueue;
 
 import core.config.AppConfig;
+import core.storage.TrashRefs;
 
 /**
  * @since v3.3.5
@@ -32,71 +30,88 @@ public class TrashUtil {
         log.info(0, "Emptying trash direcotry...");
         FileUtil.deleteDirectory(config.getTrashDir());
         Files.createDirectories(config.getTrashDir());
+        TrashIndex.get().clear();
     }
 
     /**
-     * Deletes all files in trash that are lastModified older than a given date.
+     * Deletes everything in trash that was trashed before a given date, then
+     * the oldest until the trash fits the size limit. Works on whole
+     * {@link TrashIndex} entries (a trashed Mod is kept or deleted as one), so
+     * no directory is walked to find sizes or ages.
      * 
      * @param maxMegabytes Maximum allowed size of the entire Trash directory in
      *                     {@code Megabytes}.
      * @param cutoffDate   Date after which all files older than will be deleted.
+     *                     Stops after the entry it is deleting once the
+     *                     {@link CancelToken} of the thread is cancelled.
      */
     public static void cleanTrash(long maxMegabytes, LocalDate cutoffDate) {
-        /// 1. Get a list of files in trash 2. Sort by date
-        List<File> fileLs = FileUtil.getAllFiles(config.getTrashDir(), 10)
-                .stream()
-                .filter(File::isFile)
-                .sorted(Comparator.comparingLong(File::lastModified))
-                .collect(Collectors.toList());
-
-        long milliseconds = cutoffDate.atStartOfDay(ZoneId.systemDefault()).toInstant().toEpochMilli();
-        int total = fileLs.size();
-
-        /// 3. Delete all before the cutoff
+        final TrashIndex index = TrashIndex.get();
+        final long milliseconds = cutoffDate.atStartOfDay(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        final long maxBytes = maxMegabytes * 1000000L;
+
+        /// 1. Drop stale cached copies of stored files, then queue entries oldest first.
+        TrashRefs.releaseCached(TrashRefs.CACHE_WINDOW);
+        PriorityQueue<TrashIndex.Entry> queue = index.oldestFirst();
+        int total = queue.size();
+        log.info(1, String.format("Current size of Trash on disk: %.3fMB / %dMB",
+                megabyte(index.getTotalBytes()), maxMegabytes));
+
+        /// 2. Delete all before the cutoff, then any overflow.
+        final CancelToken token = CancelToken.current();
         int deleteCnt = 0;
-        for (int i = 0; i < total; i++) {
-            log.info(0, Logger.progressBar(i, total));
-
-            if (fileLs.getFirst().lastModified() < milliseconds) {
-                log.info(1, "Deleting old trash: " + fileLs.getFirst().getPath());
-                try {
-                    Files.delete(fileLs.getFirst().toPath());
-                    fileLs.removeFirst();
-                    deleteCnt++;
-                    continue;
-                } catch (IOException e) {
-                    log.error("Could not delete file", e);
-                    continue;
-                }
+        long fileCnt = 0;
+        while (!queue.isEmpty()) {
+            if (token.isCancelled()) { // between entries, none is left half deleted
+                log.info(0, "Cleaning cancelled.");
+                break;
+            }
+            TrashIndex.Entry entry = queue.peek();
+            boolean old = entry.getTrashedAt() < milliseconds;
+            if (!old && index.getTotalBytes() <= maxBytes) {
+                log.info(0, "Remaining trash is within cut-off date and size.");
+                break; // queue is ordered, no need to check the rest.
             }
-            log.info(0, "File is within cut-off date");
-            break; // list is order, no need to check after 1 fails.
-        } // for i
-
-        /// 4. If the total trash direcoty size is too big:
-        float size = megabyte(getDiskSize(config.getTrashDir()));
-        if (size > maxMegabytes) {
-            log.info(1,
-                    String.format("Current size of Trash on disk: %.3fMB / %dMB", size, maxMegabytes));
-
-            while (size > maxMegabytes) {
-                log.info(1,
-                        String.format("size %.3fMB / %dMB", size, maxMegabytes));
-                try {
-                    log.info(1, "Deleting overflow trash: " + fileLs.getFirst());
-                    Files.delete(fileLs.get(0).toPath());
-                    fileLs.remove(0);
-                    deleteCnt++;
-                } catch (IOException e) {
-                    log.error("Could not delete file", e);
-                    break;
-                }
-                size = megabyte(getDiskSize(config.getTrashDir()));
+            queue.poll();
+
+            Path path = index.resolve(entry);
+            log.info(1, (old ? "Deleting old trash: " : "Deleting overflow trash: ") + path);
+            try {
+                deleteEntry(index, entry);
+                deleteCnt++;
+                fileCnt += entry.getFiles();
+            } catch (IOException e) {
+                log.error("Could not delete trash: " + path, e);
             }
+            log.info(0, Logger.progressBar(total - queue.size(), total));
         }
 
-        log.info(0, "Files deleted: " + deleteCnt);
-        // TODO clean empty directories
+        log.info(0, "Entries deleted: " + deleteCnt + " (" + fileCnt + " files)");
+    } // cleanTrash()
+
+    /**
+     * Deletes a trash entry, drops it from the index and removes the directories
+     * it leaves empty.
+     *
+     * @param index Index of the trash.
+     * @param entry Entry to delete.
+     * @throws IOException
+     */
+    public static void deleteEntry(TrashIndex index, TrashIndex.Entry entry) throws IOException {
+        Path path = index.resolve(entry);
+        if (Files.isDirectory(path))
+            FileUtil.deleteDirectory(path);
+        else
+            Files.deleteIfExists(path);
+        index.remove(path);
+        FileUtil.cleanDirectories(index.getRoot(), index.getRoot().relativize(path).getParent());
+    } // deleteEntry()
+
+    /**
+     * @return Size of the trash in bytes, from its index.
+     */
+    public static long getTrashSize() {
+        return TrashIndex.get().getTotalBytes();
     }
 
     /// /// /// Utilities /// /// ///
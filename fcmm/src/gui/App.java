@@ -17,6 +17,9 @@ import javax.swing.*;
 
 import core.config.AppConfig;
 import core.config.AppPreferences.properties;
+import core.managers.TaskScheduler;
+import core.managers.TaskScheduler.Priority;
+import core.managers.TrashMaintenance;
 import core.utils.Logger;
 import core.utils.TrashUtil;
 
@@ -59,6 +62,9 @@ public class App {
         // Load initial state
         AppState.getInstance(); // Initialize
 
+        // Keeps the trash within its limits, if set to auto clean.
+        TrashMaintenance.getInstance().start();
+
     }
 
     private JMenuBar createMenuBar() {
@@ -140,19 +146,13 @@ public class App {
                 ConsolePopup console = ConsolePopup.getInstance(mainFrame);
                 console.show();
 
-                SwingWorker<Void, String> worker = new SwingWorker<Void, String>() {
-                    @Override
-                    protected Void doInBackground() throws Exception { // long-running task
-                        TrashUtil.cleanTrash(trashLimit, LocalDate.now().minusDays(daysOld));
-                        return null;
-                    }
-
-                    @Override
-                    protected void done() { // Task completed - update GUI state
-                        console.setDone();
-                    }
-                };
-                worker.execute();
+                TaskScheduler.Task<Object> task = TaskScheduler.getInstance().submit(Priority.OPERATION,
+                        AppConfig.getInstance().getTrashDir(), () -> {
+                            TrashUtil.cleanTrash(trashLimit, LocalDate.now().minusDays(daysOld)); // long-running task
+                            return null;
+                        });
+                task.whenComplete((v, e) -> SwingUtilities.invokeLater(console::setDone)); // update GUI state
+                console.setCancellable(task.getToken()::cancel);
 
             } catch (Exception f) {
                 Logger.getInstance().error("Failed to clean", f);
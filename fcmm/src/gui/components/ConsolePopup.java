@@ -12,11 +12,14 @@ import java.io.PrintStream;
 
 import javax.swing.*;
 
+import core.utils.Logger;
 import gui.util.IconLoader;
 import gui.util.IconLoader.ICONS;
 
 /**
- * Creates a popup window that listens to the console.
+ * Creates a popup window that listens to the console. While an operation that
+ * can be stopped runs, see {@link #setCancellable(Runnable)}, a Cancel button
+ * is shown next to the Busy one.
  * 
  * @author Stephanos B
  * @since v3
@@ -27,6 +30,8 @@ public class ConsolePopup {
     private JFrame frame;
     private JFrame parentFrame; // Store parent reference
     private JButton closeButton;
+    private JButton cancelButton;
+    private Runnable onCancel; // of the running operation, or null
 
     private static PrintStream originalOut = System.out;
     private static PrintStream originalErr = System.err;
@@ -80,6 +85,11 @@ public class ConsolePopup {
         this.setButtonBusy();
         closeButton.addActionListener(e -> frame.dispose());
 
+        cancelButton = new JButton("Cancel");
+        cancelButton.setToolTipText("Stop at the next file, undoing what is half done");
+        cancelButton.setVisible(false);
+        cancelButton.addActionListener(e -> cancel());
+
         JButton copyButton = new JButton("Copy");
         copyButton.setIcon(IconLoader.loadIcon(ICONS.COPY_ALL, new Dimension(16, 16)));
         copyButton.setToolTipText("Copy all to clipboard");
@@ -88,6 +98,7 @@ public class ConsolePopup {
         // Create a panel for the button
         JPanel buttonPanel = new JPanel(new FlowLayout(FlowLayout.CENTER));
         buttonPanel.add(closeButton);
+        buttonPanel.add(cancelButton);
         buttonPanel.add(copyButton);
 
         // Create main layout
@@ -122,6 +133,12 @@ public class ConsolePopup {
         closeButton.setIcon(IconLoader.loadIcon(ICONS.BUSY, new Dimension(24, 24)));
         closeButton.setToolTipText(null);
         closeButton.setEnabled(false);
+        hideCancel();
+    }
+
+    private void hideCancel() {
+        onCancel = null;
+        cancelButton.setVisible(false);
     }
 
     /// /// /// Logic /// /// ///
@@ -203,6 +220,16 @@ public class ConsolePopup {
 
     /// /// ///
 
+    private void cancel() {
+        if (onCancel == null)
+            return;
+        Logger.getInstance().info(0, "⏹ Cancelling, stopping at the next file...");
+        onCancel.run();
+        onCancel = null;
+        cancelButton.setText("Cancelling");
+        cancelButton.setEnabled(false);
+    }
+
     private void copyToClipboard() {
         String text = consoleArea.getText();
         Toolkit.getDefaultToolkit().getSystemClipboard()
@@ -242,6 +269,22 @@ public class ConsolePopup {
             closeButton.setIcon(IconLoader.loadIcon(ICONS.DONE, new Dimension(24, 24)));
             closeButton.setToolTipText("Click to close");
             closeButton.setEnabled(true);
+            hideCancel();
+        });
+    }
+
+    /**
+     * Shows the Cancel button until the operation is done.
+     *
+     * @param cancel Asks the running operation to stop, eg: cancels its
+     *               {@code CancelToken}.
+     */
+    public void setCancellable(Runnable cancel) {
+        SwingUtilities.invokeLater(() -> {
+            onCancel = cancel;
+            cancelButton.setText("Cancel");
+            cancelButton.setEnabled(true);
+            cancelButton.setVisible(true);
         });
     }
 
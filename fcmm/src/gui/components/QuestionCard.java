@@ -74,6 +74,7 @@ public class QuestionCard extends JPanel {
                 break;
             case FILE_CHOOSER:
             case DIRECTORY_CHOOSER:
+            case PATH_CHOOSER:
                 height = 40;
                 break;
             default:
@@ -119,6 +120,7 @@ public class QuestionCard extends JPanel {
 
             case FILE_CHOOSER:
             case DIRECTORY_CHOOSER:
+            case PATH_CHOOSER:
                 return createFileChooserPanel();
 
             case COMBO_BOX:
@@ -170,6 +172,9 @@ public class QuestionCard extends JPanel {
             if (question.getType() == FormQuestion.QuestionType.DIRECTORY_CHOOSER) {
                 chooser.setFileSelectionMode(JFileChooser.DIRECTORIES_ONLY);
                 chooser.setDialogTitle("Select Directory");
+            } else if (question.getType() == FormQuestion.QuestionType.PATH_CHOOSER) {
+                chooser.setFileSelectionMode(JFileChooser.FILES_AND_DIRECTORIES);
+                chooser.setDialogTitle("Select File or Directory");
             } else {
                 chooser.setFileSelectionMode(JFileChooser.FILES_ONLY);
                 chooser.setDialogTitle("Select File");
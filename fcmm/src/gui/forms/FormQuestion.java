@@ -24,6 +24,7 @@ public class FormQuestion {
         TEXT_AREA,
         FILE_CHOOSER, // For paths
         DIRECTORY_CHOOSER,
+        PATH_CHOOSER, // File or directory
         COMBO_BOX, // For dropdowns
         CHECKBOX
     }
@@ -54,6 +54,18 @@ public class QuestionDefinitions {
                                                 .tooltip("Absolute Path to store non-deployed Mods")
                                                 .build(),
 
+                                FormQuestion.builder(Game.Keys.DURABILITY.key(), "Write Durability")
+                                                .type(FormQuestion.QuestionType.COMBO_BOX)
+                                                .tooltip("How manager files (lineages, game state, stored Mods) are flushed to disk.\nDeployed game files are always left to the OS.\nbatched (default): once per operation.\nsync: every file, safest but slowest.\nnone: left to the OS, fastest.")
+                                                .defaultValue(new String[] { "batched", "sync", "none" })
+                                                .build(),
+
+                                FormQuestion.builder(Game.Keys.STORAGE_MODE.key(), "Storage Mode")
+                                                .type(FormQuestion.QuestionType.COMBO_BOX)
+                                                .tooltip("How compiled Mods keep their files.\nloose (default): a full copy per Mod.\ndedup: identical files are stored once, shared between Mods and versions.\narchive: each Mod compressed into a zip, deployed straight from it.")
+                                                .defaultValue(new String[] { "loose", "dedup", "archive" })
+                                                .build(),
+
                                 FormQuestion.builder("iconFile", "Icon File")
                                                 .type(FormQuestion.QuestionType.FILE_CHOOSER)
                                                 .tooltip("Pick a file to be copied to the manager files as the icon ('.png' / '.jpg' only)")
@@ -103,8 +115,8 @@ public class QuestionDefinitions {
                                                 .build(),
 
                                 FormQuestion.builder("pathToFiles", "Mod Files Directory")
-                                                .type(FormQuestion.QuestionType.DIRECTORY_CHOOSER)
-                                                .tooltip("Path to mod directory, pre-format according to install instructions (this will override all data when updating)")
+                                                .type(FormQuestion.QuestionType.PATH_CHOOSER)
+                                                .tooltip("Path to mod directory or .zip/.jar archive, pre-format according to install instructions (this will override all data when updating)")
                                                 .build()
 
                 );
@@ -155,8 +167,8 @@ public class QuestionDefinitions {
                                 FormQuestion.builder(AppConfig.prefsPrefix + properties.TRASH_SIZE_WARNING.key(),
                                                 "(Normal) " + properties.TRASH_SIZE_WARNING.getName())
                                                 .type(FormQuestion.QuestionType.COMBO_BOX)
-                                                .tooltip("What to do when the Trash directory reaches the max size limit")
-                                                .defaultValue(new String[] { "Off", "Log warning", "Prompt clean" })
+                                                .tooltip("What to do when the Trash directory reaches the max size limit.\nAuto clean: keeps the trash within its size and age limits in the background")
+                                                .defaultValue(new String[] { "Off", "Log warning", "Prompt clean", "Auto clean" })
                                                 .build(),
 
                                 FormQuestion.builder(AppConfig.prefsPrefix + properties.NORMALISE_BY_GROUP.key(),
@@ -166,6 +178,12 @@ public class QuestionDefinitions {
                                                 .defaultValue(new String[] { "Off", "Log warning", "Prompt clean" })
                                                 .build(),
 
+                                FormQuestion.builder(AppConfig.prefsPrefix + properties.LIVE_APPLY.key(),
+                                                "(Normal) " + properties.LIVE_APPLY.getName())
+                                                .type(FormQuestion.QuestionType.CHECKBOX)
+                                                .tooltip("Whether toggling or moving a Mod applies it to the Game.\nOff (default): changes wait for Apply Changes.\nOn: changes made in quick succession are applied together")
+                                                .build(),
+
                                 FormQuestion.builder("MANAGER_DIR", "(Advanced) Deployment Manager Direcotry")
                                                 .type(FormQuestion.QuestionType.DIRECTORY_CHOOSER)
                                                 .tooltip("Where the manager stores its files within a Game")
@@ -8,10 +8,15 @@ import gui.components.ConsolePopup;
 import gui.navigator.AppNavigator;
 import javax.swing.*;
 
+import core.managers.TaskScheduler;
+import core.managers.TaskScheduler.Priority;
 import core.utils.Logger;
 
 import java.awt.*;
+import java.nio.file.Path;
 import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.function.BiConsumer;
 
 /**
  * Base class for all views. Provides navigation and common functionality.
@@ -115,6 +120,22 @@ public abstract class BaseView extends JPanel {
         return result == JOptionPane.YES_OPTION;
     }
 
+    /// /// Tasks
+
+    /**
+     * Runs work on the {@link TaskScheduler}, then {@code done} on the EDT with
+     * its result, or with null and what it threw.
+     *
+     * @param path Where the work reads or writes, or null.
+     */
+    protected <T> TaskScheduler.Task<T> runTask(Priority priority, Path path, Callable<T> work,
+            BiConsumer<T, Exception> done) {
+        TaskScheduler.Task<T> task = TaskScheduler.getInstance().submit(priority, path, work);
+        task.whenComplete((result, e) -> SwingUtilities.invokeLater(() -> done.accept(result,
+                e == null ? null : e instanceof Exception ex ? ex : new Exception(e))));
+        return task;
+    }
+
     /// /// Console
 
     protected ConsolePopup consolePopup;
@@ -130,6 +151,14 @@ public abstract class BaseView extends JPanel {
         consolePopup.show();
     }
 
+    /**
+     * Lets the console's Cancel button stop a task shown in it. The task stops
+     * at its next checkpoint and completes once it has rolled back.
+     */
+    protected void cancelFromConsole(TaskScheduler.Task<?> task) {
+        consolePopup.setCancellable(task.getToken()::cancel);
+    }
+
     protected void finishConsole() {
         consolePopup.setDone();
     }
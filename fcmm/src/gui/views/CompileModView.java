@@ -10,7 +10,8 @@ import gui.navigator.AppNavigator;
 import gui.state.AppState;
 import gui.util.IconLoader;
 import gui.util.IconLoader.ICONS;
-import core.managers.ModManager;
+import core.managers.GameQueue;
+import core.managers.TaskScheduler.Priority;
 
 import java.awt.Dimension;
 import java.nio.file.Path;
@@ -18,8 +19,6 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
-import javax.swing.SwingWorker;
-
 /**
  * Displays the FormView. Gathers Mod information for compiling and compiles on
  * submit.
@@ -56,26 +55,19 @@ public class CompileModView extends FormView {
         if (!validateAndCollect())
             return;
 
-        ModManager manager = new ModManager(AppState.getInstance().getCurrentGame());
+        GameQueue queue = GameQueue.of(AppState.getInstance().getCurrentGame());
         try {
             /// Compile Mod
             Path files = Path.of(formPanel.getAnswers().get("pathToFiles").toString());
 
             showConsole();
-            SwingWorker<Void, String> worker = new SwingWorker<Void, String>() {
-                @Override
-                protected Void doInBackground() throws Exception { // long-running task
-                    manager.compileMod(files, (HashMap<String, Object>) formPanel.getAnswers());
-                    return null;
-                }
-
-                @Override
-                protected void done() { // Task completed - update GUI state
-                    finishConsole();
-                    navigator.goBack();
-                }
-            };
-            worker.execute();
+            final HashMap<String, Object> answers = (HashMap<String, Object>) formPanel.getAnswers();
+            cancelFromConsole(runTask(Priority.OPERATION, queue.getGame().getStoreDirectory(), // long-running task
+                    () -> queue.submit(m -> m.compileMod(files, answers)).get(),
+                    (mod, e) -> { // Task completed - update GUI state
+                        finishConsole();
+                        navigator.goBack();
+                    }));
 
         } catch (Exception e) {
             showError("Failed to compile Mod: " + e.getMessage(), e);
@@ -10,7 +10,8 @@ import gui.navigator.AppNavigator;
 import gui.state.AppState;
 import gui.util.IconLoader;
 import gui.util.IconLoader.ICONS;
-import core.managers.ModManager;
+import core.managers.GameQueue;
+import core.managers.TaskScheduler.Priority;
 import core.objects.Mod;
 import core.objects.ModMetadata;
 import core.utils.MapUtil;
@@ -21,7 +22,7 @@ import java.util.*;
 
 import javax.swing.JComponent;
 import javax.swing.JToggleButton;
-import javax.swing.SwingWorker;
+import javax.swing.SwingUtilities;
 
 /**
  * Displays a FormView. Read an exsisting Mod.json to auto-populate data and
@@ -33,7 +34,7 @@ import javax.swing.SwingWorker;
  */
 public class EditModView extends FormView {
     private Mod mod;
-    private ModManager manager;
+    private GameQueue queue;
     private JToggleButton modeToggleButton;
 
     private static boolean isUpdate = false;
@@ -65,16 +66,14 @@ public class EditModView extends FormView {
     protected void loadExistingData() {
         String modId = (String) params.get("modId");
         this.mod = AppState.getInstance().getCurrentMod();
-        this.manager = new ModManager(AppState.getInstance().getCurrentGame());
+        this.queue = GameQueue.of(AppState.getInstance().getCurrentGame());
 
-        // If not in cache, try to load
+        // If not in cache, try the Game's snapshot. Never wait on the queue here, this is the EDT.
+        if (this.mod == null)
+            this.mod = queue.snapshot().getMod(modId);
         if (this.mod == null) {
-            try {
-                this.mod = manager.getModById(modId);
-            } catch (Exception e) {
-                showError("Could not find Mod: " + modId, e);
-                mod = null;
-            }
+            showError("Could not find Mod: " + modId);
+            return;
         }
         HashMap<String, String> modData = (HashMap<String, String>) MapUtil.toStringOnlyMap(mod.toMap());
 
@@ -116,33 +115,37 @@ public class EditModView extends FormView {
             return;
 
         try {
-            ModManager manager = new ModManager(AppState.getInstance().getCurrentGame());
+            final String modId = mod.getId();
+            final HashMap<String, Object> answers = (HashMap<String, Object>) formPanel.getAnswers();
 
             if (isUpdate) { // Update mode
                 showConsole();
-                SwingWorker<Void, String> worker = new SwingWorker<Void, String>() {
-                    @Override
-                    protected Void doInBackground() throws Exception { // long-running task
-                        Path files = null;
-                        if (formPanel.getAnswers().containsKey("pathToFiles"))
-                            files = Path.of(formPanel.getAnswers().get("pathToFiles").toString());
-
-                        manager.updateMod(mod.getId(), files, (HashMap<String, Object>) formPanel.getAnswers());
+                final Path files = answers.containsKey("pathToFiles")
+                        ? Path.of(answers.get("pathToFiles").toString())
+                        : null;
+                // long-running task
+                cancelFromConsole(runTask(Priority.OPERATION, queue.getGame().getStoreDirectory(), () -> {
+                    queue.submit(m -> {
+                        m.updateMod(modId, files, answers);
                         return null;
-                    }
-
-                    @Override
-                    protected void done() { // Task completed - update GUI state
-                        finishConsole();
-                        navigator.goBack();
-                    }
-                };
-                worker.execute();
+                    }).get();
+                    return null;
+                }, (v, e) -> { // Task completed - update GUI state
+                    finishConsole();
+                    navigator.goBack();
+                }));
 
             } else { // Edit mode
-                System.out.println("Saving mod with edits: " + formPanel.getAnswers().toString());
-                manager.editMod(mod.getId(), (HashMap<String, Object>) formPanel.getAnswers());
-                navigator.goBack();
+                System.out.println("Saving mod with edits: " + answers.toString());
+                queue.submit(m -> {
+                    m.editMod(modId, answers);
+                    return null;
+                }).whenComplete((v, e) -> {
+                    if (e != null)
+                        SwingUtilities.invokeLater(() -> showError("Failed to edit Mod: " + e.getMessage(),
+                                e instanceof Exception ex ? ex : null));
+                });
+                navigator.goBack(); // the Mod list waits for the edit
             }
         } catch (Exception e) {
             showError("Failed to compile Mod: " + e.getMessage(), e);
@@ -154,7 +157,11 @@ public class EditModView extends FormView {
         if (!confirm("Are you sure you want to delete Mod: " + mod.getName() + "?"))
             return;
         try {
-            manager.deleteMod(mod.getId());
+            final String modId = mod.getId();
+            queue.submit(m -> {
+                m.deleteMod(modId);
+                return null;
+            }).get();
 
         } catch (Exception e) {
             showError("Could not delete Mod " + mod.getId() + " -> " + e.getMessage(), e);
@@ -9,6 +9,8 @@ import java.awt.*;
 import java.time.LocalDate;
 import java.util.*;
 import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletionException;
 import java.util.stream.Collectors;
 
 import gui.navigator.AppNavigator;
@@ -21,7 +23,11 @@ import gui.components.DividerCard;
 import core.config.AppConfig;
 import core.config.AppPreferences;
 import core.config.AppPreferences.properties;
-import core.managers.ModManager;
+import core.managers.ChangeCoalescer;
+import core.managers.GameQueue;
+import core.managers.TaskScheduler;
+import core.managers.TaskScheduler.Priority;
+import core.managers.TrashMaintenance;
 import core.objects.GameState;
 import core.objects.Mod;
 import core.utils.Logger;
@@ -36,8 +42,10 @@ import core.utils.TrashUtil;
  */
 public class ModManagerView extends BaseView {
     // Globals
-    private final ModManager manager;
+    private final GameQueue queue; // the Game's only writer, shared by all views
+    private final ChangeCoalescer live; // applies toggles and moves when live apply is on
     private boolean modsLoading = false;
+    private TaskScheduler.Task<Void> filterTask; // latest filtering, cancelled by the next
     private final Logger log = Logger.getInstance();
 
     // UI Components
@@ -63,7 +71,8 @@ public class ModManagerView extends BaseView {
 
     public ModManagerView(AppNavigator navigator, Map<String, Object> params) {
         // this.game = AppState.getInstance().getCurrentGame();
-        this.manager = new ModManager(AppState.getInstance().getCurrentGame());
+        this.queue = GameQueue.of(AppState.getInstance().getCurrentGame());
+        this.live = ChangeCoalescer.of(AppState.getInstance().getCurrentGame());
         super(navigator, params);
     }
 
@@ -220,7 +229,7 @@ public class ModManagerView extends BaseView {
     protected void setupEventHandlers() {
         // Navigation
         goBackButton.addActionListener(e -> navigator.navigateTo("library"));
-        compileNewButton.addActionListener(e -> navigator.navigateTo("compileMod", Map.of("game", manager)));
+        compileNewButton.addActionListener(e -> navigator.navigateTo("compileMod"));
 
         // Apply changes
         applyButton.addActionListener(e -> applyChanges());
@@ -262,106 +271,80 @@ public class ModManagerView extends BaseView {
 
         // Load all mods for this game. No need to reload.
         if (allMods == null) {
-            modsLoading = true;
-            // Async / background loading of all Mods when needed.
-            SwingWorker<List<Mod>, Void> worker = new SwingWorker<>() {
-                @Override
-                protected List<Mod> doInBackground() throws Exception {
-                    return manager.getAllMods();
-                }
-
-                @Override
-                protected void done() {
-                    try {
-                        allMods = get();
-                    } catch (Exception e) {
-                        allMods = new ArrayList<>();
-                    }
-
-                    // Listen for property changes (including state changes)
-                    addPropertyChangeListener(evt -> {
-                        if ("state".equals(evt.getPropertyName())
-                                && evt.getNewValue() == SwingWorker.StateValue.DONE) {
-
-                            SwingUtilities.invokeLater(() -> {
-                                modsLoading = false;
-                                loadMods();
-                            });
-                        }
-                    });
-                }
-            };
-            worker.execute();
-            modListPanel.removeAll();
-            modListPanel.add(new DividerCard("Loading...", Color.GRAY)); // show while loading.
-            return; // don't procceed further because of loading
+            GameQueue.Snapshot snapshot = queue.snapshot(); // as of the last run, not waiting on queued ones
+            if (snapshot.getVersion() > 0) {
+                allMods = snapshot.getMods();
+            } else {
+                modsLoading = true;
+                // None taken yet, the first is queued. Never wait for it here, this is the EDT.
+                queue.refresh().whenComplete((taken, e) -> SwingUtilities.invokeLater(() -> {
+                    allMods = e == null ? taken.getMods() : new ArrayList<>();
+                    modsLoading = false;
+                    loadMods();
+                }));
+                modListPanel.removeAll();
+                modListPanel.add(new DividerCard("Loading...", Color.GRAY)); // show while loading.
+                return; // don't procceed further because of loading
+            }
         }
 
-        SwingWorker<Void, List<Mod>> worker = new SwingWorker<>() {
-
-            @Override
-            protected Void doInBackground() throws Exception {
-                try {
-                    /// Filters
-                    String statusFilter = (String) filterStatusComboBox.getSelectedItem();
-                    String nameFilter = filterNameTextField.getText().toLowerCase();
-                    String tagsFilter = filterTagsTextField.getText().toLowerCase();
-                    // Parse tags
-                    Set<String> tagFilters = Arrays.stream(tagsFilter.split(","))
-                            .map(String::trim)
-                            .filter(s -> !s.isEmpty())
-                            .collect(Collectors.toSet());
-
-                    // Logging for future testing.
-                    log.info(0, null,
-                            "Filteres aplied: \n\tStatus: " + statusFilter
-                                    + "\n\tName: " + nameFilter
-                                    + "\n\tTags: " + tagFilters.toString());
-
-                    /// Separate enabled/disabled
-                    enabledMods = allMods.stream()
-                            .filter(Mod::isEnabled)
-                            .sorted(Comparator.comparingInt(Mod::getLoadOrder))
-                            .collect(Collectors.toList());
-
-                    disabledMods = allMods.stream()
-                            .filter(m -> !m.isEnabled())
-                            .sorted(Comparator.comparing(Mod::getName))
-                            .collect(Collectors.toList());
-
-                    allMods.clear(); // recombine allMods to now be made of the pre-sorted sections.
-                    allMods.addAll(enabledMods);
-                    allMods.addAll(disabledMods);
-
-                    /// Filter enabled mods
-                    enabledMods = enabledMods.stream()
-                            .filter(mod -> matchesStatus(mod, statusFilter))
-                            .filter(mod -> matchesName(mod, nameFilter))
-                            .filter(mod -> matchesTags(mod, tagFilters))
-                            .collect(Collectors.toList());
-                    disabledMods = disabledMods.stream()
-                            .filter(mod -> matchesStatus(mod, statusFilter))
-                            .filter(mod -> matchesName(mod, nameFilter))
-                            .filter(mod -> matchesTags(mod, tagFilters))
-                            .collect(Collectors.toList());
-
-                    publish(allMods, enabledMods, disabledMods); // required!
-
-                } catch (Exception e) {
-                    showError("Failed to load mods: " + e.getMessage(), e);
-                    enabledMods = new ArrayList<>();
-                    disabledMods = new ArrayList<>();
-                }
-                return null;
+        if (filterTask != null)
+            filterTask.cancel(true); // only the latest filters are shown
+        filterTask = runTask(Priority.INTERACTIVE, null, () -> {
+            try {
+                /// Filters
+                String statusFilter = (String) filterStatusComboBox.getSelectedItem();
+                String nameFilter = filterNameTextField.getText().toLowerCase();
+                String tagsFilter = filterTagsTextField.getText().toLowerCase();
+                // Parse tags
+                Set<String> tagFilters = Arrays.stream(tagsFilter.split(","))
+                        .map(String::trim)
+                        .filter(s -> !s.isEmpty())
+                        .collect(Collectors.toSet());
+
+                // Logging for future testing.
+                log.info(0, null,
+                        "Filteres aplied: \n\tStatus: " + statusFilter
+                                + "\n\tName: " + nameFilter
+                                + "\n\tTags: " + tagFilters.toString());
+
+                /// Separate enabled/disabled
+                enabledMods = allMods.stream()
+                        .filter(Mod::isEnabled)
+                        .sorted(Comparator.comparingInt(Mod::getLoadOrder))
+                        .collect(Collectors.toList());
+
+                disabledMods = allMods.stream()
+                        .filter(m -> !m.isEnabled())
+                        .sorted(Comparator.comparing(Mod::getName))
+                        .collect(Collectors.toList());
+
+                allMods.clear(); // recombine allMods to now be made of the pre-sorted sections.
+                allMods.addAll(enabledMods);
+                allMods.addAll(disabledMods);
+
+                /// Filter enabled mods
+                enabledMods = enabledMods.stream()
+                        .filter(mod -> matchesStatus(mod, statusFilter))
+                        .filter(mod -> matchesName(mod, nameFilter))
+                        .filter(mod -> matchesTags(mod, tagFilters))
+                        .collect(Collectors.toList());
+                disabledMods = disabledMods.stream()
+                        .filter(mod -> matchesStatus(mod, statusFilter))
+                        .filter(mod -> matchesName(mod, nameFilter))
+                        .filter(mod -> matchesTags(mod, tagFilters))
+                        .collect(Collectors.toList());
+
+            } catch (Exception e) {
+                SwingUtilities.invokeLater(() -> showError("Failed to load mods: " + e.getMessage(), e));
+                enabledMods = new ArrayList<>();
+                disabledMods = new ArrayList<>();
             }
-
-            @Override
-            protected void process(List<List<Mod>> chunks) {
+            return null;
+        }, (v, e) -> {
+            if (!(e instanceof CancellationException))
                 displayModList(); // This populates modListPanel and repaints once all the processing is done.
-            }
-
-        };
-        worker.execute();
+        });
     } // loadMods()
 
     /**
@@ -452,6 +435,7 @@ public class ModManagerView extends BaseView {
                     break;
                 }
             }
+            applyLive();
             loadMods(); // Reload to get new order
         } catch (Exception e) {
             showError("Failed to update load order: " + e.getMessage(), e);
@@ -525,6 +509,7 @@ public class ModManagerView extends BaseView {
 
             if (targetMod != null && !targetMod.getId().equals(draggedMod.getId())) {
                 moveDraggedMod(draggedMod, targetMod); // Move draggedMod to position before targetMod in allMods
+                applyLive();
                 loadMods(); // Refresh display
             }
         }
@@ -634,23 +619,48 @@ public class ModManagerView extends BaseView {
     /// /// /// Button Events /// /// ///
 
     private void toEditModPage(Mod mod) {
-        try {
-            AppState.getInstance().setCurrentMod(manager.getModById(mod.getId())); // Fetch the original for editting.
-            navigator.navigateTo("editMod", Map.of("modId", mod.getId()));
-        } catch (Exception e) {
-            showError("Could not load Mod to edit", e);
+        // Fetch the original for editting, as last committed.
+        Mod original = queue.snapshot().getMod(mod.getId());
+        if (original == null) {
+            showError("Could not load Mod to edit: " + mod.getId());
+            return;
         }
+        AppState.getInstance().setCurrentMod(original);
+        navigator.navigateTo("editMod", Map.of("modId", mod.getId()));
     }
 
     private void toggleMod(Mod mod) {
         try {
             mod.setEnabled(!mod.isEnabled());
+            applyLive();
             loadMods(); // Reload to update.
         } catch (Exception e) {
             showError("Failed to toggle mod: " + e.getMessage(), e);
         }
     }
 
+    /**
+     * With live apply on, stages the Mod list as shown. Changes made in quick
+     * succession are applied together, see {@link ChangeCoalescer}.
+     */
+    private void applyLive() {
+        if (!AppConfig.getInstance().preferences.is(properties.LIVE_APPLY))
+            return;
+        normaliseLoadOrder(); // clean up load order values
+        live.stage(allMods).whenComplete((diff, e) -> SwingUtilities.invokeLater(() -> {
+            if (e != null) {
+                // futures chained off the queue's wrap what the deploy threw
+                Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+                showError("Failed to apply changes: " + cause.getMessage(),
+                        cause instanceof Exception ex ? ex : null);
+                allMods = null; // re-read what was applied
+                loadMods();
+            } else if (!diff.isEmpty() && TrashMaintenance.isEnabled()) {
+                TrashMaintenance.getInstance().wake(); // cleans in the background
+            }
+        }));
+    }
+
     /**
      * Apply all changes to the current GameState and rebuild.
      */
@@ -667,56 +677,55 @@ public class ModManagerView extends BaseView {
 
             // Apply to Game
             showConsole();
-            SwingWorker<Void, String> worker = new SwingWorker<Void, String>() {
-                @Override
-                protected Void doInBackground() throws Exception { // long-running task
-                    manager.deployGameState(gameState);
-
-                    // check for trash size limit warning
-                    int warning = AppConfig.getInstance().preferences
-                            .getAsInt(AppPreferences.properties.TRASH_SIZE_WARNING);
-                    if (warning != 0) {
-
-                        long trashLimit = AppConfig.getInstance().preferences
-                                .getAsInt(AppPreferences.properties.TRASH_SIZE_LIMIT);
-                        float trashSize = TrashUtil
-                                .megabyte(TrashUtil.getDiskSize(AppConfig.getInstance().getTrashDir()));
-
-                        if (trashLimit <= trashSize) {
-
-                            if (warning == 1) { // 1. log warning
-                                log.info(0, "ALERT: Trash Size limit of " + trashLimit + "MB has been reached!");
-                            } else if (warning == 2) { // 2. prompt
-                                // popup with options to clean trash
-
-                                int daysOld = AppConfig.getInstance().preferences.getAsInt(properties.TRASH_DAYS_OLD);
-                                String msg = String.format(
-                                        "Your trash disk-size is %.2fMB out of your limit of %dMB\nWould you like to clean now?",
-                                        trashSize, trashLimit);
-
-                                int result = JOptionPane.showConfirmDialog(
-                                        navigator.getMainFrame(), msg, "Trash Limit warning",
-                                        JOptionPane.YES_NO_OPTION,
-                                        JOptionPane.WARNING_MESSAGE);
-                                if (result == JOptionPane.YES_OPTION) {
-                                    TrashUtil.cleanTrash(trashLimit, LocalDate.now().minusDays(daysOld));
-                                }
-                            }
-                        } // if limit reached
-                    } // if warning not off
+            // long-running task
+            cancelFromConsole(runTask(Priority.OPERATION, queue.getGame().getInstallDirectory(), () -> {
+                queue.submit(m -> {
+                    m.deployGameState(gameState);
                     return null;
-                }
-
-                @Override
-                protected void done() { // Task completed - update GUI state
-                    // forces a complete re-read
-                    allMods = null; // do not use .clear().
-                    // Need the distinction between empty and null!
-                    loadMods();
-                    finishConsole();
-                }
-            };
-            worker.execute();
+                }).get();
+
+                // check for trash size limit warning
+                int warning = AppConfig.getInstance().preferences
+                        .getAsInt(AppPreferences.properties.TRASH_SIZE_WARNING);
+                if (warning == TrashMaintenance.AUTO_CLEAN) {
+                    TrashMaintenance.getInstance().wake(); // cleans in the background
+                } else if (warning != 0) {
+
+                    long trashLimit = AppConfig.getInstance().preferences
+                            .getAsInt(AppPreferences.properties.TRASH_SIZE_LIMIT);
+                    float trashSize = TrashUtil
+                            .megabyte(TrashUtil.getTrashSize());
+
+                    if (trashLimit <= trashSize) {
+
+                        if (warning == 1) { // 1. log warning
+                            log.info(0, "ALERT: Trash Size limit of " + trashLimit + "MB has been reached!");
+                        } else if (warning == 2) { // 2. prompt
+                            // popup with options to clean trash
+
+                            int daysOld = AppConfig.getInstance().preferences.getAsInt(properties.TRASH_DAYS_OLD);
+                            String msg = String.format(
+                                    "Your trash disk-size is %.2fMB out of your limit of %dMB\nWould you like to clean now?",
+                                    trashSize, trashLimit);
+
+                            int result = JOptionPane.showConfirmDialog(
+                                    navigator.getMainFrame(), msg, "Trash Limit warning",
+                                    JOptionPane.YES_NO_OPTION,
+                                    JOptionPane.WARNING_MESSAGE);
+                            if (result == JOptionPane.YES_OPTION) {
+                                TrashUtil.cleanTrash(trashLimit, LocalDate.now().minusDays(daysOld));
+                            }
+                        }
+                    } // if limit reached
+                } // if warning not off
+                return null;
+            }, (v, e) -> { // Task completed - update GUI state
+                // forces a complete re-read
+                allMods = null; // do not use .clear().
+                // Need the distinction between empty and null!
+                loadMods();
+                finishConsole();
+            }));
 
         } catch (Exception e) {
             showError("Failed to apply changes: " + e.getMessage(), e);
@@ -13,6 +13,10 @@ import gui.util.ToastNotification;
 import core.config.AppConfig;
 //import core.config.AppPreferences;
 import core.config.AppPreferences.properties;
+import core.managers.StorageCollector;
+import core.managers.TaskScheduler;
+import core.managers.TaskScheduler.Priority;
+import core.managers.TrashMaintenance;
 import core.utils.Logger;
 import core.utils.TrashUtil;
 
@@ -26,6 +30,7 @@ import java.awt.Insets;
 import java.io.IOException;
 import java.time.LocalDate;
 import java.util.*;
+import java.util.function.Consumer;
 
 import javax.swing.BorderFactory;
 import javax.swing.JButton;
@@ -36,7 +41,7 @@ import javax.swing.JPanel;
 import javax.swing.JProgressBar;
 import javax.swing.JSpinner;
 import javax.swing.SpinnerNumberModel;
-import javax.swing.SwingWorker;
+import javax.swing.SwingUtilities;
 
 /**
  * Read an exsisting Game.json to auto-populate data and allow editting.
@@ -95,7 +100,11 @@ public class SettingsView extends FormView {
             key = AppConfig.prefsPrefix + properties.NORMALISE_BY_GROUP.key();
             config.preferences.set(properties.NORMALISE_BY_GROUP.key(), map.get(key).equals("true"));
 
+            key = AppConfig.prefsPrefix + properties.LIVE_APPLY.key();
+            config.preferences.set(properties.LIVE_APPLY.key(), map.get(key).equals("true"));
+
             config.updateAndSaveConfig(map);
+            TrashMaintenance.getInstance().wake(); // limits or auto cleaning may have changed
             ToastNotification.showNotification(navigator.getMainFrame(), "Settings saved successfully!");
 
             // loadExistingData();
@@ -119,7 +128,15 @@ public class SettingsView extends FormView {
     }
 
     private JLabel trashSizeLabel;
+    private JLabel maintenanceLabel;
     private JProgressBar trashUsageBar;
+    private TaskScheduler.Task<Long> trashSizeTask; // latest size walk, cancelled by the next
+    private final Consumer<TrashMaintenance.Status> maintenanceListener = status -> SwingUtilities
+            .invokeLater(() -> {
+                maintenanceLabel.setText(status.toString());
+                if (!status.isRunning())
+                    updateTrashSize();
+            });
     private JSpinner maxSizeSpinner;
     private JSpinner daysToKeepSpinner;
 
@@ -142,9 +159,14 @@ public class SettingsView extends FormView {
         trashUsageBar.setStringPainted(true);
         trashPanel.add(trashUsageBar, gbc);
 
+        gbc.gridy = 2;
+        maintenanceLabel = new JLabel(TrashMaintenance.getInstance().getStatus().toString());
+        maintenanceLabel.setToolTipText("Set the trash size limit warning to \"Auto clean\" to clean in the background");
+        trashPanel.add(maintenanceLabel, gbc);
+
         // Configuration
         gbc.gridwidth = 1;
-        gbc.gridy = 2;
+        gbc.gridy = 3;
         trashPanel.add(new JLabel("Max trash size (MB):"), gbc);
 
         gbc.gridx = 1;
@@ -154,7 +176,7 @@ public class SettingsView extends FormView {
         trashPanel.add(maxSizeSpinner, gbc);
 
         gbc.gridx = 0;
-        gbc.gridy = 3;
+        gbc.gridy = 4;
         trashPanel.add(new JLabel("Keep files for (days):"), gbc);
 
         gbc.gridx = 1;
@@ -165,7 +187,7 @@ public class SettingsView extends FormView {
 
         // Action buttons
         gbc.gridx = 0;
-        gbc.gridy = 4;
+        gbc.gridy = 5;
         gbc.gridwidth = 2;
         JPanel buttonPanel = new JPanel(new FlowLayout(FlowLayout.CENTER, 10, 0));
 
@@ -179,9 +201,14 @@ public class SettingsView extends FormView {
         JButton openFolderButton = new JButton("Open Trash Folder");
         openFolderButton.addActionListener(e -> openTrashFolder());
 
+        JButton reclaimButton = new JButton("Reclaim Storage");
+        reclaimButton.setToolTipText("Remove storage no Mod or Game uses anymore");
+        reclaimButton.addActionListener(e -> reclaimStorage());
+
         buttonPanel.add(cleanNowButton);
         buttonPanel.add(emptyNowButton);
         buttonPanel.add(openFolderButton);
+        buttonPanel.add(reclaimButton);
 
         trashPanel.add(buttonPanel, gbc);
 
@@ -189,29 +216,36 @@ public class SettingsView extends FormView {
         return trashPanel;
     }
 
-    private void updateTrashSize() {
-        SwingWorker<Void, String> worker = new SwingWorker<>() {
-            @Override
-            protected Void doInBackground() throws Exception {
-                Logger.getInstance().info(0, null, "trash size requested");
-                long sizeBytes = TrashUtil.getDiskSize(config.getTrashDir());
-                float sizeMB = sizeBytes / (1024f * 1024f);
-
-                Float progress = (sizeMB / Integer.parseInt(maxSizeSpinner.getValue().toString()))
-                        * trashUsageBar.getMaximum();
-
-                trashUsageBar.setValue(progress.intValue());
-                publish(String.format("Trash size: %.2f MB", sizeMB));
-                return null;
-            }
+    @Override
+    public void addNotify() {
+        super.addNotify();
+        TrashMaintenance.getInstance().addListener(maintenanceListener);
+    }
 
-            @Override
-            protected void process(List<String> chunks) {
-                Logger.getInstance().info(0, null, "trash size returned");
-                trashSizeLabel.setText(chunks.get(chunks.size() - 1));
-            }
-        };
-        worker.execute();
+    @Override
+    public void removeNotify() {
+        TrashMaintenance.getInstance().removeListener(maintenanceListener);
+        if (trashSizeTask != null)
+            trashSizeTask.cancel(true);
+        super.removeNotify();
+    }
+
+    private void updateTrashSize() {
+        if (trashSizeTask != null)
+            trashSizeTask.cancel(true); // only the latest is shown
+        Logger.getInstance().info(0, null, "trash size requested");
+        trashSizeTask = runTask(Priority.BACKGROUND, config.getTrashDir(), TrashUtil::getTrashSize, (sizeBytes, e) -> {
+            if (e != null)
+                return; // cancelled or failed, left as it was
+            Logger.getInstance().info(0, null, "trash size returned");
+            float sizeMB = sizeBytes / (1024f * 1024f);
+
+            Float progress = (sizeMB / Integer.parseInt(maxSizeSpinner.getValue().toString()))
+                    * trashUsageBar.getMaximum();
+
+            trashUsageBar.setValue(progress.intValue());
+            trashSizeLabel.setText(String.format("Trash size: %.2f MB", sizeMB));
+        });
     }
 
     /// /// /// Button logic /// /// ///
@@ -223,24 +257,16 @@ public class SettingsView extends FormView {
             int days = (Integer) daysToKeepSpinner.getValue();
             LocalDate cutoff = LocalDate.now().minusDays(days);
 
-            SwingWorker<Void, String> worker = new SwingWorker<Void, String>() {
-                @Override
-                protected Void doInBackground() throws Exception { // long-running task
-                    TrashUtil.cleanTrash(maxMB, cutoff);
-                    return null;
-                }
-
-                @Override
-                protected void done() { // Task completed - update GUI state
-                    updateTrashSize();
-                    finishConsole();
-                }
-            };
-            worker.execute();
+            cancelFromConsole(runTask(Priority.OPERATION, config.getTrashDir(), () -> { // long-running task
+                TrashUtil.cleanTrash(maxMB, cutoff);
+                return null;
+            }, (v, e) -> { // Task completed - update GUI state
+                updateTrashSize();
+                finishConsole();
+            }));
 
         } catch (Exception e) {
             showError("Failed to clean trash", e);
-        } finally {
             finishConsole();
         }
     } // cleanTrash()
@@ -266,6 +292,19 @@ public class SettingsView extends FormView {
         }
     } // emptyTrash()
 
+    private void reclaimStorage() {
+        showConsole();
+        runTask(Priority.OPERATION, null, () -> new StorageCollector().collect(), // long-running task
+                (report, e) -> {
+                    if (e == null)
+                        ToastNotification.showNotification(navigator.getMainFrame(), report.toString());
+                    else
+                        showError("Failed to reclaim storage", e);
+                    updateTrashSize();
+                    finishConsole();
+                });
+    } // reclaimStorage()
+
     private void openTrashFolder() {
         try {
             Desktop.getDesktop().open(config.getTrashDir().toFile());
@@ -0,0 +1,133 @@
+/**
+ * Author Stephanos B
+ * Date 19/10/2026
+ */
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import core.managers.ChangeCoalescer;
+import core.managers.GameQueue;
+import core.objects.Game;
+import core.objects.GameState;
+import core.objects.GameStateSnapshot;
+import core.objects.Mod;
+import core.utils.FileUtil;
+
+/**
+ * Tests live apply: Mod toggles and moves staged together are applied as one
+ * deploy of only what changed.
+ *
+ * @since v4.0.5
+ */
+public class CoalescerTest {
+
+    private static final Path root = Path.of("test_coalescer_fs").toAbsolutePath();
+
+    public static void testCoalescing() throws Exception {
+        System.out.println("=== Testing Change Coalescing ===");
+        Game game = newGame("coalesce");
+        GameQueue queue = GameQueue.of(game);
+        Mod a = compile(queue, "Alpha", "a.txt");
+        Mod b = compile(queue, "Beta", "b.txt");
+        Mod c = compile(queue, "Gamma", "c.txt");
+        deploy(queue, staged(a, true, 1), staged(b, true, 2));
+        ChangeCoalescer live = ChangeCoalescer.of(game).setWindow(60_000, 60_000); // only applied on flush
+
+        System.out.print("Test 1 - Toggle then untoggle cancels out: ");
+        live.stage(List.of(staged(c, true, 3)));
+        live.stage(List.of(staged(c, false, 3)));
+        GameStateSnapshot.Diff diff = get(live.flush());
+        assertTrue(diff.isEmpty() && !committed(queue).containsMod(c.getId())
+                && !Files.exists(game.getInstallDirectory().resolve("c.txt")), "Should leave the Game untouched");
+
+        System.out.print("Test 2 - Last move wins: ");
+        live.stage(List.of(staged(a, true, 5)));
+        live.stage(List.of(staged(a, true, 7)));
+        diff = get(live.flush());
+        assertTrue(diff.getReordered().size() == 1 && committed(queue).get(a.getId()).getLoadOrder() == 7,
+                "Should deploy the Mod at its last load order");
+
+        System.out.print("Test 3 - Toggle and move merged into one deploy: ");
+        long version = queue.snapshot().getVersion();
+        CompletableFuture<GameStateSnapshot.Diff> toggled = live.stage(List.of(staged(c, true, 3)));
+        CompletableFuture<GameStateSnapshot.Diff> moved = live.stage(List.of(staged(b, true, 9)));
+        diff = get(live.flush());
+        assertTrue(toggled == moved && diff.getAdded().size() == 1 && diff.getReordered().size() == 1
+                && queue.snapshot().getVersion() == version + 1
+                && Files.exists(game.getInstallDirectory().resolve("c.txt")),
+                "Should apply both in one queue run");
+
+        System.out.println("=== Coalescing tests passed! ===");
+    }
+
+    /// /// /// Helpers /// /// ///
+
+    private static Mod compile(GameQueue queue, String name, String file) throws Exception {
+        Path src = root.resolve("src_" + name);
+        Files.createDirectories(src);
+        Files.writeString(src.resolve(file), name);
+        Map<String, Object> meta = new HashMap<>(Map.of("name", name, "version", "1.0", "loadOrder", "1"));
+        return get(queue.submit(m -> m.compileMod(src, meta))).getAsMod();
+    }
+
+    private static void deploy(GameQueue queue, Mod... mods) throws Exception {
+        GameState state = new GameState();
+        state.setDeployedMods(List.of(mods));
+        get(queue.submit(m -> {
+            m.deployGameState(state);
+            return null;
+        }));
+    }
+
+    /**
+     * @return A copy of the Mod as the Mod list would stage it.
+     */
+    private static Mod staged(Mod mod, boolean enabled, int loadOrder) {
+        Mod copy = new Mod().setFromMap(mod.toMap());
+        copy.setEnabled(enabled);
+        copy.setLoadOrder(loadOrder);
+        return copy;
+    }
+
+    private static GameStateSnapshot committed(GameQueue queue) throws Exception {
+        return get(queue.refresh()).getState();
+    }
+
+    private static <T> T get(CompletableFuture<T> future) throws Exception {
+        return future.get(30, TimeUnit.SECONDS);
+    }
+
+    private static Game newGame(String name) throws IOException {
+        Path dir = root.resolve(name);
+        Files.createDirectories(dir.resolve("game"));
+        Files.createDirectories(dir.resolve("store"));
+        return new Game("test_" + name, "1", "Test " + name, dir.resolve("game"), dir.resolve("store"));
+    }
+
+    private static void assertTrue(boolean condition, String message) {
+        if (condition) {
+            System.out.println("✓ PASS: " + message);
+        } else {
+            System.out.println("✗ FAIL: " + message);
+            throw new AssertionError(message);
+        }
+    }
+
+    public static void main(String[] args) {
+        try {
+            FileUtil.deleteDirectory(root);
+            testCoalescing();
+            FileUtil.deleteDirectory(root);
+        } catch (Exception e) {
+            e.printStackTrace();
+            System.exit(1);
+        }
+    }
+} // Class
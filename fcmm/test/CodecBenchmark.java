@@ -0,0 +1,182 @@
+/**
+ * Date 19/10/2026
+ */
+
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+
+import com.github.cliftonlabs.json_simple.JsonObject;
+import com.github.cliftonlabs.json_simple.Jsoner;
+
+import core.interfaces.MapSerializable;
+import core.io.JsonIO;
+import core.io.JsonReader;
+import core.objects.ModContents;
+import core.objects.ModFile;
+import core.objects.ModManifest;
+
+/**
+ * Compares the old json-simple + setFromMap() read path with the typed codecs
+ * JsonIO now uses. Checks both produce the same Manifest, then prints average
+ * parse time and bytes allocated per read, and the memory a loaded file list
+ * keeps as ModFile objects compared to {@link ModContents}.
+ * <br>
+ * JMH is not a dependency of this project, so this is a plain warm-up + timed
+ * loop. Treat the numbers as relative, not absolute.
+ *
+ * @since v4.0.5
+ */
+public class CodecBenchmark {
+
+    private static final int FILE_COUNT = 50_000;
+    private static final int WARMUP = 5;
+    private static final int RUNS = 10;
+
+    public static void main(String[] args) throws Exception {
+        Path dir = Files.createTempDirectory("fcmm_codec");
+        Path manPath = dir.resolve("large_manifest.json");
+
+        ModManifest manifest = new ModManifest("bench_game");
+        manifest.setName("Large Benchmark Mod");
+        ModFile[] files = new ModFile[FILE_COUNT];
+        for (int i = 0; i < FILE_COUNT; i++) {
+            files[i] = new ModFile(Path.of("data", "dir_" + (i % 100), "file_" + i + ".bin"),
+                    String.format("%032x", (long) i * 2654435761L), 1024L + i);
+        }
+        manifest.setContentsArr(files);
+        writeLegacy(manifest, manPath); // single-file form, which both paths can read
+        System.out.printf("Manifest: %d files, %d KB%n", FILE_COUNT, Files.size(manPath) / 1024);
+
+        /// Same result check
+        ModManifest legacy = readLegacy(manPath);
+        ModManifest typed = (ModManifest) JsonIO.read(manPath.toFile(), MapSerializable.ObjectTypes.MOD_MANIFEST);
+        System.out.print("Same Manifest: ");
+        assertTrue(legacy.toString().equals(typed.toString()), "Both paths should read the same Manifest");
+
+        System.out.print("Bad separators refused: ");
+        assertTrue(rejects("{\"a\":1,,\"b\":2}") && rejects("{\"a\":1 \"b\":2}") && rejects("[1,,2]")
+                && rejects("[1 2]") && rejects("[,1]") && rejects("[1,]") && !rejects("[1, {\"a\": []}]"),
+                "Should refuse a missing, doubled, leading or trailing comma");
+
+        /// Timing
+        for (int i = 0; i < WARMUP; i++) {
+            readLegacy(manPath);
+            JsonIO.read(manPath.toFile(), MapSerializable.ObjectTypes.MOD_MANIFEST);
+        }
+
+        long[] legacyStats = measure(() -> readLegacy(manPath));
+        long[] typedStats = measure(
+                () -> JsonIO.read(manPath.toFile(), MapSerializable.ObjectTypes.MOD_MANIFEST));
+
+        System.out.printf("%-20s %10s %14s%n", "Path", "ms/read", "KB alloc/read");
+        System.out.printf("%-20s %10.2f %14d%n", "json-simple + Map", legacyStats[0] / 1e6, legacyStats[1] / 1024);
+        System.out.printf("%-20s %10.2f %14d%n", "typed codec", typedStats[0] / 1e6, typedStats[1] / 1024);
+
+        /// Retained memory of the file list
+        Object[] held = new Object[2];
+        long objectBytes = retained(() -> {
+            ModFile[] plain = new ModFile[FILE_COUNT];
+            int i = 0;
+            for (ModFile mf : typed.getContents())
+                plain[i++] = new ModFile(mf.getFilePath(), mf.getHash(), mf.getSize());
+            held[0] = plain;
+        });
+        long columnBytes = retained(() -> held[1] = new ModContents((ModFile[]) held[0]));
+        System.out.printf("%-20s %14s%n", "File list", "KB retained");
+        System.out.printf("%-20s %14d%n", "ModFile[]", objectBytes / 1024);
+        System.out.printf("%-20s %14d%n", "ModContents", columnBytes / 1024);
+
+        Files.deleteIfExists(manPath);
+        Files.deleteIfExists(dir);
+    } // main()
+
+    /**
+     * @return Change in used heap across the task, after forcing GC.
+     */
+    private static long retained(Runnable task) throws InterruptedException {
+        long before = usedHeap();
+        task.run();
+        return usedHeap() - before;
+    }
+
+    private static long usedHeap() throws InterruptedException {
+        Runtime rt = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+            Thread.sleep(50);
+        }
+        return rt.totalMemory() - rt.freeMemory();
+    }
+
+    /**
+     * The write path JsonIO used before the typed codecs, with the files inline.
+     */
+    private static void writeLegacy(ModManifest manifest, Path path) throws Exception {
+        Map<String, Object> map = manifest.toMap();
+        map.put(MapSerializable.ObjectTypeKey, manifest.getObjectType());
+        try (FileWriter writer = new FileWriter(path.toFile())) {
+            Jsoner.serialize(new JsonObject(map), writer);
+        }
+    }
+
+    /**
+     * The read path JsonIO used before the typed codecs.
+     */
+    @SuppressWarnings("unchecked")
+    private static ModManifest readLegacy(Path path) throws Exception {
+        try (FileReader fileReader = new FileReader(path.toFile())) {
+            JsonObject json = (JsonObject) Jsoner.deserialize(fileReader);
+            return new ModManifest().setFromMap((Map<String, Object>) json);
+        }
+    }
+
+    /**
+     * @return True if the typed codec refuses the JSON.
+     */
+    private static boolean rejects(String json) {
+        try {
+            new JsonReader(json).skipValue();
+            return false;
+        } catch (IOException e) {
+            return true;
+        }
+    }
+
+    /**
+     * @return [average nanos, average bytes allocated] per run.
+     */
+    private static long[] measure(ThrowingRunnable task) throws Exception {
+        com.sun.management.ThreadMXBean bean = (com.sun.management.ThreadMXBean) ManagementFactory
+                .getThreadMXBean();
+        long threadId = Thread.currentThread().threadId();
+
+        long allocStart = bean.getThreadAllocatedBytes(threadId);
+        long start = System.nanoTime();
+        for (int i = 0; i < RUNS; i++) {
+            task.run();
+        }
+        long elapsed = System.nanoTime() - start;
+        long alloc = bean.getThreadAllocatedBytes(threadId) - allocStart;
+        return new long[] { elapsed / RUNS, alloc / RUNS };
+    }
+
+    @FunctionalInterface
+    private interface ThrowingRunnable {
+        void run() throws Exception;
+    }
+
+    private static void assertTrue(boolean condition, String message) {
+        if (condition) {
+            System.out.println("✓ PASS: " + message);
+        } else {
+            System.out.println("✗ FAIL: " + message);
+            throw new AssertionError(message);
+        }
+    }
+
+} // Class
@@ -4,11 +4,18 @@
 
 import java.nio.file.Path;
 
+import core.managers.ConflictGraph;
 import core.managers.LockManager;
+import core.objects.ModFile;
+import core.objects.ModManifest;
 import core.utils.DirectoryLocker;
 
 import java.io.IOException;
 import java.nio.file.Files;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * Test DirecotryLocker and LockManager
@@ -53,6 +60,71 @@ public class LocksTest {
         System.out.println("=== All tests passed! ===");
     }
 
+    public static void testWaiting(Path testDir) throws Exception {
+        System.out.println("=== Testing Waiting for Locks ===");
+
+        DirectoryLocker holder = new DirectoryLocker(testDir);
+        holder.acquireLock();
+        Thread releaser = new Thread(() -> {
+            try {
+                Thread.sleep(200);
+            } catch (InterruptedException e) {
+            }
+            holder.releaseLock();
+        });
+        releaser.start();
+
+        System.out.print("Test 1 - Wait for release: ");
+        DirectoryLocker waiter = new DirectoryLocker(testDir);
+        assertTrue(waiter.acquireLock(Duration.ofSeconds(5)), "Should acquire once released");
+        releaser.join();
+
+        System.out.print("Test 2 - Wait times out: ");
+        assertFalse(new DirectoryLocker(testDir).acquireLock(Duration.ofMillis(100)),
+                "Should fail while still held");
+
+        waiter.releaseLock();
+        System.out.println("=== Waiting tests passed! ===");
+    }
+
+    public static void testSharedLocks(Path testDir) throws Exception {
+        System.out.println("=== Testing Shared Locks ===");
+        final String name = ".commit.lock";
+
+        System.out.print("Test 1 - Two readers: ");
+        DirectoryLocker reader1 = new DirectoryLocker(testDir, name, DirectoryLocker.Mode.SHARED);
+        DirectoryLocker reader2 = new DirectoryLocker(testDir, name, DirectoryLocker.Mode.SHARED);
+        assertTrue(reader1.acquireLock() && reader2.acquireLock(), "Should both acquire");
+
+        System.out.print("Test 2 - Writer blocked by readers: ");
+        DirectoryLocker writer = new DirectoryLocker(testDir, name, DirectoryLocker.Mode.EXCLUSIVE);
+        assertFalse(writer.acquireLock(Duration.ofMillis(100)), "Should fail while read");
+
+        System.out.print("Test 3 - Writer after readers: ");
+        reader1.releaseLock();
+        reader2.releaseLock();
+        assertTrue(writer.acquireLock(), "Should acquire once unread");
+
+        System.out.print("Test 4 - Reader blocked by writer: ");
+        AtomicBoolean blocked = new AtomicBoolean(false);
+        Thread other = new Thread(() -> {
+            DirectoryLocker reader = new DirectoryLocker(testDir, name, DirectoryLocker.Mode.SHARED);
+            blocked.set(!reader.acquireLock(Duration.ofMillis(100)));
+            reader.releaseLock();
+        });
+        other.start();
+        other.join();
+        assertTrue(blocked.get(), "Should fail while written");
+
+        System.out.print("Test 5 - Writer reading: ");
+        assertTrue(reader1.acquireLock(), "Should read under own write lock");
+        reader1.releaseLock();
+        writer.releaseLock();
+        Files.deleteIfExists(testDir.resolve(name));
+
+        System.out.println("=== Shared lock tests passed! ===");
+    }
+
     public static void testLockManager(Path testDir) throws Exception {
         System.out.println("=== Testing LockManager ===");
 
@@ -69,14 +141,74 @@ public class LocksTest {
         assertFalse(LockManager.lockGame("test-game", testDir),
                 "Should fail duplicate lock");
 
-        System.out.print("Test 4 - Unlock: ");
+        System.out.print("Test 4 - Unlock by another thread refused: ");
+        Thread stranger = new Thread(() -> LockManager.unlockGame("test-game"));
+        stranger.start();
+        stranger.join();
+        assertTrue(LockManager.isLocked("game:test-game"), "Should stay locked by its owner");
+
+        System.out.print("Test 5 - Unlock: ");
         LockManager.unlockGame("test-game");
         assertFalse(LockManager.isLocked("game:test-game"),
                 "Should not be locked after unlock");
 
+        System.out.print("Test 6 - Store locked again by its holder: ");
+        assertTrue(LockManager.lockStore(testDir) && LockManager.lockStore(testDir),
+                "Should lock the store twice");
+
+        System.out.print("Test 7 - Store held until unlocked as often: ");
+        AtomicBoolean free = new AtomicBoolean(true);
+        Thread other = new Thread(() -> free.set(LockManager.lockStore(testDir, Duration.ZERO)));
+        LockManager.unlockStore(testDir);
+        other.start();
+        other.join();
+        assertFalse(free.get(), "Should still be held after one unlock");
+        LockManager.unlockStore(testDir);
+        other = new Thread(() -> {
+            free.set(LockManager.lockStore(testDir, Duration.ZERO));
+            LockManager.unlockStore(testDir);
+        });
+        other.start();
+        other.join();
+        assertTrue(free.get(), "Should be free after both unlocks");
+        Files.deleteIfExists(testDir.resolve(LockManager.STORE_LOCK));
+
         System.out.println("=== LockManager tests passed! ===");
     }
 
+    public static void testConflicts(Path testDir) throws Exception {
+        System.out.println("=== Testing Conflicting Mods ===");
+        ModManifest a = manifest("data/a.txt");
+        ModManifest b = manifest("data/b.txt");
+        ModManifest upper = manifest("Data/A.txt");
+        ModManifest dir = manifest("data");
+
+        System.out.print("Test 1 - Separate files side by side: ");
+        ConflictGraph graph = ConflictGraph.of(List.of(a, b), testDir);
+        assertTrue(graph.getConflicts(1).isEmpty() && graph.getDepth() == 1, "Should not conflict");
+
+        System.out.print("Test 2 - File in a directory that is a file: ");
+        graph = ConflictGraph.of(List.of(a, b, dir), testDir);
+        assertTrue(graph.getConflicts(2).equals(Set.of(0, 1)), "Should wait for both");
+
+        System.out.print("Test 3 - Names differing in case as the directory resolves them: ");
+        graph = ConflictGraph.of(List.of(a, upper), testDir);
+        Files.createFile(testDir.resolve("case_probe"));
+        boolean ignoresCase = Files.exists(testDir.resolve("CASE_PROBE"));
+        Files.delete(testDir.resolve("case_probe"));
+        assertTrue(graph.getConflicts(1).equals(ignoresCase ? Set.of(0) : Set.of()),
+                "Should conflict only where case is ignored");
+
+        System.out.println("=== Conflict tests passed! ===");
+    }
+
+    private static ModManifest manifest(String... files) {
+        ModManifest manifest = new ModManifest();
+        for (String file : files)
+            manifest.addFile(new ModFile(Path.of(file), "0", 0));
+        return manifest;
+    }
+
     private static void assertTrue(boolean condition, String message) {
         if (condition) {
             System.out.println("✓ PASS: " + message);
@@ -104,7 +236,10 @@ public class LocksTest {
             }
 
             testCrossProcessLocking(testDir);
+            testWaiting(testDir);
+            testSharedLocks(testDir);
             testLockManager(testDir);
+            testConflicts(testDir);
 
             // Cleanup
             Files.deleteIfExists(testDir.resolve(".lock"));
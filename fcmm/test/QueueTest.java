@@ -0,0 +1,172 @@
+/**
+ * Author Stephanos B
+ * Date 19/10/2026
+ */
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import core.managers.GameQueue;
+import core.objects.Game;
+import core.utils.CancelToken;
+import core.utils.FileUtil;
+
+/**
+ * Tests the per-Game command queue: what its futures complete with when
+ * commands, or the queue itself, fail, and cancelling what was queued.
+ *
+ * @since v4.0.5
+ */
+public class QueueTest {
+
+    private static final Path root = Path.of("test_queue_fs").toAbsolutePath();
+
+    public static void testFailures() throws Exception {
+        System.out.println("=== Testing Queue Failures ===");
+        GameQueue queue = GameQueue.of(newGame("failures"));
+
+        System.out.print("Test 1 - Failing command fails alone: ");
+        CountDownLatch release = new CountDownLatch(1);
+        queue.submit(m -> release.await(5, TimeUnit.SECONDS)); // hold the thread so the rest run together
+        CompletableFuture<String> before = queue.submit(m -> "before");
+        CompletableFuture<String> failing = queue.submit(m -> {
+            throw new IOException("Command failed");
+        });
+        CompletableFuture<String> after = queue.submit(m -> "after");
+        release.countDown();
+        assertTrue(get(before).equals("before") && get(after).equals("after")
+                && cause(failing) instanceof IOException, "Should fail only the command that threw");
+
+        System.out.print("Test 2 - Dying thread fails its whole run: ");
+        CountDownLatch hold = new CountDownLatch(1);
+        queue.submit(m -> hold.await(5, TimeUnit.SECONDS));
+        CompletableFuture<String> ran = queue.submit(m -> "ran");
+        CompletableFuture<String> dying = queue.submit(m -> {
+            throw new Error("Queue thread died");
+        });
+        hold.countDown();
+        assertTrue(cause(ran) instanceof Error && cause(dying) instanceof Error,
+                "Should fail every future of the run");
+
+        System.out.print("Test 3 - Queue runs again after: ");
+        assertTrue(get(queue.submit(m -> "again")).equals("again"), "Should start a new thread");
+
+        System.out.println("=== Queue failure tests passed! ===");
+    }
+
+    public static void testCancelling() throws Exception {
+        System.out.println("=== Testing Cancelling ===");
+        CancelToken token = new CancelToken();
+
+        System.out.print("Test 1 - Checkpoint stops once cancelled: ");
+        final CancelToken.Scope bound = CancelToken.bind(token);
+        boolean stopped = false;
+        try {
+            CancelToken.checkpoint(); // not yet
+            token.cancel();
+            CancelToken.checkpoint();
+        } catch (CancellationException e) {
+            stopped = true;
+        } finally {
+            bound.close();
+        }
+        assertTrue(stopped, "Should throw at the checkpoint after cancel");
+
+        System.out.print("Test 2 - Shield lets work finish: ");
+        final CancelToken.Scope outer = CancelToken.bind(token);
+        boolean restored = false;
+        try {
+            final CancelToken.Scope whole = CancelToken.shield();
+            try {
+                CancelToken.checkpoint();
+            } finally {
+                whole.close();
+            }
+            CancelToken.checkpoint();
+        } catch (CancellationException e) {
+            restored = true; // the token bound before is checked again
+        } finally {
+            outer.close();
+        }
+        assertTrue(restored && CancelToken.current() == CancelToken.NONE,
+                "Should pass shielded, then stop once the shield closes");
+
+        System.out.print("Test 3 - Command cancelled while queued never runs: ");
+        GameQueue queue = GameQueue.of(newGame("cancelling"));
+        CountDownLatch release = new CountDownLatch(1);
+        queue.submit(m -> release.await(5, TimeUnit.SECONDS));
+        CancelToken queued = new CancelToken();
+        AtomicBoolean ran = new AtomicBoolean(false);
+        final CancelToken.Scope submitting = CancelToken.bind(queued);
+        CompletableFuture<Boolean> command;
+        try {
+            command = queue.submit(m -> {
+                ran.set(true);
+                return true;
+            });
+        } finally {
+            submitting.close();
+        }
+        queued.cancel();
+        release.countDown();
+        assertTrue(cause(command) instanceof CancellationException && !ran.get(),
+                "Should fail with the queueing thread's cancel");
+
+        System.out.println("=== Cancelling tests passed! ===");
+    }
+
+    /// /// /// Helpers /// /// ///
+
+    private static <T> T get(CompletableFuture<T> future) throws Exception {
+        return future.get(10, TimeUnit.SECONDS);
+    }
+
+    /**
+     * @return What the future failed with, or null if it completed.
+     */
+    private static Throwable cause(CompletableFuture<?> future) throws Exception {
+        try {
+            get(future);
+            return null;
+        } catch (ExecutionException e) {
+            return e.getCause();
+        } catch (CancellationException e) {
+            return e; // not wrapped
+        }
+    }
+
+    private static Game newGame(String name) throws IOException {
+        Path dir = root.resolve(name);
+        Files.createDirectories(dir.resolve("game"));
+        Files.createDirectories(dir.resolve("store"));
+        return new Game("test_" + name, "1", "Test " + name, dir.resolve("game"), dir.resolve("store"));
+    }
+
+    private static void assertTrue(boolean condition, String message) {
+        if (condition) {
+            System.out.println("✓ PASS: " + message);
+        } else {
+            System.out.println("✗ FAIL: " + message);
+            throw new AssertionError(message);
+        }
+    }
+
+    public static void main(String[] args) {
+        try {
+            FileUtil.deleteDirectory(root);
+            testFailures();
+            testCancelling();
+            FileUtil.deleteDirectory(root);
+        } catch (Exception e) {
+            e.printStackTrace();
+            System.exit(1);
+        }
+    }
+} // Class
@@ -0,0 +1,314 @@
+/**
+ * Author Stephanos B
+ * Date 19/10/2026
+ */
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+
+import core.io.JsonIO;
+import core.managers.LockManager;
+import core.managers.ModManager;
+import core.managers.StorageCollector;
+import core.objects.Game;
+import core.objects.ModManifest;
+import core.storage.BlobStore;
+import core.storage.TrashRefs;
+import core.utils.FileUtil;
+import core.utils.TrashIndex;
+
+/**
+ * Tests what keeps stored Mods from being lost: blob reference counts, the
+ * StorageCollector and the trash's references into storage.
+ *
+ * @since v4.0.5
+ */
+public class StorageTest {
+
+    private static final Path root = Path.of("test_storage_fs").toAbsolutePath();
+
+    public static void testSupersededCollected() throws Exception {
+        System.out.println("=== Testing Collecting Superseded Versions ===");
+        Game game = newGame("gc");
+        ModManager manager = new ModManager(game);
+        Path src = root.resolve("gc_src");
+        write(src.resolve("d/a.txt"), "a");
+        write(src.resolve("d/b.txt"), "b");
+        ModManifest v1 = manager.compileMod(src, meta("Delta", "1.0"));
+        write(src.resolve("d/b.txt"), "b v2");
+        manager.updateMod(v1.getId(), src, meta("Delta", "2.0"));
+        ModManifest v2 = manager.getModManifestById(manager.getAllMods().getFirst().getId());
+
+        System.out.print("Test 1 - Base kept while its newer version reads from it: ");
+        collect(game);
+        assertTrue(Files.exists(game.getStoreDirectory().resolve(v1.getId())), "Should keep the base");
+
+        FileUtil.deleteDirectory(game.getStoreDirectory().resolve(v2.getId())); // stranded
+
+        System.out.print("Test 2 - Busy store left alone: ");
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(1);
+        Thread holder = new Thread(() -> {
+            LockManager.lockStore(game.getStoreDirectory());
+            locked.countDown();
+            try {
+                done.await();
+            } catch (InterruptedException e) {
+            }
+            LockManager.unlockStore(game.getStoreDirectory());
+        });
+        holder.start();
+        locked.await();
+        StorageCollector.Report report = collect(game);
+        done.countDown();
+        holder.join();
+        assertTrue(report.getSkipped() > 0 && Files.exists(game.getStoreDirectory().resolve(v1.getId())),
+                "Should skip the store while it is locked");
+
+        System.out.print("Test 3 - Stranded base collected: ");
+        collect(game);
+        assertFalse(Files.exists(game.getStoreDirectory().resolve(v1.getId())), "Should remove the base");
+
+        System.out.println("=== Collecting tests passed! ===");
+    }
+
+    public static void testBlobRefs() throws Exception {
+        System.out.println("=== Testing Blob Reference Counts ===");
+        Path storeDir = root.resolve("blobs");
+        BlobStore blobs = BlobStore.of(storeDir);
+        Path refsFile = blobs.getRoot().resolve(BlobStore.REFS_FILE);
+        final String hash = "abc123";
+
+        System.out.print("Test 1 - Counts saved: ");
+        Path file = root.resolve("blob_src.txt");
+        write(file, "blob");
+        blobs.add(hash, file);
+        blobs.save();
+        assertTrue(JsonIO.readHashMap(refsFile.toFile()).get(hash).toString().equals("1"), "Should save one reference");
+
+        System.out.print("Test 2 - Read again once saved elsewhere: ");
+        saveElsewhere(refsFile, Map.of(hash, 2L, "def456", 1L));
+        assertTrue(blobs.refCount(hash) == 2, "Should see the other process' count");
+
+        System.out.print("Test 3 - Changes added to what is on disk: ");
+        blobs.retain(hash);
+        saveElsewhere(refsFile, Map.of(hash, 3L, "def456", 1L));
+        blobs.save();
+        Map<String, Object> saved = JsonIO.readHashMap(refsFile.toFile());
+        assertTrue(saved.get(hash).toString().equals("4") && saved.get("def456").toString().equals("1"),
+                "Should keep both processes' references");
+
+        System.out.print("Test 4 - Unreadable counts refused: ");
+        Files.writeString(refsFile, "{ not json");
+        Files.setLastModifiedTime(refsFile, FileTime.fromMillis(System.currentTimeMillis() + 2000));
+        write(file, "other blob");
+        boolean refused = false;
+        try {
+            blobs.add("fed987", file);
+        } catch (IOException e) {
+            refused = true;
+        }
+        assertTrue(refused && Files.exists(file) && !blobs.contains("fed987"), "Should refuse and keep the file");
+
+        System.out.println("=== Blob reference tests passed! ===");
+    }
+
+    public static void testTrashRefs() throws Exception {
+        System.out.println("=== Testing Trash References ===");
+        Game game = newGame("refs");
+        ModManager manager = new ModManager(game);
+        Path src = root.resolve("refs_src");
+        write(src.resolve("d/kept.txt"), "kept");
+        write(src.resolve("d/edited.txt"), "original");
+        ModManifest mod = manager.compileMod(src, meta("Refs", "1.0"));
+        manager.deployMod(manager.getModManifestById(mod.getId()));
+        Files.writeString(game.getInstallDirectory().resolve("d/edited.txt"), "ORIGINAL"); // same size
+        new ModManager(game).disableMod(mod.getId());
+
+        TrashIndex index = TrashIndex.get();
+        Path entryDir = null;
+        TrashIndex.Entry entry = null;
+        for (TrashIndex.Entry e : index.list()) {
+            if (e.getPath().startsWith(mod.getId())) {
+                entry = e;
+                entryDir = index.resolve(e);
+            }
+        }
+        List<TrashRefs.Ref> refs = TrashRefs.read(entryDir);
+
+        System.out.print("Test 1 - Unchanged file referenced: ");
+        assertTrue(refs.stream().anyMatch(r -> r.getFilePath().equals(Path.of("d/kept.txt"))),
+                "Should reference the stored copy");
+
+        System.out.print("Test 2 - File edited in place kept whole: ");
+        assertTrue(refs.stream().noneMatch(r -> r.getFilePath().equals(Path.of("d/edited.txt")))
+                && Files.readString(entryDir.resolve("d/edited.txt")).equals("ORIGINAL"),
+                "Should trash the edited file, not a reference");
+
+        System.out.print("Test 3 - Changed cached copy not released: ");
+        Path cached = entryDir.resolve("d/kept.txt");
+        Files.writeString(cached, "KEPT");
+        Files.setLastModifiedTime(cached, FileTime.fromMillis(entry.getTrashedAt() - 1000));
+        TrashRefs.releaseCached(Duration.ZERO);
+        assertTrue(Files.exists(cached), "Should keep a copy that no longer hashes the same");
+
+        System.out.print("Test 4 - Cached copy released: ");
+        Files.writeString(cached, "kept");
+        Files.setLastModifiedTime(cached, FileTime.fromMillis(entry.getTrashedAt() - 1000));
+        TrashRefs.releaseCached(Duration.ZERO);
+        assertFalse(Files.exists(cached), "Should delete the cached copy");
+
+        System.out.print("Test 5 - Released file copied back before the Mod is deleted: ");
+        new ModManager(game).deleteMod(mod.getId());
+        assertTrue(Files.readString(cached).equals("kept"), "Should copy the file into the trash");
+
+        System.out.println("=== Trash reference tests passed! ===");
+    }
+
+    public static void testInPlaceEdit() throws Exception {
+        System.out.println("=== Testing Trash References Through In-Place Edits ===");
+        Game game = newGame("inplace");
+        ModManager manager = new ModManager(game);
+        Path src = root.resolve("inplace_src");
+        write(src.resolve("d/edit.txt"), "original");
+        ModManifest mod = manager.compileMod(src, meta("InPlace", "1.0"));
+        manager.deployMod(manager.getModManifestById(mod.getId()));
+        new ModManager(game).disableMod(mod.getId());
+
+        Path entryDir = null;
+        for (TrashIndex.Entry e : TrashIndex.get().list())
+            if (e.getPath().startsWith(mod.getId()))
+                entryDir = TrashIndex.get().resolve(e);
+        Path cached = entryDir.resolve("d/edit.txt");
+        Files.writeString(game.getStoreDirectory().resolve(mod.getId()).resolve("d/edit.txt"), "edited!!");
+
+        System.out.print("Test 1 - Cached copy kept once its stored file is edited: ");
+        TrashRefs.releaseCached(Duration.ZERO);
+        assertTrue(Files.readString(cached).equals("original"), "Should keep the only copy of the original");
+
+        System.out.print("Test 2 - Reference resolved before updating in place: ");
+        new ModManager(game).updateMod(mod.getId(), null, meta("InPlace", "1.0"));
+        assertTrue(TrashRefs.read(entryDir).isEmpty() && Files.readString(cached).equals("original"),
+                "Should keep the original in the trash, not the edit");
+
+        System.out.println("=== In-place edit tests passed! ===");
+    }
+
+    public static void testTrashReserved() throws Exception {
+        System.out.println("=== Testing Reserved Trash Paths ===");
+        TrashIndex index = TrashIndex.get();
+
+        System.out.print("Test 1 - Reserved path covered until added: ");
+        Path reserved = index.reserve("reserved__20260101_000000/mod");
+        Files.createDirectories(reserved);
+        assertTrue(index.covers(reserved) && index.covers(reserved.getParent()),
+                "Should cover the reserved path and its folder");
+
+        System.out.print("Test 2 - Covered as an entry once added: ");
+        write(reserved.resolve("file.txt"), "trashed");
+        index.add(reserved);
+        assertTrue(index.covers(reserved.getParent()), "Should still cover the folder");
+
+        System.out.println("=== Reserved trash tests passed! ===");
+    }
+
+    public static void testTrashCompact() throws Exception {
+        System.out.println("=== Testing Trash Index Compaction ===");
+        Path trash = root.resolve("compact_trash");
+        TrashIndex index = TrashIndex.of(trash);
+        Path own = index.reserve("own__20260101_000000");
+        write(own.resolve("a.txt"), "a");
+        index.add(own);
+
+        write(trash.resolve("other__20260101_000000/b.txt"), "b"); // trashed by another process
+        Files.writeString(trash.resolve(TrashIndex.FILE_NAME), "+\t1\t1\t1\tother__20260101_000000"
+                + System.lineSeparator(), StandardOpenOption.APPEND);
+
+        System.out.print("Test 1 - Lines of other processes read without compacting: ");
+        assertTrue(index.size() == 2 && index.getTotalBytes() == 2, "Should count the other process' entry");
+
+        System.out.print("Test 2 - Lines of other processes kept: ");
+        Path churn = trash.resolve("churn");
+        Files.createDirectories(churn);
+        for (int i = 0; i < 600; i++) { // enough removals to compact
+            index.add(churn);
+            index.remove(churn);
+        }
+        String log = Files.readString(trash.resolve(TrashIndex.FILE_NAME));
+        assertTrue(log.lines().count() < 1000 && log.contains("other__20260101_000000") && log.contains("own__"),
+                "Should compact without dropping the other process' entry");
+
+        System.out.print("Test 3 - Lock released: ");
+        assertFalse(Files.exists(trash.resolve(TrashIndex.LOCK_NAME)), "Should leave no lock file");
+
+        System.out.println("=== Compaction tests passed! ===");
+    }
+
+    /// /// /// Helpers /// /// ///
+
+    /**
+     * Writes reference counts as another process would, with a later modified
+     * time so the change is seen.
+     */
+    private static void saveElsewhere(Path refsFile, Map<String, Long> counts) throws Exception {
+        JsonIO.writeHashMap(refsFile.toFile(), new HashMap<>(counts));
+        Files.setLastModifiedTime(refsFile, FileTime.fromMillis(System.currentTimeMillis() + 1000));
+    }
+
+    private static Game newGame(String name) throws IOException {
+        Path dir = root.resolve(name);
+        Files.createDirectories(dir.resolve("game"));
+        Files.createDirectories(dir.resolve("store"));
+        return new Game("test_" + name, "1", "Test " + name, dir.resolve("game"), dir.resolve("store"));
+    }
+
+    private static StorageCollector.Report collect(Game game) {
+        return new StorageCollector().setMinAge(Duration.ZERO).setThrottle(100, 0).collect(List.of(game));
+    }
+
+    private static Map<String, Object> meta(String name, String version) {
+        return new HashMap<>(Map.of("name", name, "version", version, "loadOrder", "1"));
+    }
+
+    private static void write(Path file, String text) throws IOException {
+        Files.createDirectories(file.getParent());
+        Files.writeString(file, text);
+    }
+
+    private static void assertTrue(boolean condition, String message) {
+        if (condition) {
+            System.out.println("✓ PASS: " + message);
+        } else {
+            System.out.println("✗ FAIL: " + message);
+            throw new AssertionError(message);
+        }
+    }
+
+    private static void assertFalse(boolean condition, String message) {
+        assertTrue(!condition, message);
+    }
+
+    public static void main(String[] args) {
+        try {
+            FileUtil.deleteDirectory(root);
+            testBlobRefs();
+            testSupersededCollected();
+            testTrashRefs();
+            testInPlaceEdit();
+            testTrashReserved();
+            testTrashCompact();
+            FileUtil.deleteDirectory(root);
+        } catch (Exception e) {
+            e.printStackTrace();
+            System.exit(1);
+        }
+    }
+} // Class